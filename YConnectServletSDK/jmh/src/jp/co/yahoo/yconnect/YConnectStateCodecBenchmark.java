@@ -0,0 +1,223 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenDecoder;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenObject;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoObject;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoParser;
+import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * セッションに保持する状態の変換のベンチマーク
+ *
+ * <p>ログイン後のセッションが保持するBearerToken、IdTokenObject、UserInfoObjectを、次の3つの形式で変換する。
+ *
+ * <ul>
+ *   <li>binary: {@link YConnectStateCodec}
+ *   <li>javaSerialization: トークンとIDトークンの文字列、UserInfoObjectを保持するMapのJavaシリアライズ。
+ *       IdTokenObjectはシリアライズできないため、復元時にIDトークンをデコードする
+ *   <li>json: トークンレスポンスとUserInfoレスポンスのJSON。 復元時にIDトークンのデコードとJSONの解析を行う
+ * </ul>
+ *
+ * <p>encodeとdecodeのスループットでレプリケーション時のCPU負荷を、gcプロファイラのgc.alloc.rate.normで
+ * アロケーション量を比較する。 各形式のバイト数の比較はYConnectStateCodecTestで確認する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class YConnectStateCodecBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final long ISSUED_AT = 1410437540L;
+
+    private static final String USER_INFO_JSON =
+            "{\"sub\":\"FQFSO6ZOCJ3OLBMXFSP5ANI7QQ\","
+                    + "\"name\":\"矢風太郎\","
+                    + "\"given_name\":\"太郎\","
+                    + "\"family_name\":\"矢風\","
+                    + "\"zoneinfo\":\"Asia/Tokyo\","
+                    + "\"locale\":\"ja-JP\","
+                    + "\"birthdate\":\"2000\","
+                    + "\"email\":\"your_email@example.com\","
+                    + "\"email_verified\":true,"
+                    + "\"address\":{"
+                    + "\"country\":\"jp\","
+                    + "\"postal_code\":\"1028282\","
+                    + "\"region\":\"東京都\"}}";
+
+    private BearerToken bearerToken;
+
+    private String idTokenString;
+
+    private IdTokenObject idTokenObject;
+
+    private UserInfoObject userInfoObject;
+
+    private byte[][] binary;
+
+    private byte[] javaSerialization;
+
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        bearerToken =
+                new BearerToken(
+                        "ACCESS_TOKEN_VALUE",
+                        3600,
+                        "REFRESH_TOKEN_VALUE",
+                        "openid profile email address",
+                        ISSUED_AT * 1000);
+        idTokenString = newIdTokenString();
+        idTokenObject = new IdTokenDecoder(idTokenString).decode();
+        userInfoObject = UserInfoParser.parse(new StringReader(USER_INFO_JSON));
+
+        binary = encodeBinary();
+        javaSerialization = encodeJavaSerialization();
+        json = encodeJson();
+    }
+
+    @Benchmark
+    public byte[][] encodeBinary() {
+        return new byte[][] {
+            YConnectStateCodec.encode(bearerToken),
+            YConnectStateCodec.encode(idTokenObject),
+            YConnectStateCodec.encode(userInfoObject)
+        };
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole bh) throws Exception {
+        bh.consume(YConnectStateCodec.decodeBearerToken(binary[0]));
+        bh.consume(YConnectStateCodec.decodeIdTokenObject(binary[1]));
+        bh.consume(YConnectStateCodec.decodeUserInfoObject(binary[2]));
+    }
+
+    @Benchmark
+    public byte[] encodeJavaSerialization() throws IOException {
+        Map<String, Object> session = new LinkedHashMap<String, Object>();
+        session.put("access_token", bearerToken.getAccessToken());
+        session.put("refresh_token", bearerToken.getRefreshToken());
+        session.put("scope", bearerToken.getScope());
+        session.put("expires_in", bearerToken.getExpiration());
+        session.put("issued_at", bearerToken.getIssuedAt());
+        session.put("id_token", idTokenString);
+        session.put("user_info", userInfoObject);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(session);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public void decodeJavaSerialization(Blackhole bh) throws Exception {
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(javaSerialization));
+        Map<String, Object> session = (Map<String, Object>) in.readObject();
+        in.close();
+
+        bh.consume(
+                new BearerToken(
+                        (String) session.get("access_token"),
+                        (Long) session.get("expires_in"),
+                        (String) session.get("refresh_token"),
+                        (String) session.get("scope"),
+                        (Long) session.get("issued_at")));
+        bh.consume(new IdTokenDecoder((String) session.get("id_token")).decode());
+        bh.consume(session.get("user_info"));
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        // UserInfoはレスポンスのJSONをそのまま保持する
+        String session =
+                Json.createObjectBuilder()
+                        .add("access_token", bearerToken.getAccessToken())
+                        .add("refresh_token", bearerToken.getRefreshToken())
+                        .add("scope", bearerToken.getScope())
+                        .add("expires_in", bearerToken.getExpiration())
+                        .add("issued_at", bearerToken.getIssuedAt())
+                        .add("id_token", idTokenString)
+                        .add("user_info", USER_INFO_JSON)
+                        .build()
+                        .toString();
+        return session.getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole bh) throws Exception {
+        JsonReader reader = Json.createReader(new StringReader(new String(json, UTF_8)));
+        JsonObject session = reader.readObject();
+        reader.close();
+
+        bh.consume(
+                new BearerToken(
+                        session.getString("access_token"),
+                        session.getJsonNumber("expires_in").longValue(),
+                        session.getString("refresh_token"),
+                        session.getString("scope"),
+                        session.getJsonNumber("issued_at").longValue()));
+        bh.consume(new IdTokenDecoder(session.getString("id_token")).decode());
+        bh.consume(UserInfoParser.parse(new StringReader(session.getString("user_info"))));
+    }
+
+    private static String newIdTokenString() throws Exception {
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.setKid("0cc175b9c0f1b6a831c399e269772661");
+        idTokenObject.setIss("https://auth.login.yahoo.co.jp/yconnect/v2");
+        idTokenObject.setSub("USER_PPID");
+        idTokenObject.setAud(new ArrayList<String>(Collections.singletonList("APPLICATION_ID")));
+        idTokenObject.setNonce("abcdefg");
+        idTokenObject.setAtHash("at_hash_value");
+        idTokenObject.setExp(ISSUED_AT + 3600);
+        idTokenObject.setIat(ISSUED_AT);
+        idTokenObject.setAuthTime(ISSUED_AT);
+        return new IdTokenGenerator(idTokenObject).getIdTokenString();
+    }
+}
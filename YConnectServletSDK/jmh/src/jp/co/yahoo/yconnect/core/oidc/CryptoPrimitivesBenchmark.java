@@ -0,0 +1,96 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.concurrent.TimeUnit;
+import jp.co.yahoo.yconnect.core.util.CryptoPrimitives;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * IDトークン1件あたりの暗号処理のベンチマーク
+ *
+ * <p>at_hashの計算とRSA署名の検証を、呼び出しごとに{@link Signature}と{@link java.security.MessageDigest}
+ * を生成していた実装(legacy)と、{@link CryptoPrimitives}でスレッドごとに再利用する実装で比較する。
+ * ハッシュ単体のコストはRSA署名の検証に埋もれるため、個別にも計測する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CryptoPrimitivesBenchmark {
+
+    private PublicKey publicKey;
+
+    private byte[] signingInput;
+
+    private byte[] signature;
+
+    @Setup
+    public void setup() throws Exception {
+        IdTokenFixture fixture = new IdTokenFixture();
+        ParsedJWT parsedJWT = ParsedJWT.parse(fixture.idTokenString);
+        publicKey = fixture.publicKey;
+        signingInput = parsedJWT.getSigningInput();
+        signature = parsedJWT.getSignature();
+
+        if (!CryptoPrimitives.verifySha256WithRsa(publicKey, signingInput, signature)) {
+            throw new IllegalStateException("fixture does not pass verification");
+        }
+    }
+
+    @Benchmark
+    public byte[] sha256Legacy() {
+        return DigestUtils.sha256(IdTokenFixture.ACCESS_TOKEN.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] sha256() {
+        return CryptoPrimitives.sha256(IdTokenFixture.ACCESS_TOKEN);
+    }
+
+    @Benchmark
+    public boolean tokenLegacy(Blackhole bh) throws Exception {
+        bh.consume(
+                DigestUtils.sha256(IdTokenFixture.ACCESS_TOKEN.getBytes(StandardCharsets.UTF_8)));
+
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(publicKey);
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+
+    @Benchmark
+    public boolean token(Blackhole bh) throws Exception {
+        bh.consume(CryptoPrimitives.sha256(IdTokenFixture.ACCESS_TOKEN));
+
+        return CryptoPrimitives.verifySha256WithRsa(publicKey, signingInput, signature);
+    }
+}
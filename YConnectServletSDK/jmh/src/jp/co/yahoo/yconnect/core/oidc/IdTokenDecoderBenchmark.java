@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * IdTokenDecoderのベンチマーク
+ *
+ * <p>legacyDecodeは{@link javax.json.stream.JsonParser}導入前の処理(headerとpayloadを文字列に変換し、
+ * JsonObjectのツリーを構築してからクレームを取り出す)を再現したもの。 gcプロファイラのgc.alloc.rate.norm
+ * で1回あたりのアロケーション量を比較する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdTokenDecoderBenchmark {
+
+    private String idTokenString;
+
+    private ParsedJWT parsedJWT;
+
+    @Setup
+    public void setup() throws Exception {
+        idTokenString = new IdTokenFixture().idTokenString;
+        parsedJWT = ParsedJWT.parse(idTokenString);
+    }
+
+    @Benchmark
+    public IdTokenObject decode() throws Exception {
+        return new IdTokenDecoder(idTokenString).decode();
+    }
+
+    @Benchmark
+    public IdTokenObject decodeParsed() throws Exception {
+        return IdTokenDecoder.of(parsedJWT).decode();
+    }
+
+    @Benchmark
+    public IdTokenObject legacyDecode() throws Exception {
+        JsonReader headerReader =
+                Json.createReader(new StringReader(parsedJWT.getHeaderJson()));
+        JsonObject header = headerReader.readObject();
+        headerReader.close();
+
+        JsonReader payloadReader =
+                Json.createReader(new StringReader(parsedJWT.getPayloadJson()));
+        JsonObject payload = payloadReader.readObject();
+        payloadReader.close();
+
+        ArrayList<String> aud = new ArrayList<String>();
+        for (JsonValue value : payload.getJsonArray("aud")) {
+            aud.add(((JsonString) value).getString());
+        }
+        return new IdTokenObject(
+                header.getString("typ"),
+                header.getString("alg"),
+                header.getString("kid"),
+                payload.getString("iss"),
+                payload.getString("sub"),
+                payload.containsKey("ppid_sub") ? payload.getString("ppid_sub") : null,
+                aud,
+                payload.getString("nonce"),
+                payload.containsKey("at_hash") ? payload.getString("at_hash") : null,
+                payload.getJsonNumber("exp").intValue(),
+                payload.getJsonNumber("iat").intValue(),
+                payload.getJsonNumber("auth_time").longValue(),
+                parsedJWT.getEncodedSignature());
+    }
+}
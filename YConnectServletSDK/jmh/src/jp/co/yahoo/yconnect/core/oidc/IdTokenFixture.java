@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * ベンチマーク用のIDトークンと公開鍵
+ *
+ * <p>{@link IdTokenGenerator} でRS256署名されたトークンを生成し、{@link IdTokenVerification#check}
+ * の全検証項目を通過するクレームを設定する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+final class IdTokenFixture {
+
+    static final String ISSUER = "https://auth.login.yahoo.co.jp/yconnect/v2";
+
+    static final String CLIENT_ID = "APPLICATION_ID";
+
+    static final String NONCE = "abcdefg";
+
+    static final String KID = "0cc175b9c0f1b6a831c399e269772661";
+
+    static final String ACCESS_TOKEN = "ACCESS_TOKEN_VALUE";
+
+    /** 発行時刻。{@link IdTokenVerification#getCurrentTime()} もこの値に固定する。 */
+    static final long ISSUED_AT = 1410437540L;
+
+    final String idTokenString;
+
+    final PublicKey publicKey;
+
+    final String publicKeyPem;
+
+    IdTokenFixture() throws Exception {
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.setKid(KID);
+        idTokenObject.setIss(ISSUER);
+        idTokenObject.setSub("USER_PPID");
+        idTokenObject.setAud(new ArrayList<String>(Collections.singletonList(CLIENT_ID)));
+        idTokenObject.setNonce(NONCE);
+        idTokenObject.setAtHash(atHash(ACCESS_TOKEN));
+        idTokenObject.setExp(ISSUED_AT + 3600);
+        idTokenObject.setIat(ISSUED_AT);
+        idTokenObject.setAuthTime(ISSUED_AT);
+
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        idTokenString = generator.getIdTokenString();
+        publicKey = generator.getPublicKey();
+        publicKeyPem =
+                "-----BEGIN PUBLIC KEY-----\n"
+                        + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                                .encodeToString(publicKey.getEncoded())
+                        + "\n-----END PUBLIC KEY-----\n";
+    }
+
+    PublicKeysObject newPublicKeysObject() {
+        PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register(KID, publicKeyPem);
+        return publicKeysObject;
+    }
+
+    static IdTokenVerification newIdTokenVerification() {
+        return new IdTokenVerification() {
+            @Override
+            protected long getCurrentTime() {
+                return ISSUED_AT;
+            }
+        };
+    }
+
+    IdTokenVerifier newIdTokenVerifier() {
+        return new IdTokenVerifier(
+                ISSUER,
+                CLIENT_ID,
+                IdTokenVerifier.DEFAULT_CLOCK_SKEW,
+                Collections.singleton("RS256"),
+                newPublicKeysObject().asPublicKeySource()) {
+            @Override
+            protected long getCurrentTime() {
+                return ISSUED_AT;
+            }
+        };
+    }
+
+    private static String atHash(String accessToken) {
+        byte[] hash = DigestUtils.sha256(accessToken.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(Arrays.copyOfRange(hash, 0, hash.length / 2));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * IdTokenVerification.check()とIdTokenVerifier.verify()のベンチマーク
+ *
+ * <p>デコード済みのIDトークンと公開鍵を用意し、クレームの検証、at_hashの計算、署名検証までを計測する。
+ * IdTokenVerifierは共有インスタンスを使い、リクエストごとに検証クラスを生成しない場合と比較する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IdTokenVerificationBenchmark {
+
+    private String idTokenString;
+
+    private ParsedJWT parsedJWT;
+
+    private IdTokenObject idTokenObject;
+
+    private PublicKeysObject publicKeysObject;
+
+    private IdTokenVerifier idTokenVerifier;
+
+    @Setup
+    public void setup() throws Exception {
+        IdTokenFixture fixture = new IdTokenFixture();
+        idTokenString = fixture.idTokenString;
+        parsedJWT = ParsedJWT.parse(idTokenString);
+        idTokenObject = IdTokenDecoder.of(parsedJWT).decode();
+        publicKeysObject = fixture.newPublicKeysObject();
+        idTokenVerifier = fixture.newIdTokenVerifier();
+
+        if (!checkParsed() || !verify().isValid()) {
+            throw new IllegalStateException("fixture does not pass verification");
+        }
+    }
+
+    @Benchmark
+    public boolean check() {
+        return IdTokenFixture.newIdTokenVerification()
+                .check(
+                        IdTokenFixture.ISSUER,
+                        IdTokenFixture.NONCE,
+                        IdTokenFixture.CLIENT_ID,
+                        idTokenObject,
+                        publicKeysObject,
+                        idTokenString,
+                        IdTokenFixture.ACCESS_TOKEN);
+    }
+
+    @Benchmark
+    public boolean checkParsed() {
+        return IdTokenFixture.newIdTokenVerification()
+                .check(
+                        IdTokenFixture.ISSUER,
+                        IdTokenFixture.NONCE,
+                        IdTokenFixture.CLIENT_ID,
+                        idTokenObject,
+                        publicKeysObject,
+                        parsedJWT,
+                        IdTokenFixture.ACCESS_TOKEN);
+    }
+
+    @Benchmark
+    public IdTokenVerificationResult verify() throws Exception {
+        return idTokenVerifier.verify(
+                parsedJWT, idTokenObject, IdTokenFixture.NONCE, IdTokenFixture.ACCESS_TOKEN);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * JWTVerificationのベンチマーク
+ *
+ * <p>RSA署名検証そのもののコストが支配的なため、文字列からの検証と分割済みトークンからの検証の差が
+ * 前処理のコストとなる。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JWTVerificationBenchmark {
+
+    private String idTokenString;
+
+    private ParsedJWT parsedJWT;
+
+    private PublicKey publicKey;
+
+    @Setup
+    public void setup() throws Exception {
+        IdTokenFixture fixture = new IdTokenFixture();
+        idTokenString = fixture.idTokenString;
+        parsedJWT = ParsedJWT.parse(idTokenString);
+        publicKey = fixture.publicKey;
+    }
+
+    @Benchmark
+    public boolean verifyJWT() throws Exception {
+        return new JWTVerification(publicKey, idTokenString).verifyJWT();
+    }
+
+    @Benchmark
+    public boolean verifyJWTParsed() throws Exception {
+        return JWTVerification.of(publicKey, parsedJWT).verifyJWT();
+    }
+}
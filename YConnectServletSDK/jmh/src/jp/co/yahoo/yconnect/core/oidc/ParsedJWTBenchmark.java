@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.StringReader;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import javax.json.Json;
+import javax.json.JsonReader;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * IDトークンの分割・デコード処理のベンチマーク
+ *
+ * <p>legacy系は {@link ParsedJWT} 導入前の処理(デコードと署名検証でそれぞれ分割・デコードを行う)を
+ * 再現したもの。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParsedJWTBenchmark {
+
+    private String idTokenString;
+
+    private PublicKey publicKey;
+
+    @Setup
+    public void setup() throws Exception {
+        IdTokenFixture fixture = new IdTokenFixture();
+        idTokenString = fixture.idTokenString;
+        publicKey = fixture.publicKey;
+    }
+
+    @Benchmark
+    public void legacySplit(Blackhole bh) throws Exception {
+        HashMap<String, String> idToken = legacySplitIdToken(idTokenString);
+        bh.consume(idToken);
+        bh.consume(legacySigningInput(idTokenString));
+    }
+
+    @Benchmark
+    public ParsedJWT parse() throws Exception {
+        return ParsedJWT.parse(idTokenString);
+    }
+
+    @Benchmark
+    public boolean legacyDecodeAndVerify(Blackhole bh) throws Exception {
+        // YConnectClient.verifyIdToken() でのデコード
+        bh.consume(legacyDecode(idTokenString));
+
+        // JWTVerification.verifyJWT() は内部で再度デコードし、署名対象を再連結していた
+        HashMap<String, String> idToken = legacyDecode(idTokenString);
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(publicKey);
+        verifier.update(legacySigningInput(idTokenString));
+        return verifier.verify(Base64.decodeBase64(idToken.get("signature")));
+    }
+
+    @Benchmark
+    public boolean parsedDecodeAndVerify(Blackhole bh) throws Exception {
+        ParsedJWT parsedJWT = ParsedJWT.parse(idTokenString);
+        bh.consume(IdTokenDecoder.of(parsedJWT).decode());
+        return JWTVerification.of(publicKey, parsedJWT).verifyJWT();
+    }
+
+    private static HashMap<String, String> legacySplitIdToken(String idTokenString)
+            throws DataFormatException {
+        String[] idTokens = idTokenString.split("\\.");
+        if (idTokens.length != 3) {
+            throw new DataFormatException();
+        }
+        HashMap<String, String> idTokenMap = new HashMap<String, String>();
+        idTokenMap.put("header", new String(Base64.decodeBase64(idTokens[0].getBytes())));
+        idTokenMap.put("payload", new String(Base64.decodeBase64(idTokens[1].getBytes())));
+        idTokenMap.put("signature", idTokens[2]);
+        return idTokenMap;
+    }
+
+    private static HashMap<String, String> legacyDecode(String idTokenString)
+            throws DataFormatException {
+        HashMap<String, String> idToken = legacySplitIdToken(idTokenString);
+        JsonReader headerReader = Json.createReader(new StringReader(idToken.get("header")));
+        headerReader.readObject();
+        headerReader.close();
+        JsonReader payloadReader = Json.createReader(new StringReader(idToken.get("payload")));
+        payloadReader.readObject();
+        payloadReader.close();
+        return idToken;
+    }
+
+    private static byte[] legacySigningInput(String idTokenString) throws Exception {
+        String[] idTokenArray = idTokenString.split("\\.");
+        String dataPart = idTokenArray[0] + "." + idTokenArray[1];
+        return dataPart.getBytes("UTF-8");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import jp.co.yahoo.yconnect.core.api.ApiClient;
+import jp.co.yahoo.yconnect.core.http.Deadline;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
+import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * UserInfoClientのレスポンス解析のベンチマーク
+ *
+ * <p>HTTP通信は行わず、固定のレスポンスボディをストリームで返すYHttpClientを差し込んでfetchResource()を計測する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserInfoClientBenchmark {
+
+    private static final String USER_INFO_URL =
+            "https://userinfo.yahooapis.jp/yconnect/v2/attribute";
+
+    private static final String USER_INFO_JSON =
+            "{\"sub\":\"FQFSO6ZOCJ3OLBMXFSP5ANI7QQ\","
+                    + "\"name\":\"矢風太郎\","
+                    + "\"given_name\":\"太郎\","
+                    + "\"given_name#ja-Kana-JP\":\"タロウ\","
+                    + "\"given_name#ja-Hani-JP\":\"太郎\","
+                    + "\"family_name\":\"矢風\","
+                    + "\"family_name#ja-Kana-JP\":\"ヤフウ\","
+                    + "\"family_name#ja-Hani-JP\":\"矢風\","
+                    + "\"gender\":\"male\","
+                    + "\"birthdate\":\"2000\","
+                    + "\"locale\":\"ja-JP\","
+                    + "\"email\":\"your_email@example.com\","
+                    + "\"email_verified\":true,"
+                    + "\"nickname\":\"taro\","
+                    + "\"picture\":\"https://example.com/picture.png\","
+                    + "\"zoneinfo\":\"Asia/Tokyo\","
+                    + "\"address\":{"
+                    + "\"locality\":\"港区\","
+                    + "\"region\":\"東京都\","
+                    + "\"postal_code\":\"1076211\","
+                    + "\"country\":\"jp\","
+                    + "\"formatted\":\"東京都港区\"}}";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private YHttpClient httpClient;
+
+    @Setup
+    public void setup() {
+        final HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.put("Content-Type", "application/json; charset=UTF-8");
+        final byte[] body = USER_INFO_JSON.getBytes(UTF_8);
+        httpClient =
+                new YHttpClient() {
+                    @Override
+                    public <T> YHttpResponse<T> requestGet(
+                            String urlString,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        try {
+                            T result =
+                                    handler.handleResponse(
+                                            200,
+                                            responseHeaders,
+                                            new ByteArrayInputStream(body),
+                                            UTF_8);
+                            return new YHttpResponse<T>(200, "OK", responseHeaders, result);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                };
+    }
+
+    @Benchmark
+    public UserInfoObject fetchResource() throws Exception {
+        UserInfoClient client =
+                new UserInfoClient(IdTokenFixture.ACCESS_TOKEN) {
+                    @Override
+                    protected YHttpClient newHttpClient() {
+                        return httpClient;
+                    }
+                };
+        client.fetchResource(USER_INFO_URL, ApiClient.GET_METHOD);
+        return client.getUserInfoObject();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * UserInfoレスポンスの解析のベンチマーク
+ *
+ * <p>Yahoo! ID連携のUserInfoエンドポイントが返す全属性のレスポンスを、{@link UserInfoParser}と、
+ * JsonObjectのツリーを構築してcontainsKeyで各クレームを取り出していた実装(legacy)で解析する。
+ * gcプロファイラのgc.alloc.rate.normで1回あたりのアロケーション量を比較する。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserInfoParserBenchmark {
+
+    private static final String USER_INFO_JSON =
+            "{\"sub\":\"FQFSO6ZOCJ3OLBMXFSP5ANI7QQ\","
+                    + "\"ppid_sub\":\"IK7YQWZS3EBI3IWPJ2B5MKM5TQ\","
+                    + "\"name\":\"矢風太郎\","
+                    + "\"given_name\":\"太郎\","
+                    + "\"given_name#ja-Kana-JP\":\"タロウ\","
+                    + "\"given_name#ja-Hani-JP\":\"太郎\","
+                    + "\"family_name\":\"矢風\","
+                    + "\"family_name#ja-Kana-JP\":\"ヤフウ\","
+                    + "\"family_name#ja-Hani-JP\":\"矢風\","
+                    + "\"gender\":\"male\","
+                    + "\"zoneinfo\":\"Asia/Tokyo\","
+                    + "\"locale\":\"ja-JP\","
+                    + "\"birthdate\":\"2000\","
+                    + "\"nickname\":\"taro\","
+                    + "\"picture\":\"https://dummy.img.yahoo.co.jp/example.png\","
+                    + "\"email\":\"your_email@example.com\","
+                    + "\"email_verified\":true,"
+                    + "\"address\":{"
+                    + "\"country\":\"jp\","
+                    + "\"postal_code\":\"1028282\","
+                    + "\"region\":\"東京都\","
+                    + "\"locality\":\"千代田区\","
+                    + "\"formatted\":\"東京都千代田区\"}}";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        body = USER_INFO_JSON.getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public UserInfoObject parse() {
+        return UserInfoParser.parse(new ByteArrayInputStream(body), UTF_8);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Benchmark
+    public UserInfoObject legacyParse() {
+        JsonReader reader =
+                Json.createReader(new InputStreamReader(new ByteArrayInputStream(body), UTF_8));
+        JsonObject root = reader.readObject();
+        reader.close();
+
+        UserInfoObject userInfo = new UserInfoObject(root.getString("sub"));
+        String[] names = {
+            "ppid_sub",
+            "locale",
+            "name",
+            "given_name",
+            "given_name#ja-Kana-JP",
+            "given_name#ja-Hani-JP",
+            "family_name",
+            "family_name#ja-Kana-JP",
+            "family_name#ja-Hani-JP",
+            "email",
+            "gender",
+            "zoneinfo",
+            "birthdate",
+            "nickname",
+            "picture"
+        };
+        // 元の実装と同じく、クレームごとにcontainsKeyとgetStringで取り出す
+        for (String name : names) {
+            if (root.containsKey(name)) {
+                userInfo.setName(root.getString(name));
+            }
+        }
+        if (root.containsKey("email_verified")) {
+            userInfo.setEmailVerified(String.valueOf(root.getBoolean("email_verified")));
+        }
+        if (root.containsKey("address")) {
+            JsonObject address = root.getJsonObject("address");
+            userInfo.setAddressCountry(address.getString("country"));
+            userInfo.setAddressPostalCode(address.getString("postal_code"));
+            userInfo.setAddressRegion(address.getString("region"));
+            userInfo.setAddressLocality(address.getString("locality"));
+            userInfo.setAddressFormatted(address.getString("formatted"));
+        }
+        userInfo.setJsonObject(root);
+        return userInfo;
+    }
+}
@@ -26,14 +26,22 @@ package jp.co.yahoo.sample;
 
 import java.io.PrintWriter;
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import jp.co.yahoo.yconnect.AuthorizationResult;
 import jp.co.yahoo.yconnect.YConnectClient;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.oauth2.AuthorizationException;
+import jp.co.yahoo.yconnect.core.oauth2.InMemoryTokenStore;
 import jp.co.yahoo.yconnect.core.oauth2.OAuth2ResponseType;
+import jp.co.yahoo.yconnect.core.oauth2.StoredToken;
 import jp.co.yahoo.yconnect.core.oauth2.TokenException;
+import jp.co.yahoo.yconnect.core.oauth2.TokenRefreshScheduler;
+import jp.co.yahoo.yconnect.core.oauth2.TokenStore;
 import jp.co.yahoo.yconnect.core.oidc.IdTokenObject;
 import jp.co.yahoo.yconnect.core.oidc.OIDCDisplay;
 import jp.co.yahoo.yconnect.core.oidc.OIDCPrompt;
@@ -59,15 +67,32 @@ public class YConnectServlet extends HttpServlet {
     private static final String redirectUri =
             "http://localhost:8080/YConnectServletSDK/YConnectServlet";
 
+    // トークンの保存先
+    // (複数のサーブレットノードで共有する場合はJdbcTokenStoreなどを使用してください)
+    private static final TokenStore tokenStore = new InMemoryTokenStore();
+
+    // アクセストークンを有効期限が切れる前にバックグラウンドで更新する
+    private TokenRefreshScheduler refreshScheduler;
+
     public YConnectServlet() {
         super();
     }
 
-    protected void doGet(HttpServletRequest request, HttpServletResponse response) {
-
+    public void init() throws ServletException {
         // ログ出力レベル設定ファイルが配置されている任意のパスを指定してください
         YConnectLogger.setFilePath("./yconnect_log_conf.xml");
 
+        refreshScheduler =
+                new TokenRefreshScheduler(
+                        tokenStore, YConnectClient.TOKEN_ENDPOINT_URL, clientId, clientSecret);
+    }
+
+    public void destroy() {
+        refreshScheduler.shutdown();
+    }
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+
         response.setContentType("text/html; charset=UTF-8");
 
         // state, nonceにランダムな値を初期化
@@ -79,6 +104,9 @@ public class YConnectServlet extends HttpServlet {
         // YConnectインスタンス生成
         YConnectClient yconnect = new YConnectClient();
 
+        // トークンを保存するキー
+        String tokenKey = request.getSession().getId();
+
         // SSL証明書チェック無効 ※通信テスト用のメソッドなのでサービス時にはコメントアウト推奨
         // YConnectClient.disableSSLCheck();
 
@@ -100,18 +128,27 @@ public class YConnectServlet extends HttpServlet {
                 sb.append("<h1>Authorization Request</h1>");
                 sb.append("Authorization Code: ").append(code).append("<br/><br/>");
 
-                /*=============================================*
-                 * Request Access Token adn Refresh Token.
-                 *=============================================*/
-
-                // Tokenエンドポイントにリクエスト
-                yconnect.requestToken(
-                        code, clientId, clientSecret, redirectUri, plainCodeChallenge);
+                // Token, 公開鍵, UserInfoの各リクエスト全体を10秒以内に完了させる
+                yconnect.setDeadline(Deadline.after(10, TimeUnit.SECONDS));
+
+                /*==========================================================*
+                 * Request Access Token, Verify ID Token and Request UserInfo.
+                 *==========================================================*/
+
+                // Tokenエンドポイントへのリクエスト, IDトークンの検証, UserInfoエンドポイントへのリクエストを
+                // 実行（公開鍵・UserInfoの取得は並行して行われる）
+                AuthorizationResult result =
+                        yconnect.completeAuthorization(
+                                code,
+                                clientId,
+                                clientSecret,
+                                redirectUri,
+                                plainCodeChallenge,
+                                nonce);
                 // アクセストークン, リフレッシュトークン, IDトークンを取得
-                String accessTokenString = yconnect.getAccessToken();
-                long expiration = yconnect.getAccessTokenExpiration();
-                String refreshToken = yconnect.getRefreshToken();
-                String idTokenString = yconnect.getIdToken();
+                String accessTokenString = result.getAccessToken();
+                long expiration = result.getAccessTokenExpiration();
+                String refreshToken = result.getRefreshToken();
 
                 sb.append("<h1>Access Token Request</h1>");
                 sb.append("Access Token: ").append(accessTokenString).append("<br/><br/>");
@@ -122,31 +159,39 @@ public class YConnectServlet extends HttpServlet {
                  * Decode ID Token.
                  *======================*/
 
-                // IDトークンの検証
-                if (yconnect.verifyIdToken(nonce, clientId, idTokenString)) {
-                    // IDトークンの復号
-                    IdTokenObject idTokenObject = yconnect.decodeIdToken(idTokenString);
+                // IDトークンの検証結果
+                if (result.isIdTokenVerified()) {
+                    // 検証済みのIDトークン
+                    IdTokenObject idTokenObject = result.getIdTokenObject();
                     sb.append("<h1>ID Token</h1>");
                     sb.append("ID Token: ").append(idTokenObject.toString()).append("<br/><br/>");
+
+                    // 検証に成功した場合のみトークンを保存
+                    tokenStore.save(tokenKey, new StoredToken(result.getBearerToken()));
+                    refreshScheduler.schedule(tokenKey);
                 } else {
                     // 検証に失敗したのでエラー文を出力
                     sb.append("<h1>ID Token</h1>");
                     sb.append("ID Token error: ")
-                            .append(yconnect.getIdTokenErrorMessage())
+                            .append(result.getIdTokenErrorMessage())
                             .append("<br/><br/>");
                     sb.append("ID Token error description: ")
-                            .append(yconnect.getIdTokenErrorDescriptionMessage())
+                            .append(result.getIdTokenErrorDescriptionMessage())
                             .append("<br/><br/>");
+
+                    // 検証に失敗したトークンは使用しない(UserInfoも取得されない)
+                    PrintWriter out = response.getWriter();
+                    out.println(new String(sb));
+                    out.close();
+                    return;
                 }
 
                 /*=======================*
                  * Request UserInfo.
                  *=======================*/
 
-                // UserInfoエンドポイントへリクエスト
-                yconnect.requestUserInfo(accessTokenString);
                 // UserInfo情報を取得
-                UserInfoObject userInfoObject = yconnect.getUserInfoObject();
+                UserInfoObject userInfoObject = result.getUserInfoObject();
                 sb.append("<h1>UserInfo Request</h1>");
                 sb.append("UserInfo: <pre>").append(userInfoObject).append("</pre><br/>");
                 sb.append("sub: <pre>")
@@ -164,6 +209,9 @@ public class YConnectServlet extends HttpServlet {
                 accessTokenString = yconnect.getAccessToken();
                 expiration = yconnect.getAccessTokenExpiration();
 
+                // 更新したアクセストークンを保存
+                tokenStore.save(tokenKey, new StoredToken(yconnect.getBearerToken()));
+
                 sb.append("<h1>Refresh Token</h1>");
                 sb.append("Access Token: ").append(accessTokenString).append("<br/><br/>");
                 sb.append("Expiration: ").append(expiration).append("<br/><br/>");
@@ -221,13 +269,20 @@ public class YConnectServlet extends HttpServlet {
 
                 try {
 
-                    // 保存していたリフレッシュトークンを指定してください
-                    String refreshToken = "STORED_REFRESH_TOKEN";
+                    // 保存していたリフレッシュトークンを取得
+                    StoredToken storedToken = tokenStore.load(tokenKey);
+                    if (storedToken == null || storedToken.getRefreshToken() == null) {
+                        // はじめのAuthorizationエンドポイントリクエストからやり直してください
+                        return;
+                    }
+                    String refreshToken = storedToken.getRefreshToken();
 
                     // Tokenエンドポイントにリクエストしてアクセストークンを更新
                     yconnect.refreshToken(refreshToken, clientId, clientSecret);
                     String accessTokenString = yconnect.getAccessToken();
                     long expiration = yconnect.getAccessTokenExpiration();
+                    tokenStore.save(tokenKey, new StoredToken(yconnect.getBearerToken()));
+                    refreshScheduler.schedule(tokenKey);
 
                     StringBuilder sb = new StringBuilder();
                     sb.append("<h1>Refresh Token</h1>");
@@ -243,6 +298,8 @@ public class YConnectServlet extends HttpServlet {
                     // リフレッシュトークンの有効期限切れチェック
                     if (te.isInvalidGrant()) {
                         // はじめのAuthorizationエンドポイントリクエストからやり直してください
+                        tokenStore.remove(tokenKey);
+                        refreshScheduler.cancel(tokenKey);
                     }
 
                     te.printStackTrace();
@@ -0,0 +1,170 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect;
+
+import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenObject;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoObject;
+
+/**
+ * Authorization Result Class
+ *
+ * <p>{@link YConnectClient#completeAuthorization}で取得したトークン、検証済みのIDトークン、
+ * UserInfoをまとめて保持します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class AuthorizationResult {
+
+    private final BearerToken bearerToken;
+
+    private final String idToken;
+
+    private final IdTokenObject idTokenObject;
+
+    private final boolean idTokenVerified;
+
+    private final String idTokenErrorMessage;
+
+    private final String idTokenErrorDescriptionMessage;
+
+    private final UserInfoObject userInfoObject;
+
+    AuthorizationResult(
+            BearerToken bearerToken,
+            String idToken,
+            IdTokenObject idTokenObject,
+            boolean idTokenVerified,
+            String idTokenErrorMessage,
+            String idTokenErrorDescriptionMessage,
+            UserInfoObject userInfoObject) {
+        this.bearerToken = bearerToken;
+        this.idToken = idToken;
+        this.idTokenObject = idTokenVerified ? idTokenObject : null;
+        this.idTokenVerified = idTokenVerified;
+        this.idTokenErrorMessage = idTokenErrorMessage;
+        this.idTokenErrorDescriptionMessage = idTokenErrorDescriptionMessage;
+        this.userInfoObject = userInfoObject;
+    }
+
+    /**
+     * アクセストークン、リフレッシュトークンを取得する。
+     *
+     * @return BearerToken
+     */
+    public BearerToken getBearerToken() {
+        return bearerToken;
+    }
+
+    /**
+     * アクセストークンを取得する。
+     *
+     * @return アクセストークンの文字列
+     */
+    public String getAccessToken() {
+        return bearerToken.getAccessToken();
+    }
+
+    /**
+     * アクセストークンの有効期間を取得する。
+     *
+     * @return アクセストークンの有効期間(秒)
+     */
+    public long getAccessTokenExpiration() {
+        return bearerToken.getExpiration();
+    }
+
+    /**
+     * アクセストークンの有効期限を取得する。
+     *
+     * @return アクセストークンの有効期限(エポックミリ秒)
+     */
+    public long getAccessTokenExpiresAt() {
+        return bearerToken.getExpiresAt();
+    }
+
+    /**
+     * リフレッシュトークンを取得する。
+     *
+     * @return リフレッシュトークンの文字列
+     */
+    public String getRefreshToken() {
+        return bearerToken.getRefreshToken();
+    }
+
+    /**
+     * IDトークンを取得する。
+     *
+     * @return 暗号化されているIDトークンの文字列
+     */
+    public String getIdToken() {
+        return idToken;
+    }
+
+    /**
+     * 検証済みのIDトークンを取得する。
+     *
+     * @return 復号したIdTokenObject、検証に失敗した場合はnull
+     */
+    public IdTokenObject getIdTokenObject() {
+        return idTokenObject;
+    }
+
+    /**
+     * IDトークンの検証結果を取得する。
+     *
+     * @return IDトークン検証が正しい場合にはtrue, それ以外の場合にはfalse
+     */
+    public boolean isIdTokenVerified() {
+        return idTokenVerified;
+    }
+
+    /**
+     * IdTokenの値が一致していなかった際のエラーコードを返却する。
+     *
+     * @return エラーコード、検証に成功した場合は空文字列
+     */
+    public String getIdTokenErrorMessage() {
+        return idTokenErrorMessage;
+    }
+
+    /**
+     * IdTokenの値が一致していなかった際のエラー概要を返却する。
+     *
+     * @return エラー概要、検証に成功した場合は空文字列
+     */
+    public String getIdTokenErrorDescriptionMessage() {
+        return idTokenErrorDescriptionMessage;
+    }
+
+    /**
+     * UserInfoオブジェクトを取得する。
+     *
+     * @return UserInfo情報のオブジェクト
+     */
+    public UserInfoObject getUserInfoObject() {
+        return userInfoObject;
+    }
+}
@@ -26,15 +26,31 @@ package jp.co.yahoo.yconnect;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.zip.DataFormatException;
 import jp.co.yahoo.yconnect.core.api.ApiClient;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
 import jp.co.yahoo.yconnect.core.oauth2.*;
 import jp.co.yahoo.yconnect.core.oidc.*;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
+import jp.co.yahoo.yconnect.core.util.CryptoPrimitives;
 import jp.co.yahoo.yconnect.core.util.StringUtil;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
 
 /**
  * YConnect Client(Authorization Code Flow) Class
@@ -46,7 +62,8 @@ public class YConnectClient {
     private static final String AUTHORIZATION_ENDPOINT_URL =
             "https://auth.login.yahoo.co.jp/yconnect/v2/authorization";
 
-    private static final String TOKEN_ENDPOINT_URL =
+    /** TokenエンドポイントのURL */
+    public static final String TOKEN_ENDPOINT_URL =
             "https://auth.login.yahoo.co.jp/yconnect/v2/token";
 
     private static final String USERINFO_ENDPOINT_URL =
@@ -57,6 +74,36 @@ public class YConnectClient {
 
     private static final String ISSUER = "https://auth.login.yahoo.co.jp/yconnect/v2";
 
+    private static final int MAX_ID_TOKEN_VERIFIERS = 16;
+
+    /** アプリケーションIDごとに共有するIdTokenVerifier */
+    private static final ConcurrentMap<String, IdTokenVerifier> ID_TOKEN_VERIFIERS =
+            new ConcurrentHashMap<String, IdTokenVerifier>();
+
+    /** クラスごとの{@link #getIdTokenVerification()}のオーバーライドの有無 */
+    private static final Map<Class<?>, Boolean> ID_TOKEN_VERIFICATION_OVERRIDES =
+            Collections.synchronizedMap(new WeakHashMap<Class<?>, Boolean>());
+
+    // バイナリ形式で書き込むフィールドのビット
+    private static final int REQUEST_CLIENT = 1;
+    private static final int CLIENT_ID = 1 << 1;
+    private static final int REDIRECT_URI = 1 << 2;
+    private static final int STATE = 1 << 3;
+    private static final int RESPONSE_TYPE = 1 << 4;
+    private static final int DISPLAY = 1 << 5;
+    private static final int PROMPT = 1 << 6;
+    private static final int SCOPE = 1 << 7;
+    private static final int NONCE = 1 << 8;
+    private static final int MAX_AGE = 1 << 9;
+    private static final int PLAIN_CODE_CHALLENGE = 1 << 10;
+    private static final int ACCESS_TOKEN = 1 << 11;
+    private static final int ID_TOKEN = 1 << 12;
+    private static final int USER_INFO = 1 << 13;
+    private static final int ID_TOKEN_RESULT = 1 << 14;
+    private static final int ID_TOKEN_ERROR = 1 << 15;
+    private static final int ID_TOKEN_ERROR_DESCRIPTION = 1 << 16;
+    private static final int ALL_FIELDS = (1 << 17) - 1;
+
     // Default Parameters
     private String responseType = OAuth2ResponseType.CODE;
     private String display = OIDCDisplay.DEFAULT;
@@ -71,7 +118,11 @@ public class YConnectClient {
     private BearerToken accessToken;
     private String idToken;
     private UserInfoObject userInfoObject;
-    private IdTokenVerification idTokenVerification;
+    private IdTokenVerificationResult idTokenVerificationResult;
+    private PublicKeySource publicKeySource;
+    private HttpTimeouts timeouts;
+    private Deadline deadline;
+    private VerifiedIdTokenCache idTokenCache;
 
     /** YConnectClientのコンストラクタ。 */
     public YConnectClient() {}
@@ -219,6 +270,8 @@ public class YConnectClient {
     public void requestToken(String code, String clientId, String clientSecret, String redirectUri)
             throws TokenException {
         TokenClient tokenClient = getTokenClient(code, redirectUri, clientId, clientSecret);
+        tokenClient.setTimeouts(timeouts);
+        tokenClient.setDeadline(deadline);
         tokenClient.fetch();
         accessToken = tokenClient.getAccessToken();
         idToken = tokenClient.getIdToken();
@@ -243,6 +296,8 @@ public class YConnectClient {
             throws TokenException {
         TokenClient tokenClient =
                 getTokenClient(code, redirectUri, clientId, clientSecret, codeVerifier);
+        tokenClient.setTimeouts(timeouts);
+        tokenClient.setDeadline(deadline);
         tokenClient.fetch();
         accessToken = tokenClient.getAccessToken();
         idToken = tokenClient.getIdToken();
@@ -258,14 +313,32 @@ public class YConnectClient {
     }
 
     /**
-     * アクセストークンの有効期限を取得する。
+     * アクセストークンの有効期間を取得する。
      *
-     * @return アクセストークンの有効期限(タイムスタンプ)
+     * @return アクセストークンの有効期間(秒)
      */
     public long getAccessTokenExpiration() {
         return accessToken.getExpiration();
     }
 
+    /**
+     * アクセストークンの有効期限を取得する。
+     *
+     * @return アクセストークンの有効期限(エポックミリ秒)
+     */
+    public long getAccessTokenExpiresAt() {
+        return accessToken.getExpiresAt();
+    }
+
+    /**
+     * Tokenエンドポイントから取得したトークンを取得する。
+     *
+     * @return トークン
+     */
+    public BearerToken getBearerToken() {
+        return accessToken;
+    }
+
     /**
      * リフレッシュトークンを取得する。
      *
@@ -307,21 +380,24 @@ public class YConnectClient {
      */
     public boolean verifyIdToken(String nonce, String clientId, String idTokenString)
             throws DataFormatException, ApiClientException {
-        PublicKeysClient publicKeysClient = getPublicKeysClient();
-        publicKeysClient.fetchResource(PUBLIC_KEYS_ENDPOINT_URL);
-        PublicKeysObject publicKeysObject = publicKeysClient.getPublicKeysObject();
+        if (idTokenCache != null) {
+            IdTokenObject cached = idTokenCache.get(idTokenString);
+            if (cached != null) {
+                // 署名とat_hashは検証済みのため、リクエストごとに変わる値のみを検証する。
+                // 後続のリクエストではTokenリクエストを行わないため、アクセストークンは使わない
+                this.idTokenVerificationResult =
+                        getIdTokenVerifier(clientId).verifyCachedClaims(cached, nonce);
+                return this.idTokenVerificationResult.isValid();
+            }
+        }
 
-        IdTokenDecoder idTokenDecoder = new IdTokenDecoder(idTokenString);
-        IdTokenObject idTokenObject = idTokenDecoder.decode();
-        this.idTokenVerification = getIdTokenVerification();
-        return this.idTokenVerification.check(
-                ISSUER,
-                nonce,
-                clientId,
-                idTokenObject,
-                publicKeysObject,
-                idTokenString,
-                accessToken.getAccessToken());
+        // 取得した公開鍵はキャッシュに格納されるため、検証時はキャッシュから参照する
+        getPublicKeysCache().get(PUBLIC_KEYS_ENDPOINT_URL, newPublicKeysClient());
+
+        // 分割・デコードは一度だけ行い、デコードと署名検証で共有する
+        ParsedJWT parsedJWT = ParsedJWT.parse(idTokenString);
+        IdTokenObject idTokenObject = IdTokenDecoder.of(parsedJWT).decode();
+        return verifyIdToken(nonce, clientId, parsedJWT, idTokenObject);
     }
 
     /**
@@ -330,7 +406,7 @@ public class YConnectClient {
      * @return エラーコード
      */
     public String getIdTokenErrorMessage() {
-        return idTokenVerification.getErrorMessage();
+        return idTokenVerificationResult != null ? idTokenVerificationResult.getError() : "";
     }
 
     /**
@@ -339,11 +415,14 @@ public class YConnectClient {
      * @return エラー概要
      */
     public String getIdTokenErrorDescriptionMessage() {
-        return idTokenVerification.getErrorDescriptionMessage();
+        return idTokenVerificationResult != null
+                ? idTokenVerificationResult.getErrorDescription()
+                : "";
     }
 
     /**
-     * アクセストークンを更新する。
+     * アクセストークンを更新する。 同じリフレッシュトークンで同時に呼び出された場合は、
+     * {@link RefreshTokenCoordinator}によりTokenエンドポイントへのリクエストを1回にまとめる。
      *
      * @param refreshToken リフレッシュトークンの文字列
      * @param clientId アプリケーションID
@@ -354,8 +433,9 @@ public class YConnectClient {
             throws TokenException {
         RefreshTokenClient refreshTokenClient =
                 getRefreshTokenClient(refreshToken, clientId, clientSecret);
-        refreshTokenClient.fetch();
-        accessToken = refreshTokenClient.getAccessToken();
+        refreshTokenClient.setTimeouts(timeouts);
+        refreshTokenClient.setDeadline(deadline);
+        accessToken = getRefreshTokenCoordinator().refresh(refreshTokenClient);
     }
 
     /**
@@ -365,11 +445,134 @@ public class YConnectClient {
      * @throws ApiClientException 定義されていないメソッドを指定したときに発生
      */
     public void requestUserInfo(String accessTokenString) throws ApiClientException {
-        UserInfoClient userInfoClient = getUserInfoClient(accessTokenString);
+        UserInfoClient userInfoClient = newUserInfoClient(accessTokenString);
         userInfoClient.fetchResource(USERINFO_ENDPOINT_URL, ApiClient.GET_METHOD);
         userInfoObject = userInfoClient.getUserInfoObject();
     }
 
+    /**
+     * コールバック後の一連のリクエスト(Token, IDトークン検証, UserInfo)を共有スレッドプールで実行する。
+     *
+     * @param code 認可コード
+     * @param clientId アプリケーションID
+     * @param clientSecret シークレット
+     * @param redirectUri リダイレクトURL
+     * @param codeVerifier 認可コード横取り攻撃対策用パラメータ、使用しない場合はnull
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @return トークン、検証済みのIDトークン、UserInfoをまとめた結果
+     * @throws TokenException レスポンスにエラーが含まれているときに発生
+     * @throws DataFormatException 無効なIDトークンが指定された場合に発生します
+     * @throws ApiClientException 公開鍵、UserInfoの取得に失敗したときに発生
+     * @see #completeAuthorization(String, String, String, String, String, String,
+     *     ExecutorService)
+     */
+    public AuthorizationResult completeAuthorization(
+            String code,
+            String clientId,
+            String clientSecret,
+            String redirectUri,
+            String codeVerifier,
+            String nonce)
+            throws TokenException, DataFormatException, ApiClientException {
+        return completeAuthorization(
+                code,
+                clientId,
+                clientSecret,
+                redirectUri,
+                codeVerifier,
+                nonce,
+                YConnectExecutors.getDefault());
+    }
+
+    /**
+     * コールバック後の一連のリクエスト(Token, IDトークン検証, UserInfo)を指定されたスレッドプールで実行する。
+     *
+     * <p>公開鍵の取得はTokenリクエストと並行して開始し、UserInfoのリクエストはアクセストークンの取得直後に
+     * IDトークンの検証と並行して行う。 TokenリクエストとIDトークンの検証は呼び出し元のスレッドで実行する。
+     *
+     * <p>IDトークンの検証に失敗した場合も例外は発生しないため、{@link
+     * AuthorizationResult#isIdTokenVerified()}を必ず確認してください。 検証に失敗した場合はUserInfoのリクエストを
+     * 中断し、UserInfoはnullとなります。 実行後は{@link #getAccessToken()}や
+     * {@link #getUserInfoObject()}などの既存の取得メソッドからも結果を参照できます。
+     *
+     * @param code 認可コード
+     * @param clientId アプリケーションID
+     * @param clientSecret シークレット
+     * @param redirectUri リダイレクトURL
+     * @param codeVerifier 認可コード横取り攻撃対策用パラメータ、使用しない場合はnull
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param executor 公開鍵、UserInfoのリクエストを実行するスレッドプール
+     * @return トークン、検証済みのIDトークン、UserInfoをまとめた結果
+     * @throws TokenException レスポンスにエラーが含まれているときに発生
+     * @throws DataFormatException 無効なIDトークンが指定された場合に発生します
+     * @throws ApiClientException 公開鍵、UserInfoの取得に失敗したとき、または期限を過ぎたときに発生
+     */
+    public AuthorizationResult completeAuthorization(
+            String code,
+            String clientId,
+            String clientSecret,
+            String redirectUri,
+            String codeVerifier,
+            String nonce,
+            ExecutorService executor)
+            throws TokenException, DataFormatException, ApiClientException {
+        // 公開鍵はトークンに依存しないため、Tokenリクエストの完了を待たずに取得を開始する
+        final PublicKeysCache publicKeysCache = getPublicKeysCache();
+        Future<PublicKeysObject> publicKeysFuture =
+                executor.submit(
+                        new Callable<PublicKeysObject>() {
+                            public PublicKeysObject call() throws ApiClientException {
+                                return publicKeysCache.get(
+                                        PUBLIC_KEYS_ENDPOINT_URL, newPublicKeysClient());
+                            }
+                        });
+        Future<UserInfoObject> userInfoFuture = null;
+
+        try {
+            if (codeVerifier != null) {
+                requestToken(code, clientId, clientSecret, redirectUri, codeVerifier);
+            } else {
+                requestToken(code, clientId, clientSecret, redirectUri);
+            }
+
+            // UserInfoはアクセストークンのみに依存するため、IDトークンの検証と並行して取得する
+            userInfoFuture =
+                    newUserInfoClient(accessToken.getAccessToken())
+                            .fetchResourceAsync(
+                                    USERINFO_ENDPOINT_URL, ApiClient.GET_METHOD, executor);
+
+            ParsedJWT parsedJWT = ParsedJWT.parse(idToken);
+            IdTokenObject idTokenObject = IdTokenDecoder.of(parsedJWT).decode();
+
+            // 公開鍵の取得完了を待つ。取得結果はキャッシュに格納され、検証時に参照される
+            await(publicKeysFuture, deadline);
+            boolean verified = verifyIdToken(nonce, clientId, parsedJWT, idTokenObject);
+
+            if (verified) {
+                userInfoObject = await(userInfoFuture, deadline);
+            } else {
+                // 検証されていないトークンで取得したUserInfoは返さない
+                userInfoFuture.cancel(true);
+                userInfoObject = null;
+            }
+
+            return new AuthorizationResult(
+                    accessToken,
+                    idToken,
+                    idTokenObject,
+                    verified,
+                    idTokenVerificationResult.getError(),
+                    idTokenVerificationResult.getErrorDescription(),
+                    userInfoObject);
+        } finally {
+            // 途中で失敗した場合、未着手のリクエストは実行しない
+            publicKeysFuture.cancel(false);
+            if (userInfoFuture != null) {
+                userInfoFuture.cancel(false);
+            }
+        }
+    }
+
     /**
      * UserInfoオブジェクトを取得する。
      *
@@ -424,6 +627,151 @@ public class YConnectClient {
         this.nonce = nonce;
     }
 
+    /**
+     * Token, 公開鍵, UserInfoの各リクエストのタイムアウトを設定する。
+     *
+     * @param timeouts タイムアウト。nullの場合は共有トランスポートのタイムアウトを使用
+     */
+    public void setTimeouts(HttpTimeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Token, 公開鍵, UserInfoの各リクエスト全体の期限を設定する。
+     *
+     * <p>各リクエストのタイムアウトは期限までの残り時間以下に切り詰められるため、
+     * 一連のリクエストはタイムアウトの合計ではなく期限内に完了または失敗する。 ログインごとに{@link
+     * Deadline#after(long, TimeUnit)}で生成して設定してください。
+     *
+     * @param deadline 期限。nullの場合は期限なし
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * 署名の検証に成功したIDトークンのキャッシュを設定する。
+     *
+     * <p>設定すると、{@link #verifyIdToken(String, String, String)}で同じIDトークンを再度検証する際に
+     * 公開鍵の取得とRSA署名の検証を省略する。 nonce、aud、有効期限などは毎回検証する。
+     * キャッシュはスレッドセーフなため、複数のYConnectClientで共有できる。
+     *
+     * @param idTokenCache キャッシュ。nullの場合はキャッシュしない
+     */
+    public void setIdTokenCache(VerifiedIdTokenCache idTokenCache) {
+        this.idTokenCache = idTokenCache;
+    }
+
+    /**
+     * セッションのレプリケーション用に、状態をバイナリ形式で書き込む。
+     *
+     * <p>認可リクエストのパラメーター、取得したトークンとIDトークン、UserInfo、IDトークンの検証結果を書き込む。
+     * タイムアウトやデッドライン、キャッシュなどの設定と、コールバックURLの解析結果は書き込まない。
+     *
+     * @param out 書き込み先
+     */
+    public void writeTo(BinaryOutput out) {
+        String clientId = requestClient != null ? requestClient.getClientId() : null;
+        String redirectUri = requestClient != null ? requestClient.getRedirectUri() : null;
+        String state = requestClient != null ? requestClient.getState() : null;
+        IdTokenVerificationResult result = idTokenVerificationResult;
+        boolean failed = result != null && !result.isValid();
+        String error = failed ? result.getError() : null;
+        String errorDescription = failed ? result.getErrorDescription() : null;
+
+        int fields = 0;
+        fields |= requestClient != null ? REQUEST_CLIENT : 0;
+        fields |= clientId != null ? CLIENT_ID : 0;
+        fields |= redirectUri != null ? REDIRECT_URI : 0;
+        fields |= state != null ? STATE : 0;
+        fields |= responseType != null ? RESPONSE_TYPE : 0;
+        fields |= display != null ? DISPLAY : 0;
+        fields |= prompt != null ? PROMPT : 0;
+        fields |= scope != null ? SCOPE : 0;
+        fields |= nonce != null ? NONCE : 0;
+        fields |= maxAge != null ? MAX_AGE : 0;
+        fields |= plainCodeChallenge != null ? PLAIN_CODE_CHALLENGE : 0;
+        fields |= accessToken != null ? ACCESS_TOKEN : 0;
+        fields |= idToken != null ? ID_TOKEN : 0;
+        fields |= userInfoObject != null ? USER_INFO : 0;
+        fields |= result != null ? ID_TOKEN_RESULT : 0;
+        fields |= error != null ? ID_TOKEN_ERROR : 0;
+        fields |= errorDescription != null ? ID_TOKEN_ERROR_DESCRIPTION : 0;
+        out.writeVarInt(fields);
+
+        writeString(out, clientId);
+        writeString(out, redirectUri);
+        writeString(out, state);
+        writeString(out, responseType);
+        writeString(out, display);
+        writeString(out, prompt);
+        writeString(out, scope);
+        writeString(out, nonce);
+        if (maxAge != null) {
+            out.writeVarLong(maxAge);
+        }
+        writeString(out, plainCodeChallenge);
+        if (accessToken != null) {
+            accessToken.writeTo(out);
+        }
+        writeString(out, idToken);
+        if (userInfoObject != null) {
+            userInfoObject.writeTo(out);
+        }
+        if (result != null) {
+            out.writeBoolean(result.isValid());
+        }
+        writeString(out, error);
+        writeString(out, errorDescription);
+    }
+
+    /**
+     * {@link #writeTo(BinaryOutput)}で書き込んだ状態をこのインスタンスに復元する。
+     *
+     * <p>認可リクエストのパラメーターは{@link #getAuthorizationRequestClient(String)}で生成したクライアントに設定する。
+     * 書き込まれていないフィールドはnullになる。
+     *
+     * @param in 読み込み元
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    public void readFrom(BinaryInput in) throws DataFormatException {
+        int fields = in.readVarInt();
+        if ((fields & ~ALL_FIELDS) != 0) {
+            throw new DataFormatException("Unknown fields: " + Integer.toHexString(fields));
+        }
+
+        String clientId = readString(in, fields, CLIENT_ID);
+        String redirectUri = readString(in, fields, REDIRECT_URI);
+        String state = readString(in, fields, STATE);
+        requestClient = null;
+        if ((fields & REQUEST_CLIENT) != 0) {
+            requestClient = getAuthorizationRequestClient(clientId);
+            requestClient.setRedirectUri(redirectUri);
+            requestClient.setState(state);
+        }
+        responseType = readString(in, fields, RESPONSE_TYPE);
+        display = readString(in, fields, DISPLAY);
+        prompt = readString(in, fields, PROMPT);
+        scope = readString(in, fields, SCOPE);
+        nonce = readString(in, fields, NONCE);
+        maxAge = (fields & MAX_AGE) != 0 ? in.readVarLong() : null;
+        plainCodeChallenge = readString(in, fields, PLAIN_CODE_CHALLENGE);
+        accessToken = (fields & ACCESS_TOKEN) != 0 ? BearerToken.readFrom(in) : null;
+        idToken = readString(in, fields, ID_TOKEN);
+        userInfoObject = (fields & USER_INFO) != 0 ? UserInfoObject.readFrom(in) : null;
+        boolean valid = (fields & ID_TOKEN_RESULT) != 0 && in.readBoolean();
+        String error = readString(in, fields, ID_TOKEN_ERROR);
+        String errorDescription = readString(in, fields, ID_TOKEN_ERROR_DESCRIPTION);
+        idTokenVerificationResult = null;
+        if ((fields & ID_TOKEN_RESULT) != 0) {
+            idTokenVerificationResult =
+                    valid
+                            ? IdTokenVerificationResult.success()
+                            : IdTokenVerificationResult.failure(error, errorDescription);
+        }
+        responseParser = null;
+    }
+
     /** SSL証明書チェックを無効にする。 */
     public static void disableSSLCheck() {
         YHttpClient.disableSSLCheck();
@@ -457,28 +805,291 @@ public class YConnectClient {
         return new PublicKeysClient();
     }
 
+    protected PublicKeysCache getPublicKeysCache() {
+        return PublicKeysCache.getDefault();
+    }
+
     protected RefreshTokenClient getRefreshTokenClient(
             String refreshToken, String clientId, String clientSecret) {
         return new RefreshTokenClient(TOKEN_ENDPOINT_URL, refreshToken, clientId, clientSecret);
     }
 
+    protected RefreshTokenCoordinator getRefreshTokenCoordinator() {
+        return RefreshTokenCoordinator.getDefault();
+    }
+
     protected UserInfoClient getUserInfoClient(String accessTokenString) {
         return new UserInfoClient(accessTokenString);
     }
 
+    /**
+     * IDトークンの検証に使用するIdTokenVerifierを返す。 IdTokenVerifierは不変なため、アプリケーションIDごとに
+     * 生成したインスタンスをYConnectClient間で共有する。
+     *
+     * @param clientId アプリケーションID
+     * @return IdTokenVerifier
+     */
+    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+        IdTokenVerifier verifier = ID_TOKEN_VERIFIERS.get(clientId);
+        if (verifier != null) {
+            return verifier;
+        }
+
+        verifier =
+                new IdTokenVerifier(
+                        ISSUER,
+                        clientId,
+                        IdTokenVerifier.DEFAULT_CLOCK_SKEW,
+                        Collections.singleton("RS256"),
+                        null);
+        // アプリケーションIDは通常固定のため、上限を超えた分は共有せずに都度生成する
+        if (ID_TOKEN_VERIFIERS.size() < MAX_ID_TOKEN_VERIFIERS) {
+            IdTokenVerifier existing = ID_TOKEN_VERIFIERS.putIfAbsent(clientId, verifier);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return verifier;
+    }
+
+    /**
+     * IDトークンの検証に使用するIdTokenVerificationを返す。
+     *
+     * <p>サブクラスでオーバーライドし、IdTokenVerificationのサブクラスを返した場合はそのインスタンスで検証する。
+     *
+     * @return IdTokenVerification
+     * @deprecated {@link #getIdTokenVerifier(String)}をオーバーライドしてください。
+     */
+    @Deprecated
     protected IdTokenVerification getIdTokenVerification() {
         return new IdTokenVerification();
     }
 
+    private PublicKeysClient newPublicKeysClient() {
+        PublicKeysClient publicKeysClient = getPublicKeysClient();
+        publicKeysClient.setTimeouts(timeouts);
+        publicKeysClient.setDeadline(deadline);
+        return publicKeysClient;
+    }
+
+    private UserInfoClient newUserInfoClient(String accessTokenString) {
+        UserInfoClient userInfoClient = getUserInfoClient(accessTokenString);
+        userInfoClient.setTimeouts(timeouts);
+        userInfoClient.setDeadline(deadline);
+        return userInfoClient;
+    }
+
+    /**
+     * キャッシュした公開鍵でIDトークンを検証する。 kidが見つからない場合のみ公開鍵を再取得して再検証する。
+     *
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param clientId アプリケーションID
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @param idTokenObject 復号したIdTokenObject
+     * @return IDトークン検証が正しい場合にはtrue, それ以外の場合にはfalse
+     */
+    private boolean verifyIdToken(
+            String nonce, String clientId, ParsedJWT parsedJWT, IdTokenObject idTokenObject)
+            throws ApiClientException {
+        IdTokenVerificationResult result;
+        IdTokenVerification verification = getOverriddenIdTokenVerification();
+        if (verification != null) {
+            result = verifyIdToken(verification, nonce, clientId, parsedJWT, idTokenObject);
+        } else {
+            result =
+                    getIdTokenVerifier(clientId)
+                            .verify(
+                                    parsedJWT,
+                                    idTokenObject,
+                                    nonce,
+                                    accessToken.getAccessToken(),
+                                    getPublicKeySource());
+        }
+        this.idTokenVerificationResult = result;
+
+        if (result.isValid() && idTokenCache != null) {
+            idTokenCache.put(
+                    parsedJWT.getJwtString(),
+                    idTokenObject,
+                    getIdTokenVerifier(clientId).getClockSkew());
+        }
+        return result.isValid();
+    }
+
+    /**
+     * 公開鍵の取得元を返す。 公開鍵の取得にはこのインスタンスのタイムアウトと期限を使用する。
+     *
+     * @return 公開鍵の取得元
+     */
+    private PublicKeySource getPublicKeySource() {
+        if (publicKeySource == null) {
+            publicKeySource =
+                    new CachedPublicKeySource(getPublicKeysCache(), PUBLIC_KEYS_ENDPOINT_URL) {
+                        @Override
+                        protected PublicKeysClient newPublicKeysClient() {
+                            return YConnectClient.this.newPublicKeysClient();
+                        }
+                    };
+        }
+        return publicKeySource;
+    }
+
+    /**
+     * サブクラスで{@link #getIdTokenVerification()}がオーバーライドされている場合、そのIdTokenVerificationを返す。
+     * IdTokenVerification自体は{@link IdTokenVerifier}と同じ検証を行うため、サブクラスでない場合はnullを返す。
+     *
+     * @return オーバーライドされたIdTokenVerification、それ以外の場合はnull
+     */
+    @SuppressWarnings("deprecation")
+    private IdTokenVerification getOverriddenIdTokenVerification() {
+        if (!overridesIdTokenVerification(getClass())) {
+            return null;
+        }
+        IdTokenVerification verification = getIdTokenVerification();
+        if (verification == null || verification.getClass() == IdTokenVerification.class) {
+            return null;
+        }
+        return verification;
+    }
+
+    /**
+     * IdTokenVerificationでIDトークンを検証する。 kidが見つからない場合のみ公開鍵を再取得して再検証する。
+     *
+     * @param verification IdTokenVerification
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param clientId アプリケーションID
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @param idTokenObject 復号したIdTokenObject
+     * @return 検証結果
+     */
+    private IdTokenVerificationResult verifyIdToken(
+            IdTokenVerification verification,
+            String nonce,
+            String clientId,
+            ParsedJWT parsedJWT,
+            IdTokenObject idTokenObject)
+            throws ApiClientException {
+        PublicKeysCache publicKeysCache = getPublicKeysCache();
+        PublicKeysObject publicKeysObject =
+                publicKeysCache.get(PUBLIC_KEYS_ENDPOINT_URL, newPublicKeysClient());
+        boolean result =
+                verification.check(
+                        ISSUER,
+                        nonce,
+                        clientId,
+                        idTokenObject,
+                        publicKeysObject,
+                        parsedJWT,
+                        accessToken.getAccessToken());
+
+        if (!result
+                && IdTokenVerification.PUBLIC_KEY_NOT_FOUND.equals(
+                        verification.getErrorMessage())) {
+            publicKeysObject =
+                    publicKeysCache.refresh(PUBLIC_KEYS_ENDPOINT_URL, newPublicKeysClient());
+            result =
+                    verification.check(
+                            ISSUER,
+                            nonce,
+                            clientId,
+                            idTokenObject,
+                            publicKeysObject,
+                            parsedJWT,
+                            accessToken.getAccessToken());
+        }
+        return toResult(result, verification);
+    }
+
+    /**
+     * {@link #getIdTokenVerification()}がオーバーライドされているかを返す。 結果はクラスごとに保持する。
+     *
+     * @param clazz YConnectClientまたはそのサブクラス
+     * @return オーバーライドされている場合はtrue
+     */
+    private static boolean overridesIdTokenVerification(Class<?> clazz) {
+        Boolean overrides = ID_TOKEN_VERIFICATION_OVERRIDES.get(clazz);
+        if (overrides == null) {
+            overrides = Boolean.FALSE;
+            for (Class<?> c = clazz; c != YConnectClient.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("getIdTokenVerification");
+                    overrides = Boolean.TRUE;
+                    break;
+                } catch (NoSuchMethodException e) {
+                    // 親クラスを確認する
+                } catch (SecurityException e) {
+                    // 確認できない場合はオーバーライドされているものとして扱う
+                    overrides = Boolean.TRUE;
+                    break;
+                }
+            }
+            ID_TOKEN_VERIFICATION_OVERRIDES.put(clazz, overrides);
+        }
+        return overrides;
+    }
+
+    private static IdTokenVerificationResult toResult(
+            boolean result, IdTokenVerification verification) {
+        if (result) {
+            return IdTokenVerificationResult.success();
+        }
+        return IdTokenVerificationResult.failure(
+                verification.getErrorMessage(), verification.getErrorDescriptionMessage());
+    }
+
+    /**
+     * 非同期リクエストの完了を待ち、結果を返す。
+     *
+     * @param future 非同期リクエストのFuture
+     * @param deadline 期限。nullの場合は完了まで待つ
+     * @return リクエストの結果
+     * @throws ApiClientException リクエストに失敗したとき、期限を過ぎたとき、または待機中に割り込まれたときに発生
+     */
+    private static <T> T await(Future<T> future, Deadline deadline) throws ApiClientException {
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+            return future.get(deadline.getRemaining(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ApiClientException("Deadline exceeded.", "", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted.", "", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiClientException) {
+                throw (ApiClientException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiClientException("Request failed.", "", cause);
+        }
+    }
+
+    private static void writeString(BinaryOutput out, String value) {
+        if (value != null) {
+            out.writeString(value);
+        }
+    }
+
+    private static String readString(BinaryInput in, int fields, int field)
+            throws DataFormatException {
+        return (fields & field) != 0 ? in.readString() : null;
+    }
+
     /**
      * codeChallengeを生成する。
      *
      * @param plainCodeChallenge ハッシュ化前のcodeChallenge
      * @return SHA-256でハッシュ化されたcode challenge
      */
-    private String generateCodeChallenge(String plainCodeChallenge)
-            throws UnsupportedEncodingException {
-        byte[] hashBytes = DigestUtils.sha256(plainCodeChallenge.getBytes("UTF-8"));
+    private String generateCodeChallenge(String plainCodeChallenge) {
+        byte[] hashBytes = CryptoPrimitives.sha256(plainCodeChallenge);
         return Base64.encodeBase64URLSafeString(hashBytes);
     }
 }
@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
+import jp.co.yahoo.yconnect.core.http.YHttpTransport;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+
+/**
+ * YConnect Servlet Context Listener Class
+ *
+ * <p>web.xmlに登録すると、アプリケーションの起動時に共有HTTPトランスポートと共有スレッドプールを設定し、
+ * 終了時に閉じます。 コネクションプールとスレッドプールの大きさ、タイムアウト、ログ設定はcontext-paramの以下の値で設定できます。
+ *
+ * <ul>
+ *   <li>yconnect.http.maxTotal：コネクションプール全体の最大接続数
+ *   <li>yconnect.http.maxPerRoute：ルートごとの最大接続数
+ *   <li>yconnect.http.keepAlive：Keep-Aliveヘッダが無い場合の接続保持時間(ミリ秒)
+ *   <li>yconnect.http.connectTimeout：接続確立のタイムアウト(ミリ秒)
+ *   <li>yconnect.http.socketTimeout：レスポンス読み込みのタイムアウト(ミリ秒)
+ *   <li>yconnect.http.connectionRequestTimeout：コネクションプールからの接続取得のタイムアウト(ミリ秒)
+ *   <li>yconnect.tls.sessionCacheSize：TLSセッションキャッシュに保持するセッション数
+ *   <li>yconnect.tls.sessionTimeout：TLSセッションキャッシュの有効期間(秒)
+ *   <li>yconnect.async.poolSize：非同期APIが使用する共有スレッドプールのスレッド数
+ *   <li>yconnect.log.config：log4jの設定ファイルのパス
+ *   <li>yconnect.log.watchInterval：設定ファイルの変更を監視する間隔(ミリ秒)。指定しない場合は監視しない
+ * </ul>
+ *
+ * <p>設定ファイルの監視スレッドは、スレッドプールと同様に終了時に停止します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class YConnectServletContextListener implements ServletContextListener {
+
+    public static final String MAX_TOTAL_PARAM = "yconnect.http.maxTotal";
+
+    public static final String MAX_PER_ROUTE_PARAM = "yconnect.http.maxPerRoute";
+
+    public static final String KEEP_ALIVE_PARAM = "yconnect.http.keepAlive";
+
+    public static final String CONNECT_TIMEOUT_PARAM = "yconnect.http.connectTimeout";
+
+    public static final String SOCKET_TIMEOUT_PARAM = "yconnect.http.socketTimeout";
+
+    public static final String CONNECTION_REQUEST_TIMEOUT_PARAM =
+            "yconnect.http.connectionRequestTimeout";
+
+    public static final String SESSION_CACHE_SIZE_PARAM = "yconnect.tls.sessionCacheSize";
+
+    public static final String SESSION_TIMEOUT_PARAM = "yconnect.tls.sessionTimeout";
+
+    public static final String ASYNC_POOL_SIZE_PARAM = "yconnect.async.poolSize";
+
+    public static final String LOG_CONFIG_PARAM = "yconnect.log.config";
+
+    public static final String LOG_WATCH_INTERVAL_PARAM = "yconnect.log.watchInterval";
+
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        int maxTotal =
+                (int) getLongParameter(context, MAX_TOTAL_PARAM, YHttpTransport.DEFAULT_MAX_TOTAL);
+        int maxPerRoute =
+                (int)
+                        getLongParameter(
+                                context, MAX_PER_ROUTE_PARAM, YHttpTransport.DEFAULT_MAX_PER_ROUTE);
+        long keepAlive =
+                getLongParameter(context, KEEP_ALIVE_PARAM, YHttpTransport.DEFAULT_KEEP_ALIVE);
+        long connectTimeout =
+                getLongParameter(
+                        context, CONNECT_TIMEOUT_PARAM, HttpTimeouts.DEFAULT_CONNECT_TIMEOUT);
+        long socketTimeout =
+                getLongParameter(
+                        context, SOCKET_TIMEOUT_PARAM, HttpTimeouts.DEFAULT_SOCKET_TIMEOUT);
+        long connectionRequestTimeout =
+                getLongParameter(
+                        context,
+                        CONNECTION_REQUEST_TIMEOUT_PARAM,
+                        HttpTimeouts.DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+        HttpTimeouts timeouts =
+                new HttpTimeouts(
+                        (int) connectTimeout, (int) socketTimeout, (int) connectionRequestTimeout);
+        YHttpTransport.configureDefault(maxTotal, maxPerRoute, keepAlive, timeouts);
+
+        long sessionCacheSize =
+                getLongParameter(
+                        context,
+                        SESSION_CACHE_SIZE_PARAM,
+                        YHttpTransport.DEFAULT_SESSION_CACHE_SIZE);
+        long sessionTimeout =
+                getLongParameter(
+                        context, SESSION_TIMEOUT_PARAM, YHttpTransport.DEFAULT_SESSION_TIMEOUT);
+        YHttpTransport.configureSessionCache((int) sessionCacheSize, (int) sessionTimeout);
+
+        long poolSize =
+                getLongParameter(
+                        context, ASYNC_POOL_SIZE_PARAM, YConnectExecutors.DEFAULT_POOL_SIZE);
+        YConnectExecutors.configureDefault((int) poolSize);
+
+        String logConfig = context.getInitParameter(LOG_CONFIG_PARAM);
+        if (logConfig != null) {
+            long watchInterval = getLongParameter(context, LOG_WATCH_INTERVAL_PARAM, 0);
+            if (watchInterval > 0) {
+                YConnectLogger.configureAndWatch(logConfig.trim(), watchInterval);
+            } else {
+                YConnectLogger.setFilePath(logConfig.trim());
+            }
+        }
+    }
+
+    public void contextDestroyed(ServletContextEvent event) {
+        YConnectLogger.stopWatching();
+        YConnectExecutors.shutdownDefault();
+        YHttpTransport.shutdownDefault();
+    }
+
+    private static long getLongParameter(ServletContext context, String name, long defaultValue) {
+        String value = context.getInitParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect;
+
+import java.util.zip.DataFormatException;
+import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenObject;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoObject;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
+
+/**
+ * YConnect State Codec Class
+ *
+ * <p>セッションのレプリケーション用に、{@link BearerToken}、{@link IdTokenObject}、{@link UserInfoObject}、
+ * {@link YConnectClient}の状態をバイト列に変換します。 バイト列は形式のバージョンと型を表す2バイトに続けて、
+ * 各クラスのwriteToメソッドの形式で書き込みます。
+ *
+ * <p>各クラスはnullではないフィールドのビットマップを先頭に書き込み、数値は可変長整数、文字列は長さを前置したUTF-8で
+ * 書き込みます。 JavaシリアライズやJSONよりも小さく、復元時にJSONの解析を行いません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class YConnectStateCodec {
+
+    /** バイト列の形式のバージョン */
+    public static final int VERSION = 1;
+
+    private static final int TYPE_BEARER_TOKEN = 1;
+
+    private static final int TYPE_ID_TOKEN = 2;
+
+    private static final int TYPE_USER_INFO = 3;
+
+    private static final int TYPE_CLIENT = 4;
+
+    private YConnectStateCodec() {}
+
+    /**
+     * BearerTokenをバイト列に変換します。
+     *
+     * @param bearerToken BearerToken
+     * @return バイト列
+     */
+    public static byte[] encode(BearerToken bearerToken) {
+        checkNotNull(bearerToken);
+        BinaryOutput out = newOutput(TYPE_BEARER_TOKEN);
+        bearerToken.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * IdTokenObjectをバイト列に変換します。
+     *
+     * @param idTokenObject IdTokenObject
+     * @return バイト列
+     */
+    public static byte[] encode(IdTokenObject idTokenObject) {
+        checkNotNull(idTokenObject);
+        BinaryOutput out = newOutput(TYPE_ID_TOKEN);
+        idTokenObject.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * UserInfoObjectをバイト列に変換します。
+     *
+     * @param userInfoObject UserInfoObject
+     * @return バイト列
+     */
+    public static byte[] encode(UserInfoObject userInfoObject) {
+        checkNotNull(userInfoObject);
+        BinaryOutput out = newOutput(TYPE_USER_INFO);
+        userInfoObject.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * YConnectClientの状態をバイト列に変換します。 書き込む状態は{@link YConnectClient#writeTo(BinaryOutput)}を
+     * 参照してください。
+     *
+     * @param client YConnectClient
+     * @return バイト列
+     */
+    public static byte[] encode(YConnectClient client) {
+        checkNotNull(client);
+        BinaryOutput out = newOutput(TYPE_CLIENT);
+        client.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * バイト列からBearerTokenを復元します。
+     *
+     * @param data {@link #encode(BearerToken)}で変換したバイト列
+     * @return BearerToken
+     * @throws DataFormatException バイト列が不正な場合や、バージョンか型が異なる場合に発生
+     */
+    public static BearerToken decodeBearerToken(byte[] data) throws DataFormatException {
+        BinaryInput in = newInput(data, TYPE_BEARER_TOKEN);
+        BearerToken bearerToken = BearerToken.readFrom(in);
+        checkEnd(in);
+        return bearerToken;
+    }
+
+    /**
+     * バイト列からIdTokenObjectを復元します。
+     *
+     * @param data {@link #encode(IdTokenObject)}で変換したバイト列
+     * @return IdTokenObject
+     * @throws DataFormatException バイト列が不正な場合や、バージョンか型が異なる場合に発生
+     */
+    public static IdTokenObject decodeIdTokenObject(byte[] data) throws DataFormatException {
+        BinaryInput in = newInput(data, TYPE_ID_TOKEN);
+        IdTokenObject idTokenObject = IdTokenObject.readFrom(in);
+        checkEnd(in);
+        return idTokenObject;
+    }
+
+    /**
+     * バイト列からUserInfoObjectを復元します。
+     *
+     * @param data {@link #encode(UserInfoObject)}で変換したバイト列
+     * @return UserInfoObject
+     * @throws DataFormatException バイト列が不正な場合や、バージョンか型が異なる場合に発生
+     */
+    public static UserInfoObject decodeUserInfoObject(byte[] data) throws DataFormatException {
+        BinaryInput in = newInput(data, TYPE_USER_INFO);
+        UserInfoObject userInfoObject = UserInfoObject.readFrom(in);
+        checkEnd(in);
+        return userInfoObject;
+    }
+
+    /**
+     * バイト列から状態を復元したYConnectClientを生成します。
+     *
+     * @param data {@link #encode(YConnectClient)}で変換したバイト列
+     * @return YConnectClient
+     * @throws DataFormatException バイト列が不正な場合や、バージョンか型が異なる場合に発生
+     */
+    public static YConnectClient decodeClient(byte[] data) throws DataFormatException {
+        YConnectClient client = new YConnectClient();
+        decodeClient(data, client);
+        return client;
+    }
+
+    /**
+     * バイト列から状態をYConnectClientに復元します。 YConnectClientを継承している場合に使用してください。
+     *
+     * @param data {@link #encode(YConnectClient)}で変換したバイト列
+     * @param client 状態を復元するYConnectClient
+     * @throws DataFormatException バイト列が不正な場合や、バージョンか型が異なる場合に発生
+     */
+    public static void decodeClient(byte[] data, YConnectClient client)
+            throws DataFormatException {
+        checkNotNull(client);
+        BinaryInput in = newInput(data, TYPE_CLIENT);
+        client.readFrom(in);
+        checkEnd(in);
+    }
+
+    private static BinaryOutput newOutput(int type) {
+        BinaryOutput out = new BinaryOutput();
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        return out;
+    }
+
+    private static BinaryInput newInput(byte[] data, int type) throws DataFormatException {
+        if (data == null) {
+            throw new DataFormatException("data is null.");
+        }
+        BinaryInput in = new BinaryInput(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new DataFormatException("Unsupported version: " + version);
+        }
+        int actualType = in.readByte();
+        if (actualType != type) {
+            throw new DataFormatException("Unexpected type: " + actualType);
+        }
+        return in;
+    }
+
+    private static void checkEnd(BinaryInput in) throws DataFormatException {
+        if (in.remaining() > 0) {
+            throw new DataFormatException("Trailing bytes: " + in.remaining());
+        }
+    }
+
+    private static void checkNotNull(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null.");
+        }
+    }
+}
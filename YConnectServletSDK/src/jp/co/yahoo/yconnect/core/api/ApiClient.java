@@ -25,9 +25,13 @@
 package jp.co.yahoo.yconnect.core.api;
 
 import java.util.HashMap;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
 import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
 import jp.co.yahoo.yconnect.core.util.YConnectLogger;
 
@@ -60,6 +64,10 @@ public class ApiClient {
 
     private HttpHeaders responseHeaders;
 
+    private HttpTimeouts timeouts;
+
+    private Deadline deadline;
+
     /** ApiClient Constructor. initialize HttpParameters and HttpHeaders Object. */
     public ApiClient() {
         this.parameters = new HttpParameters();
@@ -98,24 +106,53 @@ public class ApiClient {
      * @throws ApiClientException Throws when specify undefined method.
      */
     public void fetchResource(String url, String method) throws ApiClientException {
-        YConnectLogger.debug(TAG, "request parameters: " + parameters.toQueryString());
-        YConnectLogger.debug(TAG, "request headers: " + requestHeaders.toHeaderString());
+        YHttpClient client = prepareHttpClient();
+        YHttpResponse<String> response;
+        if (POST_METHOD.equalsIgnoreCase(method)) {
+            response = client.requestPost(url, parameters, requestHeaders, timeouts, deadline);
+        } else if (GET_METHOD.equalsIgnoreCase(method)) {
+            response = client.requestGet(url, parameters, requestHeaders, timeouts, deadline);
+        } else {
+            throw new ApiClientException("Undefined Http method.", "");
+        }
+
+        readResponse(response);
+        responseBody = response.getBody();
+
+        checkErrorResponse();
+    }
 
-        YHttpClient client = newHttpClient();
+    /**
+     * Fetch resources from endpoint and pass the response body stream to the handler without
+     * converting it to String. {@link #getResponse()} returns null after this method.
+     *
+     * @param url URL of endpoint.
+     * @param method POST_METHOD or GET_METHOD.
+     * @param handler Handler to process the response body stream.
+     * @return Result of the handler.
+     * @throws ApiClientException Throws when specify undefined method or response has error.
+     */
+    protected <T> T fetchResource(String url, String method, YHttpResponseHandler<T> handler)
+            throws ApiClientException {
+        YHttpClient client = prepareHttpClient();
+        YHttpResponse<T> response;
         if (POST_METHOD.equalsIgnoreCase(method)) {
-            client.requestPost(url, parameters, requestHeaders);
+            response =
+                    client.requestPost(
+                            url, parameters, requestHeaders, timeouts, deadline, handler);
         } else if (GET_METHOD.equalsIgnoreCase(method)) {
-            client.requestGet(url, parameters, requestHeaders);
+            response =
+                    client.requestGet(url, parameters, requestHeaders, timeouts, deadline, handler);
         } else {
             throw new ApiClientException("Undefined Http method.", "");
         }
 
-        responseCode = client.getStatusCode();
-        responseMessage = client.getStatusMessage();
-        responseHeaders = client.getResponseHeaders();
-        responseBody = client.getResponseBody();
+        readResponse(response);
+        responseBody = null;
 
         checkErrorResponse();
+
+        return response.getBody();
     }
 
     /**
@@ -185,6 +222,40 @@ public class ApiClient {
         setParameter("access_token", accessToken.getAccessToken());
     }
 
+    /**
+     * Set timeouts of HTTP request. Call this method before fetch method.
+     *
+     * @param timeouts Timeouts of type HttpTimeouts. If null, the timeouts of the transport are
+     *     used.
+     */
+    public void setTimeouts(HttpTimeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Set deadline of HTTP request. Call this method before fetch method.
+     *
+     * @param deadline Deadline of type Deadline. If null, there is no deadline.
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    private YHttpClient prepareHttpClient() {
+        // クエリ文字列とヘッダ文字列の生成自体にコストがかかるため、出力レベルを確認してから組み立てる
+        if (YConnectLogger.isDebugEnabled()) {
+            YConnectLogger.debug(TAG, "request parameters: {}", parameters.toQueryString());
+            YConnectLogger.debug(TAG, "request headers: {}", requestHeaders.toHeaderString());
+        }
+        return newHttpClient();
+    }
+
+    private void readResponse(YHttpResponse<?> response) {
+        responseCode = response.getStatusCode();
+        responseMessage = response.getStatusMessage();
+        responseHeaders = response.getHeaders();
+    }
+
     private void checkErrorResponse() throws ApiClientException {
         if (responseCode == 200) {
             return;
@@ -204,7 +275,7 @@ public class ApiClient {
 
         YConnectLogger.debug(TAG, wwwAuthHeader);
         HashMap<String, String> wwwAuthHeaderHashMap = extractWWWAuthHeader(wwwAuthHeader);
-        YConnectLogger.debug(TAG, wwwAuthHeaderHashMap.toString());
+        YConnectLogger.debug(TAG, "{}", wwwAuthHeaderHashMap);
         String error = wwwAuthHeaderHashMap.get("error");
         String errorDescription = wwwAuthHeaderHashMap.get("error_description");
 
@@ -222,7 +293,13 @@ public class ApiClient {
         return map;
     }
 
+    /**
+     * Get HTTP client to send request. The client is stateless, so the shared instance is returned
+     * by default.
+     *
+     * @return HTTP client.
+     */
     protected YHttpClient newHttpClient() {
-        return new YHttpClient();
+        return YHttpClient.getDefault();
     }
 }
@@ -41,7 +41,10 @@ import org.apache.http.conn.ssl.SSLSocketFactory;
  * Custom SSLSocket Factory Class
  *
  * @author Copyright (C) 2016 Yahoo Japan Corporation. All Rights Reserved.
+ * @deprecated SDKでは使用していません。 SSLソケットは{@link YHttpTransport}が生成し、SSL証明書チェックの無効化は
+ *     {@link YHttpClient#disableSSLCheck()}で行ってください。 将来のバージョンで削除します。
  */
+@Deprecated
 public class CustomSSLSocketFactory extends SSLSocketFactory {
 
     SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
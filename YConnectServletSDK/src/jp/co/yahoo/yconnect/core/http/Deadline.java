@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline Class
+ *
+ * <p>一連のリクエスト全体の期限を表す不変クラスです。 {@link YHttpClient}
+ * は各リクエストのタイムアウトを期限までの残り時間以下に切り詰め、期限を過ぎている場合はリクエストを送信しません。
+ * レスポンスボディの読み込み中に期限を過ぎた場合は、読み込みを中断して接続を破棄します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 現在から指定された時間後を期限とするDeadlineを生成します。
+     *
+     * @param timeout 期限までの時間
+     * @param unit timeoutの単位
+     * @return Deadline
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * 期限までの残り時間を返します。
+     *
+     * @return 残り時間(ミリ秒)、期限を過ぎている場合は0
+     */
+    public long getRemaining() {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return 0;
+        }
+        // 1ミリ秒未満の端数は切り上げる
+        return TimeUnit.NANOSECONDS.toMillis(remaining + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * 期限を過ぎているかを返します。
+     *
+     * @return 期限を過ぎている場合はtrue
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline(remaining=" + getRemaining() + "ms)";
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import org.apache.http.client.config.RequestConfig;
+
+/**
+ * HTTP Timeouts Class
+ *
+ * <p>接続確立、レスポンス読み込み、コネクションプールからの接続取得のタイムアウト(ミリ秒)を保持する不変クラスです。
+ * 0を指定するとタイムアウトしません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class HttpTimeouts {
+
+    /** 接続確立のタイムアウトのデフォルト値(ミリ秒) */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+
+    /** レスポンス読み込みのタイムアウトのデフォルト値(ミリ秒) */
+    public static final int DEFAULT_SOCKET_TIMEOUT = 10000;
+
+    /** コネクションプールからの接続取得のタイムアウトのデフォルト値(ミリ秒) */
+    public static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 5000;
+
+    /** デフォルトのタイムアウト */
+    public static final HttpTimeouts DEFAULT =
+            new HttpTimeouts(
+                    DEFAULT_CONNECT_TIMEOUT,
+                    DEFAULT_SOCKET_TIMEOUT,
+                    DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+
+    private final int connectTimeout;
+
+    private final int socketTimeout;
+
+    private final int connectionRequestTimeout;
+
+    /**
+     * HttpTimeoutsのコンストラクタです。
+     *
+     * @param connectTimeout 接続確立のタイムアウト(ミリ秒)
+     * @param socketTimeout レスポンス読み込みのタイムアウト(ミリ秒)
+     * @param connectionRequestTimeout コネクションプールからの接続取得のタイムアウト(ミリ秒)
+     */
+    public HttpTimeouts(int connectTimeout, int socketTimeout, int connectionRequestTimeout) {
+        if (connectTimeout < 0 || socketTimeout < 0 || connectionRequestTimeout < 0) {
+            throw new IllegalArgumentException("timeouts must not be negative.");
+        }
+        this.connectTimeout = connectTimeout;
+        this.socketTimeout = socketTimeout;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    /**
+     * 接続確立のタイムアウトを返します。
+     *
+     * @return 接続確立のタイムアウト(ミリ秒)
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * レスポンス読み込みのタイムアウトを返します。
+     *
+     * @return レスポンス読み込みのタイムアウト(ミリ秒)
+     */
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * コネクションプールからの接続取得のタイムアウトを返します。
+     *
+     * @return コネクションプールからの接続取得のタイムアウト(ミリ秒)
+     */
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    /**
+     * 各タイムアウトを期限までの残り時間以下に切り詰めたHttpTimeoutsを返します。
+     *
+     * <p>切り詰めたタイムアウトは1回の接続や読み込みごとの上限です。 レスポンスボディの読み込み全体が期限内に収まるかは
+     * {@link YHttpClient}が読み込みのたびに確認します。
+     *
+     * @param deadline 期限、nullの場合は切り詰めない
+     * @return 切り詰めたHttpTimeouts
+     */
+    public HttpTimeouts limitTo(Deadline deadline) {
+        if (deadline == null) {
+            return this;
+        }
+        // 0は無制限を表すため、残り時間が0になった場合も最低1ミリ秒とする
+        int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.getRemaining()));
+        return new HttpTimeouts(
+                limit(connectTimeout, remaining),
+                limit(socketTimeout, remaining),
+                limit(connectionRequestTimeout, remaining));
+    }
+
+    RequestConfig toRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(socketTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof HttpTimeouts)) {
+            return false;
+        }
+        HttpTimeouts other = (HttpTimeouts) object;
+        return connectTimeout == other.connectTimeout
+                && socketTimeout == other.socketTimeout
+                && connectionRequestTimeout == other.connectionRequestTimeout;
+    }
+
+    @Override
+    public int hashCode() {
+        return (connectTimeout * 31 + socketTimeout) * 31 + connectionRequestTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "connectTimeout="
+                + connectTimeout
+                + ", socketTimeout="
+                + socketTimeout
+                + ", connectionRequestTimeout="
+                + connectionRequestTimeout;
+    }
+
+    private static int limit(int timeout, int remaining) {
+        return timeout == 0 ? remaining : Math.min(timeout, remaining);
+    }
+}
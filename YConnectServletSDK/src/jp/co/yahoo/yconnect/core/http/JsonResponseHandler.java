@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+/**
+ * JSON Response Handler Class
+ *
+ * <p>レスポンスボディのストリームを直接JSONパーサーに渡し、{@link JsonObject}を生成します。 不変クラスのため、
+ * 複数のスレッドから共有できます。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class JsonResponseHandler implements YHttpResponseHandler<JsonObject> {
+
+    private final boolean successOnly;
+
+    /** ステータスコードに関わらずレスポンスボディを解析するJsonResponseHandlerを生成します。 */
+    public JsonResponseHandler() {
+        this(false);
+    }
+
+    /**
+     * JsonResponseHandlerのコンストラクタです。
+     *
+     * @param successOnly trueの場合、ステータスコードが200以外のレスポンスは解析せずnullを返す
+     */
+    public JsonResponseHandler(boolean successOnly) {
+        this.successOnly = successOnly;
+    }
+
+    public JsonObject handleResponse(
+            int statusCode, HttpHeaders headers, InputStream body, Charset charset) {
+        if (successOnly && statusCode != 200) {
+            return null;
+        }
+
+        JsonReader jsonReader = Json.createReader(new InputStreamReader(body, charset));
+        try {
+            return jsonReader.readObject();
+        } finally {
+            jsonReader.close();
+        }
+    }
+}
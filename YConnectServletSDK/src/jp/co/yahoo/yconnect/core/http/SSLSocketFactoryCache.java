@@ -0,0 +1,183 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+
+/**
+ * SSL Socket Factory Cache Class
+ *
+ * <p>SSLContextの生成と初期化はトラストストアの読み込みやSecureRandomの初期化を伴い高コストなため、
+ * SSL証明書チェックの有無とプロトコルの組み合わせごとに一度だけ生成して再利用します。
+ * 同じSSLContextを使うことで、トランスポートが作り直されたり接続が切れたりしても、
+ * SSLContextのセッションキャッシュからTLSセッションが再開されます。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+final class SSLSocketFactoryCache {
+
+    private static final String TAG = SSLSocketFactoryCache.class.getSimpleName();
+
+    private static final ConcurrentMap<String, Entry> cache =
+            new ConcurrentHashMap<String, Entry>();
+
+    private static final Object lock = new Object();
+
+    private static int sessionCacheSize = YHttpTransport.DEFAULT_SESSION_CACHE_SIZE;
+
+    private static int sessionTimeout = YHttpTransport.DEFAULT_SESSION_TIMEOUT;
+
+    private SSLSocketFactoryCache() {}
+
+    /**
+     * SSLソケットファクトリを返します。 初回の呼び出し時にのみ生成します。
+     *
+     * @param checkSSL SSL証明書チェックの有無
+     * @param protocols 有効にするTLSプロトコル
+     * @return SSLソケットファクトリ
+     */
+    static SSLConnectionSocketFactory get(boolean checkSSL, String[] protocols) {
+        return getEntry(checkSSL, protocols).factory;
+    }
+
+    /**
+     * SSLソケットファクトリが使用するSSLContextを返します。
+     *
+     * @param checkSSL SSL証明書チェックの有無
+     * @param protocols 有効にするTLSプロトコル
+     * @return SSLContext
+     */
+    static SSLContext getSSLContext(boolean checkSSL, String[] protocols) {
+        return getEntry(checkSSL, protocols).sslContext;
+    }
+
+    /**
+     * クライアント側のTLSセッションキャッシュを設定します。 生成済みのSSLContextにも反映されます。
+     *
+     * @param cacheSize キャッシュするセッションの最大数。0の場合は無制限
+     * @param timeout セッションの有効期間(秒)。0の場合は無期限
+     */
+    static void configureSessionCache(int cacheSize, int timeout) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative: " + cacheSize);
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        synchronized (lock) {
+            sessionCacheSize = cacheSize;
+            sessionTimeout = timeout;
+            for (Entry entry : cache.values()) {
+                applySessionCache(entry.sslContext);
+            }
+        }
+    }
+
+    private static Entry getEntry(boolean checkSSL, String[] protocols) {
+        String key = checkSSL + ":" + Arrays.toString(protocols);
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        synchronized (lock) {
+            entry = cache.get(key);
+            if (entry == null) {
+                entry = create(checkSSL, protocols);
+                applySessionCache(entry.sslContext);
+                cache.put(key, entry);
+            }
+            return entry;
+        }
+    }
+
+    private static void applySessionCache(SSLContext sslContext) {
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(sessionCacheSize);
+        sessionContext.setSessionTimeout(sessionTimeout);
+    }
+
+    private static Entry create(boolean checkSSL, String[] protocols) {
+        try {
+            SSLContext sslContext = SSLContext.getInstance(protocols[0]);
+            if (checkSSL) {
+                sslContext.init(null, null, null);
+                return new Entry(
+                        sslContext,
+                        new SSLConnectionSocketFactory(
+                                sslContext,
+                                protocols.clone(),
+                                null,
+                                SSLConnectionSocketFactory.getDefaultHostnameVerifier()));
+            }
+
+            YConnectLogger.debug(TAG, "HTTPS ignore SSL Certification");
+            TrustManager[] trustManagers = {
+                new X509TrustManager() {
+                    public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+                    public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[0];
+                    }
+                }
+            };
+            sslContext.init(null, trustManagers, null);
+            return new Entry(
+                    sslContext,
+                    new SSLConnectionSocketFactory(
+                            sslContext, protocols.clone(), null, NoopHostnameVerifier.INSTANCE));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (KeyManagementException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final SSLContext sslContext;
+
+        private final SSLConnectionSocketFactory factory;
+
+        private Entry(SSLContext sslContext, SSLConnectionSocketFactory factory) {
+            this.sslContext = sslContext;
+            this.factory = factory;
+        }
+    }
+}
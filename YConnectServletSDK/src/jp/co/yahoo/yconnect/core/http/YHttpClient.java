@@ -24,103 +24,131 @@
 
 package jp.co.yahoo.yconnect.core.http;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
-import java.security.KeyManagementException;
-import java.security.KeyStore;
-import java.security.NoSuchAlgorithmException;
+import java.nio.charset.Charset;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import javax.net.ssl.SSLContext;
 import jp.co.yahoo.yconnect.core.util.YConnectLogger;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.ParseException;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.conn.ClientConnectionManager;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.SingleClientConnManager;
-import org.apache.http.util.EntityUtils;
 
 /**
  * HTTP Client Class for YConnect
  *
+ * <p>レスポンスはリクエストごとに{@link YHttpResponse}として返し、クライアント自身は状態を持ちません。
+ * そのため1つのインスタンスを複数のスレッドから共有できます。
+ *
  * @author Copyright (C) 2016 Yahoo Japan Corporation. All Rights Reserved.
  */
 public class YHttpClient {
 
-    /** {@link HttpURLConnection}インスタンス */
-    private HttpClient httpClient = null;
+    private static final String TAG = YHttpClient.class.getSimpleName();
 
-    /** レスポンスのHTTPステータスコード */
-    private int responseCode;
+    /** レスポンスボディの最大サイズのデフォルト値(バイト) */
+    public static final long DEFAULT_MAX_BODY_SIZE = 1024 * 1024L;
 
-    /** レスポンスのHTTP応答メッセージ */
-    private String responseMessage;
+    private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
-    /**
-     * レスポンスヘッダ<br>
-     * フィールド名と値の{@link HashMap}
-     */
-    private final HttpHeaders responseHeaders;
+    /** レスポンスボディを文字列として読み込むハンドラ */
+    private static final YHttpResponseHandler<String> STRING_HANDLER =
+            new YHttpResponseHandler<String>() {
+                public String handleResponse(
+                        int statusCode, HttpHeaders headers, InputStream body, Charset charset)
+                        throws IOException {
+                    Reader reader = new InputStreamReader(body, charset);
+                    StringBuilder sb = new StringBuilder();
+                    char[] buffer = new char[4096];
+                    int n;
+                    while ((n = reader.read(buffer)) != -1) {
+                        sb.append(buffer, 0, n);
+                    }
+                    return sb.toString();
+                }
+            };
+
+    /** 共有トランスポートを使用する、プロセス全体で共有されるクライアント */
+    private static final YHttpClient DEFAULT_CLIENT = new YHttpClient();
+
+    /** リクエストに使用するトランスポート。nullの場合は共有トランスポートを使用 */
+    private final YHttpTransport transport;
+
+    /** リクエストのタイムアウト。nullの場合はトランスポートのタイムアウトを使用 */
+    private final HttpTimeouts timeouts;
 
-    /** レスポンスボディ */
-    private String responseBody;
+    /** レスポンスボディの最大サイズ(バイト) */
+    private final long maxBodySize;
 
     /** SSL証明書チェック */
-    private static boolean checkSSL = true; // default true
+    private static volatile boolean checkSSL = true; // default true
 
-    /** HttpClientのコンストラクタです。 */
+    /** HttpClientのコンストラクタです。 プロセス全体で共有される {@link YHttpTransport} を使用します。 */
     public YHttpClient() {
-        // 初期化
-        responseCode = 0;
-        responseMessage = "";
-        responseBody = "";
-        responseHeaders = new HttpHeaders();
+        this(null);
     }
 
     /**
-     * ステータスコードを返します。
+     * HttpClientのコンストラクタです。
      *
-     * @return ステータスコード
+     * @param transport リクエストに使用するトランスポート。nullの場合は共有トランスポートを使用
      */
-    public int getStatusCode() {
-        return responseCode;
+    public YHttpClient(YHttpTransport transport) {
+        this(transport, null, DEFAULT_MAX_BODY_SIZE);
     }
 
     /**
-     * ステータスメッセージを返します。
+     * HttpClientのコンストラクタです。
      *
-     * @return ステータスメッセージ
+     * @param transport リクエストに使用するトランスポート。nullの場合は共有トランスポートを使用
+     * @param timeouts リクエストのタイムアウト。nullの場合はトランスポートのタイムアウトを使用
+     * @param maxBodySize レスポンスボディの最大サイズ(バイト)。これを超えるレスポンスは読み込まずに失敗として扱う
      */
-    public String getStatusMessage() {
-        return responseMessage;
+    public YHttpClient(YHttpTransport transport, HttpTimeouts timeouts, long maxBodySize) {
+        if (maxBodySize <= 0) {
+            throw new IllegalArgumentException("maxBodySize must be positive: " + maxBodySize);
+        }
+        this.transport = transport;
+        this.timeouts = timeouts;
+        this.maxBodySize = maxBodySize;
     }
 
     /**
-     * レスポンスヘッダを返します。
+     * 共有トランスポートを使用する、プロセス全体で共有されるクライアントを返します。
      *
-     * @return レスポンスヘッダ
+     * @return 共有クライアント
      */
-    public HttpHeaders getResponseHeaders() {
-        return responseHeaders;
+    public static YHttpClient getDefault() {
+        return DEFAULT_CLIENT;
     }
 
     /**
-     * レスポンスボディを返します。
+     * リクエストのタイムアウトを返します。
      *
-     * @return レスポンスボディ
+     * @return タイムアウト。nullの場合はトランスポートのタイムアウトを使用
      */
-    public String getResponseBody() {
-        return responseBody;
+    public HttpTimeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * レスポンスボディの最大サイズを返します。
+     *
+     * @return レスポンスボディの最大サイズ(バイト)
+     */
+    public long getMaxBodySize() {
+        return maxBodySize;
     }
 
     /**
@@ -129,9 +157,68 @@ public class YHttpClient {
      * @param urlString URL文字列
      * @param parameters {@link HttpParameters} の {@link ArrayList}
      * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @return レスポンス
      */
-    public void requestGet(
+    public YHttpResponse<String> requestGet(
             String urlString, HttpParameters parameters, HttpHeaders requestHeaders) {
+        return requestGet(urlString, parameters, requestHeaders, null, null, STRING_HANDLER);
+    }
+
+    /**
+     * GETメソッドによるHTTPリクエストをします。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param timeouts このリクエストのタイムアウト。nullの場合は{@link #getTimeouts()}の値を使用
+     * @param deadline 一連のリクエスト全体の期限。nullの場合は期限なし
+     * @return レスポンス
+     */
+    public YHttpResponse<String> requestGet(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            HttpTimeouts timeouts,
+            Deadline deadline) {
+        return requestGet(
+                urlString, parameters, requestHeaders, timeouts, deadline, STRING_HANDLER);
+    }
+
+    /**
+     * GETメソッドによるHTTPリクエストをし、レスポンスボディをストリームのまま処理します。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param handler レスポンスを処理するハンドラ
+     * @return ハンドラの処理結果をボディとするレスポンス
+     */
+    public <T> YHttpResponse<T> requestGet(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            YHttpResponseHandler<T> handler) {
+        return requestGet(urlString, parameters, requestHeaders, null, null, handler);
+    }
+
+    /**
+     * GETメソッドによるHTTPリクエストをし、レスポンスボディをストリームのまま処理します。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param timeouts このリクエストのタイムアウト。nullの場合は{@link #getTimeouts()}の値を使用
+     * @param deadline 一連のリクエスト全体の期限。nullの場合は期限なし
+     * @param handler レスポンスを処理するハンドラ
+     * @return ハンドラの処理結果をボディとするレスポンス
+     */
+    public <T> YHttpResponse<T> requestGet(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            HttpTimeouts timeouts,
+            Deadline deadline,
+            YHttpResponseHandler<T> handler) {
 
         // リクエストパラメータ設定
         if (parameters != null) {
@@ -139,7 +226,7 @@ public class YHttpClient {
             urlString += "?" + queryString;
         }
 
-        YConnectLogger.debug(this, "URL: " + urlString);
+        YConnectLogger.debug(this, "URL: {}", urlString);
 
         // リクエストヘッダ設定
         HttpGet method = new HttpGet(urlString);
@@ -147,11 +234,11 @@ public class YHttpClient {
             for (String key : requestHeaders.keySet()) {
                 String value = requestHeaders.get(key);
                 method.setHeader(key, value);
-                YConnectLogger.debug(this, key + ": " + value);
+                YConnectLogger.debug(this, "{}: {}", key, value);
             }
         }
 
-        request(urlString, method);
+        return request(method, timeouts, deadline, handler);
     }
 
     /**
@@ -160,11 +247,70 @@ public class YHttpClient {
      * @param urlString URL文字列
      * @param parameters {@link HttpParameters} の {@link ArrayList}
      * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @return レスポンス
      */
-    public void requestPost(
+    public YHttpResponse<String> requestPost(
             String urlString, HttpParameters parameters, HttpHeaders requestHeaders) {
+        return requestPost(urlString, parameters, requestHeaders, null, null, STRING_HANDLER);
+    }
+
+    /**
+     * POSTメソッドによるHTTPリクエストをします。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param timeouts このリクエストのタイムアウト。nullの場合は{@link #getTimeouts()}の値を使用
+     * @param deadline 一連のリクエスト全体の期限。nullの場合は期限なし
+     * @return レスポンス
+     */
+    public YHttpResponse<String> requestPost(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            HttpTimeouts timeouts,
+            Deadline deadline) {
+        return requestPost(
+                urlString, parameters, requestHeaders, timeouts, deadline, STRING_HANDLER);
+    }
 
-        YConnectLogger.debug(this, "URL: " + urlString);
+    /**
+     * POSTメソッドによるHTTPリクエストをし、レスポンスボディをストリームのまま処理します。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param handler レスポンスを処理するハンドラ
+     * @return ハンドラの処理結果をボディとするレスポンス
+     */
+    public <T> YHttpResponse<T> requestPost(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            YHttpResponseHandler<T> handler) {
+        return requestPost(urlString, parameters, requestHeaders, null, null, handler);
+    }
+
+    /**
+     * POSTメソッドによるHTTPリクエストをし、レスポンスボディをストリームのまま処理します。
+     *
+     * @param urlString URL文字列
+     * @param parameters {@link HttpParameters} の {@link ArrayList}
+     * @param requestHeaders リクエストヘッダの {@link HashMap}
+     * @param timeouts このリクエストのタイムアウト。nullの場合は{@link #getTimeouts()}の値を使用
+     * @param deadline 一連のリクエスト全体の期限。nullの場合は期限なし
+     * @param handler レスポンスを処理するハンドラ
+     * @return ハンドラの処理結果をボディとするレスポンス
+     */
+    public <T> YHttpResponse<T> requestPost(
+            String urlString,
+            HttpParameters parameters,
+            HttpHeaders requestHeaders,
+            HttpTimeouts timeouts,
+            Deadline deadline,
+            YHttpResponseHandler<T> handler) {
+
+        YConnectLogger.debug(this, "URL: {}", urlString);
 
         HttpPost method = new HttpPost(urlString);
 
@@ -173,7 +319,7 @@ public class YHttpClient {
             for (String key : requestHeaders.keySet()) {
                 String value = requestHeaders.get(key);
                 method.setHeader(key, value);
-                YConnectLogger.debug(this, key + ": " + value);
+                YConnectLogger.debug(this, "{}: {}", key, value);
             }
         }
 
@@ -186,102 +332,141 @@ public class YHttpClient {
             paramEntity.setContentType("application/x-www-form-urlencoded");
             method.setEntity(paramEntity);
 
-            YConnectLogger.debug(this, "POST Body: " + queryString);
+            YConnectLogger.debug(this, "POST Body: {}", queryString);
         } catch (UnsupportedEncodingException ex) {
-            ex.printStackTrace();
-            return;
+            YConnectLogger.error(this, "Invalid POST Body: {}", ex.getMessage());
+            return YHttpResponse.failure(ex.getClass().getSimpleName() + ": " + ex.getMessage());
         }
 
-        request(urlString, method);
+        return request(method, timeouts, deadline, handler);
     }
 
     /**
      * エンドポイントに対してHTTPリクエストします。
      *
-     * @param urlString URL文字列
+     * <p>タイムアウトや期限切れなどでレスポンスを受け取れなかった場合、ステータスコードは0となり、
+     * ステータスメッセージに原因が設定されます。
+     *
      * @param request リクエストオブジェクト
+     * @param timeouts このリクエストのタイムアウト
+     * @param deadline 一連のリクエスト全体の期限
+     * @param handler レスポンスを処理するハンドラ
+     * @return レスポンス
      */
-    private void request(String urlString, HttpRequestBase request) {
-        if (urlString.startsWith("https")) {
-            setSSLConfiguration();
+    private <T> YHttpResponse<T> request(
+            HttpRequestBase request,
+            HttpTimeouts timeouts,
+            Deadline deadline,
+            YHttpResponseHandler<T> handler) {
+        YHttpTransport transport = getTransport();
+
+        if (deadline != null && deadline.isExpired()) {
+            YConnectLogger.error(this, "Deadline exceeded before request: {}", request.getURI());
+            return YHttpResponse.failure("Deadline exceeded.");
+        }
+
+        if (timeouts == null) {
+            timeouts = this.timeouts != null ? this.timeouts : transport.getTimeouts();
         }
+        request.setConfig(timeouts.limitTo(deadline).toRequestConfig());
 
         try {
-            HttpResponse httpResponse = httpClient.execute(request);
+            HttpResponse httpResponse = transport.getHttpClient().execute(request);
 
             // レスポンスコード、メッセージ取得
-            responseCode = httpResponse.getStatusLine().getStatusCode();
-            responseMessage = httpResponse.getStatusLine().getReasonPhrase();
+            int responseCode = httpResponse.getStatusLine().getStatusCode();
+            String responseMessage = httpResponse.getStatusLine().getReasonPhrase();
 
-            YConnectLogger.debug(this, "responseCode: " + responseCode);
-            YConnectLogger.debug(this, "responseMessage: " + responseMessage);
+            YConnectLogger.debug(this, "responseCode: {}", responseCode);
+            YConnectLogger.debug(this, "responseMessage: {}", responseMessage);
 
             // レスポンスヘッダ取得
+            HttpHeaders responseHeaders = new HttpHeaders();
             Header[] headers = httpResponse.getAllHeaders();
             for (Header header : headers) {
                 responseHeaders.put(header.getName(), header.getValue());
             }
 
-            YConnectLogger.debug(this, "responseHeaders: " + responseHeaders);
+            YConnectLogger.debug(this, "responseHeaders: {}", responseHeaders);
 
-            // レスポンスボディ取得
+            // レスポンスボディは文字列に変換せず、ストリームのままハンドラに渡す
             HttpEntity httpEntity = httpResponse.getEntity();
-            responseBody = EntityUtils.toString(httpEntity);
-            httpEntity.getContent().close();
-
-            YConnectLogger.debug(this, "responseBody: " + responseBody);
+            InputStream body = openBody(httpEntity, deadline);
+            boolean consumed = false;
+            try {
+                T result =
+                        handler.handleResponse(
+                                responseCode, responseHeaders, body, getCharset(httpEntity));
+
+                // ボディを読み切ることで接続がプールに返却され、Keep-Aliveで再利用される
+                byte[] buffer = new byte[4096];
+                while (body.read(buffer) != -1) {
+                    // 読み捨てる
+                }
+                consumed = true;
+                return new YHttpResponse<T>(responseCode, responseMessage, responseHeaders, result);
+            } finally {
+                if (!consumed) {
+                    // ハンドラが例外を投げた場合も、残りのボディを読み切らずに接続を破棄する
+                    request.abort();
+                }
+                body.close();
+            }
         } catch (IOException e) {
-            e.printStackTrace();
+            String responseMessage = e.getClass().getSimpleName() + ": " + e.getMessage();
+            YConnectLogger.error(this, "Request failed: {}", responseMessage);
+            return YHttpResponse.failure(responseMessage);
         } finally {
             request.releaseConnection();
-            httpClient.getConnectionManager().shutdown();
         }
     }
 
-    /**
-     * SSL証明書のチェックを無効化します。
-     *
-     * @param httpClient HTTP Client
-     */
-    @SuppressWarnings("deprecation")
-    private static void ignoreSSLCertification(HttpClient httpClient) {
-        try {
-            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
-            keyStore.load(null, null);
-            SSLSocketFactory sslSocketFactory = new CustomSSLSocketFactory(keyStore);
-
-            sslSocketFactory.setHostnameVerifier(SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
-            Scheme scheme = new Scheme("https", sslSocketFactory, 443);
-            httpClient.getConnectionManager().getSchemeRegistry().register(scheme);
-        } catch (Exception e) {
-            YConnectLogger.error(YHttpClient.class, e.getMessage());
-            e.printStackTrace();
+    private InputStream openBody(HttpEntity httpEntity, Deadline deadline) throws IOException {
+        if (httpEntity == null) {
+            return new ByteArrayInputStream(new byte[0]);
         }
+        if (httpEntity.getContentLength() > maxBodySize) {
+            throw new IOException("Response body exceeds " + maxBodySize + " bytes.");
+        }
+        return new LimitedInputStream(httpEntity.getContent(), maxBodySize, deadline);
     }
 
-    /** SSLの設定を行います。 */
-    private void setSSLConfiguration() {
-        if (!checkSSL) {
-            YConnectLogger.debug(this, "HTTPS ignore SSL Certification");
-            httpClient = new DefaultHttpClient();
-            ignoreSSLCertification(httpClient);
-            return;
+    private static Charset getCharset(HttpEntity httpEntity) {
+        if (httpEntity != null) {
+            try {
+                ContentType contentType = ContentType.get(httpEntity);
+                if (contentType != null && contentType.getCharset() != null) {
+                    return contentType.getCharset();
+                }
+            } catch (ParseException e) {
+                YConnectLogger.debug(TAG, "Invalid Content-Type: {}", e.getMessage());
+            } catch (UnsupportedCharsetException e) {
+                YConnectLogger.debug(TAG, "Unsupported charset: {}", e.getMessage());
+            }
         }
+        // JSON(RFC 8259)の既定の文字コード
+        return DEFAULT_CHARSET;
+    }
 
-        try {
-            SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
-            sslContext.init(null, null, null);
-            SSLSocketFactory sf = new SSLSocketFactory(sslContext);
-            Scheme httpsScheme = new Scheme("https", 443, sf);
-            SchemeRegistry schemeRegistry = new SchemeRegistry();
-            schemeRegistry.register(httpsScheme);
-            ClientConnectionManager cm = new SingleClientConnManager(schemeRegistry);
-            httpClient = new DefaultHttpClient(cm);
-        } catch (NoSuchAlgorithmException e1) {
-            e1.printStackTrace();
-        } catch (KeyManagementException e1) {
-            e1.printStackTrace();
+    /**
+     * リクエストに使用するトランスポートを返します。
+     *
+     * @return トランスポート
+     */
+    protected YHttpTransport getTransport() {
+        if (transport != null) {
+            return transport;
         }
+        return YHttpTransport.getDefault();
+    }
+
+    /**
+     * SSL証明書チェックの有無を返します。
+     *
+     * @return SSL証明書チェックを行う場合はtrue
+     */
+    public static boolean isSSLCheckEnabled() {
+        return checkSSL;
     }
 
     public static void enableSSLCheck() {
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+/**
+ * HTTP Response Class for YConnect
+ *
+ * <p>{@link YHttpClient}のリクエスト1回分のレスポンスを表す不変クラスです。 レスポンスを受け取れなかった場合は
+ * ステータスコードが0となり、ステータスメッセージに原因が設定されます。
+ *
+ * @param <T> レスポンスボディの型
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class YHttpResponse<T> {
+
+    private final int statusCode;
+
+    private final String statusMessage;
+
+    private final HttpHeaders headers;
+
+    private final T body;
+
+    /**
+     * YHttpResponseのコンストラクタです。
+     *
+     * @param statusCode ステータスコード
+     * @param statusMessage ステータスメッセージ
+     * @param headers レスポンスヘッダ。nullの場合は空のヘッダ
+     * @param body レスポンスボディ
+     */
+    public YHttpResponse(int statusCode, String statusMessage, HttpHeaders headers, T body) {
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage != null ? statusMessage : "";
+        this.headers = new HttpHeaders();
+        if (headers != null) {
+            this.headers.putAll(headers);
+        }
+        this.body = body;
+    }
+
+    /**
+     * レスポンスを受け取れなかったことを表すYHttpResponseを生成します。
+     *
+     * @param statusMessage 失敗の原因
+     * @return ステータスコードが0のYHttpResponse
+     */
+    public static <T> YHttpResponse<T> failure(String statusMessage) {
+        return new YHttpResponse<T>(0, statusMessage, null, null);
+    }
+
+    /**
+     * ステータスコードを返します。
+     *
+     * @return ステータスコード。レスポンスを受け取れなかった場合は0
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * ステータスメッセージを返します。
+     *
+     * @return ステータスメッセージ。レスポンスを受け取れなかった場合は失敗の原因
+     */
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    /**
+     * レスポンスヘッダを返します。 戻り値はコピーのため、変更してもこのオブジェクトには影響しません。
+     *
+     * @return レスポンスヘッダ
+     */
+    public HttpHeaders getHeaders() {
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        return copy;
+    }
+
+    /**
+     * レスポンスヘッダの値を返します。
+     *
+     * @param name フィールド名
+     * @return フィールドの値。存在しない場合はnull
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * レスポンスボディを返します。
+     *
+     * @return レスポンスボディ。レスポンスを受け取れなかった場合はnull
+     */
+    public T getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return "YHttpResponse{statusCode=" + statusCode + ", statusMessage=" + statusMessage + "}";
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * HTTP Response Handler Interface
+ *
+ * <p>{@link YHttpClient}が受信したレスポンスボディを文字列に変換せず、ストリームのまま処理するためのインタフェースです。
+ *
+ * @param <T> 処理結果の型
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public interface YHttpResponseHandler<T> {
+
+    /**
+     * レスポンスを処理します。
+     *
+     * <p>bodyは{@link YHttpClient#getMaxBodySize()}の大きさを超えて読み込むと{@link IOException}
+     * を送出します。 bodyはこのメソッドの終了後に閉じられるため、メソッド内で読み込んでください。
+     *
+     * @param statusCode ステータスコード
+     * @param headers レスポンスヘッダ
+     * @param body レスポンスボディのストリーム。ボディが無い場合は空のストリーム
+     * @param charset Content-Typeで宣言された文字コード。宣言が無い場合はUTF-8
+     * @return 処理結果
+     * @throws IOException レスポンスボディの読み込みに失敗したときに発生
+     */
+    T handleResponse(int statusCode, HttpHeaders headers, InputStream body, Charset charset)
+            throws IOException;
+}
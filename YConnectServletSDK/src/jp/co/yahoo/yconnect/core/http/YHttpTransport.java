@@ -0,0 +1,326 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Shared HTTP Transport Class for YConnect
+ *
+ * <p>コネクションプールを持つスレッドセーフなHTTPトランスポートです。 {@link YHttpClient}
+ * はデフォルトでプロセス全体で共有されるインスタンスを使用し、Keep-Aliveされた接続を再利用します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class YHttpTransport {
+
+    private static final String TAG = YHttpTransport.class.getSimpleName();
+
+    /** コネクションプール全体の最大接続数のデフォルト値 */
+    public static final int DEFAULT_MAX_TOTAL = 100;
+
+    /** ルート(ホスト)ごとの最大接続数のデフォルト値 */
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+
+    /** Keep-Aliveヘッダが無い場合の接続保持時間のデフォルト値(ミリ秒) */
+    public static final long DEFAULT_KEEP_ALIVE = 30000L;
+
+    /** TLSセッションキャッシュに保持するセッション数のデフォルト値 */
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 100;
+
+    /** TLSセッションキャッシュの有効期間のデフォルト値(秒) */
+    public static final int DEFAULT_SESSION_TIMEOUT = 3600;
+
+    private static final String[] TLS_PROTOCOLS = {"TLSv1.2"};
+
+    private static final Object lock = new Object();
+
+    /** SSL証明書チェックを行う共有トランスポート */
+    private static volatile YHttpTransport checkedTransport = null;
+
+    /** SSL証明書チェックを行わない共有トランスポート */
+    private static volatile YHttpTransport uncheckedTransport = null;
+
+    /** 設定の変更で置き換えられ、{@link #shutdownDefault()}で閉じるトランスポート */
+    private static final List<YHttpTransport> retiredTransports = new ArrayList<YHttpTransport>();
+
+    private static int defaultMaxTotal = DEFAULT_MAX_TOTAL;
+
+    private static int defaultMaxPerRoute = DEFAULT_MAX_PER_ROUTE;
+
+    private static long defaultKeepAlive = DEFAULT_KEEP_ALIVE;
+
+    private static HttpTimeouts defaultTimeouts = HttpTimeouts.DEFAULT;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final boolean checkSSL;
+
+    private final HttpTimeouts timeouts;
+
+    /**
+     * YHttpTransportのコンストラクタです。 タイムアウトには{@link HttpTimeouts#DEFAULT}を使用します。
+     *
+     * @param checkSSL SSL証明書チェックの有無
+     * @param maxTotal コネクションプール全体の最大接続数
+     * @param maxPerRoute ルートごとの最大接続数
+     * @param keepAlive Keep-Aliveヘッダが無い場合の接続保持時間(ミリ秒)
+     */
+    public YHttpTransport(boolean checkSSL, int maxTotal, int maxPerRoute, long keepAlive) {
+        this(checkSSL, maxTotal, maxPerRoute, keepAlive, HttpTimeouts.DEFAULT);
+    }
+
+    /**
+     * YHttpTransportのコンストラクタです。
+     *
+     * @param checkSSL SSL証明書チェックの有無
+     * @param maxTotal コネクションプール全体の最大接続数
+     * @param maxPerRoute ルートごとの最大接続数
+     * @param keepAlive Keep-Aliveヘッダが無い場合の接続保持時間(ミリ秒)
+     * @param timeouts {@link YHttpClient}でタイムアウトを指定しない場合に使用するタイムアウト
+     */
+    public YHttpTransport(
+            boolean checkSSL,
+            int maxTotal,
+            int maxPerRoute,
+            final long keepAlive,
+            HttpTimeouts timeouts) {
+        this.checkSSL = checkSSL;
+        this.timeouts = timeouts;
+
+        Registry<ConnectionSocketFactory> registry =
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLSocketFactoryCache.get(checkSSL, TLS_PROTOCOLS))
+                        .build();
+
+        connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        ConnectionKeepAliveStrategy keepAliveStrategy =
+                new DefaultConnectionKeepAliveStrategy() {
+                    @Override
+                    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                        long duration = super.getKeepAliveDuration(response, context);
+                        return duration > 0 ? duration : keepAlive;
+                    }
+                };
+
+        httpClient =
+                HttpClients.custom()
+                        .setConnectionManager(connectionManager)
+                        .setKeepAliveStrategy(keepAliveStrategy)
+                        .setDefaultRequestConfig(timeouts.toRequestConfig())
+                        .evictExpiredConnections()
+                        .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                        .build();
+    }
+
+    /**
+     * プロセス全体で共有するトランスポートを返します。
+     *
+     * <p>共有トランスポートはSSL証明書チェックの有無ごとに保持され、{@link YHttpClient#enableSSLCheck()}
+     * や{@link YHttpClient#disableSSLCheck()}で設定を切り替えると、使用するトランスポートが切り替わります。
+     * 切り替え前のトランスポートは閉じないため、実行中のリクエストには影響しません。
+     *
+     * @return 共有トランスポート
+     */
+    public static YHttpTransport getDefault() {
+        boolean checkSSL = YHttpClient.isSSLCheckEnabled();
+        YHttpTransport transport = checkSSL ? checkedTransport : uncheckedTransport;
+        if (transport != null) {
+            return transport;
+        }
+
+        synchronized (lock) {
+            transport = checkSSL ? checkedTransport : uncheckedTransport;
+            if (transport == null) {
+                transport =
+                        new YHttpTransport(
+                                checkSSL,
+                                defaultMaxTotal,
+                                defaultMaxPerRoute,
+                                defaultKeepAlive,
+                                defaultTimeouts);
+                if (checkSSL) {
+                    checkedTransport = transport;
+                } else {
+                    uncheckedTransport = transport;
+                }
+            }
+            return transport;
+        }
+    }
+
+    /**
+     * 共有トランスポートのコネクションプールの大きさを設定します。 既に共有トランスポートが生成されている場合は、
+     * 次回の{@link #getDefault()}呼び出し時に新しい設定で作り直されます。
+     *
+     * <p>置き換えられたトランスポートは実行中のリクエストのためにすぐには閉じず、{@link #shutdownDefault()}で閉じます。
+     *
+     * @param maxTotal コネクションプール全体の最大接続数
+     * @param maxPerRoute ルートごとの最大接続数
+     * @param keepAlive Keep-Aliveヘッダが無い場合の接続保持時間(ミリ秒)
+     */
+    public static void configureDefault(int maxTotal, int maxPerRoute, long keepAlive) {
+        synchronized (lock) {
+            configureDefault(maxTotal, maxPerRoute, keepAlive, defaultTimeouts);
+        }
+    }
+
+    /**
+     * 共有トランスポートのコネクションプールの大きさとタイムアウトを設定します。
+     * 既に共有トランスポートが生成されている場合は、次回の{@link #getDefault()}呼び出し時に新しい設定で作り直されます。
+     *
+     * <p>置き換えられたトランスポートは実行中のリクエストのためにすぐには閉じず、{@link #shutdownDefault()}で閉じます。
+     *
+     * @param maxTotal コネクションプール全体の最大接続数
+     * @param maxPerRoute ルートごとの最大接続数
+     * @param keepAlive Keep-Aliveヘッダが無い場合の接続保持時間(ミリ秒)
+     * @param timeouts {@link YHttpClient}でタイムアウトを指定しない場合に使用するタイムアウト
+     */
+    public static void configureDefault(
+            int maxTotal, int maxPerRoute, long keepAlive, HttpTimeouts timeouts) {
+        if (timeouts == null) {
+            throw new IllegalArgumentException("timeouts must not be null.");
+        }
+        synchronized (lock) {
+            defaultMaxTotal = maxTotal;
+            defaultMaxPerRoute = maxPerRoute;
+            defaultKeepAlive = keepAlive;
+            defaultTimeouts = timeouts;
+            // 実行中のリクエストが使用している可能性があるため、ここでは閉じない
+            retire(checkedTransport);
+            retire(uncheckedTransport);
+            checkedTransport = null;
+            uncheckedTransport = null;
+        }
+    }
+
+    private static void retire(YHttpTransport transport) {
+        if (transport != null) {
+            // 使用中でない接続は新しいトランスポートに移行するため解放する
+            transport.getConnectionManager().closeIdleConnections(0L, TimeUnit.MILLISECONDS);
+            retiredTransports.add(transport);
+        }
+    }
+
+    /**
+     * TLSセッションキャッシュを設定します。 SSLContextはトランスポート間で共有されるため、
+     * 共有トランスポートに限らず全てのトランスポートに反映されます。
+     *
+     * <p>接続が切れた後の再接続では、キャッシュされたセッションを使ってTLSハンドシェイクを省略します。
+     *
+     * @param cacheSize キャッシュするセッションの最大数。0の場合は無制限
+     * @param timeout セッションの有効期間(秒)。0の場合は無期限
+     */
+    public static void configureSessionCache(int cacheSize, int timeout) {
+        SSLSocketFactoryCache.configureSessionCache(cacheSize, timeout);
+    }
+
+    /**
+     * 共有トランスポートと、設定の変更で置き換えられたトランスポートを閉じ、プールされている接続を解放します。
+     * サーブレットコンテナの終了時に呼び出してください。
+     */
+    public static void shutdownDefault() {
+        synchronized (lock) {
+            for (YHttpTransport transport : retiredTransports) {
+                transport.close();
+            }
+            retiredTransports.clear();
+            if (checkedTransport != null) {
+                checkedTransport.close();
+                checkedTransport = null;
+            }
+            if (uncheckedTransport != null) {
+                uncheckedTransport.close();
+                uncheckedTransport = null;
+            }
+        }
+    }
+
+    /**
+     * HTTPクライアントを返します。
+     *
+     * @return コネクションプールを共有するHTTPクライアント
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * コネクションマネージャを返します。
+     *
+     * @return コネクションマネージャ
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * {@link YHttpClient}でタイムアウトを指定しない場合に使用するタイムアウトを返します。
+     *
+     * @return タイムアウト
+     */
+    public HttpTimeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * SSL証明書チェックの有無を返します。
+     *
+     * @return SSL証明書チェックを行う場合はtrue
+     */
+    public boolean isSSLCheckEnabled() {
+        return checkSSL;
+    }
+
+    /** トランスポートを閉じ、プールされている接続を解放します。 */
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            YConnectLogger.error(TAG, e.getMessage());
+        }
+    }
+}
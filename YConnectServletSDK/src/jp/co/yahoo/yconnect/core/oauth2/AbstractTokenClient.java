@@ -24,14 +24,19 @@
 
 package jp.co.yahoo.yconnect.core.oauth2;
 
-import java.io.StringReader;
-import javax.json.Json;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.json.JsonObject;
-import javax.json.JsonReader;
 import javax.json.JsonString;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
+import jp.co.yahoo.yconnect.core.http.JsonResponseHandler;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
 import jp.co.yahoo.yconnect.core.util.YConnectLogger;
 import org.apache.commons.codec.binary.Base64;
 
@@ -44,6 +49,8 @@ abstract class AbstractTokenClient {
 
     private static final String TAG = AbstractTokenClient.class.getSimpleName();
 
+    private static final JsonResponseHandler JSON_HANDLER = new JsonResponseHandler();
+
     protected String endpointUrl;
 
     protected String clientId;
@@ -52,6 +59,10 @@ abstract class AbstractTokenClient {
 
     protected BearerToken accessToken;
 
+    private HttpTimeouts timeouts;
+
+    private Deadline deadline;
+
     public AbstractTokenClient(String endpointUrl, String clientId, String clientSecret) {
         this.endpointUrl = endpointUrl;
         this.clientId = clientId;
@@ -64,6 +75,54 @@ abstract class AbstractTokenClient {
         return accessToken;
     }
 
+    /**
+     * リクエストのタイムアウトを設定します。 fetchの前に呼び出してください。
+     *
+     * @param timeouts タイムアウト。nullの場合はトランスポートのタイムアウトを使用
+     */
+    public void setTimeouts(HttpTimeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * リクエストの期限を設定します。 fetchの前に呼び出してください。
+     *
+     * @param deadline 期限。nullの場合は期限なし
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * {@link #fetch()} を共有スレッドプールで非同期に実行します。
+     *
+     * @return 取得したアクセストークンのFuture
+     * @see #fetchAsync(ExecutorService)
+     */
+    public Future<BearerToken> fetchAsync() {
+        return fetchAsync(YConnectExecutors.getDefault());
+    }
+
+    /**
+     * {@link #fetch()} を指定されたスレッドプールで非同期に実行します。
+     *
+     * <p>レスポンスにエラーが含まれている場合、{@link Future#get()} は {@link TokenException}
+     * を原因とする {@link java.util.concurrent.ExecutionException} を送出します。 Futureの完了後は
+     * {@link #getAccessToken()} などの結果取得メソッドも呼び出し元のスレッドから参照できます。
+     *
+     * @param executor リクエストを実行するスレッドプール
+     * @return 取得したアクセストークンのFuture
+     */
+    public Future<BearerToken> fetchAsync(ExecutorService executor) {
+        return executor.submit(
+                new Callable<BearerToken>() {
+                    public BearerToken call() throws TokenException {
+                        fetch();
+                        return getAccessToken();
+                    }
+                });
+    }
+
     /**
      * エンドポイントに対してHTTPリクエストします。
      *
@@ -80,17 +139,23 @@ abstract class AbstractTokenClient {
         requestHeaders.put("Authorization", "Basic " + basic);
 
         YHttpClient client = getYHttpClient();
-        client.requestPost(endpointUrl, parameters, requestHeaders);
+        YHttpResponse<JsonObject> response =
+                client.requestPost(
+                        endpointUrl, parameters, requestHeaders, timeouts, deadline, JSON_HANDLER);
+
+        YConnectLogger.debug(TAG, "{}", response.getHeaders());
 
-        YConnectLogger.debug(TAG, client.getResponseHeaders().toString());
-        YConnectLogger.debug(TAG, client.getResponseBody());
+        // タイムアウトなどでレスポンスを受け取れなかった場合
+        if (response.getStatusCode() == 0) {
+            YConnectLogger.error(TAG, "Failed Request. {}", response.getStatusMessage());
+            throw new TokenException(
+                    "Failed Request.", response.getStatusMessage(), (Integer) null);
+        }
 
-        String json = client.getResponseBody();
-        JsonReader jsonReader = Json.createReader(new StringReader(json));
-        JsonObject jsonObject = jsonReader.readObject();
-        jsonReader.close();
+        JsonObject jsonObject = response.getBody();
+        YConnectLogger.debug(TAG, "{}", jsonObject);
 
-        int statusCode = client.getStatusCode();
+        int statusCode = response.getStatusCode();
 
         checkErrorResponse(statusCode, jsonObject);
 
@@ -117,11 +182,11 @@ abstract class AbstractTokenClient {
         String errorDescription = jsonObject.getString("error_description");
         int errorCode = jsonObject.getInt("error_code");
 
-        YConnectLogger.error(TAG, error + " / " + errorDescription + " / " + errorCode);
+        YConnectLogger.error(TAG, "{} / {} / {}", error, errorDescription, errorCode);
         throw new TokenException(error, errorDescription, errorCode);
     }
 
     protected YHttpClient getYHttpClient() {
-        return new YHttpClient();
+        return YHttpClient.getDefault();
     }
 }
@@ -61,7 +61,7 @@ public class AuthorizationRequestClient {
         parameters.put("response_type", responseType);
         parameters.put("state", state);
         parameters.put("redirect_uri", redirectUri);
-        YConnectLogger.info(TAG, parameters.toString());
+        YConnectLogger.info(TAG, "{}", parameters);
         String uriString = endpointUri;
         uriString += "?" + parameters.toQueryString();
         URI requestUri = null;
@@ -73,6 +73,14 @@ public class AuthorizationRequestClient {
         return requestUri;
     }
 
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getRedirectUri() {
+        return redirectUri;
+    }
+
     public void setRedirectUri(String redirectUri) {
         this.redirectUri = redirectUri;
     }
@@ -81,6 +89,10 @@ public class AuthorizationRequestClient {
         this.responseType = responseType;
     }
 
+    public String getState() {
+        return state;
+    }
+
     public void setState(String state) {
         this.state = state;
     }
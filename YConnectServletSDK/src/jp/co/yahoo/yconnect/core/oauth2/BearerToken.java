@@ -24,6 +24,10 @@
 
 package jp.co.yahoo.yconnect.core.oauth2;
 
+import java.util.zip.DataFormatException;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
+
 /**
  * OAuth 2.0 Bearer Token
  *
@@ -31,12 +35,21 @@ package jp.co.yahoo.yconnect.core.oauth2;
  */
 public class BearerToken {
 
+    private static final int ACCESS_TOKEN = 1;
+
+    private static final int REFRESH_TOKEN = 1 << 1;
+
+    private static final int SCOPE = 1 << 2;
+
     /** Access Tokenの文字列 */
     private final String accessToken;
 
-    /** Access Tokenの有効期限（Unixタイムスタンプ） */
+    /** Access Tokenの有効期間（秒） */
     private final long expiration;
 
+    /** Access Tokenの発行時刻（エポックミリ秒） */
+    private final long issuedAt;
+
     /** Refresh Tokenの文字列 */
     private String refreshToken = null;
 
@@ -47,24 +60,48 @@ public class BearerToken {
      * OAuth2BearerTokenのコンストラクタです。
      *
      * @param accessToken Access Tokenの文字列
-     * @param expiration Access Tokenの有効期限（Unixタイムスタンプ）
+     * @param expiration Access Tokenの有効期間（秒）
      */
     public BearerToken(String accessToken, long expiration) {
-        this.accessToken = accessToken;
-        this.expiration = expiration;
+        this(accessToken, expiration, null, null);
     }
 
     public BearerToken(String accessToken, long expiration, String refreshToken) {
-        this.accessToken = accessToken;
-        this.expiration = expiration;
-        this.refreshToken = refreshToken;
+        this(accessToken, expiration, refreshToken, null);
     }
 
+    /**
+     * OAuth2BearerTokenのコンストラクタです。 発行時刻には現在時刻を使用します。
+     *
+     * @param accessToken Access Tokenの文字列
+     * @param expiration Access Tokenの有効期間（秒）
+     * @param refreshToken Refresh Tokenの文字列
+     * @param scope Scopeの文字列
+     */
     public BearerToken(String accessToken, long expiration, String refreshToken, String scope) {
+        this(accessToken, expiration, refreshToken, scope, System.currentTimeMillis());
+    }
+
+    /**
+     * OAuth2BearerTokenのコンストラクタです。
+     *
+     * @param accessToken Access Tokenの文字列
+     * @param expiration Access Tokenの有効期間（秒）
+     * @param refreshToken Refresh Tokenの文字列
+     * @param scope Scopeの文字列
+     * @param issuedAt Access Tokenの発行時刻（エポックミリ秒）
+     */
+    public BearerToken(
+            String accessToken,
+            long expiration,
+            String refreshToken,
+            String scope,
+            long issuedAt) {
         this.accessToken = accessToken;
         this.expiration = expiration;
         this.refreshToken = refreshToken;
         this.scope = scope;
+        this.issuedAt = issuedAt;
     }
 
     public String getAccessToken() {
@@ -75,6 +112,45 @@ public class BearerToken {
         return expiration;
     }
 
+    /**
+     * Access Tokenの発行時刻を返します。
+     *
+     * @return 発行時刻（エポックミリ秒）
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Access Tokenの有効期限を返します。
+     *
+     * @return 有効期限（エポックミリ秒）
+     */
+    public long getExpiresAt() {
+        return issuedAt + expiration * 1000L;
+    }
+
+    /**
+     * Access Tokenが有効期限切れかどうかを返します。
+     *
+     * @param now 現在時刻（エポックミリ秒）
+     * @return 有効期限切れの場合はtrue
+     */
+    public boolean isExpired(long now) {
+        return now >= getExpiresAt();
+    }
+
+    /**
+     * Access Tokenの有効期限が指定した期間内に切れるかどうかを返します。
+     *
+     * @param window 期間（ミリ秒）
+     * @param now 現在時刻（エポックミリ秒）
+     * @return 有効期限が期間内に切れる場合はtrue
+     */
+    public boolean expiresWithin(long window, long now) {
+        return now + window >= getExpiresAt();
+    }
+
     public String getRefreshToken() {
         return refreshToken;
     }
@@ -101,8 +177,58 @@ public class BearerToken {
         return "access_token=" + accessToken;
     }
 
+    /**
+     * バイナリ形式で書き込みます。 nullではない文字列のビットマップ、有効期間、発行時刻、各文字列の順に書き込みます。
+     *
+     * @param out 書き込み先
+     */
+    public void writeTo(BinaryOutput out) {
+        int fields = 0;
+        fields |= accessToken != null ? ACCESS_TOKEN : 0;
+        fields |= refreshToken != null ? REFRESH_TOKEN : 0;
+        fields |= scope != null ? SCOPE : 0;
+        out.writeVarInt(fields);
+        out.writeVarLong(expiration);
+        out.writeVarLong(issuedAt);
+        if (accessToken != null) {
+            out.writeString(accessToken);
+        }
+        if (refreshToken != null) {
+            out.writeString(refreshToken);
+        }
+        if (scope != null) {
+            out.writeString(scope);
+        }
+    }
+
+    /**
+     * {@link #writeTo(BinaryOutput)}で書き込んだBearerTokenを読み込みます。
+     *
+     * @param in 読み込み元
+     * @return BearerToken
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    public static BearerToken readFrom(BinaryInput in) throws DataFormatException {
+        int fields = in.readVarInt();
+        if ((fields & ~(ACCESS_TOKEN | REFRESH_TOKEN | SCOPE)) != 0) {
+            throw new DataFormatException("Unknown fields: " + Integer.toHexString(fields));
+        }
+        long expiration = in.readVarLong();
+        long issuedAt = in.readVarLong();
+        String accessToken = (fields & ACCESS_TOKEN) != 0 ? in.readString() : null;
+        String refreshToken = (fields & REFRESH_TOKEN) != 0 ? in.readString() : null;
+        String scope = (fields & SCOPE) != 0 ? in.readString() : null;
+        return new BearerToken(accessToken, expiration, refreshToken, scope, issuedAt);
+    }
+
     public String toString() {
-        String result = "{ access_token: " + accessToken + ", expiration: " + expiration;
+        String result =
+                "{ access_token: "
+                        + accessToken
+                        + ", expiration: "
+                        + expiration
+                        + ", issued_at: "
+                        + issuedAt;
         if (refreshToken != null) {
             result += ", refresh_token: " + refreshToken;
         }
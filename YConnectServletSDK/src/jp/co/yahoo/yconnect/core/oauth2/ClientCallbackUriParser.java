@@ -46,7 +46,7 @@ public class ClientCallbackUriParser {
 
     public String getAuthorizationCode(String state) throws AuthorizationException {
         YConnectLogger.debug(
-                this, "Response state=" + parameters.get("state") + ", Input state=" + state);
+                this, "Response state={}, Input state={}", parameters.get("state"), state);
 
         if (!state.equals(parameters.get("state"))) {
             YConnectLogger.error(this, "Not Match State.");
@@ -69,7 +69,7 @@ public class ClientCallbackUriParser {
      * @throws AuthorizationException レスポンスにエラーが含まれているときに発生
      */
     private void parseUri(String request) throws AuthorizationException {
-        YConnectLogger.debug(this, "Response Uri: " + request);
+        YConnectLogger.debug(this, "Response Uri: {}", request);
 
         if (request == null) {
             return;
@@ -80,10 +80,12 @@ public class ClientCallbackUriParser {
                 String name = query.split("=")[0];
                 String value = query.split("=")[1];
                 parameters.put(name, value);
-                YConnectLogger.debug(this, "put param: " + name + "=>" + value);
+                YConnectLogger.debug(this, "put param: {}=>{}", name, value);
             }
         }
-        YConnectLogger.debug(this, "all params: " + parameters.toQueryString());
+        if (YConnectLogger.isDebugEnabled()) {
+            YConnectLogger.debug(this, "all params: {}", parameters.toQueryString());
+        }
 
         if (parameters.containsKey("error")) {
             String error = parameters.get("error");
@@ -92,16 +94,14 @@ public class ClientCallbackUriParser {
 
             YConnectLogger.error(
                     this,
-                    "error="
-                            + error
-                            + ", error_description="
-                            + errorDescription
-                            + ", error_code="
-                            + errorCode);
+                    "error={}, error_description={}, error_code={}",
+                    error,
+                    errorDescription,
+                    errorCode);
 
             throw new AuthorizationException(error, errorDescription, errorCode);
         }
 
-        YConnectLogger.debug(this, "Finished Parsing: " + parameters);
+        YConnectLogger.debug(this, "Finished Parsing: {}", parameters);
     }
 }
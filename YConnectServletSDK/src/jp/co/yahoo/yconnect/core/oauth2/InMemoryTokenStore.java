@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-Memory Token Store Class
+ *
+ * <p>最大件数と保存期間を持つ、スレッドセーフなLRUキャッシュによる{@link TokenStore}の実装です。
+ * キーのハッシュ値で分割したセグメントごとにロックするため、異なるユーザーのリクエストが互いに待たされにくくなっています。
+ * 最大件数を超えた場合はセグメント内で最も長く使われていないトークンから削除し、 保存期間を過ぎたトークンは次のアクセス時に削除します。
+ *
+ * <p>保存先はプロセス内のため、複数のサーブレットノード間では共有されません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    /** 保存するトークンの最大件数のデフォルト値 */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /** トークンの保存期間のデフォルト値(ミリ秒)。Refresh Tokenの有効期間である4週間 */
+    public static final long DEFAULT_TTL = 28L * 24 * 60 * 60 * 1000;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+
+    private final long ttl;
+
+    /** InMemoryTokenStoreのコンストラクタです。 最大件数と保存期間にはデフォルト値を使用します。 */
+    public InMemoryTokenStore() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * InMemoryTokenStoreのコンストラクタです。
+     *
+     * @param maxEntries 保存するトークンの最大件数
+     * @param ttl 保存してからトークンを削除するまでの期間(ミリ秒)
+     */
+    public InMemoryTokenStore(int maxEntries, long ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.ttl = ttl;
+
+        int segmentCount = Math.min(MAX_SEGMENTS, maxEntries);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // 最大件数を超えないようにセグメントへ割り振る
+            int capacity = maxEntries / segmentCount + (i < maxEntries % segmentCount ? 1 : 0);
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    public void save(String key, StoredToken token) {
+        if (key == null || token == null) {
+            throw new IllegalArgumentException("key and token must not be null.");
+        }
+        Segment segment = segmentFor(key);
+        long now = currentTimeMillis();
+        synchronized (segment) {
+            segment.put(key, new CachedToken(token, now + ttl));
+        }
+    }
+
+    public StoredToken load(String key) {
+        if (key == null) {
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        long now = currentTimeMillis();
+        synchronized (segment) {
+            CachedToken entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isEvictable(now)) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.token;
+        }
+    }
+
+    public void remove(String key) {
+        if (key == null) {
+            return;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * 保存期間を過ぎたトークンを全て削除します。
+     *
+     * @return 削除した件数
+     */
+    public int purge() {
+        long now = currentTimeMillis();
+        int count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<CachedToken> it = segment.values().iterator();
+                while (it.hasNext()) {
+                    if (it.next().isEvictable(now)) {
+                        it.remove();
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 保存されているトークンの件数を返します。 保存期間を過ぎたが削除されていないトークンも含みます。
+     *
+     * @return 件数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    private static class CachedToken {
+
+        final StoredToken token;
+
+        final long evictAt;
+
+        CachedToken(StoredToken token, long evictAt) {
+            this.token = token;
+            this.evictAt = evictAt;
+        }
+
+        boolean isEvictable(long now) {
+            return now >= evictAt;
+        }
+    }
+
+    private static class Segment extends LinkedHashMap<String, CachedToken> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+
+/**
+ * JDBC Token Store Class
+ *
+ * <p>データベースのテーブルにトークンを保存する{@link TokenStore}の実装です。
+ * 複数のサーブレットノードで同じテーブルを参照することで、トークンの更新結果をノード間で共有できます。
+ *
+ * <p>テーブルは事前に作成してください。 カラム名は固定で、型はデータベースに合わせて変更できます。
+ *
+ * <pre>
+ * CREATE TABLE yconnect_token (
+ *     token_key     VARCHAR(255) NOT NULL PRIMARY KEY,
+ *     access_token  VARCHAR(2048) NOT NULL,
+ *     refresh_token VARCHAR(2048),
+ *     scope         VARCHAR(1024),
+ *     expires_in    BIGINT NOT NULL,
+ *     expires_at    BIGINT NOT NULL,
+ *     evict_at      BIGINT NOT NULL
+ * )
+ * </pre>
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class JdbcTokenStore implements TokenStore {
+
+    private static final String TAG = JdbcTokenStore.class.getSimpleName();
+
+    /** テーブル名のデフォルト値 */
+    public static final String DEFAULT_TABLE_NAME = "yconnect_token";
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+
+    private final DataSource dataSource;
+
+    private final long ttl;
+
+    private final String updateSql;
+
+    private final String insertSql;
+
+    private final String selectSql;
+
+    private final String deleteSql;
+
+    private final String purgeSql;
+
+    /**
+     * JdbcTokenStoreのコンストラクタです。 テーブル名と保存期間にはデフォルト値を使用します。
+     *
+     * @param dataSource データソース
+     */
+    public JdbcTokenStore(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE_NAME, InMemoryTokenStore.DEFAULT_TTL);
+    }
+
+    /**
+     * JdbcTokenStoreのコンストラクタです。
+     *
+     * @param dataSource データソース
+     * @param tableName テーブル名
+     * @param ttl 保存してからトークンを削除するまでの期間(ミリ秒)
+     */
+    public JdbcTokenStore(DataSource dataSource, String tableName, long ttl) {
+        if (dataSource == null) {
+            throw new IllegalArgumentException("dataSource must not be null.");
+        }
+        if (tableName == null || !TABLE_NAME_PATTERN.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        this.dataSource = dataSource;
+        this.ttl = ttl;
+
+        updateSql =
+                "UPDATE "
+                        + tableName
+                        + " SET access_token = ?, refresh_token = ?, scope = ?,"
+                        + " expires_in = ?, expires_at = ?, evict_at = ? WHERE token_key = ?";
+        insertSql =
+                "INSERT INTO "
+                        + tableName
+                        + " (access_token, refresh_token, scope, expires_in, expires_at, evict_at,"
+                        + " token_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        selectSql =
+                "SELECT access_token, refresh_token, scope, expires_in, expires_at FROM "
+                        + tableName
+                        + " WHERE token_key = ? AND evict_at > ?";
+        deleteSql = "DELETE FROM " + tableName + " WHERE token_key = ?";
+        purgeSql = "DELETE FROM " + tableName + " WHERE evict_at <= ?";
+    }
+
+    public void save(String key, StoredToken token) {
+        if (key == null || token == null) {
+            throw new IllegalArgumentException("key and token must not be null.");
+        }
+        long evictAt = currentTimeMillis() + ttl;
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            // 既存の行を更新し、存在しなければ追加する
+            if (executeSave(connection, updateSql, key, token, evictAt) == 0) {
+                try {
+                    executeSave(connection, insertSql, key, token, evictAt);
+                } catch (SQLException e) {
+                    // 他のノードが同時に追加した場合は更新し直す
+                    if (executeSave(connection, updateSql, key, token, evictAt) == 0) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new TokenStoreException("Failed to save token: " + e.getMessage(), e);
+        } finally {
+            close(connection);
+        }
+    }
+
+    public StoredToken load(String key) {
+        if (key == null) {
+            return null;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(selectSql);
+            statement.setString(1, key);
+            statement.setLong(2, currentTimeMillis());
+            resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                return null;
+            }
+            long expiresIn = resultSet.getLong(4);
+            long expiresAt = resultSet.getLong(5);
+            BearerToken bearerToken =
+                    new BearerToken(
+                            resultSet.getString(1),
+                            expiresIn,
+                            resultSet.getString(2),
+                            resultSet.getString(3),
+                            expiresAt - expiresIn * 1000L);
+            return new StoredToken(bearerToken);
+        } catch (SQLException e) {
+            throw new TokenStoreException("Failed to load token: " + e.getMessage(), e);
+        } finally {
+            close(resultSet);
+            close(statement);
+            close(connection);
+        }
+    }
+
+    public void remove(String key) {
+        if (key == null) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(deleteSql);
+            statement.setString(1, key);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new TokenStoreException("Failed to remove token: " + e.getMessage(), e);
+        } finally {
+            close(statement);
+            close(connection);
+        }
+    }
+
+    /**
+     * 保存期間を過ぎたトークンを全て削除します。 定期的に呼び出してください。
+     *
+     * @return 削除した件数
+     */
+    public int purge() {
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(purgeSql);
+            statement.setLong(1, currentTimeMillis());
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new TokenStoreException("Failed to purge tokens: " + e.getMessage(), e);
+        } finally {
+            close(statement);
+            close(connection);
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private int executeSave(
+            Connection connection, String sql, String key, StoredToken token, long evictAt)
+            throws SQLException {
+        BearerToken bearerToken = token.getBearerToken();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try {
+            statement.setString(1, bearerToken.getAccessToken());
+            statement.setString(2, bearerToken.getRefreshToken());
+            statement.setString(3, bearerToken.getScope());
+            statement.setLong(4, bearerToken.getExpiration());
+            statement.setLong(5, token.getExpiresAt());
+            statement.setLong(6, evictAt);
+            statement.setString(7, key);
+            return statement.executeUpdate();
+        } finally {
+            close(statement);
+        }
+    }
+
+    private static void close(ResultSet resultSet) {
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                YConnectLogger.error(TAG, e.getMessage());
+            }
+        }
+    }
+
+    private static void close(PreparedStatement statement) {
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                YConnectLogger.error(TAG, e.getMessage());
+            }
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                YConnectLogger.error(TAG, e.getMessage());
+            }
+        }
+    }
+}
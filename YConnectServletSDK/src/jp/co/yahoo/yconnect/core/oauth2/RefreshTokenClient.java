@@ -57,14 +57,20 @@ public class RefreshTokenClient extends AbstractTokenClient {
         parameters.put("grant_type", OAuth2GrantType.REFRESH_TOKEN);
         parameters.put("refresh_token", refreshToken);
 
+        // 有効期限を短めに見積もるため、リクエスト前の時刻を発行時刻とする
+        long issuedAt = System.currentTimeMillis();
         JsonObject jsonObject = request(parameters);
 
         String accessTokenString = jsonObject.getString("access_token");
         long expiresIn = jsonObject.getJsonNumber("expires_in").longValue();
-        accessToken = new BearerToken(accessTokenString, expiresIn, refreshToken);
+        accessToken = new BearerToken(accessTokenString, expiresIn, refreshToken, null, issuedAt);
     }
 
     public BearerToken getAccessToken() {
         return accessToken;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
 }
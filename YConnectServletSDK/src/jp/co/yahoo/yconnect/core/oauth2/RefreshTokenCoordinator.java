@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Refresh Token Coordinator Class
+ *
+ * <p>同じRefresh Tokenによる同時の更新リクエストを1つにまとめます。 最初の呼び出し元だけがTokenエンドポイントにリクエストし、
+ * 同時に呼び出した他のスレッドはその結果を待って同じ{@link BearerToken}を受け取ります。
+ * 成功した結果は{@code resultTtl}ミリ秒の間保持し、直後に続く呼び出しにも同じ結果を返します。
+ * 失敗した結果は保持しないため、次の呼び出しでは改めてリクエストします。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class RefreshTokenCoordinator {
+
+    /** 成功した結果を保持する時間(ミリ秒)のデフォルト値 */
+    public static final long DEFAULT_RESULT_TTL = 5000L;
+
+    private static final RefreshTokenCoordinator DEFAULT_COORDINATOR =
+            new RefreshTokenCoordinator();
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<String, Flight>();
+
+    private final long resultTtl;
+
+    /** RefreshTokenCoordinatorのコンストラクタです。 結果の保持時間にはデフォルト値を使用します。 */
+    public RefreshTokenCoordinator() {
+        this(DEFAULT_RESULT_TTL);
+    }
+
+    /**
+     * RefreshTokenCoordinatorのコンストラクタです。
+     *
+     * @param resultTtl 成功した結果を保持する時間(ミリ秒)
+     */
+    public RefreshTokenCoordinator(long resultTtl) {
+        if (resultTtl < 0) {
+            throw new IllegalArgumentException("resultTtl must not be negative: " + resultTtl);
+        }
+        this.resultTtl = resultTtl;
+    }
+
+    /**
+     * プロセス全体で共有するRefreshTokenCoordinatorを返します。
+     *
+     * @return 共有インスタンス
+     */
+    public static RefreshTokenCoordinator getDefault() {
+        return DEFAULT_COORDINATOR;
+    }
+
+    /**
+     * アクセストークンを更新します。 同じRefresh Tokenの更新が実行中または直前に成功している場合は、その結果を返します。
+     *
+     * @param client Refresh Tokenを設定したRefreshTokenClient
+     * @return 更新したアクセストークン
+     * @throws TokenException レスポンスにエラーが含まれているときに発生
+     */
+    public BearerToken refresh(RefreshTokenClient client) throws TokenException {
+        String key = client.getRefreshToken();
+        while (true) {
+            long now = currentTimeMillis();
+            Flight flight = flights.get(key);
+            if (flight != null && flight.isStale(now, resultTtl)) {
+                flights.remove(key, flight);
+                continue;
+            }
+            if (flight == null) {
+                Flight created = new Flight();
+                flight = flights.putIfAbsent(key, created);
+                if (flight == null) {
+                    removeStale(now);
+                    return created.run(client, key);
+                }
+            }
+            return flight.await();
+        }
+    }
+
+    /**
+     * 実行中の更新と保持している結果の件数を返します。
+     *
+     * @return 件数
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void removeStale(long now) {
+        Iterator<Flight> it = flights.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isStale(now, resultTtl)) {
+                it.remove();
+            }
+        }
+    }
+
+    private class Flight {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile BearerToken result;
+
+        private volatile TokenException tokenException;
+
+        private volatile RuntimeException runtimeException;
+
+        private volatile long completedAt;
+
+        BearerToken run(RefreshTokenClient client, String key) throws TokenException {
+            try {
+                client.fetch();
+                BearerToken bearerToken = client.getAccessToken();
+                // isStale()がresultを見て判定するため、completedAtを先に書き込む
+                completedAt = currentTimeMillis();
+                result = bearerToken;
+                return bearerToken;
+            } catch (TokenException e) {
+                tokenException = e;
+                throw e;
+            } catch (RuntimeException e) {
+                runtimeException = e;
+                throw e;
+            } finally {
+                // Errorなどで結果が得られなかった場合も、次の呼び出しで改めてリクエストできるよう取り除く
+                if (result == null) {
+                    flights.remove(key, this);
+                }
+                done.countDown();
+            }
+        }
+
+        BearerToken await() throws TokenException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TokenException("interrupted", "Interrupted.", e);
+            }
+            if (tokenException != null) {
+                throw tokenException;
+            }
+            if (runtimeException != null) {
+                throw runtimeException;
+            }
+            if (result == null) {
+                throw new TokenException(
+                        "refresh_incomplete", "The refresh did not complete.", (Throwable) null);
+            }
+            return result;
+        }
+
+        boolean isStale(long now, long ttl) {
+            return result != null && now - completedAt >= ttl;
+        }
+    }
+}
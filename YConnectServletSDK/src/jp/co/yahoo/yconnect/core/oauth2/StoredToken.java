@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+/**
+ * Stored Token Class
+ *
+ * <p>{@link TokenStore}に保存するトークンです。 Access Tokenの有効期限は{@link BearerToken#getExpiresAt()}
+ * から求めます。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class StoredToken {
+
+    private final BearerToken bearerToken;
+
+    /**
+     * StoredTokenのコンストラクタです。
+     *
+     * @param bearerToken 保存するトークン
+     */
+    public StoredToken(BearerToken bearerToken) {
+        if (bearerToken == null) {
+            throw new IllegalArgumentException("bearerToken must not be null.");
+        }
+        this.bearerToken = bearerToken;
+    }
+
+    public BearerToken getBearerToken() {
+        return bearerToken;
+    }
+
+    public String getAccessToken() {
+        return bearerToken.getAccessToken();
+    }
+
+    public String getRefreshToken() {
+        return bearerToken.getRefreshToken();
+    }
+
+    /**
+     * Access Tokenの有効期限を返します。
+     *
+     * @return 有効期限(エポックミリ秒)
+     */
+    public long getExpiresAt() {
+        return bearerToken.getExpiresAt();
+    }
+
+    /**
+     * Access Tokenが有効期限切れかどうかを返します。 Refresh Tokenの有効性は判定しません。
+     *
+     * @param now 現在時刻(エポックミリ秒)
+     * @return 有効期限切れの場合はtrue
+     */
+    public boolean isExpired(long now) {
+        return bearerToken.isExpired(now);
+    }
+
+    public String toString() {
+        return "{ token: " + bearerToken + ", expires_at: " + getExpiresAt() + " }";
+    }
+}
@@ -86,12 +86,14 @@ public class TokenClient extends AbstractTokenClient {
             parameters.put("code_verifier", codeVerifier);
         }
 
+        // 有効期限を短めに見積もるため、リクエスト前の時刻を発行時刻とする
+        long issuedAt = System.currentTimeMillis();
         JsonObject jsonObject = request(parameters);
 
         String accessTokenString = jsonObject.getString("access_token");
         long expiresIn = jsonObject.getJsonNumber("expires_in").longValue();
         String refreshToken = jsonObject.getString("refresh_token");
-        accessToken = new BearerToken(accessTokenString, expiresIn, refreshToken);
+        accessToken = new BearerToken(accessTokenString, expiresIn, refreshToken, null, issuedAt);
         idToken = jsonObject.getString("id_token");
     }
 
@@ -100,6 +102,6 @@ public class TokenClient extends AbstractTokenClient {
     }
 
     protected YHttpClient getYHttpClient() {
-        return new YHttpClient();
+        return YHttpClient.getDefault();
     }
 }
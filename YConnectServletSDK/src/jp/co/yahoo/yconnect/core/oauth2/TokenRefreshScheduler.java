@@ -0,0 +1,310 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+
+/**
+ * Token Refresh Scheduler Class
+ *
+ * <p>{@link TokenStore}に保存されたAccess Tokenを、有効期限が切れる前にバックグラウンドで更新します。
+ * 更新はAccess Tokenの有効期限の{@code refreshWindow}ミリ秒前から、{@code jitter}ミリ秒以内のランダムな時刻に行い、
+ * 多数のトークンの更新が同じ時刻に集中しないようにします。 更新したトークンは{@link TokenStore}に保存し直します。
+ *
+ * <p>Refresh Tokenが無効になっている場合は{@link TokenStore}からトークンを削除し、それ以外の失敗では
+ * {@link #DEFAULT_RETRY_DELAY}ミリ秒後に再試行します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class TokenRefreshScheduler {
+
+    private static final String TAG = TokenRefreshScheduler.class.getSimpleName();
+
+    /** 有効期限の何ミリ秒前から更新するかのデフォルト値 */
+    public static final long DEFAULT_REFRESH_WINDOW = 5 * 60 * 1000L;
+
+    /** 更新時刻をずらす最大の時間(ミリ秒)のデフォルト値 */
+    public static final long DEFAULT_JITTER = 60 * 1000L;
+
+    /** 更新に失敗した場合に再試行するまでの時間(ミリ秒) */
+    public static final long DEFAULT_RETRY_DELAY = 30 * 1000L;
+
+    private final TokenStore tokenStore;
+
+    private final String endpointUrl;
+
+    private final String clientId;
+
+    private final String clientSecret;
+
+    private final long refreshWindow;
+
+    private final long jitter;
+
+    private final ScheduledExecutorService executor;
+
+    private final boolean ownsExecutor;
+
+    private final ConcurrentMap<String, ScheduledFuture<?>> tasks =
+            new ConcurrentHashMap<String, ScheduledFuture<?>>();
+
+    private final Random random = new Random();
+
+    /**
+     * TokenRefreshSchedulerのコンストラクタです。 更新時刻にはデフォルト値を使用し、
+     * 更新はこのインスタンス専用のデーモンスレッドで実行します。
+     *
+     * @param tokenStore トークンの保存先
+     * @param endpointUrl TokenエンドポイントのURL
+     * @param clientId アプリケーションID
+     * @param clientSecret シークレット
+     */
+    public TokenRefreshScheduler(
+            TokenStore tokenStore, String endpointUrl, String clientId, String clientSecret) {
+        this(
+                tokenStore,
+                endpointUrl,
+                clientId,
+                clientSecret,
+                DEFAULT_REFRESH_WINDOW,
+                DEFAULT_JITTER,
+                YConnectExecutors.newScheduledExecutor(1),
+                true);
+    }
+
+    /**
+     * TokenRefreshSchedulerのコンストラクタです。
+     *
+     * @param tokenStore トークンの保存先
+     * @param endpointUrl TokenエンドポイントのURL
+     * @param clientId アプリケーションID
+     * @param clientSecret シークレット
+     * @param refreshWindow 有効期限の何ミリ秒前から更新するか
+     * @param jitter 更新時刻をずらす最大の時間(ミリ秒)
+     * @param executor 更新を実行するスレッドプール。{@link #shutdown()}では終了しません
+     */
+    public TokenRefreshScheduler(
+            TokenStore tokenStore,
+            String endpointUrl,
+            String clientId,
+            String clientSecret,
+            long refreshWindow,
+            long jitter,
+            ScheduledExecutorService executor) {
+        this(
+                tokenStore,
+                endpointUrl,
+                clientId,
+                clientSecret,
+                refreshWindow,
+                jitter,
+                executor,
+                false);
+    }
+
+    private TokenRefreshScheduler(
+            TokenStore tokenStore,
+            String endpointUrl,
+            String clientId,
+            String clientSecret,
+            long refreshWindow,
+            long jitter,
+            ScheduledExecutorService executor,
+            boolean ownsExecutor) {
+        if (tokenStore == null || executor == null) {
+            throw new IllegalArgumentException("tokenStore and executor must not be null.");
+        }
+        if (refreshWindow < 0 || jitter < 0) {
+            throw new IllegalArgumentException("refreshWindow and jitter must not be negative.");
+        }
+        this.tokenStore = tokenStore;
+        this.endpointUrl = endpointUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.refreshWindow = refreshWindow;
+        this.jitter = jitter;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * 保存されているトークンの更新を予約します。 同じキーの予約は置き換えられます。
+     * トークンを{@link TokenStore}に保存した後に呼び出してください。
+     *
+     * @param key ユーザーやセッションを表すキー
+     * @return 予約した場合はtrue。トークンが保存されていないかRefresh Tokenが無い場合はfalse
+     */
+    public boolean schedule(String key) {
+        StoredToken storedToken = tokenStore.load(key);
+        if (storedToken == null || storedToken.getRefreshToken() == null) {
+            cancel(key);
+            return false;
+        }
+        scheduleAfter(key, computeDelay(storedToken.getExpiresAt(), currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * トークンの更新の予約を取り消します。 実行中の更新は中断しません。
+     *
+     * @param key ユーザーやセッションを表すキー
+     */
+    public void cancel(String key) {
+        ScheduledFuture<?> future = tasks.remove(key);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 予約されている更新の件数を返します。
+     *
+     * @return 件数
+     */
+    public int getScheduledCount() {
+        return tasks.size();
+    }
+
+    /** 全ての予約を取り消します。 コンストラクタでスレッドプールを指定しなかった場合は、専用のスレッドも終了します。 */
+    public void shutdown() {
+        for (String key : tasks.keySet()) {
+            cancel(key);
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 次に更新するまでの時間を計算します。
+     *
+     * @param expiresAt Access Tokenの有効期限(エポックミリ秒)
+     * @param now 現在時刻(エポックミリ秒)
+     * @return 更新するまでの時間(ミリ秒)
+     */
+    long computeDelay(long expiresAt, long now) {
+        long refreshAt = expiresAt - refreshWindow - nextJitter();
+        return Math.max(0, refreshAt - now);
+    }
+
+    /**
+     * トークンを更新します。 他のノードなどで既に更新されている場合は、次の更新を予約し直すだけです。
+     *
+     * @param key ユーザーやセッションを表すキー
+     */
+    void refresh(String key) {
+        StoredToken storedToken = tokenStore.load(key);
+        if (storedToken == null || storedToken.getRefreshToken() == null) {
+            tasks.remove(key);
+            return;
+        }
+        BearerToken bearerToken = storedToken.getBearerToken();
+        if (!bearerToken.expiresWithin(refreshWindow, currentTimeMillis())) {
+            schedule(key);
+            return;
+        }
+
+        try {
+            RefreshTokenClient client = getRefreshTokenClient(bearerToken.getRefreshToken());
+            BearerToken refreshed = getRefreshTokenCoordinator().refresh(client);
+            if (refreshed.getScope() == null && bearerToken.getScope() != null) {
+                // 更新のレスポンスにscopeが無い場合は、保存されているscopeを引き継ぐ
+                refreshed =
+                        new BearerToken(
+                                refreshed.getAccessToken(),
+                                refreshed.getExpiration(),
+                                refreshed.getRefreshToken(),
+                                bearerToken.getScope(),
+                                refreshed.getIssuedAt());
+            }
+            tokenStore.save(key, new StoredToken(refreshed));
+            schedule(key);
+        } catch (TokenException e) {
+            if (e.isInvalidGrant()) {
+                YConnectLogger.info(TAG, "Refresh token is no longer valid.");
+                tasks.remove(key);
+                tokenStore.remove(key);
+            } else {
+                YConnectLogger.error(
+                        TAG,
+                        "Failed to refresh token: {}: {}",
+                        e.getClass().getSimpleName(),
+                        e.getMessage());
+                scheduleAfter(key, DEFAULT_RETRY_DELAY);
+            }
+        } catch (RuntimeException e) {
+            // 想定外の例外のため、原因を追えるようスタックトレースも出力する
+            YConnectLogger.error(
+                    TAG,
+                    "Failed to refresh token: {}: {}",
+                    e.getClass().getName(),
+                    e.getMessage(),
+                    e);
+            scheduleAfter(key, DEFAULT_RETRY_DELAY);
+        }
+    }
+
+    protected RefreshTokenClient getRefreshTokenClient(String refreshToken) {
+        return new RefreshTokenClient(endpointUrl, refreshToken, clientId, clientSecret);
+    }
+
+    protected RefreshTokenCoordinator getRefreshTokenCoordinator() {
+        return RefreshTokenCoordinator.getDefault();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected long nextJitter() {
+        if (jitter == 0) {
+            return 0;
+        }
+        return (long) (random.nextDouble() * jitter);
+    }
+
+    private void scheduleAfter(final String key, long delay) {
+        ScheduledFuture<?> future =
+                executor.schedule(
+                        new Runnable() {
+                            public void run() {
+                                refresh(key);
+                            }
+                        },
+                        delay,
+                        TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = tasks.put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+}
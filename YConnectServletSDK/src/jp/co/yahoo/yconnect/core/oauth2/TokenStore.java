@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+/**
+ * Token Store Interface
+ *
+ * <p>ユーザーやセッションを表すキーごとにトークンを保存します。 デフォルト実装は{@link InMemoryTokenStore}です。
+ * 複数のサーブレットノードでトークンを共有する場合は、{@link JdbcTokenStore}や独自の実装を使用してください。
+ *
+ * <p>実装はスレッドセーフでなければなりません。 保存先へのアクセスに失敗した場合は{@link TokenStoreException}をスローします。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public interface TokenStore {
+
+    /**
+     * トークンを保存します。 同じキーで保存されているトークンは置き換えられます。
+     *
+     * @param key ユーザーやセッションを表すキー
+     * @param token 保存するトークン
+     */
+    void save(String key, StoredToken token);
+
+    /**
+     * 保存されているトークンを取得します。 Access Tokenが有効期限切れでも、Refresh Tokenを使うために返します。
+     *
+     * @param key ユーザーやセッションを表すキー
+     * @return 保存されているトークン。存在しない場合や保存期間を過ぎた場合はnull
+     */
+    StoredToken load(String key);
+
+    /**
+     * 保存されているトークンを削除します。
+     *
+     * @param key ユーザーやセッションを表すキー
+     */
+    void remove(String key);
+}
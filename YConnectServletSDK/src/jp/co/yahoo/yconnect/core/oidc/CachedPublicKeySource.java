@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.security.PublicKey;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
+
+/**
+ * Cached Public Key Source Class
+ *
+ * <p>{@link PublicKeysCache}を通してPublicKeysエンドポイントから公開鍵を取得します。
+ * kidに対応する公開鍵が見つからない場合は、公開鍵がローテーションされている可能性があるため一度だけ再取得します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class CachedPublicKeySource implements PublicKeySource {
+
+    private final PublicKeysCache publicKeysCache;
+
+    private final String url;
+
+    /**
+     * CachedPublicKeySourceのコンストラクタです。
+     *
+     * @param publicKeysCache 公開鍵のキャッシュ
+     * @param url PublicKeysエンドポイントのURL
+     */
+    public CachedPublicKeySource(PublicKeysCache publicKeysCache, String url) {
+        if (publicKeysCache == null || url == null) {
+            throw new IllegalArgumentException("publicKeysCache and url must not be null.");
+        }
+        this.publicKeysCache = publicKeysCache;
+        this.url = url;
+    }
+
+    public PublicKey getPublicKey(String kid) throws ApiClientException {
+        PublicKeysObject publicKeysObject = publicKeysCache.get(url, newPublicKeysClient());
+        PublicKey publicKey = publicKeysObject.asPublicKeySource().getPublicKey(kid);
+        if (publicKey != null) {
+            return publicKey;
+        }
+
+        publicKeysObject = publicKeysCache.refresh(url, newPublicKeysClient());
+        return publicKeysObject.asPublicKeySource().getPublicKey(kid);
+    }
+
+    protected PublicKeysClient newPublicKeysClient() {
+        return new PublicKeysClient();
+    }
+}
@@ -24,12 +24,10 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
-import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
 import java.util.zip.DataFormatException;
-import javax.json.*;
-import org.apache.commons.codec.binary.Base64;
+import javax.json.stream.JsonParser;
 
 /**
  * IdToken Decoder Class
@@ -40,113 +38,128 @@ public class IdTokenDecoder {
 
     private final String idTokenString;
 
+    private final ParsedJWT parsedJWT;
+
     /**
      * IdTokenDecoderコンストラクタ
      *
      * @param idTokenString IDトークン文字列
      */
     public IdTokenDecoder(String idTokenString) {
+        this(idTokenString, null);
+    }
+
+    private IdTokenDecoder(String idTokenString, ParsedJWT parsedJWT) {
         this.idTokenString = idTokenString;
+        this.parsedJWT = parsedJWT;
+    }
+
+    /**
+     * 分割・デコード済みのIDトークンからIdTokenDecoderを生成する。
+     *
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @return IdTokenDecoder
+     */
+    public static IdTokenDecoder of(ParsedJWT parsedJWT) {
+        return new IdTokenDecoder(parsedJWT.getJwtString(), parsedJWT);
     }
 
     /**
      * IdTokenのデコード
      *
+     * <p>デコード済みのheaderとpayloadのバイト列を{@link JsonParser}で一度だけ走査し、IdTokenObjectに格納する。
+     * payloadの全てのクレームは{@link IdTokenObject#getClaims()}で参照できる。
+     * ppid_sub、at_hash、auth_timeは省略可能で、含まれない場合はnull(auth_timeは0)とする。
+     *
      * @return IdTokenObject
-     * @throws DataFormatException 入力された文字列がJWTフォーマットではないときに発生
+     * @throws DataFormatException 入力された文字列がJWTフォーマットではないとき、または必須のクレームが含まれないときに発生
+     * @throws javax.json.stream.JsonParsingException headerまたはpayloadがJSONとして不正なときに発生
      */
     public IdTokenObject decode() throws DataFormatException {
 
-        HashMap<String, String> idToken = this.splitIdToken();
-
-        // Header
-        String jsonHeader = idToken.get("header");
-
-        JsonReader jsonHeaderReader = Json.createReader(new StringReader(jsonHeader));
-        JsonObject rootHeader = jsonHeaderReader.readObject();
-        jsonHeaderReader.close();
-
-        JsonString typeString = rootHeader.getJsonString("typ");
-        String type = typeString.getString();
-
-        JsonString algorithmString = rootHeader.getJsonString("alg");
-        String algorithm = algorithmString.getString();
-
-        JsonString kidString = rootHeader.getJsonString("kid");
-        String kid = kidString.getString();
-
-        // Payload
-        String jsonPayload = idToken.get("payload");
+        ParsedJWT idToken =
+                this.parsedJWT != null ? this.parsedJWT : ParsedJWT.parse(this.idTokenString);
 
-        JsonReader jsonPayloadReader = Json.createReader(new StringReader(jsonPayload));
+        IdTokenObject idTokenObject = new IdTokenObject();
+        decodeHeader(idToken.getHeader(), idTokenObject);
+        decodePayload(idToken.getPayload(), idTokenObject);
 
-        JsonObject rootPayload = jsonPayloadReader.readObject();
-        jsonPayloadReader.close();
-
-        JsonString issString = rootPayload.getJsonString("iss");
-        String iss = issString.getString();
+        // signature
+        idTokenObject.setSignature(idToken.getEncodedSignature());
 
-        JsonString subString = rootPayload.getJsonString("sub");
-        String sub = subString.getString();
+        return idTokenObject;
+    }
 
-        String ppidSub;
+    private static void decodeHeader(byte[] header, IdTokenObject idTokenObject)
+            throws DataFormatException {
+        JsonParser parser = JsonStreams.createParser(header);
         try {
-            ppidSub = rootPayload.getString("ppid_sub");
-        } catch (NullPointerException ex) {
-            ppidSub = null;
-        }
-
-        JsonArray audStringArr = rootPayload.getJsonArray("aud");
-        ArrayList<String> aud = new ArrayList<String>();
-        for (JsonValue audValue : audStringArr) {
-            JsonString audString = (JsonString) audValue;
-            aud.add(audString.getString());
+            JsonStreams.startObject(parser);
+            JsonParser.Event event;
+            while ((event = parser.next()) == JsonParser.Event.KEY_NAME) {
+                String name = parser.getString();
+                event = parser.next();
+                if ("typ".equals(name)) {
+                    idTokenObject.setType(JsonStreams.stringValue(parser, event));
+                } else if ("alg".equals(name)) {
+                    idTokenObject.setAlgorithm(JsonStreams.stringValue(parser, event));
+                } else if ("kid".equals(name)) {
+                    idTokenObject.setKid(JsonStreams.stringValue(parser, event));
+                } else {
+                    JsonStreams.skipValue(parser, event);
+                }
+            }
+        } finally {
+            parser.close();
         }
 
-        JsonNumber expString = rootPayload.getJsonNumber("exp");
-        int exp = expString.intValue();
-
-        JsonNumber iatString = rootPayload.getJsonNumber("iat");
-        int iat = iatString.intValue();
-
-        JsonNumber authTimeString = rootPayload.getJsonNumber("auth_time");
-        long authTime = 0;
-        if (authTimeString != null) {
-            authTime = authTimeString.longValue();
-        }
-
-        JsonString nonceString = rootPayload.getJsonString("nonce");
-        String nonce = nonceString.getString();
+        require("typ", idTokenObject.getType());
+        require("alg", idTokenObject.getAlgorithm());
+        require("kid", idTokenObject.getKid());
+    }
 
-        String atHash;
+    private static void decodePayload(byte[] payload, IdTokenObject idTokenObject)
+            throws DataFormatException {
+        JsonClaims claims;
+        JsonParser parser = JsonStreams.createParser(payload);
         try {
-            atHash = rootPayload.getString("at_hash");
-        } catch (NullPointerException ex) {
-            atHash = null;
+            JsonStreams.startObject(parser);
+            claims = JsonStreams.readObject(parser);
+        } finally {
+            parser.close();
         }
 
-        // signature
-        String signature = idToken.get("signature");
-
-        // デコードした値を格納
-        return new IdTokenObject(
-                type, algorithm, kid, iss, sub, ppidSub, aud, nonce, atHash, exp, iat, authTime,
-                signature);
+        String iss = claims.getString("iss");
+        String sub = claims.getString("sub");
+        List<String> aud = claims.getStringList("aud");
+        Long exp = claims.getLong("exp");
+        Long iat = claims.getLong("iat");
+        String nonce = claims.getString("nonce");
+        require("iss", iss);
+        require("sub", sub);
+        require("aud", aud);
+        require("exp", exp);
+        require("iat", iat);
+        require("nonce", nonce);
+
+        // 省略可能なクレーム
+        Long authTime = claims.getLong("auth_time");
+
+        idTokenObject.setIss(iss);
+        idTokenObject.setSub(sub);
+        idTokenObject.setPpidSub(claims.getString("ppid_sub"));
+        idTokenObject.setAud(new ArrayList<String>(aud));
+        idTokenObject.setNonce(nonce);
+        idTokenObject.setAtHash(claims.getString("at_hash"));
+        idTokenObject.setExp(exp);
+        idTokenObject.setIat(iat);
+        idTokenObject.setAuthTime(authTime != null ? authTime : 0);
+        idTokenObject.setClaims(claims);
     }
 
-    private HashMap<String, String> splitIdToken() throws DataFormatException {
-        String[] idTokens = this.idTokenString.split("\\.");
-
-        if (idTokens.length != 3) {
-            throw new DataFormatException();
+    private static void require(String name, Object value) throws DataFormatException {
+        if (value == null) {
+            throw new DataFormatException("Missing claim in ID Token: " + name);
         }
-
-        // 分割したidTokenを格納
-        HashMap<String, String> idTokenMap = new HashMap<String, String>();
-        idTokenMap.put("header", new String(Base64.decodeBase64(idTokens[0].getBytes())));
-        idTokenMap.put("payload", new String(Base64.decodeBase64(idTokens[1].getBytes())));
-        idTokenMap.put("signature", idTokens[2]);
-
-        return idTokenMap;
     }
 }
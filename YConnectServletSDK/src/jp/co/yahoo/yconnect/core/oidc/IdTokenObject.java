@@ -25,6 +25,9 @@
 package jp.co.yahoo.yconnect.core.oidc;
 
 import java.util.ArrayList;
+import java.util.zip.DataFormatException;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
 
 /**
  * IdToken Object Class
@@ -33,6 +36,28 @@ import java.util.ArrayList;
  */
 public class IdTokenObject {
 
+    private static final int TYPE = 1;
+
+    private static final int ALGORITHM = 1 << 1;
+
+    private static final int KID = 1 << 2;
+
+    private static final int ISS = 1 << 3;
+
+    private static final int SUB = 1 << 4;
+
+    private static final int PPID_SUB = 1 << 5;
+
+    private static final int AUD = 1 << 6;
+
+    private static final int NONCE = 1 << 7;
+
+    private static final int AT_HASH = 1 << 8;
+
+    private static final int SIGNATURE = 1 << 9;
+
+    private static final int CLAIMS = 1 << 10;
+
     private String type;
 
     private String algorithm;
@@ -59,6 +84,8 @@ public class IdTokenObject {
 
     private String signature;
 
+    private JsonClaims claims = JsonClaims.EMPTY;
+
     public IdTokenObject() {}
 
     public IdTokenObject(
@@ -194,6 +221,140 @@ public class IdTokenObject {
         this.signature = signature;
     }
 
+    /**
+     * payloadに含まれていた全てのクレームを返す。 amr、acrや独自のクレームなど、
+     * IdTokenObjectにgetterの無いクレームを参照する場合に使用する。
+     *
+     * @return payloadのクレーム。{@link IdTokenDecoder}でデコードしていない場合は{@link JsonClaims#EMPTY}
+     */
+    public JsonClaims getClaims() {
+        return this.claims;
+    }
+
+    public void setClaims(JsonClaims claims) {
+        this.claims = claims != null ? claims : JsonClaims.EMPTY;
+    }
+
+    /**
+     * フィールドの値を複製したIdTokenObjectを返します。 audはリストを複製し、変更できないclaimsは共有します。
+     *
+     * @return 複製したIdTokenObject
+     */
+    IdTokenObject copy() {
+        IdTokenObject copy = new IdTokenObject();
+        copy.type = type;
+        copy.algorithm = algorithm;
+        copy.kid = kid;
+        copy.iss = iss;
+        copy.sub = sub;
+        copy.ppidSub = ppidSub;
+        copy.aud = aud != null ? new ArrayList<String>(aud) : null;
+        copy.nonce = nonce;
+        copy.atHash = atHash;
+        copy.exp = exp;
+        copy.iat = iat;
+        copy.authTime = authTime;
+        copy.signature = signature;
+        copy.claims = claims;
+        return copy;
+    }
+
+    /**
+     * バイナリ形式で書き込みます。 nullではないフィールドのビットマップに続けて、各フィールドの値を書き込みます。
+     *
+     * @param out 書き込み先
+     */
+    public void writeTo(BinaryOutput out) {
+        int fields = 0;
+        fields |= type != null ? TYPE : 0;
+        fields |= algorithm != null ? ALGORITHM : 0;
+        fields |= kid != null ? KID : 0;
+        fields |= iss != null ? ISS : 0;
+        fields |= sub != null ? SUB : 0;
+        fields |= ppidSub != null ? PPID_SUB : 0;
+        fields |= aud != null ? AUD : 0;
+        fields |= nonce != null ? NONCE : 0;
+        fields |= atHash != null ? AT_HASH : 0;
+        fields |= signature != null ? SIGNATURE : 0;
+        fields |= claims != JsonClaims.EMPTY ? CLAIMS : 0;
+        out.writeVarInt(fields);
+
+        writeString(out, type);
+        writeString(out, algorithm);
+        writeString(out, kid);
+        writeString(out, iss);
+        writeString(out, sub);
+        writeString(out, ppidSub);
+        if (aud != null) {
+            out.writeVarInt(aud.size());
+            for (String audience : aud) {
+                out.writeString(audience);
+            }
+        }
+        writeString(out, nonce);
+        writeString(out, atHash);
+        writeString(out, signature);
+        out.writeVarLong(exp);
+        out.writeVarLong(iat);
+        out.writeVarLong(authTime);
+        if (claims != JsonClaims.EMPTY) {
+            claims.writeTo(out);
+        }
+    }
+
+    /**
+     * {@link #writeTo(BinaryOutput)}で書き込んだIdTokenObjectを読み込みます。
+     *
+     * @param in 読み込み元
+     * @return IdTokenObject
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    public static IdTokenObject readFrom(BinaryInput in) throws DataFormatException {
+        int fields = in.readVarInt();
+        if ((fields & ~((CLAIMS << 1) - 1)) != 0) {
+            throw new DataFormatException("Unknown fields: " + Integer.toHexString(fields));
+        }
+
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.type = readString(in, fields, TYPE);
+        idTokenObject.algorithm = readString(in, fields, ALGORITHM);
+        idTokenObject.kid = readString(in, fields, KID);
+        idTokenObject.iss = readString(in, fields, ISS);
+        idTokenObject.sub = readString(in, fields, SUB);
+        idTokenObject.ppidSub = readString(in, fields, PPID_SUB);
+        if ((fields & AUD) != 0) {
+            int count = in.readVarInt();
+            if (count > in.remaining()) {
+                throw new DataFormatException("Invalid count: " + count);
+            }
+            idTokenObject.aud = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                idTokenObject.aud.add(in.readString());
+            }
+        }
+        idTokenObject.nonce = readString(in, fields, NONCE);
+        idTokenObject.atHash = readString(in, fields, AT_HASH);
+        idTokenObject.signature = readString(in, fields, SIGNATURE);
+        idTokenObject.exp = in.readVarLong();
+        idTokenObject.iat = in.readVarLong();
+        idTokenObject.authTime = in.readVarLong();
+        if ((fields & CLAIMS) != 0) {
+            idTokenObject.claims = JsonClaims.readFrom(in);
+        }
+        return idTokenObject;
+    }
+
+    private static void writeString(BinaryOutput out, String value) {
+        if (value != null) {
+            out.writeString(value);
+        }
+    }
+
+    private static String readString(BinaryInput in, int fields, int field)
+            throws DataFormatException {
+        return (fields & field) != 0 ? in.readString() : null;
+    }
+
     public String toString() {
         return "{"
                 + "\"iss\":\""
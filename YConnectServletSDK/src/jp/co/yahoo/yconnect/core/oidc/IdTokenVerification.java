@@ -24,30 +24,29 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
-import java.io.UnsupportedEncodingException;
-import java.security.PublicKey;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
 import jp.co.yahoo.yconnect.core.util.YConnectLogger;
-import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
 
 /**
  * IdToken Verification Class
  *
+ * <p>検証結果をインスタンスに保持するため、スレッド間で共有できません。 新しいコードでは、一度生成すれば全てのリクエストで共有できる
+ * {@link IdTokenVerifier}を使用してください。
+ *
  * @author Copyright (C) 2016 Yahoo Japan Corporation. All Rights Reserved.
  */
 public class IdTokenVerification {
 
+    /** kidに対応する公開鍵が見つからなかった際のエラーコード */
+    public static final String PUBLIC_KEY_NOT_FOUND = IdTokenVerifier.PUBLIC_KEY_NOT_FOUND;
+
     private String error = "";
 
     private String errorDescription = "";
 
     private static final String TAG = IdTokenVerification.class.getSimpleName();
 
-    // 10 minutes
-    private static final long ACCEPTABLE_RANGE = 600L; // sec
-
     public boolean check(
             String issuer,
             String authNonce,
@@ -56,125 +55,89 @@ public class IdTokenVerification {
             PublicKeysObject publicKeysObject,
             String idTokenString,
             String accessToken) {
+        return check(
+                issuer,
+                authNonce,
+                clientId,
+                idTokenObject,
+                publicKeysObject,
+                idTokenString,
+                null,
+                accessToken);
+    }
 
-        YConnectLogger.info(TAG, "Check ID Token in the Claim from check id endpoint.");
-
-        String type = idTokenObject.getType();
-        String algorithm = idTokenObject.getAlgorithm();
-        String kid = idTokenObject.getKid();
-        String iss = idTokenObject.getIss();
-        ArrayList<String> aud = idTokenObject.getAud();
-        String audString = aud.get(0);
-        String atHash = idTokenObject.getAtHash();
-        long exp = idTokenObject.getExp();
-        long iat = idTokenObject.getIat();
-        String nonce = idTokenObject.getNonce();
-
-        if (!"JWT".equals(type)) {
-            YConnectLogger.error(TAG, "Invalid type.");
-            this.error = "invalid_type";
-            this.errorDescription = "The type is not JWT. (" + type + ")";
-            return false;
-        }
-
-        if (!"RS256".equals(algorithm)) {
-            YConnectLogger.error(TAG, "Invalid algorithm.");
-            this.error = "invalid_algorithm";
-            this.errorDescription = "The algorithm is not RSA-SHA256. (" + algorithm + ")";
-            return false;
-        }
-
-        // Is iss equal to issuer ? (https://auth.login.yahoo.co.jp/yconnect/v2)
-        if (!issuer.equals(iss)) {
-            YConnectLogger.error(TAG, "Invalid issuer.");
-            this.error = "invalid_issuer";
-            this.errorDescription = "The issuer did not match. (" + iss + ")";
-            return false;
-        }
-
-        // Is nonce equal to this nonce (was issued at the request authorization) ?
-        if (!authNonce.equals(nonce)) {
-            YConnectLogger.error(TAG, "Not match nonce.");
-            this.error = "not_match_nonce";
-            this.errorDescription = "The nonce did not match. (" + nonce + ")";
-            return false;
-        }
-
-        // Is aud equal to the client_id (Application ID) ?
-        if (!audString.equals(clientId)) {
-            YConnectLogger.error(TAG, "Invalid audience.");
-            this.error = "invalid_audience";
-            this.errorDescription = "The client id did not match. (" + audString + ")";
-            return false;
-        }
-
-        long currentTime = this.getCurrentTime();
-
-        // verify at_hash
-        if (atHash != null) {
-            String hash;
-            try {
-                hash = generateHash(accessToken);
-            } catch (UnsupportedEncodingException e) {
-                YConnectLogger.error(TAG, "Failed to create hash.");
-                this.error = "failed_to_create_hash";
-                this.errorDescription = "Failed to create hash.";
-                return false;
-            }
-
-            if (!atHash.equals(hash)) {
-                YConnectLogger.error(TAG, "Invalid at_hash");
-                this.error = "invalid_at_hash";
-                this.errorDescription = "The at_hash did not match. (" + atHash + ")";
-                return false;
-            }
-        }
-
-        // Is current time less than exp ?
-        if (exp < currentTime) {
-            YConnectLogger.error(TAG, "Expired ID Token.");
-            this.error = "expired_id_token";
-            this.errorDescription = "Re-issue Id Token. (" + exp + ")";
-            return false;
-        }
-
-        YConnectLogger.debug(TAG, "Expiration: " + exp + "(Current Tme: " + currentTime + ")");
-
-        // current time - iat > ??? for prevent attacks
-        if ((currentTime - iat) > ACCEPTABLE_RANGE) {
-            YConnectLogger.error(TAG, "Over acceptable range.");
-            this.error = "over_acceptable_range";
-            this.errorDescription = "This access has expired possible. (" + iat + ")";
-            return false;
-        }
-
-        YConnectLogger.debug(TAG, "Current time - iat = " + (currentTime - iat) + " sec");
-        YConnectLogger.debug(TAG, "Issued time: " + iat + "(Current Tme: " + currentTime + ")");
+    /**
+     * 分割・デコード済みのIDトークンを検証する。
+     *
+     * <p>署名の検証には {@link ParsedJWT} が保持する署名対象のバイト列とsignatureをそのまま利用するため、
+     * IDトークン文字列の再分割、再デコードは行わない。
+     */
+    public boolean check(
+            String issuer,
+            String authNonce,
+            String clientId,
+            IdTokenObject idTokenObject,
+            PublicKeysObject publicKeysObject,
+            ParsedJWT parsedJWT,
+            String accessToken) {
+        return check(
+                issuer,
+                authNonce,
+                clientId,
+                idTokenObject,
+                publicKeysObject,
+                parsedJWT.getJwtString(),
+                parsedJWT,
+                accessToken);
+    }
 
-        // JWTの検証を行なう
+    private boolean check(
+            String issuer,
+            String authNonce,
+            String clientId,
+            IdTokenObject idTokenObject,
+            PublicKeysObject publicKeysObject,
+            String idTokenString,
+            ParsedJWT parsedJWT,
+            String accessToken) {
+        IdTokenVerificationResult result;
         try {
-            PublicKey publicKey = publicKeysObject.getPublicKey(kid);
-            if (publicKey == null) {
-                YConnectLogger.error(TAG, "PublicKey for kid not found.");
-                this.error = "public_key_not_found";
-                this.errorDescription = "PublicKey for kid not found.";
-                return false;
-            }
-
-            JWTVerification verifier = new JWTVerification(publicKey, idTokenString);
-            if (!verifier.verifyJWT()) {
-                YConnectLogger.error(TAG, "Signature verification failed.");
-                this.error = "invalid_signature";
-                this.errorDescription = "Signature verification failed.";
-                return false;
-            }
-        } catch (Exception ex) {
+            result =
+                    newVerifier(issuer, clientId)
+                            .verify(
+                                    idTokenString,
+                                    parsedJWT,
+                                    idTokenObject,
+                                    authNonce,
+                                    accessToken,
+                                    publicKeysObject.asPublicKeySource());
+        } catch (ApiClientException ex) {
             YConnectLogger.error(TAG, ex.toString());
-            this.error = "unexpected_error";
-            this.errorDescription = "Unexpected error.";
-            return false;
+            result = IdTokenVerificationResult.failure("unexpected_error", "Unexpected error.");
         }
-        return true;
+        return apply(result);
+    }
+
+    /**
+     * 署名以外のIDトークンの値を検証する。
+     *
+     * @param issuer 発行者
+     * @param authNonce Authorizationリクエスト時に指定したnonce値
+     * @param clientId アプリケーションID
+     * @param idTokenObject 復号したIdTokenObject
+     * @param accessToken アクセストークンの文字列
+     * @return 検証が正しい場合にはtrue, それ以外の場合にはfalse
+     * @see IdTokenVerifier#verifyClaims(IdTokenObject, String, String)
+     */
+    public boolean checkClaims(
+            String issuer,
+            String authNonce,
+            String clientId,
+            IdTokenObject idTokenObject,
+            String accessToken) {
+        return apply(
+                newVerifier(issuer, clientId)
+                        .verifyClaims(idTokenObject, authNonce, accessToken));
     }
 
     protected long getCurrentTime() {
@@ -189,10 +152,23 @@ public class IdTokenVerification {
         return this.errorDescription;
     }
 
-    private String generateHash(String data) throws UnsupportedEncodingException {
-        byte[] hash = DigestUtils.sha256(data.getBytes("UTF-8"));
-        byte[] halfOfHash = Arrays.copyOfRange(hash, 0, hash.length / 2);
+    private IdTokenVerifier newVerifier(String issuer, String clientId) {
+        return new IdTokenVerifier(
+                issuer,
+                clientId,
+                IdTokenVerifier.DEFAULT_CLOCK_SKEW,
+                Collections.singleton("RS256"),
+                null) {
+            @Override
+            protected long getCurrentTime() {
+                return IdTokenVerification.this.getCurrentTime();
+            }
+        };
+    }
 
-        return Base64.encodeBase64URLSafeString(halfOfHash);
+    private boolean apply(IdTokenVerificationResult result) {
+        this.error = result.getError();
+        this.errorDescription = result.getErrorDescription();
+        return result.isValid();
     }
 }
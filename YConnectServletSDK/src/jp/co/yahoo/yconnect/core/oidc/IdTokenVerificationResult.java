@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+/**
+ * IdToken Verification Result Class
+ *
+ * <p>{@link IdTokenVerifier}による検証結果です。 検証に失敗した場合はエラーコードと説明を保持します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class IdTokenVerificationResult {
+
+    private static final IdTokenVerificationResult SUCCESS =
+            new IdTokenVerificationResult(true, "", "");
+
+    private final boolean valid;
+
+    private final String error;
+
+    private final String errorDescription;
+
+    private IdTokenVerificationResult(boolean valid, String error, String errorDescription) {
+        this.valid = valid;
+        this.error = error;
+        this.errorDescription = errorDescription;
+    }
+
+    /**
+     * 検証に成功した結果を返します。
+     *
+     * @return 検証結果
+     */
+    public static IdTokenVerificationResult success() {
+        return SUCCESS;
+    }
+
+    /**
+     * 検証に失敗した結果を生成します。
+     *
+     * @param error エラーコード
+     * @param errorDescription エラーの説明
+     * @return 検証結果
+     */
+    public static IdTokenVerificationResult failure(String error, String errorDescription) {
+        return new IdTokenVerificationResult(false, error, errorDescription);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * エラーコードを返します。
+     *
+     * @return エラーコード。検証に成功した場合は空文字列
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * エラーの説明を返します。
+     *
+     * @return エラーの説明。検証に成功した場合は空文字列
+     */
+    public String getErrorDescription() {
+        return errorDescription;
+    }
+
+    public String toString() {
+        if (valid) {
+            return "{ valid: true }";
+        }
+        return "{ valid: false, error: "
+                + error
+                + ", error_description: "
+                + errorDescription
+                + " }";
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.util.CryptoPrimitives;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * IdToken Verifier Class
+ *
+ * <p>発行者、アプリケーションID、許容する時刻のずれ、受け入れる署名アルゴリズム、公開鍵の取得元を指定して生成する、
+ * 不変なIDトークンの検証クラスです。 検証結果は{@link IdTokenVerificationResult}として返し、インスタンスには状態を持たないため、
+ * 1つのインスタンスを全てのリクエストスレッドで共有できます。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class IdTokenVerifier {
+
+    private static final String TAG = IdTokenVerifier.class.getSimpleName();
+
+    /** kidに対応する公開鍵が見つからなかった際のエラーコード */
+    public static final String PUBLIC_KEY_NOT_FOUND = "public_key_not_found";
+
+    /** 公開鍵の形式が不正だった際に{@link PublicKeySource}が返すエラーコード */
+    public static final String INVALID_PUBLIC_KEY = "invalid_public_key";
+
+    /** 発行者のデフォルト値 */
+    public static final String DEFAULT_ISSUER = "https://auth.login.yahoo.co.jp/yconnect/v2";
+
+    /** 許容する時刻のずれのデフォルト値(秒) */
+    public static final long DEFAULT_CLOCK_SKEW = 0L;
+
+    /** 発行時刻から受け入れる期間(秒) */
+    public static final long ACCEPTABLE_RANGE = 600L;
+
+    /** 署名の検証に対応しているアルゴリズム */
+    private static final Set<String> SUPPORTED_ALGORITHMS =
+            Collections.unmodifiableSet(new HashSet<String>(Arrays.asList("RS256")));
+
+    private final String issuer;
+
+    private final String clientId;
+
+    private final long clockSkew;
+
+    private final Set<String> acceptedAlgorithms;
+
+    private final PublicKeySource publicKeySource;
+
+    /**
+     * IdTokenVerifierのコンストラクタです。 発行者、時刻のずれ、署名アルゴリズムにはデフォルト値を使用します。
+     *
+     * @param clientId アプリケーションID
+     * @param publicKeySource 公開鍵の取得元。検証のたびに指定する場合はnull
+     */
+    public IdTokenVerifier(String clientId, PublicKeySource publicKeySource) {
+        this(DEFAULT_ISSUER, clientId, DEFAULT_CLOCK_SKEW, SUPPORTED_ALGORITHMS, publicKeySource);
+    }
+
+    /**
+     * IdTokenVerifierのコンストラクタです。
+     *
+     * @param issuer 発行者
+     * @param clientId アプリケーションID
+     * @param clockSkew 有効期限と発行時刻の検証で許容する時刻のずれ(秒)
+     * @param acceptedAlgorithms 受け入れる署名アルゴリズム。現在はRS256のみに対応
+     * @param publicKeySource 公開鍵の取得元。検証のたびに指定する場合はnull
+     */
+    public IdTokenVerifier(
+            String issuer,
+            String clientId,
+            long clockSkew,
+            Set<String> acceptedAlgorithms,
+            PublicKeySource publicKeySource) {
+        if (issuer == null || clientId == null) {
+            throw new IllegalArgumentException("issuer and clientId must not be null.");
+        }
+        if (clockSkew < 0) {
+            throw new IllegalArgumentException("clockSkew must not be negative: " + clockSkew);
+        }
+        if (acceptedAlgorithms == null
+                || acceptedAlgorithms.isEmpty()
+                || !SUPPORTED_ALGORITHMS.containsAll(acceptedAlgorithms)) {
+            throw new IllegalArgumentException(
+                    "Unsupported algorithms: " + acceptedAlgorithms + " (supported: RS256)");
+        }
+        this.issuer = issuer;
+        this.clientId = clientId;
+        this.clockSkew = clockSkew;
+        this.acceptedAlgorithms =
+                Collections.unmodifiableSet(new HashSet<String>(acceptedAlgorithms));
+        this.publicKeySource = publicKeySource;
+    }
+
+    /**
+     * コンストラクタで指定した公開鍵の取得元を使ってIDトークンを検証します。
+     *
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @param idTokenObject 復号したIdTokenObject
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param accessToken アクセストークンの文字列
+     * @return 検証結果
+     * @throws ApiClientException 公開鍵の取得に失敗したときに発生
+     */
+    public IdTokenVerificationResult verify(
+            ParsedJWT parsedJWT, IdTokenObject idTokenObject, String nonce, String accessToken)
+            throws ApiClientException {
+        if (publicKeySource == null) {
+            throw new IllegalStateException("publicKeySource is not configured.");
+        }
+        return verify(parsedJWT, idTokenObject, nonce, accessToken, publicKeySource);
+    }
+
+    /**
+     * 指定した公開鍵の取得元を使ってIDトークンを検証します。
+     *
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @param idTokenObject 復号したIdTokenObject
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param accessToken アクセストークンの文字列
+     * @param publicKeySource 公開鍵の取得元
+     * @return 検証結果
+     * @throws ApiClientException 公開鍵の取得に失敗したときに発生
+     */
+    public IdTokenVerificationResult verify(
+            ParsedJWT parsedJWT,
+            IdTokenObject idTokenObject,
+            String nonce,
+            String accessToken,
+            PublicKeySource publicKeySource)
+            throws ApiClientException {
+        return verify(
+                parsedJWT.getJwtString(),
+                parsedJWT,
+                idTokenObject,
+                nonce,
+                accessToken,
+                publicKeySource);
+    }
+
+    /**
+     * 署名以外のIDトークンの値を検証します。
+     *
+     * <p>署名の検証に成功したことのあるIDトークンを再度検証する場合は、RSA署名の検証を省略してこのメソッドのみを呼び出せます。
+     * nonce、aud、at_hash、有効期限、発行時刻はリクエストごとに異なるため、キャッシュした結果を使う場合も毎回検証してください。
+     *
+     * @param idTokenObject 復号したIdTokenObject
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @param accessToken アクセストークンの文字列
+     * @return 検証結果
+     */
+    public IdTokenVerificationResult verifyClaims(
+            IdTokenObject idTokenObject, String nonce, String accessToken) {
+        return verifyClaims(idTokenObject, nonce, accessToken, true);
+    }
+
+    /**
+     * {@link VerifiedIdTokenCache}から取得したIDトークンの、署名とat_hash以外の値を検証します。
+     *
+     * <p>at_hashはキャッシュに登録する前の検証で確認済みのため検証しません。 アクセストークンの更新後や、
+     * Tokenリクエストを行っていないリクエストでも検証できます。
+     *
+     * @param idTokenObject キャッシュから取得したIdTokenObject
+     * @param nonce Authorizationリクエスト時に指定したnonce値
+     * @return 検証結果
+     */
+    public IdTokenVerificationResult verifyCachedClaims(IdTokenObject idTokenObject, String nonce) {
+        return verifyClaims(idTokenObject, nonce, null, false);
+    }
+
+    private IdTokenVerificationResult verifyClaims(
+            IdTokenObject idTokenObject, String nonce, String accessToken, boolean checkAtHash) {
+        String type = idTokenObject.getType();
+        String algorithm = idTokenObject.getAlgorithm();
+        String iss = idTokenObject.getIss();
+        List<String> aud = idTokenObject.getAud();
+        String audString = aud != null && !aud.isEmpty() ? aud.get(0) : null;
+        String atHash = idTokenObject.getAtHash();
+        long exp = idTokenObject.getExp();
+        long iat = idTokenObject.getIat();
+        String idTokenNonce = idTokenObject.getNonce();
+
+        if (!"JWT".equals(type)) {
+            YConnectLogger.error(TAG, "Invalid type.");
+            return IdTokenVerificationResult.failure(
+                    "invalid_type", "The type is not JWT. (" + type + ")");
+        }
+
+        if (!acceptedAlgorithms.contains(algorithm)) {
+            YConnectLogger.error(TAG, "Invalid algorithm.");
+            return IdTokenVerificationResult.failure(
+                    "invalid_algorithm", "The algorithm is not RSA-SHA256. (" + algorithm + ")");
+        }
+
+        // Is iss equal to issuer ? (https://auth.login.yahoo.co.jp/yconnect/v2)
+        if (!issuer.equals(iss)) {
+            YConnectLogger.error(TAG, "Invalid issuer.");
+            return IdTokenVerificationResult.failure(
+                    "invalid_issuer", "The issuer did not match. (" + iss + ")");
+        }
+
+        // Is nonce equal to this nonce (was issued at the request authorization) ?
+        if (nonce == null || !nonce.equals(idTokenNonce)) {
+            YConnectLogger.error(TAG, "Not match nonce.");
+            return IdTokenVerificationResult.failure(
+                    "not_match_nonce", "The nonce did not match. (" + idTokenNonce + ")");
+        }
+
+        // Is aud equal to the client_id (Application ID) ?
+        if (!clientId.equals(audString)) {
+            YConnectLogger.error(TAG, "Invalid audience.");
+            return IdTokenVerificationResult.failure(
+                    "invalid_audience", "The client id did not match. (" + audString + ")");
+        }
+
+        long currentTime = getCurrentTime();
+
+        // verify at_hash
+        if (checkAtHash && atHash != null) {
+            String hash = generateHash(accessToken);
+            if (!atHash.equals(hash)) {
+                YConnectLogger.error(TAG, "Invalid at_hash");
+                return IdTokenVerificationResult.failure(
+                        "invalid_at_hash", "The at_hash did not match. (" + atHash + ")");
+            }
+        }
+
+        // Is current time less than exp ?
+        if (exp + clockSkew < currentTime) {
+            YConnectLogger.error(TAG, "Expired ID Token.");
+            return IdTokenVerificationResult.failure(
+                    "expired_id_token", "Re-issue Id Token. (" + exp + ")");
+        }
+
+        YConnectLogger.debug(TAG, "Expiration: {}(Current Tme: {})", exp, currentTime);
+
+        // current time - iat > ??? for prevent attacks
+        if ((currentTime - iat) > ACCEPTABLE_RANGE + clockSkew) {
+            YConnectLogger.error(TAG, "Over acceptable range.");
+            return IdTokenVerificationResult.failure(
+                    "over_acceptable_range", "This access has expired possible. (" + iat + ")");
+        }
+
+        YConnectLogger.debug(TAG, "Current time - iat = {} sec", currentTime - iat);
+
+        return IdTokenVerificationResult.success();
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public long getClockSkew() {
+        return clockSkew;
+    }
+
+    public Set<String> getAcceptedAlgorithms() {
+        return acceptedAlgorithms;
+    }
+
+    /**
+     * 署名の検証も含めてIDトークンを検証します。 parsedJWTがnullの場合はidTokenStringを分割して署名を検証します。
+     */
+    IdTokenVerificationResult verify(
+            String idTokenString,
+            ParsedJWT parsedJWT,
+            IdTokenObject idTokenObject,
+            String nonce,
+            String accessToken,
+            PublicKeySource publicKeySource)
+            throws ApiClientException {
+        YConnectLogger.info(TAG, "Check ID Token in the Claim from check id endpoint.");
+
+        IdTokenVerificationResult result = verifyClaims(idTokenObject, nonce, accessToken);
+        if (!result.isValid()) {
+            return result;
+        }
+
+        // JWTの検証を行なう
+        PublicKey publicKey;
+        try {
+            publicKey = publicKeySource.getPublicKey(idTokenObject.getKid());
+        } catch (ApiClientException e) {
+            if (!INVALID_PUBLIC_KEY.equals(e.getError())) {
+                throw e;
+            }
+            YConnectLogger.error(TAG, e.toString());
+            return IdTokenVerificationResult.failure("unexpected_error", "Unexpected error.");
+        }
+        if (publicKey == null) {
+            YConnectLogger.error(TAG, "PublicKey for kid not found.");
+            return IdTokenVerificationResult.failure(
+                    PUBLIC_KEY_NOT_FOUND, "PublicKey for kid not found.");
+        }
+
+        try {
+            JWTVerification verifier =
+                    parsedJWT != null
+                            ? JWTVerification.of(publicKey, parsedJWT)
+                            : new JWTVerification(publicKey, idTokenString);
+            if (!verifier.verifyJWT()) {
+                YConnectLogger.error(TAG, "Signature verification failed.");
+                return IdTokenVerificationResult.failure(
+                        "invalid_signature", "Signature verification failed.");
+            }
+        } catch (Exception ex) {
+            YConnectLogger.error(TAG, ex.toString());
+            return IdTokenVerificationResult.failure("unexpected_error", "Unexpected error.");
+        }
+        return IdTokenVerificationResult.success();
+    }
+
+    /**
+     * 現在時刻を返します。
+     *
+     * @return 現在時刻(Unixタイムスタンプ)
+     */
+    protected long getCurrentTime() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static String generateHash(String data) {
+        byte[] hash = CryptoPrimitives.sha256(data);
+        byte[] halfOfHash = Arrays.copyOfRange(hash, 0, hash.length / 2);
+
+        return Base64.encodeBase64URLSafeString(halfOfHash);
+    }
+}
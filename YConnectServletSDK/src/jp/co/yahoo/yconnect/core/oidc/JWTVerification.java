@@ -24,10 +24,9 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
-import java.io.UnsupportedEncodingException;
 import java.security.*;
 import java.util.zip.DataFormatException;
-import org.apache.commons.codec.binary.Base64;
+import jp.co.yahoo.yconnect.core.util.CryptoPrimitives;
 
 /**
  * JSON Web Token 検証クラス
@@ -38,6 +37,8 @@ public class JWTVerification {
 
     private final String idTokenString;
 
+    private final ParsedJWT parsedJWT;
+
     private final PublicKey publicKey;
 
     /**
@@ -47,8 +48,27 @@ public class JWTVerification {
      * @param idTokenString IDトークン文字列
      */
     public JWTVerification(PublicKey publicKey, String idTokenString) {
+        this(publicKey, idTokenString, null);
+    }
+
+    private JWTVerification(PublicKey publicKey, String idTokenString, ParsedJWT parsedJWT) {
         this.publicKey = publicKey;
         this.idTokenString = idTokenString;
+        this.parsedJWT = parsedJWT;
+    }
+
+    /**
+     * 分割・デコード済みのIDトークンからJWTVerificationを生成する。
+     *
+     * <p>署名の検証のみを行う。header, payloadのデコードは呼び出し側で {@link IdTokenDecoder}
+     * により行われていることを前提とする。
+     *
+     * @param publicKey 公開鍵
+     * @param parsedJWT 分割・デコード済みのIDトークン
+     * @return JWTVerification
+     */
+    public static JWTVerification of(PublicKey publicKey, ParsedJWT parsedJWT) {
+        return new JWTVerification(publicKey, parsedJWT.getJwtString(), parsedJWT);
     }
 
     /**
@@ -59,25 +79,15 @@ public class JWTVerification {
      */
     public boolean verifyJWT()
             throws DataFormatException, NoSuchAlgorithmException, SignatureException,
-                    InvalidKeyException, UnsupportedEncodingException {
-        IdTokenDecoder idTokenDecoder = new IdTokenDecoder(this.idTokenString);
-        IdTokenObject idTokenObject = idTokenDecoder.decode();
-
-        Signature verifier = getVerifier();
-        byte[] signatureBytes = Base64.decodeBase64(idTokenObject.getSignature());
-
-        return verifier.verify(signatureBytes);
-    }
-
-    private Signature getVerifier()
-            throws NoSuchAlgorithmException, InvalidKeyException, SignatureException,
-                    UnsupportedEncodingException {
-        String[] idTokenArray = idTokenString.split("\\.");
-        String dataPart = idTokenArray[0] + "." + idTokenArray[1];
-        Signature signature = Signature.getInstance("SHA256withRSA");
-        signature.initVerify(publicKey);
-        signature.update(dataPart.getBytes("UTF-8"));
+                    InvalidKeyException {
+        ParsedJWT jwt = this.parsedJWT;
+        if (jwt == null) {
+            jwt = ParsedJWT.parse(this.idTokenString);
+            // 文字列から生成された場合はheader, payloadの形式も合わせて検証する
+            IdTokenDecoder.of(jwt).decode();
+        }
 
-        return signature;
+        return CryptoPrimitives.verifySha256WithRsa(
+                publicKey, jwt.getSigningInput(), jwt.getSignature());
     }
 }
@@ -0,0 +1,397 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.InvalidObjectException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
+
+/**
+ * JSON Claims Class
+ *
+ * <p>デコードしたJSONオブジェクトのメンバーを、名前と値の配列として保持する読み取り専用のクラスです。
+ * クレームの数は少ないため、マップを使わずに線形探索で値を取り出します。
+ *
+ * <p>値は以下の型で保持します。
+ *
+ * <ul>
+ *   <li>文字列: {@link String}
+ *   <li>整数: {@link Long}、小数: {@link BigDecimal}
+ *   <li>真偽値: {@link Boolean}
+ *   <li>配列: 変更不可の{@link List}
+ *   <li>オブジェクト: {@link JsonClaims}
+ *   <li>null: null ({@link #contains(String)}はtrueを返します)
+ * </ul>
+ *
+ * <p>型付きのgetterは、クレームが存在しない場合や型が異なる場合に例外をスローせずnullを返します。
+ *
+ * <p>{@link UserInfoObject}と共にセッションに保持できるよう、シリアライズ可能です。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class JsonClaims implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int TYPE_NULL = 0;
+
+    private static final int TYPE_STRING = 1;
+
+    private static final int TYPE_LONG = 2;
+
+    private static final int TYPE_DECIMAL = 3;
+
+    private static final int TYPE_FALSE = 4;
+
+    private static final int TYPE_TRUE = 5;
+
+    private static final int TYPE_LIST = 6;
+
+    private static final int TYPE_OBJECT = 7;
+
+    /** バイナリ形式から読み込む際のオブジェクトと配列の入れ子の上限 */
+    private static final int MAX_DEPTH = 32;
+
+    /** メンバーを持たないJsonClaims */
+    public static final JsonClaims EMPTY = new JsonClaims(new String[0], new Object[0]);
+
+    private final String[] names;
+
+    private final Object[] values;
+
+    private JsonClaims(String[] names, Object[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * クレームが含まれているかを返します。
+     *
+     * @param name クレーム名
+     * @return クレームが含まれている場合はtrue。値がnullの場合もtrue
+     */
+    public boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * クレームの値を返します。
+     *
+     * @param name クレーム名
+     * @return クレームの値。存在しない場合はnull
+     */
+    public Object get(String name) {
+        int index = indexOf(name);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * 文字列のクレームの値を返します。
+     *
+     * @param name クレーム名
+     * @return クレームの値。存在しない場合や文字列ではない場合はnull
+     */
+    public String getString(String name) {
+        Object value = get(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * 整数のクレームの値を返します。
+     *
+     * @param name クレーム名
+     * @return クレームの値。存在しない場合や数値ではない場合はnull。小数の場合は小数部分を切り捨てます
+     */
+    public Long getLong(String name) {
+        Object value = get(name);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).longValue();
+        }
+        return null;
+    }
+
+    /**
+     * 真偽値のクレームの値を返します。
+     *
+     * @param name クレーム名
+     * @return クレームの値。存在しない場合や真偽値ではない場合はnull
+     */
+    public Boolean getBoolean(String name) {
+        Object value = get(name);
+        return value instanceof Boolean ? (Boolean) value : null;
+    }
+
+    /**
+     * 文字列の配列のクレームの値を返します。 値が単一の文字列の場合は、その文字列のみを含むリストを返します。
+     *
+     * @param name クレーム名
+     * @return 変更不可のリスト。存在しない場合や文字列以外の要素を含む場合はnull
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(String name) {
+        Object value = get(name);
+        if (value instanceof String) {
+            return Collections.singletonList((String) value);
+        }
+        if (!(value instanceof List)) {
+            return null;
+        }
+        for (Object element : (List<Object>) value) {
+            if (!(element instanceof String)) {
+                return null;
+            }
+        }
+        return (List<String>) value;
+    }
+
+    /**
+     * オブジェクトのクレームの値を返します。
+     *
+     * @param name クレーム名
+     * @return クレームの値。存在しない場合やオブジェクトではない場合はnull
+     */
+    public JsonClaims getObject(String name) {
+        Object value = get(name);
+        return value instanceof JsonClaims ? (JsonClaims) value : null;
+    }
+
+    /**
+     * クレーム名をJSONに含まれていた順で返します。
+     *
+     * @return 変更不可のクレーム名のセット
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(names)));
+    }
+
+    /**
+     * クレームの数を返します。
+     *
+     * @return クレームの数
+     */
+    public int size() {
+        return names.length;
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(names[i]).append("\":").append(values[i]);
+        }
+        return builder.append('}').toString();
+    }
+
+    private int indexOf(String name) {
+        // 重複したメンバーは後に出現したものを優先する
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * メンバーの数と、各メンバーの名前と値をバイナリ形式で書き込む。
+     *
+     * @param out 書き込み先
+     */
+    void writeTo(BinaryOutput out) {
+        out.writeVarInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            out.writeString(names[i]);
+            writeValue(out, values[i]);
+        }
+    }
+
+    /**
+     * {@link #writeTo(BinaryOutput)}で書き込んだJsonClaimsを読み込む。
+     *
+     * @param in 読み込み元
+     * @return JsonClaims
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    static JsonClaims readFrom(BinaryInput in) throws DataFormatException {
+        return readFrom(in, 0);
+    }
+
+    /**
+     * 型を表す1バイトに続けて値を書き込む。
+     *
+     * @param out 書き込み先
+     * @param value {@link JsonClaims}が保持する型の値
+     * @throws IllegalArgumentException 保持しない型の値の場合に発生
+     */
+    static void writeValue(BinaryOutput out, Object value) {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            out.writeString((String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeVarLong((Long) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_DECIMAL);
+            out.writeString(value.toString());
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(TYPE_LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof JsonClaims) {
+            out.writeByte(TYPE_OBJECT);
+            ((JsonClaims) value).writeTo(out);
+        } else {
+            throw new IllegalArgumentException("Unsupported value: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * {@link #writeValue(BinaryOutput, Object)}で書き込んだ値を読み込む。
+     *
+     * @param in 読み込み元
+     * @return 値
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    static Object readValue(BinaryInput in) throws DataFormatException {
+        return readValue(in, 0);
+    }
+
+    private static JsonClaims readFrom(BinaryInput in, int depth) throws DataFormatException {
+        int count = readCount(in);
+        if (count == 0) {
+            return EMPTY;
+        }
+        String[] names = new String[count];
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = in.readString();
+            values[i] = readValue(in, depth);
+        }
+        return new JsonClaims(names, values);
+    }
+
+    private static Object readValue(BinaryInput in, int depth) throws DataFormatException {
+        int type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return in.readString();
+            case TYPE_LONG:
+                return in.readVarLong();
+            case TYPE_DECIMAL:
+                try {
+                    return new BigDecimal(in.readString());
+                } catch (NumberFormatException e) {
+                    throw new DataFormatException("Invalid decimal: " + e.getMessage());
+                }
+            case TYPE_FALSE:
+                return Boolean.FALSE;
+            case TYPE_TRUE:
+                return Boolean.TRUE;
+            case TYPE_LIST:
+                checkDepth(depth);
+                int count = readCount(in);
+                if (count == 0) {
+                    return Collections.emptyList();
+                }
+                ArrayList<Object> list = new ArrayList<Object>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(readValue(in, depth + 1));
+                }
+                return Collections.unmodifiableList(list);
+            case TYPE_OBJECT:
+                checkDepth(depth);
+                return readFrom(in, depth + 1);
+            default:
+                throw new DataFormatException("Unknown value type: " + type);
+        }
+    }
+
+    private static int readCount(BinaryInput in) throws DataFormatException {
+        int count = in.readVarInt();
+        // 要素は1バイト以上のため、残りのバイト数を超える数は不正
+        if (count > in.remaining()) {
+            throw new DataFormatException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private static void checkDepth(int depth) throws DataFormatException {
+        if (depth >= MAX_DEPTH) {
+            throw new DataFormatException("Too deeply nested.");
+        }
+    }
+
+    private Object readResolve() throws InvalidObjectException {
+        if (names == null || values == null || names.length != values.length) {
+            throw new InvalidObjectException("names and values must have the same length.");
+        }
+        return names.length == 0 ? EMPTY : this;
+    }
+
+    /** JsonClaimsを組み立てるクラス */
+    static final class Builder {
+
+        private final ArrayList<String> names = new ArrayList<String>();
+
+        private final ArrayList<Object> values = new ArrayList<Object>();
+
+        Builder add(String name, Object value) {
+            names.add(name);
+            values.add(value);
+            return this;
+        }
+
+        JsonClaims build() {
+            if (names.isEmpty()) {
+                return EMPTY;
+            }
+            return new JsonClaims(
+                    names.toArray(new String[names.size()]), values.toArray());
+        }
+    }
+}
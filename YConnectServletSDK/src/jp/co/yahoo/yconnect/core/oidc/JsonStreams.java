@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * JSON Streaming Support Class
+ *
+ * <p>{@link JsonParser}でJSONを先頭から一度だけ走査するための共通処理です。 {@link Json#createParser}
+ * は呼び出しごとにJSON-Pの実装を検索するため、ファクトリを一度だけ生成して共有します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+final class JsonStreams {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final JsonParserFactory PARSER_FACTORY = Json.createParserFactory(null);
+
+    private JsonStreams() {}
+
+    /**
+     * UTF-8でエンコードされたJSONのパーサーを生成します。
+     *
+     * @param json JSONのバイト列
+     * @return JsonParser
+     */
+    static JsonParser createParser(byte[] json) {
+        return createParser(new ByteArrayInputStream(json), UTF_8);
+    }
+
+    /**
+     * 指定した文字コードのJSONストリームのパーサーを生成します。
+     *
+     * @param json JSONのストリーム
+     * @param charset 文字コード
+     * @return JsonParser
+     */
+    static JsonParser createParser(InputStream json, Charset charset) {
+        return PARSER_FACTORY.createParser(json, charset);
+    }
+
+    /**
+     * JSON文字列のパーサーを生成します。
+     *
+     * @param json JSON文字列のReader
+     * @return JsonParser
+     */
+    static JsonParser createParser(Reader json) {
+        return PARSER_FACTORY.createParser(json);
+    }
+
+    /**
+     * JSONオブジェクトの開始を読み込みます。
+     *
+     * @param parser JsonParser
+     * @throws DataFormatException JSONオブジェクトではない場合に発生
+     */
+    static void startObject(JsonParser parser) throws DataFormatException {
+        if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+            throw new DataFormatException("JSON object is expected.");
+        }
+    }
+
+    /**
+     * 値が文字列の場合はその値を、それ以外の場合は値を読み飛ばしてnullを返します。
+     *
+     * @param parser JsonParser
+     * @param event 値の最初のイベント
+     * @return 文字列の値
+     */
+    static String stringValue(JsonParser parser, JsonParser.Event event) {
+        if (event == JsonParser.Event.VALUE_STRING) {
+            return parser.getString();
+        }
+        skipValue(parser, event);
+        return null;
+    }
+
+    /**
+     * 値を読み込み、{@link JsonClaims}で保持する型に変換します。
+     *
+     * @param parser JsonParser
+     * @param event 値の最初のイベント
+     * @return 値
+     */
+    static Object readValue(JsonParser parser, JsonParser.Event event) {
+        switch (event) {
+            case VALUE_STRING:
+                return parser.getString();
+            case VALUE_NUMBER:
+                return parser.isIntegralNumber()
+                        ? (Object) parser.getLong()
+                        : parser.getBigDecimal();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case START_ARRAY:
+                return readArray(parser);
+            case START_OBJECT:
+                return readObject(parser);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * START_OBJECTの後からEND_OBJECTまでを読み込みます。
+     *
+     * @param parser JsonParser
+     * @return JsonClaims
+     */
+    static JsonClaims readObject(JsonParser parser) {
+        JsonClaims.Builder builder = new JsonClaims.Builder();
+        JsonParser.Event event;
+        while ((event = parser.next()) == JsonParser.Event.KEY_NAME) {
+            String name = parser.getString();
+            builder.add(name, readValue(parser, parser.next()));
+        }
+        return builder.build();
+    }
+
+    private static List<Object> readArray(JsonParser parser) {
+        ArrayList<Object> values = new ArrayList<Object>();
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+            values.add(readValue(parser, event));
+        }
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        values.trimToSize();
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * 値を読み飛ばします。 オブジェクトや配列の場合は、対応する終了イベントまで読み進めます。
+     *
+     * @param parser JsonParser
+     * @param event 値の最初のイベント
+     */
+    static void skipValue(JsonParser parser, JsonParser.Event event) {
+        if (event != JsonParser.Event.START_OBJECT && event != JsonParser.Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            JsonParser.Event next = parser.next();
+            if (next == JsonParser.Event.START_OBJECT || next == JsonParser.Event.START_ARRAY) {
+                depth++;
+            } else if (next == JsonParser.Event.END_OBJECT
+                    || next == JsonParser.Event.END_ARRAY) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * 分割・デコード済みのJSON Web Tokenを保持するクラス
+ *
+ * <p>IDトークン文字列の走査とBase64URLデコードを一度だけ行い、その結果を {@link IdTokenDecoder} と
+ * {@link JWTVerification} で共有する。署名対象のバイト列(header.payload)もここで生成するため、
+ * 検証時に文字列の再分割や再連結は発生しない。
+ *
+ * <p>インスタンスは不変であり、スレッドセーフ。ただし、バイト配列を返すメソッドは内部配列を
+ * そのまま返すため、呼び出し側で変更してはならない。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class ParsedJWT {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String jwtString;
+
+    private final int headerEnd;
+
+    private final int payloadEnd;
+
+    private final byte[] signingInput;
+
+    private final byte[] header;
+
+    private final byte[] payload;
+
+    private final byte[] signature;
+
+    private ParsedJWT(
+            String jwtString,
+            int headerEnd,
+            int payloadEnd,
+            byte[] signingInput,
+            byte[] header,
+            byte[] payload,
+            byte[] signature) {
+        this.jwtString = jwtString;
+        this.headerEnd = headerEnd;
+        this.payloadEnd = payloadEnd;
+        this.signingInput = signingInput;
+        this.header = header;
+        this.payload = payload;
+        this.signature = signature;
+    }
+
+    /**
+     * JWT文字列を分割し、各セグメントをデコードする。
+     *
+     * @param jwtString JWT文字列
+     * @return ParsedJWT
+     * @throws DataFormatException 入力された文字列がJWTフォーマットではないときに発生
+     */
+    public static ParsedJWT parse(String jwtString) throws DataFormatException {
+        int headerEnd = jwtString.indexOf('.');
+        if (headerEnd < 0) {
+            throw new DataFormatException();
+        }
+        int payloadEnd = jwtString.indexOf('.', headerEnd + 1);
+        // signatureが空の場合やセグメントが4つ以上の場合はJWTとして扱わない
+        if (payloadEnd < 0
+                || payloadEnd == jwtString.length() - 1
+                || jwtString.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new DataFormatException();
+        }
+
+        byte[] signingInput = encodeSigningInput(jwtString, payloadEnd);
+        byte[] header = Base64.decodeBase64(jwtString.substring(0, headerEnd));
+        byte[] payload = Base64.decodeBase64(jwtString.substring(headerEnd + 1, payloadEnd));
+        byte[] signature = Base64.decodeBase64(jwtString.substring(payloadEnd + 1));
+
+        return new ParsedJWT(
+                jwtString, headerEnd, payloadEnd, signingInput, header, payload, signature);
+    }
+
+    /**
+     * 署名対象のheader.payloadをバイト列に変換する。 Base64URLエンコードされた値はASCII文字のみのため、
+     * 部分文字列を作らずに直接変換する。ASCII以外の文字が含まれる場合はUTF-8でエンコードする。
+     */
+    private static byte[] encodeSigningInput(String jwtString, int payloadEnd) {
+        byte[] signingInput = new byte[payloadEnd];
+        for (int i = 0; i < payloadEnd; i++) {
+            char c = jwtString.charAt(i);
+            if (c >= 0x80) {
+                return jwtString.substring(0, payloadEnd).getBytes(UTF_8);
+            }
+            signingInput[i] = (byte) c;
+        }
+        return signingInput;
+    }
+
+    /**
+     * 元のJWT文字列を返却する。
+     *
+     * @return JWT文字列
+     */
+    public String getJwtString() {
+        return jwtString;
+    }
+
+    /**
+     * 署名対象のバイト列(Base64URLエンコードされたheaderとpayloadを"."で連結したもの)を返却する。
+     *
+     * @return 署名対象のバイト列
+     */
+    public byte[] getSigningInput() {
+        return signingInput;
+    }
+
+    /**
+     * デコード済みのheaderを返却する。
+     *
+     * @return headerのバイト列
+     */
+    public byte[] getHeader() {
+        return header;
+    }
+
+    /**
+     * デコード済みのpayloadを返却する。
+     *
+     * @return payloadのバイト列
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * デコード済みのsignatureを返却する。
+     *
+     * @return signatureのバイト列
+     */
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    /**
+     * headerをJSON文字列として返却する。
+     *
+     * @return headerのJSON文字列
+     */
+    public String getHeaderJson() {
+        return new String(header, UTF_8);
+    }
+
+    /**
+     * payloadをJSON文字列として返却する。
+     *
+     * @return payloadのJSON文字列
+     */
+    public String getPayloadJson() {
+        return new String(payload, UTF_8);
+    }
+
+    /**
+     * Base64URLエンコードされたままのsignatureを返却する。
+     *
+     * @return signature文字列
+     */
+    public String getEncodedSignature() {
+        return jwtString.substring(payloadEnd + 1);
+    }
+
+    /**
+     * Base64URLエンコードされたままのheaderを返却する。
+     *
+     * @return header文字列
+     */
+    public String getEncodedHeader() {
+        return jwtString.substring(0, headerEnd);
+    }
+
+    /**
+     * Base64URLエンコードされたままのpayloadを返却する。
+     *
+     * @return payload文字列
+     */
+    public String getEncodedPayload() {
+        return jwtString.substring(headerEnd + 1, payloadEnd);
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.util.YConnectLogger;
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * PublicKeys Cache Class
+ *
+ * <p>PublicKeysエンドポイントから取得した公開鍵をエンドポイントURLごとにキャッシュします。
+ * キャッシュの有効期間はレスポンスのCache-Control(max-age)、Expiresヘッダから決定し、 設定した下限値と上限値の範囲に収めます。
+ *
+ * <p>同じURLへの取得は同時に1つだけ実行し、他のスレッドはその結果を待ち合わせます。 期限切れのキャッシュがある場合は、
+ * 取得中の結果を待たずに期限切れのキャッシュを返します。 取得中でないURLの情報は保持しません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class PublicKeysCache {
+
+    private static final String TAG = PublicKeysCache.class.getSimpleName();
+
+    /** キャッシュ有効期間の下限値のデフォルト値(ミリ秒) */
+    public static final long DEFAULT_MIN_TTL = 60 * 1000L;
+
+    /** キャッシュ有効期間の上限値のデフォルト値(ミリ秒) */
+    public static final long DEFAULT_MAX_TTL = 24 * 60 * 60 * 1000L;
+
+    /** レスポンスにキャッシュ関連のヘッダが無い場合の有効期間(ミリ秒) */
+    public static final long DEFAULT_TTL = 60 * 60 * 1000L;
+
+    private static final PublicKeysCache defaultCache = new PublicKeysCache();
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    private final ConcurrentMap<String, FutureTask<Entry>> loadings =
+            new ConcurrentHashMap<String, FutureTask<Entry>>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private volatile long minTtl;
+
+    private volatile long maxTtl;
+
+    /** PublicKeysCacheのコンストラクタです。 */
+    public PublicKeysCache() {
+        this(DEFAULT_MIN_TTL, DEFAULT_MAX_TTL);
+    }
+
+    /**
+     * PublicKeysCacheのコンストラクタです。
+     *
+     * @param minTtl キャッシュ有効期間の下限値(ミリ秒)
+     * @param maxTtl キャッシュ有効期間の上限値(ミリ秒)
+     */
+    public PublicKeysCache(long minTtl, long maxTtl) {
+        setTtlRange(minTtl, maxTtl);
+    }
+
+    /**
+     * プロセス全体で共有するキャッシュを返します。
+     *
+     * @return 共有キャッシュ
+     */
+    public static PublicKeysCache getDefault() {
+        return defaultCache;
+    }
+
+    /**
+     * キャッシュ有効期間の下限値と上限値を設定します。
+     *
+     * @param minTtl キャッシュ有効期間の下限値(ミリ秒)
+     * @param maxTtl キャッシュ有効期間の上限値(ミリ秒)
+     */
+    public void setTtlRange(long minTtl, long maxTtl) {
+        if (minTtl < 0 || maxTtl < minTtl) {
+            throw new IllegalArgumentException("Invalid TTL range.");
+        }
+        this.minTtl = minTtl;
+        this.maxTtl = maxTtl;
+    }
+
+    /**
+     * 公開鍵を取得します。 キャッシュが有効期間内であればキャッシュを返し、期限切れの場合は再取得します。
+     *
+     * @param url PublicKeysエンドポイントのURL
+     * @param client キャッシュが無い場合に使用するクライアント
+     * @return 公開鍵のオブジェクト
+     * @throws ApiClientException 公開鍵の取得に失敗したときに発生
+     */
+    public PublicKeysObject get(final String url, final PublicKeysClient client)
+            throws ApiClientException {
+        final Entry entry = entries.get(url);
+        if (entry != null && !entry.isExpired(currentTimeMillis())) {
+            hitCount.incrementAndGet();
+            return entry.publicKeysObject;
+        }
+
+        FutureTask<Entry> loading = loadings.get(url);
+        if (loading != null && entry != null) {
+            // 他のスレッドが取得中のため、期限切れのキャッシュを返す
+            hitCount.incrementAndGet();
+            return entry.publicKeysObject;
+        }
+        if (loading == null) {
+            loading =
+                    startLoading(
+                            url,
+                            new Callable<Entry>() {
+                                public Entry call() throws ApiClientException {
+                                    Entry current = entries.get(url);
+                                    if (current != null
+                                            && current != entry
+                                            && !current.isExpired(currentTimeMillis())) {
+                                        hitCount.incrementAndGet();
+                                        return current;
+                                    }
+                                    missCount.incrementAndGet();
+                                    return load(url, client);
+                                }
+                            });
+        }
+        return await(loading).publicKeysObject;
+    }
+
+    /**
+     * 公開鍵を強制的に再取得します。 IDトークンのkidに対応する公開鍵が見つからない場合に使用してください。
+     * 直近の取得から有効期間の下限値が経過していない場合は、エンドポイントへの過剰なリクエストを防ぐためキャッシュを返します。
+     *
+     * @param url PublicKeysエンドポイントのURL
+     * @param client 再取得に使用するクライアント
+     * @return 公開鍵のオブジェクト
+     * @throws ApiClientException 公開鍵の取得に失敗したときに発生
+     */
+    public PublicKeysObject refresh(final String url, final PublicKeysClient client)
+            throws ApiClientException {
+        FutureTask<Entry> loading = loadings.get(url);
+        if (loading == null) {
+            loading =
+                    startLoading(
+                            url,
+                            new Callable<Entry>() {
+                                public Entry call() throws ApiClientException {
+                                    Entry entry = entries.get(url);
+                                    if (entry != null
+                                            && currentTimeMillis() - entry.fetchedAt < minTtl) {
+                                        return entry;
+                                    }
+                                    refreshCount.incrementAndGet();
+                                    return load(url, client);
+                                }
+                            });
+        }
+        return await(loading).publicKeysObject;
+    }
+
+    /** キャッシュを全て破棄します。 */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * キャッシュヒット数を返します。
+     *
+     * @return キャッシュヒット数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * キャッシュミス数を返します。
+     *
+     * @return キャッシュミス数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 強制的な再取得の回数を返します。
+     *
+     * @return 再取得の回数
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private Entry load(String url, PublicKeysClient client) throws ApiClientException {
+        client.fetchResource(url);
+
+        long now = currentTimeMillis();
+        long ttl = computeTtl(client.getResponseHeaders(), now);
+        Entry entry = new Entry(client.getPublicKeysObject(), now, now + ttl);
+        entries.put(url, entry);
+
+        YConnectLogger.debug(TAG, "Cached public keys for {} ms. ({})", ttl, url);
+        return entry;
+    }
+
+    /**
+     * レスポンスヘッダからキャッシュ有効期間を算出します。
+     *
+     * @param headers レスポンスヘッダ
+     * @param now 現在時刻(ミリ秒)
+     * @return キャッシュ有効期間(ミリ秒)
+     */
+    long computeTtl(HttpHeaders headers, long now) {
+        long ttl = DEFAULT_TTL;
+
+        String cacheControl = getHeader(headers, "Cache-Control");
+        String expires = getHeader(headers, "Expires");
+        Long maxAge = parseMaxAge(cacheControl);
+        if (maxAge != null) {
+            ttl = maxAge * 1000L;
+            String age = getHeader(headers, "Age");
+            if (age != null) {
+                try {
+                    ttl -= Long.parseLong(age.trim()) * 1000L;
+                } catch (NumberFormatException e) {
+                    // Ageが不正な場合は無視する
+                }
+            }
+        } else if (cacheControl != null
+                && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"))) {
+            ttl = 0;
+        } else if (expires != null) {
+            Date expiresDate = DateUtils.parseDate(expires);
+            if (expiresDate == null) {
+                ttl = 0;
+            } else {
+                String dateHeader = getHeader(headers, "Date");
+                Date date = dateHeader != null ? DateUtils.parseDate(dateHeader) : null;
+                long base = date != null ? date.getTime() : now;
+                ttl = expiresDate.getTime() - base;
+            }
+        }
+
+        return Math.min(Math.max(ttl, minTtl), maxTtl);
+    }
+
+    private static Long parseMaxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return null;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String[] kv = directive.trim().split("=", 2);
+            if (kv.length == 2 && "max-age".equalsIgnoreCase(kv[0].trim())) {
+                try {
+                    return Long.parseLong(kv[1].trim().replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String getHeader(HttpHeaders headers, String name) {
+        if (headers == null || name == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * URLの取得を開始します。 既に取得中の場合はその取得を返します。
+     *
+     * <p>取得は呼び出したスレッドで実行し、完了後に取得中の一覧から取り除きます。
+     */
+    private FutureTask<Entry> startLoading(String url, Callable<Entry> callable) {
+        FutureTask<Entry> newLoading = new FutureTask<Entry>(callable);
+        FutureTask<Entry> loading = loadings.putIfAbsent(url, newLoading);
+        if (loading != null) {
+            return loading;
+        }
+        try {
+            newLoading.run();
+        } finally {
+            loadings.remove(url, newLoading);
+        }
+        return newLoading;
+    }
+
+    private static Entry await(FutureTask<Entry> loading) throws ApiClientException {
+        try {
+            return loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiClientException("Interrupted.", "", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiClientException) {
+                throw (ApiClientException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ApiClientException("Request failed.", "", cause);
+        }
+    }
+
+    private static class Entry {
+
+        private final PublicKeysObject publicKeysObject;
+
+        private final long fetchedAt;
+
+        private final long expiresAt;
+
+        Entry(PublicKeysObject publicKeysObject, long fetchedAt, long expiresAt) {
+            this.publicKeysObject = publicKeysObject;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
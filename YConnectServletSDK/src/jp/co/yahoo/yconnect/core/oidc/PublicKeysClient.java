@@ -24,14 +24,19 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
-import java.io.StringReader;
 import java.util.Set;
-import javax.json.Json;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.json.JsonObject;
-import javax.json.JsonReader;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
+import jp.co.yahoo.yconnect.core.http.JsonResponseHandler;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
 
 /**
  * PublicKeys Client Class
@@ -40,16 +45,23 @@ import jp.co.yahoo.yconnect.core.http.YHttpClient;
  */
 public class PublicKeysClient {
 
+    private static final JsonResponseHandler JSON_HANDLER = new JsonResponseHandler(true);
+
     private PublicKeysObject publicKeysObject;
 
+    private HttpHeaders responseHeaders;
+
+    private HttpTimeouts timeouts;
+
+    private Deadline deadline;
+
     public void fetchResource(String url) throws ApiClientException {
-        YHttpClient client = getYHttpClient();
-        client.requestGet(url, null, null);
+        YHttpResponse<JsonObject> response =
+                getYHttpClient().requestGet(url, null, null, timeouts, deadline, JSON_HANDLER);
 
-        int responseCode = client.getStatusCode();
-        String responseMessage = client.getStatusMessage();
-        HttpHeaders responseHeaders = client.getResponseHeaders();
-        String responseBody = client.getResponseBody();
+        int responseCode = response.getStatusCode();
+        String responseMessage = response.getStatusMessage();
+        responseHeaders = response.getHeaders();
 
         if (responseCode != 200) {
             throw new ApiClientException(
@@ -61,14 +73,41 @@ public class PublicKeysClient {
                     responseHeaders.toString());
         }
 
-        publicKeysParser(responseBody);
+        publicKeysParser(response.getBody());
     }
 
-    private void publicKeysParser(String json) {
-        JsonReader jsonReader = Json.createReader(new StringReader(json));
-        JsonObject rootObject = jsonReader.readObject();
-        jsonReader.close();
+    /**
+     * {@link #fetchResource(String)} を共有スレッドプールで非同期に実行します。
+     *
+     * @param url 公開鍵エンドポイントのURL
+     * @return 取得したPublicKeysObjectのFuture
+     * @see #fetchResourceAsync(String, ExecutorService)
+     */
+    public Future<PublicKeysObject> fetchResourceAsync(String url) {
+        return fetchResourceAsync(url, YConnectExecutors.getDefault());
+    }
+
+    /**
+     * {@link #fetchResource(String)} を指定されたスレッドプールで非同期に実行します。
+     *
+     * <p>リクエストに失敗した場合、{@link Future#get()} は {@link ApiClientException}
+     * を原因とする {@link java.util.concurrent.ExecutionException} を送出します。
+     *
+     * @param url 公開鍵エンドポイントのURL
+     * @param executor リクエストを実行するスレッドプール
+     * @return 取得したPublicKeysObjectのFuture
+     */
+    public Future<PublicKeysObject> fetchResourceAsync(final String url, ExecutorService executor) {
+        return executor.submit(
+                new Callable<PublicKeysObject>() {
+                    public PublicKeysObject call() throws ApiClientException {
+                        fetchResource(url);
+                        return getPublicKeysObject();
+                    }
+                });
+    }
 
+    private void publicKeysParser(JsonObject rootObject) {
         publicKeysObject = new PublicKeysObject();
 
         Set<String> kids = rootObject.keySet();
@@ -83,7 +122,34 @@ public class PublicKeysClient {
         return publicKeysObject;
     }
 
+    /**
+     * レスポンスヘッダを返します。 fetchResourceの後に呼び出してください。
+     *
+     * @return レスポンスヘッダ
+     */
+    public HttpHeaders getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    /**
+     * リクエストのタイムアウトを設定します。 fetchResourceの前に呼び出してください。
+     *
+     * @param timeouts タイムアウト。nullの場合はトランスポートのタイムアウトを使用
+     */
+    public void setTimeouts(HttpTimeouts timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * リクエストの期限を設定します。 fetchResourceの前に呼び出してください。
+     *
+     * @param deadline 期限。nullの場合は期限なし
+     */
+    public void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
     protected YHttpClient getYHttpClient() {
-        return new YHttpClient();
+        return YHttpClient.getDefault();
     }
 }
@@ -26,52 +26,91 @@ package jp.co.yahoo.yconnect.core.oidc;
 
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.json.JsonObject;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
 import org.apache.commons.codec.binary.Base64;
 
 /**
  * PublicKeys Object Class
  *
+ * <p>公開鍵は初回参照時にパースし、{@link RSAPublicKey}として保持します。 パース済みの鍵はスレッド間で共有できるため、
+ * キャッシュされたインスタンスを複数のリクエストスレッドから参照できます。
+ *
+ * <p>PEM形式の文字列とパース済みの鍵は、kidごとに1つの変更できないエントリとして保持します。 パース中に
+ * {@link #register(String, String)}で鍵が置き換えられた場合、古い鍵はキャッシュされません。
+ *
  * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
  */
 public class PublicKeysObject {
 
-    private final Map<String, String> publicKeys;
-    private JsonObject jsonObject;
+    private final ConcurrentMap<String, KeyEntry> publicKeys;
+    private volatile JsonObject jsonObject;
 
     public PublicKeysObject() {
-        publicKeys = new HashMap<String, String>();
+        publicKeys = new ConcurrentHashMap<String, KeyEntry>();
     }
 
     /**
      * kidに紐づく公開鍵を取得します。
      *
      * @param kid kid
-     * @return 公開鍵の文字列。紐づく鍵がなければnull。
+     * @return 公開鍵。紐づく鍵がなければnull。
      */
     public RSAPublicKey getPublicKey(String kid)
             throws NoSuchAlgorithmException, InvalidKeySpecException {
-        String publicKeyString = publicKeys.get(kid);
-        if (publicKeyString == null) {
+        KeyEntry entry = publicKeys.get(kid);
+        if (entry == null) {
             return null;
         }
+        if (entry.publicKey != null) {
+            return entry.publicKey;
+        }
 
-        String publicKeyContent =
-                publicKeyString
-                        .replace("\n", "")
-                        .replace("-----BEGIN PUBLIC KEY-----", "")
-                        .replace("-----END PUBLIC KEY-----", "");
+        RSAPublicKey publicKey = parsePublicKey(entry.publicKeyString);
 
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-        X509EncodedKeySpec keySpecX509 =
-                new X509EncodedKeySpec(Base64.decodeBase64(publicKeyContent));
+        // 読み込んだエントリが置き換えられていない場合のみ、パース済みの鍵を登録する。
+        // 並行してパースされた場合も同じ内容の鍵なので、どちらが登録されても問題ない
+        publicKeys.replace(kid, entry, new KeyEntry(entry.publicKeyString, publicKey));
+        return publicKey;
+    }
 
-        return (RSAPublicKey) keyFactory.generatePublic(keySpecX509);
+    /**
+     * 登録されている公開鍵を{@link PublicKeySource}として返します。 公開鍵のパースに失敗した場合、
+     * {@link PublicKeySource#getPublicKey(String)}は{@link ApiClientException}をスローします。
+     *
+     * @return 公開鍵の取得元
+     */
+    public PublicKeySource asPublicKeySource() {
+        return new PublicKeySource() {
+            public PublicKey getPublicKey(String kid) throws ApiClientException {
+                try {
+                    return PublicKeysObject.this.getPublicKey(kid);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new ApiClientException(
+                            IdTokenVerifier.INVALID_PUBLIC_KEY, e.getMessage(), e);
+                } catch (InvalidKeySpecException e) {
+                    throw new ApiClientException(
+                            IdTokenVerifier.INVALID_PUBLIC_KEY, e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /**
+     * kidに紐づく公開鍵の文字列を取得します。
+     *
+     * @param kid kid
+     * @return PEM形式の公開鍵の文字列。紐づく鍵がなければnull。
+     */
+    public String getPublicKeyString(String kid) {
+        KeyEntry entry = publicKeys.get(kid);
+        return entry != null ? entry.publicKeyString : null;
     }
 
     /**
@@ -81,7 +120,7 @@ public class PublicKeysObject {
      * @param publicKey 公開鍵
      */
     public void register(String kid, String publicKey) {
-        publicKeys.put(kid, publicKey);
+        publicKeys.put(kid, new KeyEntry(publicKey, null));
     }
 
     public JsonObject getJsonObject() {
@@ -91,4 +130,33 @@ public class PublicKeysObject {
     public void setJsonObject(JsonObject jsonObject) {
         this.jsonObject = jsonObject;
     }
+
+    private static RSAPublicKey parsePublicKey(String publicKeyString)
+            throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String publicKeyContent =
+                publicKeyString
+                        .replace("\n", "")
+                        .replace("-----BEGIN PUBLIC KEY-----", "")
+                        .replace("-----END PUBLIC KEY-----", "");
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        X509EncodedKeySpec keySpecX509 =
+                new X509EncodedKeySpec(Base64.decodeBase64(publicKeyContent));
+
+        return (RSAPublicKey) keyFactory.generatePublic(keySpecX509);
+    }
+
+    /** PEM形式の公開鍵の文字列と、パース済みの鍵の組 */
+    private static final class KeyEntry {
+
+        final String publicKeyString;
+
+        /** 未パースの場合はnull */
+        final RSAPublicKey publicKey;
+
+        KeyEntry(String publicKeyString, RSAPublicKey publicKey) {
+            this.publicKeyString = publicKeyString;
+            this.publicKey = publicKey;
+        }
+    }
 }
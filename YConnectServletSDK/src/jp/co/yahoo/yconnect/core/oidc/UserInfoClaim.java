@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UserInfo Claim Enum
+ *
+ * <p>{@link UserInfoObject}が文字列で保持するクレームです。 序数をUserInfoObjectのスロットの番号として使用するため、
+ * 定数は末尾にのみ追加してください。 addressのメンバーは"address/country"のように"/"で連結した名前を持ちます。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+enum UserInfoClaim {
+    SUB("sub"),
+    PPID_SUB("ppid_sub"),
+    LOCALE("locale"),
+    NAME("name"),
+    GIVEN_NAME("given_name"),
+    GIVEN_NAME_JA_KANA_JP("given_name#ja-Kana-JP"),
+    GIVEN_NAME_JA_HANI_JP("given_name#ja-Hani-JP"),
+    FAMILY_NAME("family_name"),
+    FAMILY_NAME_JA_KANA_JP("family_name#ja-Kana-JP"),
+    FAMILY_NAME_JA_HANI_JP("family_name#ja-Hani-JP"),
+    EMAIL("email"),
+    GENDER("gender"),
+    ZONEINFO("zoneinfo"),
+    BIRTHDATE("birthdate"),
+    NICKNAME("nickname"),
+    PICTURE("picture"),
+    ADDRESS_COUNTRY("address/country"),
+    ADDRESS_POSTAL_CODE("address/postal_code"),
+    ADDRESS_REGION("address/region"),
+    ADDRESS_LOCALITY("address/locality"),
+    ADDRESS_FORMATTED("address/formatted");
+
+    static final String ADDRESS = "address";
+
+    private static final String ADDRESS_PREFIX = ADDRESS + "/";
+
+    private static final Map<String, UserInfoClaim> CLAIMS = new HashMap<String, UserInfoClaim>();
+
+    private static final Map<String, UserInfoClaim> ADDRESS_CLAIMS =
+            new HashMap<String, UserInfoClaim>();
+
+    /** スロットの数 */
+    static final int COUNT = values().length;
+
+    /** 全てのスロットのビット */
+    static final int ALL_BITS;
+
+    static {
+        int bits = 0;
+        for (UserInfoClaim claim : values()) {
+            CLAIMS.put(claim.claimName, claim);
+            if (claim.claimName.startsWith(ADDRESS_PREFIX)) {
+                ADDRESS_CLAIMS.put(claim.claimName.substring(ADDRESS_PREFIX.length()), claim);
+            }
+            bits |= claim.bit;
+        }
+        ALL_BITS = bits;
+    }
+
+    final String claimName;
+
+    final int bit;
+
+    UserInfoClaim(String claimName) {
+        this.claimName = claimName;
+        this.bit = 1 << ordinal();
+    }
+
+    /**
+     * クレーム名に対応する定数を返します。
+     *
+     * @param claimName クレーム名。addressのメンバーは"address/country"の形式
+     * @return 定数。該当しない場合はnull
+     */
+    static UserInfoClaim forName(String claimName) {
+        return CLAIMS.get(claimName);
+    }
+
+    /**
+     * addressのメンバー名に対応する定数を返します。
+     *
+     * @param memberName addressのメンバー名
+     * @return 定数。該当しない場合はnull
+     */
+    static UserInfoClaim forAddressMember(String memberName) {
+        return ADDRESS_CLAIMS.get(memberName);
+    }
+}
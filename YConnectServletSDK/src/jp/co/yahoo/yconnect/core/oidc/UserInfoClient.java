@@ -24,13 +24,17 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
-import java.io.StringReader;
-import javax.json.Json;
-import javax.json.JsonObject;
-import javax.json.JsonReader;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import jp.co.yahoo.yconnect.core.api.ApiClient;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
 import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
 
 /**
  * UserInfo Client Class
@@ -39,6 +43,18 @@ import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
  */
 public class UserInfoClient extends ApiClient {
 
+    /** レスポンスボディのストリームを{@link UserInfoParser}で直接解析するハンドラ */
+    private static final YHttpResponseHandler<UserInfoObject> USER_INFO_HANDLER =
+            new YHttpResponseHandler<UserInfoObject>() {
+                public UserInfoObject handleResponse(
+                        int statusCode, HttpHeaders headers, InputStream body, Charset charset) {
+                    if (statusCode != 200) {
+                        return null;
+                    }
+                    return UserInfoParser.parse(body, charset);
+                }
+            };
+
     private UserInfoObject userInfoObject;
 
     public UserInfoClient(String accessTokenString) {
@@ -54,101 +70,41 @@ public class UserInfoClient extends ApiClient {
 
         setParameter("schema", OIDCScope.OPENID);
 
-        super.fetchResource(url, method);
-
-        String json = getResponse();
-
-        userInfoParser(json);
+        userInfoObject = fetchResource(url, method, USER_INFO_HANDLER);
     }
 
-    private void userInfoParser(String json) {
-
-        JsonReader jsonReader = Json.createReader(new StringReader(json));
-        JsonObject rootObject = jsonReader.readObject();
-        jsonReader.close();
-
-        if (rootObject.containsKey("sub")) {
-            userInfoObject = new UserInfoObject(rootObject.getString("sub"));
-        }
-        if (rootObject.containsKey("ppid_sub")) {
-            userInfoObject.setPpidSub(rootObject.getString("ppid_sub"));
-        }
-        if (rootObject.containsKey("locale")) {
-            userInfoObject.setLocale(rootObject.getString("locale"));
-        }
-        if (rootObject.containsKey("name")) {
-            userInfoObject.setName(rootObject.getString("name"));
-        }
-        if (rootObject.containsKey("given_name")) {
-            userInfoObject.setGivenName(rootObject.getString("given_name"));
-        }
-        if (rootObject.containsKey("given_name#ja-Kana-JP")) {
-            userInfoObject.setGivenNameJaKanaJp(rootObject.getString("given_name#ja-Kana-JP"));
-        }
-        if (rootObject.containsKey("given_name#ja-Hani-JP")) {
-            userInfoObject.setGivenNameJaHaniJp(rootObject.getString("given_name#ja-Hani-JP"));
-        }
-        if (rootObject.containsKey("family_name")) {
-            userInfoObject.setFamilyName(rootObject.getString("family_name"));
-        }
-        if (rootObject.containsKey("family_name#ja-Kana-JP")) {
-            userInfoObject.setFamilyNameJaKanaJp(rootObject.getString("family_name#ja-Kana-JP"));
-        }
-        if (rootObject.containsKey("family_name#ja-Hani-JP")) {
-            userInfoObject.setFamilyNameJaHaniJp(rootObject.getString("family_name#ja-Hani-JP"));
-        }
-        if (rootObject.containsKey("email")) {
-            userInfoObject.setEmail(rootObject.getString("email"));
-        }
-        if (rootObject.containsKey("email_verified")) {
-            try {
-                userInfoObject.setEmailVerified(
-                        ((Boolean) rootObject.getBoolean("email_verified")).toString());
-            } catch (ClassCastException e) {
-                userInfoObject.setEmailVerified("false");
-            }
-        }
-        if (rootObject.containsKey("gender")) {
-            userInfoObject.setGender(rootObject.getString("gender"));
-        }
-        if (rootObject.containsKey("zoneinfo")) {
-            userInfoObject.setZoneinfo(rootObject.getString("zoneinfo"));
-        }
-        if (rootObject.containsKey("birthdate")) {
-            userInfoObject.setBirthdate(rootObject.getString("birthdate"));
-        }
-        if (rootObject.containsKey("nickname")) {
-            userInfoObject.setNickname(rootObject.getString("nickname"));
-        }
-        if (rootObject.containsKey("picture")) {
-            userInfoObject.setPicture(rootObject.getString("picture"));
-        }
-        if (rootObject.containsKey("address")) {
-            if (rootObject.get("address") != null) {
-                JsonObject addressJSONObject = (JsonObject) rootObject.get("address");
-                addressParser(addressJSONObject);
-            }
-        }
-
-        userInfoObject.setJsonObject(rootObject);
+    /**
+     * {@link #fetchResource(String, String)} を共有スレッドプールで非同期に実行します。
+     *
+     * @param url UserInfoエンドポイントのURL
+     * @param method HTTPメソッド
+     * @return 取得したUserInfoObjectのFuture
+     * @see #fetchResourceAsync(String, String, ExecutorService)
+     */
+    public Future<UserInfoObject> fetchResourceAsync(String url, String method) {
+        return fetchResourceAsync(url, method, YConnectExecutors.getDefault());
     }
 
-    private void addressParser(JsonObject addressJSONObject) {
-        if (addressJSONObject.containsKey("country")) {
-            userInfoObject.setAddressCountry(addressJSONObject.getString("country"));
-        }
-        if (addressJSONObject.containsKey("postal_code")) {
-            userInfoObject.setAddressPostalCode(addressJSONObject.getString("postal_code"));
-        }
-        if (addressJSONObject.containsKey("region")) {
-            userInfoObject.setAddressRegion(addressJSONObject.getString("region"));
-        }
-        if (addressJSONObject.containsKey("locality")) {
-            userInfoObject.setAddressLocality(addressJSONObject.getString("locality"));
-        }
-        if (addressJSONObject.containsKey("formatted")) {
-            userInfoObject.setAddressFormatted(addressJSONObject.getString("formatted"));
-        }
+    /**
+     * {@link #fetchResource(String, String)} を指定されたスレッドプールで非同期に実行します。
+     *
+     * <p>リクエストに失敗した場合、{@link Future#get()} は {@link ApiClientException}
+     * を原因とする {@link java.util.concurrent.ExecutionException} を送出します。
+     *
+     * @param url UserInfoエンドポイントのURL
+     * @param method HTTPメソッド
+     * @param executor リクエストを実行するスレッドプール
+     * @return 取得したUserInfoObjectのFuture
+     */
+    public Future<UserInfoObject> fetchResourceAsync(
+            final String url, final String method, ExecutorService executor) {
+        return executor.submit(
+                new Callable<UserInfoObject>() {
+                    public UserInfoObject call() throws ApiClientException {
+                        fetchResource(url, method);
+                        return getUserInfoObject();
+                    }
+                });
     }
 
     public UserInfoObject getUserInfoObject() {
@@ -24,248 +24,449 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
 import javax.json.JsonObject;
+import jp.co.yahoo.yconnect.core.util.BinaryInput;
+import jp.co.yahoo.yconnect.core.util.BinaryOutput;
 
 /**
  * UserInfo Object Class
  *
+ * <p>セッションごとに保持されることを想定し、存在するクレームの値のみを{@link UserInfoClaim}の順に詰めた配列で
+ * 保持します。 存在しないクレームのgetterは共有の空文字列を返します。 birthdateは"YYYY"または"YYYY-MM-DD"の
+ * 形式であれば数値で保持し、localeとzoneinfoは同じ値のインスタンスを共有します。
+ *
+ * <p>フィールドの無いクレームは{@link #getAdditionalValues()}に保持します。 保持する領域は
+ * 該当するクレームがあった場合にのみ生成します。
+ *
+ * <p>値は変更不可のスナップショットとして保持し、setterは新しいスナップショットに置き換えます。 そのため
+ * {@link UserInfoParser}が生成したインスタンスをスレッド間で共有しても、読み込み中の値が変わることはありません。
+ * setterは互換性のために残していますが、将来削除します。 setterでnullを設定したクレームのgetterはnullを返します。
+ *
+ * <p>シリアライズ時は{@link #writeTo(BinaryOutput)}の形式で存在するクレームのみを書き込み、
+ * {@link #setJsonObject(JsonObject)}で設定したJsonObjectは書き込みません。
+ *
  * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
  */
-public class UserInfoObject {
-
-    private JsonObject jsonObject;
-
-    private String sub = "";
-
-    private String ppidSub = "";
-
-    private String locale = "";
-
-    private String name = "";
+public class UserInfoObject implements Serializable {
 
-    private String givenName = "";
+    private static final long serialVersionUID = 1L;
 
-    private String givenNameJaKanaJp = "";
+    private static final String EMPTY = "";
 
-    private String givenNameJaHaniJp = "";
+    private static final String[] NO_VALUES = new String[0];
 
-    private String familyName = "";
+    /** 共有するlocaleとzoneinfoの値の最大数 */
+    private static final int MAX_SHARED_VALUES = 256;
 
-    private String familyNameJaKanaJp = "";
+    /** 共有するlocaleとzoneinfoの値の最大長 */
+    private static final int MAX_SHARED_VALUE_LENGTH = 64;
 
-    private String familyNameJaHaniJp = "";
+    private static final ConcurrentMap<String, String> SHARED_VALUES =
+            new ConcurrentHashMap<String, String>();
 
-    private String email = "";
+    private static final String TRUE = "true";
 
-    private String emailVerified = "false";
+    private static final String FALSE = "false";
 
-    private String gender = "";
+    private static final State EMPTY_STATE = new State(0, 0, NO_VALUES, 0, FALSE);
 
-    private String zoneinfo = "";
+    // email_verifiedの書き込み形式
+    private static final int EMAIL_VERIFIED_FALSE = 0;
+    private static final int EMAIL_VERIFIED_TRUE = 1;
+    private static final int EMAIL_VERIFIED_NULL = 2;
+    private static final int EMAIL_VERIFIED_OTHER = 3;
 
-    private String birthdate = "";
+    private transient volatile JsonObject jsonObject;
 
-    private String nickname = "";
+    private volatile State state;
 
-    private String picture = "";
+    private final Map<String, Object> additionalValues;
 
-    private String addressCountry = "";
-
-    private String addressPostalCode = "";
-
-    private String addressRegion = "";
-
-    private String addressLocality = "";
+    public UserInfoObject() {
+        this(EMPTY_STATE, null);
+    }
 
-    private String addressFormatted = "";
+    public UserInfoObject(String sub) {
+        this(EMPTY_STATE.withValue(UserInfoClaim.SUB, sub), null);
+    }
 
-    public UserInfoObject() {}
+    private UserInfoObject(State state, Map<String, Object> additionalValues) {
+        this.state = state;
+        this.additionalValues = additionalValues;
+    }
 
-    public UserInfoObject(String sub) {
-        setSub(sub);
+    /**
+     * スロットの配列からUserInfoObjectを生成する。
+     *
+     * @param slots {@link UserInfoClaim}の序数を添字とする配列。nullのスロットはクレームが無いものとして扱う
+     * @param emailVerified email_verifiedの値
+     * @param additionalValues フィールドの無いクレーム。無い場合はnull
+     */
+    UserInfoObject(String[] slots, boolean emailVerified, Map<String, Object> additionalValues) {
+        this(State.of(slots, 0, emailVerified ? TRUE : FALSE), additionalValues);
     }
 
     public String getSub() {
-        return sub;
+        return getValue(UserInfoClaim.SUB);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setSub(String sub) {
-        this.sub = sub;
+        setValue(UserInfoClaim.SUB, sub);
     }
 
     public String getPpidSub() {
-        return ppidSub;
+        return getValue(UserInfoClaim.PPID_SUB);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setPpidSub(String ppidSub) {
-        this.ppidSub = ppidSub;
+        setValue(UserInfoClaim.PPID_SUB, ppidSub);
     }
 
     public String getLocale() {
-        return locale;
+        return getValue(UserInfoClaim.LOCALE);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setLocale(String locale) {
-        this.locale = locale;
+        setValue(UserInfoClaim.LOCALE, locale);
     }
 
     public String getName() {
-        return name;
+        return getValue(UserInfoClaim.NAME);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setName(String name) {
-        this.name = name;
+        setValue(UserInfoClaim.NAME, name);
     }
 
     public String getGivenName() {
-        return givenName;
+        return getValue(UserInfoClaim.GIVEN_NAME);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setGivenName(String givenName) {
-        this.givenName = givenName;
+        setValue(UserInfoClaim.GIVEN_NAME, givenName);
     }
 
     public String getGivenNameJaKanaJp() {
-        return givenNameJaKanaJp;
+        return getValue(UserInfoClaim.GIVEN_NAME_JA_KANA_JP);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setGivenNameJaKanaJp(String givenNameJaKanaJp) {
-        this.givenNameJaKanaJp = givenNameJaKanaJp;
+        setValue(UserInfoClaim.GIVEN_NAME_JA_KANA_JP, givenNameJaKanaJp);
     }
 
     public String getGivenNameJaHaniJp() {
-        return givenNameJaHaniJp;
+        return getValue(UserInfoClaim.GIVEN_NAME_JA_HANI_JP);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setGivenNameJaHaniJp(String givenNameJaHaniJp) {
-        this.givenNameJaHaniJp = givenNameJaHaniJp;
+        setValue(UserInfoClaim.GIVEN_NAME_JA_HANI_JP, givenNameJaHaniJp);
     }
 
     public String getFamilyName() {
-        return familyName;
+        return getValue(UserInfoClaim.FAMILY_NAME);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setFamilyName(String familyName) {
-        this.familyName = familyName;
+        setValue(UserInfoClaim.FAMILY_NAME, familyName);
     }
 
     public String getFamilyNameJaKanaJp() {
-        return familyNameJaKanaJp;
+        return getValue(UserInfoClaim.FAMILY_NAME_JA_KANA_JP);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setFamilyNameJaKanaJp(String familyNameJaKanaJp) {
-        this.familyNameJaKanaJp = familyNameJaKanaJp;
+        setValue(UserInfoClaim.FAMILY_NAME_JA_KANA_JP, familyNameJaKanaJp);
     }
 
     public String getFamilyNameJaHaniJp() {
-        return familyNameJaHaniJp;
+        return getValue(UserInfoClaim.FAMILY_NAME_JA_HANI_JP);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setFamilyNameJaHaniJp(String familyNameJaHaniJp) {
-        this.familyNameJaHaniJp = familyNameJaHaniJp;
+        setValue(UserInfoClaim.FAMILY_NAME_JA_HANI_JP, familyNameJaHaniJp);
     }
 
     public String getEmail() {
-        return email;
+        return getValue(UserInfoClaim.EMAIL);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setEmail(String email) {
-        this.email = email;
+        setValue(UserInfoClaim.EMAIL, email);
     }
 
+    /**
+     * email_verifiedを文字列で返却する。
+     *
+     * @return "true"または"false"。{@link #setEmailVerified(String)}で設定した場合はその値
+     */
     public String getEmailVerified() {
-        return emailVerified;
+        return state.emailVerified;
     }
 
-    public void setEmailVerified(String emailVerified) {
-        this.emailVerified = emailVerified;
+    /**
+     * email_verifiedを返却する。
+     *
+     * @return メールアドレスが確認済みの場合はtrue
+     */
+    public boolean isEmailVerified() {
+        return TRUE.equals(state.emailVerified);
+    }
+
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
+    public synchronized void setEmailVerified(String emailVerified) {
+        State current = state;
+        state =
+                new State(
+                        current.present,
+                        current.nulls,
+                        current.values,
+                        current.birthdate,
+                        emailVerified);
     }
 
     public String getGender() {
-        return gender;
+        return getValue(UserInfoClaim.GENDER);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setGender(String gender) {
-        this.gender = gender;
+        setValue(UserInfoClaim.GENDER, gender);
     }
 
     public String getZoneinfo() {
-        return zoneinfo;
+        return getValue(UserInfoClaim.ZONEINFO);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setZoneinfo(String zoneinfo) {
-        this.zoneinfo = zoneinfo;
+        setValue(UserInfoClaim.ZONEINFO, zoneinfo);
     }
 
     public String getBirthdate() {
-        return birthdate;
-    }
-
-    public void setBirthdate(String birthdate) {
-        this.birthdate = birthdate;
+        return state.getBirthdate();
+    }
+
+    /**
+     * birthdateの年を返却する。
+     *
+     * @return 年。birthdateが無い場合や"YYYY"、"YYYY-MM-DD"の形式ではない場合、年が"0000"の場合は0
+     */
+    public int getBirthYear() {
+        return state.birthdate / 10000;
+    }
+
+    /**
+     * birthdateの月を返却する。
+     *
+     * @return 月。birthdateが無い場合や"YYYY-MM-DD"の形式ではない場合は0
+     */
+    public int getBirthMonth() {
+        return state.birthdate / 100 % 100;
+    }
+
+    /**
+     * birthdateの日を返却する。
+     *
+     * @return 日。birthdateが無い場合や"YYYY-MM-DD"の形式ではない場合は0
+     */
+    public int getBirthDay() {
+        return state.birthdate % 100;
+    }
+
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
+    public synchronized void setBirthdate(String birthdate) {
+        int packed = birthdate != null ? packBirthdate(birthdate) : 0;
+        State current = state;
+        if (packed != 0) {
+            // 数値で保持できたbirthdateは文字列のスロットを使わない
+            current = current.withoutValue(UserInfoClaim.BIRTHDATE);
+        } else {
+            current = current.withValue(UserInfoClaim.BIRTHDATE, birthdate);
+        }
+        state =
+                new State(
+                        current.present,
+                        current.nulls,
+                        current.values,
+                        packed,
+                        current.emailVerified);
     }
 
     public String getNickname() {
-        return nickname;
+        return getValue(UserInfoClaim.NICKNAME);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setNickname(String nickname) {
-        this.nickname = nickname;
+        setValue(UserInfoClaim.NICKNAME, nickname);
     }
 
     public String getPicture() {
-        return picture;
+        return getValue(UserInfoClaim.PICTURE);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setPicture(String picture) {
-        this.picture = picture;
+        setValue(UserInfoClaim.PICTURE, picture);
     }
 
     public String getAddressCountry() {
-        return addressCountry;
+        return getValue(UserInfoClaim.ADDRESS_COUNTRY);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setAddressCountry(String addressCountry) {
-        this.addressCountry = addressCountry;
+        setValue(UserInfoClaim.ADDRESS_COUNTRY, addressCountry);
     }
 
     public String getAddressPostalCode() {
-        return addressPostalCode;
+        return getValue(UserInfoClaim.ADDRESS_POSTAL_CODE);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setAddressPostalCode(String addressPostalCode) {
-        this.addressPostalCode = addressPostalCode;
+        setValue(UserInfoClaim.ADDRESS_POSTAL_CODE, addressPostalCode);
     }
 
     public String getAddressRegion() {
-        return addressRegion;
+        return getValue(UserInfoClaim.ADDRESS_REGION);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setAddressRegion(String addressRegion) {
-        this.addressRegion = addressRegion;
+        setValue(UserInfoClaim.ADDRESS_REGION, addressRegion);
     }
 
     public String getAddressLocality() {
-        return addressLocality;
+        return getValue(UserInfoClaim.ADDRESS_LOCALITY);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setAddressLocality(String addressLocality) {
-        this.addressLocality = addressLocality;
+        setValue(UserInfoClaim.ADDRESS_LOCALITY, addressLocality);
     }
 
     public String getAddressFormatted() {
-        return addressFormatted;
+        return getValue(UserInfoClaim.ADDRESS_FORMATTED);
     }
 
+    /** @deprecated UserInfoObjectは{@link UserInfoParser}で生成してください。 */
+    @Deprecated
     public void setAddressFormatted(String addressFormatted) {
-        this.addressFormatted = addressFormatted;
+        setValue(UserInfoClaim.ADDRESS_FORMATTED, addressFormatted);
     }
 
+    /**
+     * @deprecated {@link UserInfoClient}はJsonObjectを保持しなくなりました。
+     *     {@link #getAdditionalValue(String)}または{@link #getAdditionalValues()}を使用してください。
+     */
+    @Deprecated
     public void setJsonObject(JsonObject jsonObject) {
         this.jsonObject = jsonObject;
     }
 
+    /**
+     * クレームの値を文字列で返却する。 addressのメンバーなど、オブジェクトのメンバーは"address/country"のように
+     * "/"で連結した名前で指定する。
+     *
+     * @param keyStr クレーム名
+     * @return クレームの値。存在しない場合や文字列ではない場合は空文字列
+     */
     public String getAdditionalValue(String keyStr) {
+        if (jsonObject != null) {
+            return getJsonObjectValue(keyStr);
+        }
+
+        String value = getFieldValue(keyStr);
+        if (value != null) {
+            return value;
+        }
+        if (additionalValues == null) {
+            return EMPTY;
+        }
+
+        Object additionalValue = additionalValues.get(keyStr);
+        if (additionalValue == null && keyStr.indexOf('/') > 0) {
+            // 独自のクレームのオブジェクトのメンバーを辿る
+            String[] keys = keyStr.split("/");
+            additionalValue = additionalValues.get(keys[0]);
+            for (int i = 1; i < keys.length; i++) {
+                additionalValue =
+                        additionalValue instanceof JsonClaims
+                                ? ((JsonClaims) additionalValue).get(keys[i])
+                                : null;
+            }
+        }
+        return additionalValue instanceof String ? (String) additionalValue : EMPTY;
+    }
+
+    /**
+     * フィールドの無いクレームを返却する。
+     *
+     * <p>値は{@link JsonClaims}と同じ型(String、Long、BigDecimal、Boolean、List、JsonClaims)で保持する。
+     *
+     * @return 変更不可のマップ。該当するクレームが無い場合は空のマップ
+     */
+    public Map<String, Object> getAdditionalValues() {
+        if (additionalValues == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(additionalValues);
+    }
+
+    /**
+     * @deprecated {@link UserInfoClient}で取得した場合はnullを返却します。
+     *     {@link #getAdditionalValue(String)}または{@link #getAdditionalValues()}を使用してください。
+     */
+    @Deprecated
+    public JsonObject getJsonObject() {
+        return this.jsonObject;
+    }
+
+    private String getJsonObjectValue(String keyStr) {
         try {
             String[] keys = keyStr.split("/");
 
@@ -275,82 +476,403 @@ public class UserInfoObject {
             }
             return jsonObject.getString(keys[keys.length - 1]);
         } catch (Exception e) {
-            return "";
+            return EMPTY;
         }
     }
 
-    public JsonObject getJsonObject() {
-        return this.jsonObject;
+    private String getFieldValue(String name) {
+        if (additionalValues != null && additionalValues.containsKey(name)) {
+            // 型が想定と異なり、フィールドに格納されなかったクレーム
+            return null;
+        }
+        UserInfoClaim claim = UserInfoClaim.forName(name);
+        if (claim == UserInfoClaim.BIRTHDATE) {
+            return getBirthdate();
+        }
+        return claim != null ? getValue(claim) : null;
+    }
+
+    private String getValue(UserInfoClaim claim) {
+        return state.getValue(claim);
+    }
+
+    private synchronized void setValue(UserInfoClaim claim, String value) {
+        state = state.withValue(claim, value);
+    }
+
+    /** localeとzoneinfoは取り得る値が少ないため、同じ値のインスタンスを共有する */
+    private static String share(UserInfoClaim claim, String value) {
+        if (claim != UserInfoClaim.LOCALE && claim != UserInfoClaim.ZONEINFO) {
+            return value;
+        }
+        String shared = SHARED_VALUES.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (value.length() > MAX_SHARED_VALUE_LENGTH
+                || SHARED_VALUES.size() >= MAX_SHARED_VALUES) {
+            // 想定外の値で表が大きくならないよう、上限を超えた値は共有しない
+            return value;
+        }
+        shared = SHARED_VALUES.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    /**
+     * birthdateを数値に変換する。 変換した値から元の文字列を復元できる場合のみ変換する。
+     *
+     * @param value birthdate
+     * @return 年*10000+月*100+日。変換できない場合は0
+     */
+    static int packBirthdate(String value) {
+        int year = parseDigits(value, 0, 4);
+        if (value.length() == 4) {
+            return year > 0 ? year * 10000 : 0;
+        }
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return 0;
+        }
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return 0;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static String formatBirthdate(int birthdate) {
+        StringBuilder sb = new StringBuilder(10);
+        appendDigits(sb, birthdate / 10000, 4);
+        if (birthdate / 100 % 100 > 0) {
+            appendDigits(sb.append('-'), birthdate / 100 % 100, 2);
+            appendDigits(sb.append('-'), birthdate % 100, 2);
+        }
+        return sb.toString();
+    }
+
+    private static int parseDigits(String value, int start, int end) {
+        if (value.length() < end) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static void appendDigits(StringBuilder sb, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
     }
 
     public String toString() {
-        return "{"
-                + "\"sub\":\""
-                + sub
-                + "\","
-                + "\"ppid_sub\":\""
-                + ppidSub
-                + "\","
-                + "\"locale\":\""
-                + locale
-                + "\","
-                + "\"name\":\""
-                + name
-                + "\","
-                + "\"given_name\":\""
-                + givenName
-                + "\","
-                + "\"given_name#ja-Kana-JP\":\""
-                + givenNameJaKanaJp
-                + "\","
-                + "\"given_name#ja-Hani-JP\":\""
-                + givenNameJaHaniJp
-                + "\","
-                + "\"family_name\":\""
-                + familyName
-                + "\","
-                + "\"family_name#ja-Kana-JP\":\""
-                + familyNameJaKanaJp
-                + "\","
-                + "\"family_name#ja-Hani-JP\":\""
-                + familyNameJaHaniJp
-                + "\","
-                + "\"email\":\""
-                + email
-                + "\","
-                + "\"email_verified\":\""
-                + emailVerified
-                + "\","
-                + "\"gender\":"
-                + gender
-                + ","
-                + "\"zoneinfo\":\""
-                + zoneinfo
-                + "\","
-                + "\"birthdate\":\""
-                + birthdate
-                + "\","
-                + "\"nickname\":\""
-                + nickname
-                + "\","
-                + "\"picture\":\""
-                + picture
-                + "\","
-                + "\"address/country\":\""
-                + addressCountry
-                + "\","
-                + "\"address/postal_code\":\""
-                + addressPostalCode
-                + "\","
-                + "\"address/region\":\""
-                + addressRegion
-                + "\","
-                + "\"address/locality\":\""
-                + addressLocality
-                + "\","
-                + "\"address/formatted\":\""
-                + addressFormatted
-                + "\""
-                + "}";
+        State current = state;
+        StringBuilder sb = new StringBuilder(256).append('{');
+        for (UserInfoClaim claim : UserInfoClaim.values()) {
+            if (claim != UserInfoClaim.SUB) {
+                sb.append(',');
+            }
+            String value =
+                    claim == UserInfoClaim.BIRTHDATE
+                            ? current.getBirthdate()
+                            : current.getValue(claim);
+            sb.append('"').append(claim.claimName).append("\":\"").append(value).append('"');
+            if (claim == UserInfoClaim.EMAIL) {
+                sb.append(",\"email_verified\":\"").append(current.emailVerified).append('"');
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * バイナリ形式で書き込む。 存在するスロットのビット、存在する値、nullを設定したスロットのビット、
+     * email_verified、birthdate、フィールドの無いクレームの順に書き込む。
+     * {@link #setJsonObject(JsonObject)}で設定したJsonObjectは書き込まない。
+     *
+     * @param out 書き込み先
+     */
+    public void writeTo(BinaryOutput out) {
+        State current = state;
+        out.writeVarInt(current.present);
+        for (String value : current.values) {
+            out.writeString(value);
+        }
+        out.writeVarInt(current.nulls);
+        if (FALSE.equals(current.emailVerified)) {
+            out.writeVarInt(EMAIL_VERIFIED_FALSE);
+        } else if (TRUE.equals(current.emailVerified)) {
+            out.writeVarInt(EMAIL_VERIFIED_TRUE);
+        } else if (current.emailVerified == null) {
+            out.writeVarInt(EMAIL_VERIFIED_NULL);
+        } else {
+            out.writeVarInt(EMAIL_VERIFIED_OTHER);
+            out.writeString(current.emailVerified);
+        }
+        out.writeVarInt(current.birthdate);
+        if (additionalValues == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(additionalValues.size());
+        for (Map.Entry<String, Object> additionalValue : additionalValues.entrySet()) {
+            out.writeString(additionalValue.getKey());
+            JsonClaims.writeValue(out, additionalValue.getValue());
+        }
+    }
+
+    /**
+     * {@link #writeTo(BinaryOutput)}で書き込んだUserInfoObjectを読み込む。
+     *
+     * @param in 読み込み元
+     * @return UserInfoObject
+     * @throws DataFormatException バイト列が不正な場合に発生
+     */
+    public static UserInfoObject readFrom(BinaryInput in) throws DataFormatException {
+        int present = in.readVarInt();
+        if ((present & ~UserInfoClaim.ALL_BITS) != 0) {
+            throw new DataFormatException("Unknown claims: " + Integer.toHexString(present));
+        }
+        String[] slots = new String[UserInfoClaim.COUNT];
+        for (UserInfoClaim claim : UserInfoClaim.values()) {
+            if ((present & claim.bit) != 0) {
+                slots[claim.ordinal()] = in.readString();
+            }
+        }
+        int nulls = in.readVarInt();
+        if ((nulls & ~UserInfoClaim.ALL_BITS) != 0 || (nulls & present) != 0) {
+            throw new DataFormatException("Invalid null claims: " + Integer.toHexString(nulls));
+        }
+        String emailVerified;
+        int emailVerifiedType = in.readVarInt();
+        switch (emailVerifiedType) {
+            case EMAIL_VERIFIED_FALSE:
+                emailVerified = FALSE;
+                break;
+            case EMAIL_VERIFIED_TRUE:
+                emailVerified = TRUE;
+                break;
+            case EMAIL_VERIFIED_NULL:
+                emailVerified = null;
+                break;
+            case EMAIL_VERIFIED_OTHER:
+                emailVerified = in.readString();
+                break;
+            default:
+                throw new DataFormatException("Invalid email_verified: " + emailVerifiedType);
+        }
+        int birthdate = in.readVarInt();
+        if (birthdate != 0
+                && (slots[UserInfoClaim.BIRTHDATE.ordinal()] != null
+                        || birthdate > 99991231
+                        || (nulls & UserInfoClaim.BIRTHDATE.bit) != 0
+                        || packBirthdate(formatBirthdate(birthdate)) != birthdate)) {
+            throw new DataFormatException("Invalid birthdate: " + birthdate);
+        }
+
+        Map<String, Object> additionalValues = null;
+        int count = in.readVarInt();
+        if (count > in.remaining()) {
+            throw new DataFormatException("Invalid count: " + count);
+        }
+        if (count > 0) {
+            additionalValues = new LinkedHashMap<String, Object>(Math.max(4, count * 2));
+            for (int i = 0; i < count; i++) {
+                String name = in.readString();
+                additionalValues.put(name, JsonClaims.readValue(in));
+            }
+        }
+
+        State state = State.of(slots, nulls, emailVerified);
+        if (birthdate != 0) {
+            state = new State(state.present, state.nulls, state.values, birthdate, emailVerified);
+        }
+        return new UserInfoObject(state, additionalValues);
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("SerializedForm is required.");
+    }
+
+    /**
+     * クレームの値のスナップショット
+     *
+     * <p>変更不可のため、読み込み中に他のスレッドがsetterを呼び出しても一貫した値を返します。
+     */
+    private static final class State {
+
+        /** 値が存在するスロットのビット */
+        final int present;
+
+        /** setterでnullを設定したスロットのビット */
+        final int nulls;
+
+        /** 存在するクレームの値。{@link UserInfoClaim}の順に詰めて格納する */
+        final String[] values;
+
+        /** 年*10000+月*100+日。年のみの場合は月日が0、数値で保持しない場合は0 */
+        final int birthdate;
+
+        final String emailVerified;
+
+        State(int present, int nulls, String[] values, int birthdate, String emailVerified) {
+            this.present = present;
+            this.nulls = nulls;
+            this.values = values;
+            this.birthdate = birthdate;
+            this.emailVerified = emailVerified;
+        }
+
+        /**
+         * スロットの配列からStateを生成する。
+         *
+         * @param slots {@link UserInfoClaim}の序数を添字とする配列。nullのスロットはクレームが無いものとして扱う
+         * @param nulls nullを設定したスロットのビット
+         * @param emailVerified email_verifiedの値
+         */
+        static State of(String[] slots, int nulls, String emailVerified) {
+            int birthdate = 0;
+            String birthdateValue = slots[UserInfoClaim.BIRTHDATE.ordinal()];
+            if (birthdateValue != null) {
+                birthdate = packBirthdate(birthdateValue);
+            }
+            int present = 0;
+            UserInfoClaim[] claims = UserInfoClaim.values();
+            for (UserInfoClaim claim : claims) {
+                if (slots[claim.ordinal()] != null) {
+                    present |= claim.bit;
+                }
+            }
+            if (birthdate != 0) {
+                // 数値で保持できたbirthdateは文字列のスロットを使わない
+                present &= ~UserInfoClaim.BIRTHDATE.bit;
+            }
+            String[] values = NO_VALUES;
+            if (present != 0) {
+                values = new String[Integer.bitCount(present)];
+                int index = 0;
+                for (UserInfoClaim claim : claims) {
+                    if ((present & claim.bit) != 0) {
+                        values[index++] = share(claim, slots[claim.ordinal()]);
+                    }
+                }
+            }
+            return new State(present, nulls, values, birthdate, emailVerified);
+        }
+
+        String getValue(UserInfoClaim claim) {
+            if ((nulls & claim.bit) != 0) {
+                return null;
+            }
+            if ((present & claim.bit) == 0) {
+                return EMPTY;
+            }
+            return values[Integer.bitCount(present & (claim.bit - 1))];
+        }
+
+        String getBirthdate() {
+            return birthdate != 0 ? formatBirthdate(birthdate) : getValue(UserInfoClaim.BIRTHDATE);
+        }
+
+        /** クレームの値を置き換えたStateを返す。 valueがnullの場合、getterはnullを返す */
+        State withValue(UserInfoClaim claim, String value) {
+            State state = withoutValue(claim);
+            if (value == null) {
+                return new State(
+                        state.present,
+                        state.nulls | claim.bit,
+                        state.values,
+                        state.birthdate,
+                        state.emailVerified);
+            }
+            int index = Integer.bitCount(state.present & (claim.bit - 1));
+            String[] newValues = new String[state.values.length + 1];
+            System.arraycopy(state.values, 0, newValues, 0, index);
+            newValues[index] = share(claim, value);
+            System.arraycopy(
+                    state.values, index, newValues, index + 1, state.values.length - index);
+            return new State(
+                    state.present | claim.bit,
+                    state.nulls,
+                    newValues,
+                    state.birthdate,
+                    state.emailVerified);
+        }
+
+        /** クレームを取り除いたStateを返す。 getterは空文字列を返す */
+        State withoutValue(UserInfoClaim claim) {
+            if ((present & claim.bit) == 0) {
+                if ((nulls & claim.bit) == 0) {
+                    return this;
+                }
+                return new State(present, nulls & ~claim.bit, values, birthdate, emailVerified);
+            }
+            int index = Integer.bitCount(present & (claim.bit - 1));
+            String[] newValues = NO_VALUES;
+            if (values.length > 1) {
+                newValues = new String[values.length - 1];
+                System.arraycopy(values, 0, newValues, 0, index);
+                System.arraycopy(values, index + 1, newValues, index, newValues.length - index);
+            }
+            return new State(present & ~claim.bit, nulls, newValues, birthdate, emailVerified);
+        }
+    }
+
+    /**
+     * UserInfoObjectのシリアライズ形式
+     *
+     * <p>{@link UserInfoObject#writeTo(BinaryOutput)}のバイナリ形式を、長さを前置して書き込みます。
+     */
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient UserInfoObject userInfo;
+
+        SerializedForm(UserInfoObject userInfo) {
+            this.userInfo = userInfo;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            BinaryOutput binary = new BinaryOutput();
+            userInfo.writeTo(binary);
+            out.writeInt(binary.size());
+            out.write(binary.toByteArray());
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            int length = in.readInt();
+            if (length < 0) {
+                throw new InvalidObjectException("Invalid length: " + length);
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            try {
+                BinaryInput binary = new BinaryInput(bytes);
+                userInfo = readFrom(binary);
+                if (binary.remaining() > 0) {
+                    throw new DataFormatException("Trailing bytes: " + binary.remaining());
+                }
+            } catch (DataFormatException e) {
+                throw new InvalidObjectException(e.getMessage());
+            }
+        }
+
+        private Object readResolve() {
+            return userInfo;
+        }
     }
 }
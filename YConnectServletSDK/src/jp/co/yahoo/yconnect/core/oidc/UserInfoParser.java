@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+
+/**
+ * UserInfo Parser Class
+ *
+ * <p>UserInfoエンドポイントのレスポンスを{@link JsonParser}で先頭から一度だけ走査し、クレーム名で振り分けて
+ * {@link UserInfoObject}のスロットに格納します。 JsonObjectのツリーは構築しません。
+ *
+ * <p>UserInfoObjectにフィールドの無いクレームや、型が想定と異なるクレームは
+ * {@link UserInfoObject#getAdditionalValues()}に格納します。 addressのメンバーは"address/country"のように
+ * "/"で連結した名前で格納します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class UserInfoParser {
+
+    private static final String EMAIL_VERIFIED = "email_verified";
+
+    private UserInfoParser() {}
+
+    /**
+     * UserInfoのJSONストリームを解析します。
+     *
+     * @param json UserInfoのJSONストリーム
+     * @param charset 文字コード
+     * @return UserInfoObject
+     * @throws JsonException JSONとして不正な場合に発生
+     */
+    public static UserInfoObject parse(InputStream json, Charset charset) {
+        return parse(JsonStreams.createParser(json, charset));
+    }
+
+    /**
+     * UserInfoのJSON文字列を解析します。
+     *
+     * @param json UserInfoのJSON文字列のReader
+     * @return UserInfoObject
+     * @throws JsonException JSONとして不正な場合に発生
+     */
+    public static UserInfoObject parse(Reader json) {
+        return parse(JsonStreams.createParser(json));
+    }
+
+    private static UserInfoObject parse(JsonParser parser) {
+        // subが含まれない場合も、他のクレームは格納する
+        Context context = new Context();
+        try {
+            if (!parser.hasNext() || parser.next() != JsonParser.Event.START_OBJECT) {
+                throw new JsonException("UserInfo must be a JSON object.");
+            }
+            JsonParser.Event event;
+            while ((event = parser.next()) == JsonParser.Event.KEY_NAME) {
+                String name = parser.getString();
+                event = parser.next();
+                if (UserInfoClaim.ADDRESS.equals(name) && event == JsonParser.Event.START_OBJECT) {
+                    parseAddress(parser, context);
+                } else if (EMAIL_VERIFIED.equals(name)) {
+                    parseEmailVerified(parser, event, context);
+                } else {
+                    setClaim(UserInfoClaim.forName(name), name, parser, event, context);
+                }
+            }
+        } finally {
+            parser.close();
+        }
+        return new UserInfoObject(context.slots, context.emailVerified, context.additionalValues);
+    }
+
+    private static void parseAddress(JsonParser parser, Context context) {
+        JsonParser.Event event;
+        while ((event = parser.next()) == JsonParser.Event.KEY_NAME) {
+            String name = parser.getString();
+            event = parser.next();
+            setClaim(
+                    UserInfoClaim.forAddressMember(name),
+                    UserInfoClaim.ADDRESS + "/" + name,
+                    parser,
+                    event,
+                    context);
+        }
+    }
+
+    private static void parseEmailVerified(
+            JsonParser parser, JsonParser.Event event, Context context) {
+        // 真偽値以外の場合はfalseとして扱う
+        context.emailVerified = event == JsonParser.Event.VALUE_TRUE;
+        if (event != JsonParser.Event.VALUE_TRUE && event != JsonParser.Event.VALUE_FALSE) {
+            context.putAdditionalValue(EMAIL_VERIFIED, JsonStreams.readValue(parser, event));
+        }
+    }
+
+    private static void setClaim(
+            UserInfoClaim claim,
+            String name,
+            JsonParser parser,
+            JsonParser.Event event,
+            Context context) {
+        if (claim != null && event == JsonParser.Event.VALUE_STRING) {
+            context.slots[claim.ordinal()] = parser.getString();
+        } else {
+            context.putAdditionalValue(name, JsonStreams.readValue(parser, event));
+        }
+    }
+
+    /** 解析中のクレームを保持する */
+    private static final class Context {
+
+        final String[] slots = new String[UserInfoClaim.COUNT];
+
+        boolean emailVerified;
+
+        Map<String, Object> additionalValues;
+
+        void putAdditionalValue(String name, Object value) {
+            if (additionalValues == null) {
+                additionalValues = new LinkedHashMap<String, Object>(4);
+            }
+            additionalValues.put(name, value);
+        }
+    }
+}
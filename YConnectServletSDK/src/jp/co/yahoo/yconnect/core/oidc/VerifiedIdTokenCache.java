@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import jp.co.yahoo.yconnect.core.util.CryptoPrimitives;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Verified IdToken Cache Class
+ *
+ * <p>署名の検証に成功したIDトークンを、トークン文字列のSHA-256ハッシュをキーとしてキャッシュします。
+ * 同じIDトークンを再度検証する際はRSA署名の検証を省略し、nonce、aud、有効期限などの比較的軽い検証のみを
+ * {@link IdTokenVerifier#verifyCachedClaims}で行います。 キャッシュはIDトークンのexpと、発行時刻から
+ * {@link IdTokenVerifier#ACCEPTABLE_RANGE}秒を過ぎる時刻のいずれか早い方まで保持し、
+ * 最大件数を超えた場合は最も長く使われていないものから削除します。
+ *
+ * <p>IdTokenObjectは変更できるため、キャッシュには登録時の複製を保持し、取得のたびに複製を返します。
+ * 呼び出し元での変更は他のリクエストに影響しません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class VerifiedIdTokenCache {
+
+    /** キャッシュするIDトークンの最大件数のデフォルト値 */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final LruMap entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** VerifiedIdTokenCacheのコンストラクタです。 */
+    public VerifiedIdTokenCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * VerifiedIdTokenCacheのコンストラクタです。
+     *
+     * @param maxEntries キャッシュするIDトークンの最大件数
+     */
+    public VerifiedIdTokenCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * 署名の検証に成功したIDトークンを返します。
+     *
+     * @param idTokenString IDトークンの文字列
+     * @return 検証済みのIdTokenObjectの複製。キャッシュに無いか有効期限を過ぎた場合はnull
+     */
+    public IdTokenObject get(String idTokenString) {
+        String key = hash(idTokenString);
+        long now = currentTimeMillis();
+        synchronized (entries) {
+            CachedIdToken entry = entries.get(key);
+            if (entry != null && now < entry.expiresAt) {
+                hitCount.incrementAndGet();
+                return entry.idTokenObject.copy();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 署名の検証に成功したIDトークンをキャッシュします。 有効期限を過ぎている場合はキャッシュしません。
+     *
+     * @param idTokenString IDトークンの文字列
+     * @param idTokenObject 検証済みのIdTokenObject
+     */
+    public void put(String idTokenString, IdTokenObject idTokenObject) {
+        put(idTokenString, idTokenObject, IdTokenVerifier.DEFAULT_CLOCK_SKEW);
+    }
+
+    /**
+     * 署名の検証に成功したIDトークンをキャッシュします。 有効期限を過ぎている場合はキャッシュしません。
+     *
+     * <p>発行時刻から{@link IdTokenVerifier#ACCEPTABLE_RANGE}秒と許容する時刻のずれを過ぎたIDトークンは
+     * 検証に失敗するため、expより前でもその時点で破棄します。
+     *
+     * @param idTokenString IDトークンの文字列
+     * @param idTokenObject 検証済みのIdTokenObject
+     * @param clockSkew 検証時に許容する時刻のずれ(秒)
+     */
+    public void put(String idTokenString, IdTokenObject idTokenObject, long clockSkew) {
+        long expiresAt =
+                Math.min(
+                                idTokenObject.getExp(),
+                                idTokenObject.getIat()
+                                        + IdTokenVerifier.ACCEPTABLE_RANGE
+                                        + clockSkew)
+                        * 1000L;
+        if (expiresAt <= currentTimeMillis()) {
+            return;
+        }
+        String key = hash(idTokenString);
+        synchronized (entries) {
+            entries.put(key, new CachedIdToken(idTokenObject.copy(), expiresAt));
+        }
+    }
+
+    /** キャッシュを全て破棄します。 */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * キャッシュしているIDトークンの件数を返します。
+     *
+     * @return 件数
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * キャッシュから検証済みのIDトークンを取得できた回数を返します。
+     *
+     * @return ヒット数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * キャッシュに検証済みのIDトークンが無かった回数を返します。
+     *
+     * @return ミス数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private static String hash(String idTokenString) {
+        return Hex.encodeHexString(CryptoPrimitives.sha256(idTokenString));
+    }
+
+    private static class CachedIdToken {
+
+        final IdTokenObject idTokenObject;
+
+        final long expiresAt;
+
+        CachedIdToken(IdTokenObject idTokenObject, long expiresAt) {
+            this.idTokenObject = idTokenObject;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class LruMap extends LinkedHashMap<String, CachedIdToken> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedIdToken> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
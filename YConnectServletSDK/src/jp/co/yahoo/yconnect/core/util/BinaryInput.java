@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core.util;
+
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+
+/**
+ * Binary Input Class
+ *
+ * <p>{@link BinaryOutput}で書き込んだバイト列を読み込みます。 バイト列が途中で終わっている場合や、
+ * 値が不正な場合は{@link DataFormatException}をスローします。
+ *
+ * <p>スレッドセーフではありません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class BinaryInput {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final byte[] buffer;
+
+    private final int limit;
+
+    private int position;
+
+    /**
+     * BinaryInputのコンストラクタです。
+     *
+     * @param buffer 読み込むバイト列
+     */
+    public BinaryInput(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * BinaryInputのコンストラクタです。
+     *
+     * @param buffer 読み込むバイト列
+     * @param offset 読み込みを開始する位置
+     * @param length 読み込むバイト数
+     */
+    public BinaryInput(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("Invalid range: " + offset + ", " + length);
+        }
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * 1バイトを読み込みます。
+     *
+     * @return 0から255の値
+     * @throws DataFormatException バイト列の終端に達している場合に発生
+     */
+    public int readByte() throws DataFormatException {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * 真偽値を読み込みます。
+     *
+     * @return 真偽値
+     * @throws DataFormatException 0と1以外の値の場合に発生
+     */
+    public boolean readBoolean() throws DataFormatException {
+        int value = readByte();
+        if (value > 1) {
+            throw new DataFormatException("Invalid boolean: " + value);
+        }
+        return value == 1;
+    }
+
+    /**
+     * {@link BinaryOutput#writeVarInt(int)}で書き込んだ整数を読み込みます。
+     *
+     * @return 0以上の整数
+     * @throws DataFormatException intの範囲を超える場合に発生
+     */
+    public int readVarInt() throws DataFormatException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (result < 0 || (shift == 28 && b > 0x07)) {
+                    break;
+                }
+                return result;
+            }
+        }
+        throw new DataFormatException("Malformed varint.");
+    }
+
+    /**
+     * {@link BinaryOutput#writeVarLong(long)}で書き込んだ整数を読み込みます。
+     *
+     * @return 整数
+     * @throws DataFormatException longの範囲を超える場合に発生
+     */
+    public long readVarLong() throws DataFormatException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (shift == 63 && b > 0x01) {
+                    break;
+                }
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new DataFormatException("Malformed varlong.");
+    }
+
+    /**
+     * {@link BinaryOutput#writeString(String)}で書き込んだ文字列を読み込みます。
+     *
+     * @return 文字列
+     * @throws DataFormatException 長さがバイト列の残りを超える場合に発生
+     */
+    public String readString() throws DataFormatException {
+        int length = readVarInt();
+        require(length);
+        String value = new String(buffer, position, length, UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * 残りのバイト数を返します。
+     *
+     * @return 残りのバイト数
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void require(int length) throws DataFormatException {
+        if (limit - position < length) {
+            throw new DataFormatException("Unexpected end of data.");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core.util;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Binary Output Class
+ *
+ * <p>セッションのレプリケーション用に、YConnectの状態をコンパクトなバイト列に書き込みます。
+ * 数値は可変長整数(LEB128)、文字列は長さを前置したUTF-8で書き込みます。 読み込みには{@link BinaryInput}を使用します。
+ *
+ * <p>スレッドセーフではありません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class BinaryOutput {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private byte[] buffer;
+
+    private int size;
+
+    /** BinaryOutputのコンストラクタです。 */
+    public BinaryOutput() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * BinaryOutputのコンストラクタです。
+     *
+     * @param initialCapacity バッファの初期サイズ
+     */
+    public BinaryOutput(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * 1バイトを書き込みます。
+     *
+     * @param value 下位8ビットを書き込む値
+     */
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * 真偽値を1バイトで書き込みます。
+     *
+     * @param value 真偽値
+     */
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * 0以上の整数を可変長で書き込みます。 長さやビットマップに使用します。
+     *
+     * @param value 0以上の整数
+     * @throws IllegalArgumentException 負の値の場合に発生
+     */
+    public void writeVarInt(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * 整数を可変長で書き込みます。 負の値も短く書き込めるよう、ZigZagエンコードします。
+     *
+     * @param value 整数
+     */
+    public void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[size++] = (byte) zigzag;
+    }
+
+    /**
+     * 文字列をUTF-8のバイト数を前置して書き込みます。
+     *
+     * @param value 文字列
+     * @throws IllegalArgumentException nullの場合に発生
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null.");
+        }
+        int length = value.length();
+        int ascii = 0;
+        while (ascii < length && value.charAt(ascii) < 0x80) {
+            ascii++;
+        }
+        if (ascii == length) {
+            // ASCIIのみの場合はバイト配列を生成せずに書き込む
+            writeVarInt(length);
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[size++] = (byte) value.charAt(i);
+            }
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * 書き込んだバイト数を返します。
+     *
+     * @return バイト数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 書き込んだバイト列を返します。
+     *
+     * @return バイト列のコピー
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.length - size < length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+    }
+}
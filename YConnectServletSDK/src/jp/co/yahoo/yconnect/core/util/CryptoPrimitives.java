@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.util;
+
+import java.nio.charset.Charset;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+
+/**
+ * Crypto Primitives Class
+ *
+ * <p>IDトークンの検証やPKCEで使用する{@link MessageDigest}と{@link Signature}をスレッドごとに保持し、再利用します。
+ * プロバイダの検索とオブジェクトの生成はスレッドごとに一度だけ行われます。
+ *
+ * <p>スレッドローカルに保持するのはJDKのクラスのみのため、サーブレットコンテナでアプリケーションを再デプロイしても
+ * クラスローダーがリークすることはありません。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public final class CryptoPrimitives {
+
+    /** ダイジェストアルゴリズム */
+    public static final String SHA_256 = "SHA-256";
+
+    /** 署名アルゴリズム */
+    public static final String SHA256_WITH_RSA = "SHA256withRSA";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** 文字列をダイジェストに渡す際に使用するバッファの大きさ */
+    private static final int BUFFER_SIZE = 512;
+
+    private static final ThreadLocal<MessageDigest> sha256 = new ThreadLocal<MessageDigest>();
+
+    private static final ThreadLocal<Signature> sha256WithRsa = new ThreadLocal<Signature>();
+
+    private static final ThreadLocal<byte[]> buffer = new ThreadLocal<byte[]>();
+
+    private CryptoPrimitives() {}
+
+    /**
+     * SHA-256ハッシュ値を計算します。
+     *
+     * @param data ハッシュ化するバイト列
+     * @return ハッシュ値
+     */
+    public static byte[] sha256(byte[] data) {
+        MessageDigest digest = sha256Digest();
+        digest.update(data);
+        return digest.digest();
+    }
+
+    /**
+     * UTF-8でエンコードした文字列のSHA-256ハッシュ値を計算します。
+     *
+     * <p>ASCII文字はバイト列のコピーを作らずにバッファを通してダイジェストに渡します。
+     * ASCII以外の文字が含まれる場合は、その文字以降をエンコードしてから渡します。
+     *
+     * @param data ハッシュ化する文字列
+     * @return ハッシュ値
+     */
+    public static byte[] sha256(String data) {
+        MessageDigest digest = sha256Digest();
+        byte[] bytes = buffer();
+        int length = data.length();
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c >= 0x80) {
+                digest.update(bytes, 0, pos);
+                digest.update(data.substring(i).getBytes(UTF_8));
+                return digest.digest();
+            }
+            bytes[pos++] = (byte) c;
+            if (pos == bytes.length) {
+                digest.update(bytes, 0, pos);
+                pos = 0;
+            }
+        }
+        digest.update(bytes, 0, pos);
+        return digest.digest();
+    }
+
+    /**
+     * SHA256withRSAの署名を検証します。
+     *
+     * @param publicKey 公開鍵
+     * @param data 署名対象のバイト列
+     * @param signature 署名
+     * @return 署名が正しい場合はtrue
+     * @throws NoSuchAlgorithmException SHA256withRSAに対応していない場合に発生
+     * @throws InvalidKeyException 公開鍵が無効な場合に発生
+     * @throws SignatureException 署名の形式が無効な場合に発生
+     */
+    public static boolean verifySha256WithRsa(PublicKey publicKey, byte[] data, byte[] signature)
+            throws NoSuchAlgorithmException, InvalidKeyException, SignatureException {
+        Signature verifier = sha256WithRsa.get();
+        if (verifier == null) {
+            verifier = Signature.getInstance(SHA256_WITH_RSA);
+            sha256WithRsa.set(verifier);
+        }
+        // initVerifyで前回の検証の状態はリセットされる
+        verifier.initVerify(publicKey);
+        verifier.update(data);
+        return verifier.verify(signature);
+    }
+
+    private static MessageDigest sha256Digest() {
+        MessageDigest digest = sha256.get();
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance(SHA_256);
+            } catch (NoSuchAlgorithmException e) {
+                // SHA-256は全てのJava実装で必須のアルゴリズム
+                throw new IllegalStateException(e);
+            }
+            sha256.set(digest);
+        } else {
+            // 前回の計算が例外で中断された場合に備えてリセットする
+            digest.reset();
+        }
+        return digest;
+    }
+
+    private static byte[] buffer() {
+        byte[] bytes = buffer.get();
+        if (bytes == null) {
+            bytes = new byte[BUFFER_SIZE];
+            buffer.set(bytes);
+        }
+        return bytes;
+    }
+}
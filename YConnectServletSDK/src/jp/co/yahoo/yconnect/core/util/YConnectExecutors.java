@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * YConnect Executors Class
+ *
+ * <p>トークン取得やUserInfo取得などの非同期版APIが使用する、プロセス全体で共有するスレッドプールを管理します。
+ * スレッドはデーモンスレッドとして生成され、一定時間使用されなければ終了します。
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class YConnectExecutors {
+
+    /** 共有スレッドプールのスレッド数のデフォルト値 */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /** 共有スレッドプールのアイドルスレッドを終了するまでの時間(ミリ秒) */
+    public static final long DEFAULT_KEEP_ALIVE = 60000L;
+
+    private static final Object lock = new Object();
+
+    private static volatile ExecutorService defaultExecutor = null;
+
+    private static int defaultPoolSize = DEFAULT_POOL_SIZE;
+
+    private YConnectExecutors() {}
+
+    /**
+     * プロセス全体で共有するスレッドプールを返します。
+     *
+     * @return 共有スレッドプール
+     */
+    public static ExecutorService getDefault() {
+        ExecutorService executor = defaultExecutor;
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (lock) {
+            if (defaultExecutor == null) {
+                defaultExecutor = newExecutor(defaultPoolSize);
+            }
+            return defaultExecutor;
+        }
+    }
+
+    /**
+     * 共有スレッドプールのスレッド数を設定します。 既に共有スレッドプールが生成されている場合は、
+     * 実行中のタスクの完了後に終了し、次回の{@link #getDefault()}呼び出し時に新しい設定で作り直されます。
+     *
+     * @param poolSize スレッド数
+     */
+    public static void configureDefault(int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize must be positive: " + poolSize);
+        }
+        synchronized (lock) {
+            defaultPoolSize = poolSize;
+            shutdownDefault();
+        }
+    }
+
+    /** 共有スレッドプールを終了します。 サーブレットコンテナの終了時に呼び出してください。 */
+    public static void shutdownDefault() {
+        synchronized (lock) {
+            if (defaultExecutor != null) {
+                defaultExecutor.shutdown();
+                defaultExecutor = null;
+            }
+        }
+    }
+
+    /**
+     * デーモンスレッドで動作するスレッドプールを生成します。
+     *
+     * @param poolSize スレッド数
+     * @return スレッドプール
+     */
+    public static ExecutorService newExecutor(int poolSize) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        poolSize,
+                        poolSize,
+                        DEFAULT_KEEP_ALIVE,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new DaemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * デーモンスレッドで動作する、遅延実行用のスレッドプールを生成します。
+     *
+     * @param poolSize スレッド数
+     * @return スレッドプール
+     */
+    public static ScheduledExecutorService newScheduledExecutor(int poolSize) {
+        return new ScheduledThreadPoolExecutor(poolSize, new DaemonThreadFactory());
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger poolNumber = new AtomicInteger(1);
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private final String namePrefix;
+
+        DaemonThreadFactory() {
+            namePrefix = "yconnect-async-" + poolNumber.getAndIncrement() + "-";
+        }
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -24,46 +24,294 @@
 
 package jp.co.yahoo.yconnect.core.util;
 
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.xml.DOMConfigurator;
 
 /**
  * YConnect Logger Class
  *
+ * <p>log4jの設定ファイルは最初のログ出力時に一度だけ読み込みます。設定ファイルの変更を反映させたい場合は
+ * {@link #configureAndWatch(String, long)} を使用すると、SDKの監視スレッドが一定間隔で設定ファイルの
+ * 更新日時を確認し、変更があれば再読み込みします。 監視は{@link #stopWatching()}で停止します。
+ *
+ * <p>メッセージに値を埋め込む場合は、文字列を連結せずに "{}" をプレースホルダとしたフォーマットと引数を
+ * 渡してください。メッセージは出力レベルが有効な場合にのみ組み立てられるため、無効なレベルのログでは
+ * 文字列の生成やlong値のボクシングは発生しません。
+ *
+ * <pre>
+ * YConnectLogger.debug(TAG, "responseCode: {}", responseCode);
+ * </pre>
+ *
+ * <p>引数そのものの生成にコストがかかる場合は {@link #isDebugEnabled()} などで出力レベルを確認してから
+ * 呼び出してください。
+ *
  * @author Copyright (C) 2016 Yahoo Japan Corporation. All Rights Reserved.
  */
 public class YConnectLogger {
 
     private static final Logger log = Logger.getLogger(YConnectLogger.class.getName());
 
+    private static final Object lock = new Object();
+
     private static String CONF_FILE = "yconnect_log_conf.xml";
 
+    private static volatile boolean configured = false;
+
+    /** 設定ファイルの変更を監視するスレッド */
+    private static ScheduledExecutorService watcher = null;
+
     public static void debug(Object object, String message) {
-        DOMConfigurator.configure(CONF_FILE);
-        log.debug(message + " (" + object.getClass().getName() + ")");
+        configure();
+        if (log.isDebugEnabled()) {
+            log.debug(message + " (" + object.getClass().getName() + ")");
+        }
     }
 
     public static void info(Object object, String message) {
-        DOMConfigurator.configure(CONF_FILE);
-        log.info(message + " (" + object.getClass().getName() + ")");
+        configure();
+        if (log.isInfoEnabled()) {
+            log.info(message + " (" + object.getClass().getName() + ")");
+        }
     }
 
     public static void warn(Object object, String message) {
-        DOMConfigurator.configure(CONF_FILE);
-        log.warn(message + " (" + object.getClass().getName() + ")");
+        configure();
+        if (log.isEnabledFor(Level.WARN)) {
+            log.warn(message + " (" + object.getClass().getName() + ")");
+        }
     }
 
     public static void error(Object object, String message) {
-        DOMConfigurator.configure(CONF_FILE);
-        log.error(message + " (" + object.getClass().getName() + ")");
+        configure();
+        if (log.isEnabledFor(Level.ERROR)) {
+            log.error(message + " (" + object.getClass().getName() + ")");
+        }
     }
 
     public static void fatal(Object object, String message) {
-        DOMConfigurator.configure(CONF_FILE);
-        log.fatal(message + " (" + object.getClass().getName() + ")");
+        configure();
+        if (log.isEnabledFor(Level.FATAL)) {
+            log.fatal(message + " (" + object.getClass().getName() + ")");
+        }
+    }
+
+    public static void debug(Object object, String format, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            log.debug(format(object, format, 1, arg, null, null));
+        }
+    }
+
+    public static void debug(Object object, String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            log.debug(format(object, format, 2, arg1, arg2, null));
+        }
+    }
+
+    public static void debug(Object object, String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.DEBUG)) {
+            log.debug(format(object, format, 3, arg1, arg2, arg3));
+        }
+    }
+
+    public static void debug(Object object, String format, long arg) {
+        if (isEnabled(Level.DEBUG)) {
+            log.debug(format(object, format, 1, arg, null, null));
+        }
+    }
+
+    public static void debug(Object object, String format, long arg1, long arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            log.debug(format(object, format, 2, arg1, arg2, null));
+        }
+    }
+
+    public static void info(Object object, String format, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            log.info(format(object, format, 1, arg, null, null));
+        }
+    }
+
+    public static void info(Object object, String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) {
+            log.info(format(object, format, 2, arg1, arg2, null));
+        }
+    }
+
+    public static void warn(Object object, String format, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            log.warn(format(object, format, 1, arg, null, null));
+        }
+    }
+
+    public static void warn(Object object, String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) {
+            log.warn(format(object, format, 2, arg1, arg2, null));
+        }
     }
 
+    public static void error(Object object, String format, Object arg) {
+        if (isEnabled(Level.ERROR)) {
+            log.error(format(object, format, 1, arg, null, null));
+        }
+    }
+
+    public static void error(Object object, String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) {
+            log.error(format(object, format, 2, arg1, arg2, null));
+        }
+    }
+
+    public static void error(Object object, String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.ERROR)) {
+            log.error(format(object, format, 3, arg1, arg2, arg3));
+        }
+    }
+
+    /** エラーログに例外のスタックトレースを付けて出力します。 */
+    public static void error(
+            Object object, String format, Object arg1, Object arg2, Throwable throwable) {
+        if (isEnabled(Level.ERROR)) {
+            log.error(format(object, format, 2, arg1, arg2, null), throwable);
+        }
+    }
+
+    /**
+     * DEBUGレベルのログが出力されるかどうかを返します。
+     *
+     * @return 出力される場合はtrue
+     */
+    public static boolean isDebugEnabled() {
+        configure();
+        return log.isDebugEnabled();
+    }
+
+    /**
+     * INFOレベルのログが出力されるかどうかを返します。
+     *
+     * @return 出力される場合はtrue
+     */
+    public static boolean isInfoEnabled() {
+        configure();
+        return log.isInfoEnabled();
+    }
+
+    /**
+     * 設定ファイルのパスを指定します。パスが変更された場合は、次回のログ出力時に指定されたファイルで
+     * 再設定されます。
+     *
+     * @param path 設定ファイルのパス
+     */
     public static void setFilePath(String path) {
-        YConnectLogger.CONF_FILE = path;
+        synchronized (lock) {
+            if (!path.equals(YConnectLogger.CONF_FILE)) {
+                YConnectLogger.CONF_FILE = path;
+                configured = false;
+            }
+        }
+    }
+
+    /**
+     * 設定ファイルを読み込み、以降は変更を監視して再読み込みします。
+     *
+     * <p>監視はSDKのデーモンスレッドで設定ファイルの更新日時を確認して行われ、リクエストを処理するスレッドでファイルを
+     * 読むことはありません。 既に監視している場合は、以前の監視を停止してから開始します。
+     * アプリケーションの終了時には{@link #stopWatching()}を呼び出してください。
+     *
+     * @param path 設定ファイルのパス
+     * @param delay 監視間隔(ミリ秒)
+     */
+    public static void configureAndWatch(final String path, long delay) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("delay must be positive: " + delay);
+        }
+        synchronized (lock) {
+            stopWatching();
+            final File file = new File(path);
+            final long[] lastModified = {file.lastModified()};
+            YConnectLogger.CONF_FILE = path;
+            DOMConfigurator.configure(path);
+            configured = true;
+
+            watcher = YConnectExecutors.newScheduledExecutor(1);
+            watcher.scheduleWithFixedDelay(
+                    new Runnable() {
+                        public void run() {
+                            long modified = file.lastModified();
+                            if (modified != lastModified[0]) {
+                                lastModified[0] = modified;
+                                synchronized (lock) {
+                                    DOMConfigurator.configure(path);
+                                }
+                            }
+                        }
+                    },
+                    delay,
+                    delay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** {@link #configureAndWatch(String, long)}で開始した設定ファイルの監視を停止します。 */
+    public static void stopWatching() {
+        synchronized (lock) {
+            if (watcher != null) {
+                watcher.shutdownNow();
+                watcher = null;
+            }
+        }
+    }
+
+    /**
+     * 設定ファイルを監視しているかを返します。
+     *
+     * @return 監視している場合はtrue
+     */
+    static boolean isWatching() {
+        synchronized (lock) {
+            return watcher != null;
+        }
+    }
+
+    private static boolean isEnabled(Level level) {
+        configure();
+        return log.isEnabledFor(level);
+    }
+
+    /**
+     * フォーマット中の "{}" を順に引数の文字列表現で置き換え、呼び出し元のクラス名を付加します。
+     * 引数よりプレースホルダが多い場合、余ったプレースホルダはそのまま出力します。
+     */
+    static String format(
+            Object object, String format, int argCount, Object arg1, Object arg2, Object arg3) {
+        StringBuilder builder = new StringBuilder(format.length() + 64);
+        int start = 0;
+        for (int i = 0; i < argCount; i++) {
+            int index = format.indexOf("{}", start);
+            if (index < 0) {
+                break;
+            }
+            builder.append(format, start, index);
+            builder.append(i == 0 ? arg1 : i == 1 ? arg2 : arg3);
+            start = index + 2;
+        }
+        builder.append(format, start, format.length());
+        builder.append(" (").append(object.getClass().getName()).append(')');
+        return builder.toString();
+    }
+
+    private static void configure() {
+        if (configured) {
+            return;
+        }
+        synchronized (lock) {
+            if (!configured) {
+                DOMConfigurator.configure(CONF_FILE);
+                configured = true;
+            }
+        }
     }
 }
@@ -32,16 +32,28 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.DataFormatException;
+import jp.co.yahoo.yconnect.AuthorizationResult;
 import jp.co.yahoo.yconnect.YConnectClient;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
 import jp.co.yahoo.yconnect.core.oauth2.*;
 import jp.co.yahoo.yconnect.core.oidc.*;
 import jp.co.yahoo.yconnect.core.util.StringUtil;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
 import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import jp.co.yahoo.yconnect.util.StubResponse;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class YConnectClientTest {
@@ -65,6 +77,19 @@ public class YConnectClientTest {
     private final String nonce = "sampleNonce";
     private final String plainCodeChallenge = "samplePlainCodeChallenge";
 
+    private ExecutorService executor;
+
+    @Before
+    public void beforeEach() {
+        PublicKeysCache.getDefault().clear();
+        executor = YConnectExecutors.newExecutor(2);
+    }
+
+    @After
+    public void afterEach() {
+        executor.shutdownNow();
+    }
+
     @Test
     public void testGenerateAuthorizationUriInitializedThreeParams() throws Exception {
         AuthorizationRequestClient client =
@@ -265,37 +290,30 @@ public class YConnectClientTest {
         YHttpClient httpClient =
                 new YHttpClient() {
                     @Override
-                    public void requestPost(
+                    public <T> YHttpResponse<T> requestPost(
                             String endpointUrl,
                             HttpParameters parameters,
-                            HttpHeaders requestHeaders) {
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
                         assertEquals(
                                 OAuth2GrantType.AUTHORIZATION_CODE, parameters.get("grant_type"));
                         assertEquals(code, parameters.get("code"));
                         assertEquals(redirectUri, parameters.get("redirect_uri"));
-                    }
-
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return new HttpHeaders();
-                    }
-
-                    @Override
-                    public String getResponseBody() {
-                        return "{\"access_token\":\""
-                                + accessTokenString
-                                + "\", \"expires_in\":"
-                                + expiresIn
-                                + ", \"refresh_token\":\""
-                                + refreshToken
-                                + "\", \"id_token\":\""
-                                + idTokenString
-                                + "\"}";
-                    }
-
-                    @Override
-                    public int getStatusCode() {
-                        return 200;
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                new HttpHeaders(),
+                                "{\"access_token\":\""
+                                        + accessTokenString
+                                        + "\", \"expires_in\":"
+                                        + expiresIn
+                                        + ", \"refresh_token\":\""
+                                        + refreshToken
+                                        + "\", \"id_token\":\""
+                                        + idTokenString
+                                        + "\"}");
                     }
                 };
 
@@ -346,38 +364,31 @@ public class YConnectClientTest {
         YHttpClient httpClient =
                 new YHttpClient() {
                     @Override
-                    public void requestPost(
+                    public <T> YHttpResponse<T> requestPost(
                             String endpointUrl,
                             HttpParameters parameters,
-                            HttpHeaders requestHeaders) {
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
                         assertEquals(
                                 OAuth2GrantType.AUTHORIZATION_CODE, parameters.get("grant_type"));
                         assertEquals(code, parameters.get("code"));
                         assertEquals(redirectUri, parameters.get("redirect_uri"));
                         assertEquals(plainCodeChallenge, parameters.get("code_verifier"));
-                    }
-
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return new HttpHeaders();
-                    }
-
-                    @Override
-                    public String getResponseBody() {
-                        return "{\"access_token\":\""
-                                + accessTokenString
-                                + "\", \"expires_in\":"
-                                + expiresIn
-                                + ", \"refresh_token\":\""
-                                + refreshToken
-                                + "\", \"id_token\":\""
-                                + idTokenString
-                                + "\"}";
-                    }
-
-                    @Override
-                    public int getStatusCode() {
-                        return 200;
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                new HttpHeaders(),
+                                "{\"access_token\":\""
+                                        + accessTokenString
+                                        + "\", \"expires_in\":"
+                                        + expiresIn
+                                        + ", \"refresh_token\":\""
+                                        + refreshToken
+                                        + "\", \"id_token\":\""
+                                        + idTokenString
+                                        + "\"}");
                     }
                 };
 
@@ -523,18 +534,16 @@ public class YConnectClientTest {
                     }
                 };
 
-        IdTokenVerification idTokenVerification =
-                new IdTokenVerification() {
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
                     @Override
-                    public boolean check(
-                            String iss,
-                            String nonce,
-                            String clientId,
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
                             IdTokenObject idTokenObject,
-                            PublicKeysObject publicKeysObject,
-                            String idTokenString,
-                            String accessToken) {
-                        return true;
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        return IdTokenVerificationResult.success();
                     }
                 };
 
@@ -546,8 +555,8 @@ public class YConnectClientTest {
                     }
 
                     @Override
-                    protected IdTokenVerification getIdTokenVerification() {
-                        return idTokenVerification;
+                    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                        return idTokenVerifier;
                     }
                 };
 
@@ -560,6 +569,261 @@ public class YConnectClientTest {
         assertTrue(explicit.verifyIdToken(nonce, clientId, idTokenString));
     }
 
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testVerifyIdTokenUsesOverriddenIdTokenVerification() throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+        int[] checkCount = {0};
+
+        PublicKeysClient publicKeysClient =
+                new PublicKeysClient() {
+                    @Override
+                    public void fetchResource(String endpoint) {}
+
+                    @Override
+                    public PublicKeysObject getPublicKeysObject() {
+                        return new PublicKeysObject();
+                    }
+                };
+
+        YConnectClient explicit =
+                new YConnectClient() {
+                    @Override
+                    protected PublicKeysClient getPublicKeysClient() {
+                        return publicKeysClient;
+                    }
+
+                    @Override
+                    protected PublicKeysCache getPublicKeysCache() {
+                        return new PublicKeysCache();
+                    }
+
+                    @Override
+                    protected IdTokenVerification getIdTokenVerification() {
+                        return new IdTokenVerification() {
+                            @Override
+                            public boolean check(
+                                    String issuer,
+                                    String authNonce,
+                                    String clientId,
+                                    IdTokenObject idTokenObject,
+                                    PublicKeysObject publicKeysObject,
+                                    ParsedJWT parsedJWT,
+                                    String accessToken) {
+                                checkCount[0]++;
+                                return false;
+                            }
+
+                            @Override
+                            public String getErrorMessage() {
+                                return "sample_error";
+                            }
+
+                            @Override
+                            public String getErrorDescriptionMessage() {
+                                return "sample_error_description";
+                            }
+                        };
+                    }
+                };
+
+        Field accessTokenField = YConnectClient.class.getDeclaredField("accessToken");
+        accessTokenField.setAccessible(true);
+        accessTokenField.set(
+                explicit, new BearerToken("accessTokenSample", 1635638400, "refreshTokenSample"));
+
+        assertFalse(explicit.verifyIdToken(nonce, clientId, idTokenString));
+        assertEquals(1, checkCount[0]);
+        assertEquals("sample_error", explicit.getIdTokenErrorMessage());
+        assertEquals("sample_error_description", explicit.getIdTokenErrorDescriptionMessage());
+    }
+
+    @Test
+    public void testGetIdTokenVerifierIsSharedForSameClientId() {
+        class VerifierClient extends YConnectClient {
+            IdTokenVerifier verifier(String clientId) {
+                return getIdTokenVerifier(clientId);
+            }
+        }
+        VerifierClient explicit = new VerifierClient();
+
+        IdTokenVerifier verifier = explicit.verifier(clientId);
+        assertSame(verifier, explicit.verifier(clientId));
+        assertEquals(clientId, verifier.getClientId());
+
+        IdTokenVerifier other = explicit.verifier("other_client_id");
+        assertEquals("other_client_id", other.getClientId());
+        assertSame(verifier, new VerifierClient().verifier(clientId));
+    }
+
+    @Test
+    public void testVerifyIdTokenUsesCache() throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        IdTokenObject sample = getSampleIdTokenObject();
+        sample.setIat(now);
+        sample.setExp(now + 3600);
+        String idTokenString = new IdTokenGenerator(sample).getIdTokenString();
+        int[] checkCount = {0};
+        int[] checkClaimsCount = {0};
+
+        PublicKeysClient publicKeysClient =
+                new PublicKeysClient() {
+                    @Override
+                    public void fetchResource(String endpoint) {}
+
+                    @Override
+                    public PublicKeysObject getPublicKeysObject() {
+                        return new PublicKeysObject();
+                    }
+                };
+
+        YConnectClient explicit =
+                new YConnectClient() {
+                    @Override
+                    protected PublicKeysClient getPublicKeysClient() {
+                        return publicKeysClient;
+                    }
+
+                    @Override
+                    protected PublicKeysCache getPublicKeysCache() {
+                        return new PublicKeysCache();
+                    }
+
+                    @Override
+                    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                        return new IdTokenVerifier(clientId, null) {
+                            @Override
+                            public IdTokenVerificationResult verify(
+                                    ParsedJWT parsedJWT,
+                                    IdTokenObject idTokenObject,
+                                    String nonce,
+                                    String accessToken,
+                                    PublicKeySource keySource) {
+                                checkCount[0]++;
+                                return IdTokenVerificationResult.success();
+                            }
+
+                            @Override
+                            public IdTokenVerificationResult verifyCachedClaims(
+                                    IdTokenObject idTokenObject, String nonce) {
+                                checkClaimsCount[0]++;
+                                return nonce.equals(idTokenObject.getNonce())
+                                        ? IdTokenVerificationResult.success()
+                                        : IdTokenVerificationResult.failure(
+                                                "not_match_nonce", "The nonce did not match.");
+                            }
+                        };
+                    }
+                };
+        VerifiedIdTokenCache cache = new VerifiedIdTokenCache();
+        explicit.setIdTokenCache(cache);
+
+        Field accessTokenField = YConnectClient.class.getDeclaredField("accessToken");
+        accessTokenField.setAccessible(true);
+        accessTokenField.set(
+                explicit, new BearerToken("accessTokenSample", 1635638400, "refreshTokenSample"));
+
+        assertTrue(explicit.verifyIdToken(nonce, clientId, idTokenString));
+        assertTrue(explicit.verifyIdToken(nonce, clientId, idTokenString));
+        assertFalse(explicit.verifyIdToken("other_nonce", clientId, idTokenString));
+
+        assertEquals(1, checkCount[0]);
+        assertEquals(2, checkClaimsCount[0]);
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testVerifyIdTokenUsesCacheWithoutTokenRequest() throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        IdTokenObject sample = getSampleIdTokenObject();
+        sample.setIat(now);
+        sample.setAuthTime(now);
+        sample.setExp(now + 3600);
+        String idTokenString = new IdTokenGenerator(sample).getIdTokenString();
+
+        VerifiedIdTokenCache cache = new VerifiedIdTokenCache();
+        cache.put(idTokenString, sample);
+
+        YConnectClient explicit =
+                new YConnectClient() {
+                    @Override
+                    protected PublicKeysClient getPublicKeysClient() {
+                        throw new AssertionError("public keys must not be fetched");
+                    }
+                };
+        explicit.setIdTokenCache(cache);
+
+        assertTrue(explicit.verifyIdToken(nonce, clientId, idTokenString));
+        assertEquals("", explicit.getIdTokenErrorMessage());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testVerifyIdTokenRefetchesPublicKeysWhenKidNotFound() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(getSampleIdTokenObject());
+        String idTokenString = generator.getIdTokenString();
+        int[] fetchCount = {0};
+        PublicKeysCache publicKeysCache = new PublicKeysCache(0, PublicKeysCache.DEFAULT_MAX_TTL);
+
+        PublicKeysClient publicKeysClient =
+                new PublicKeysClient() {
+                    @Override
+                    public void fetchResource(String endpoint) {
+                        fetchCount[0]++;
+                    }
+
+                    @Override
+                    public PublicKeysObject getPublicKeysObject() {
+                        return new PublicKeysObject();
+                    }
+                };
+
+        YConnectClient explicit =
+                new YConnectClient() {
+                    @Override
+                    protected PublicKeysClient getPublicKeysClient() {
+                        return publicKeysClient;
+                    }
+
+                    @Override
+                    protected PublicKeysCache getPublicKeysCache() {
+                        return publicKeysCache;
+                    }
+
+                    @Override
+                    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                        return new IdTokenVerifier(clientId, null) {
+                            @Override
+                            public IdTokenVerificationResult verify(
+                                    ParsedJWT parsedJWT,
+                                    IdTokenObject idTokenObject,
+                                    String nonce,
+                                    String accessToken,
+                                    PublicKeySource keySource)
+                                    throws ApiClientException {
+                                // 取得済みの公開鍵にkidが無い場合、取得元が公開鍵を再取得する
+                                keySource.getPublicKey(idTokenObject.getKid());
+                                if (fetchCount[0] < 2) {
+                                    return IdTokenVerificationResult.failure(
+                                            IdTokenVerifier.PUBLIC_KEY_NOT_FOUND,
+                                            "PublicKey for kid not found.");
+                                }
+                                return IdTokenVerificationResult.success();
+                            }
+                        };
+                    }
+                };
+
+        Field accessTokenField = YConnectClient.class.getDeclaredField("accessToken");
+        accessTokenField.setAccessible(true);
+        accessTokenField.set(
+                explicit, new BearerToken("accessTokenSample", 1635638400, "refreshTokenSample"));
+
+        assertTrue(explicit.verifyIdToken(nonce, clientId, idTokenString));
+        assertEquals(2, fetchCount[0]);
+        assertEquals(1, publicKeysCache.getRefreshCount());
+    }
+
     @Test
     public void testVerifyIdTokenReturnsFalse() throws Exception {
         IdTokenGenerator generator = new IdTokenGenerator(getSampleIdTokenObject());
@@ -576,18 +840,17 @@ public class YConnectClientTest {
                     }
                 };
 
-        IdTokenVerification idTokenVerification =
-                new IdTokenVerification() {
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
                     @Override
-                    public boolean check(
-                            String iss,
-                            String nonce,
-                            String clientId,
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
                             IdTokenObject idTokenObject,
-                            PublicKeysObject publicKeysObject,
-                            String idTokenString,
-                            String accessToken) {
-                        return false;
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        return IdTokenVerificationResult.failure(
+                                "invalid_signature", "Signature verification failed.");
                     }
                 };
 
@@ -599,8 +862,8 @@ public class YConnectClientTest {
                     }
 
                     @Override
-                    protected IdTokenVerification getIdTokenVerification() {
-                        return idTokenVerification;
+                    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                        return idTokenVerifier;
                     }
                 };
 
@@ -631,18 +894,17 @@ public class YConnectClientTest {
                     }
                 };
 
-        IdTokenVerification idTokenVerification =
-                new IdTokenVerification() {
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
                     @Override
-                    public boolean check(
-                            String iss,
-                            String nonce,
-                            String clientId,
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
                             IdTokenObject idTokenObject,
-                            PublicKeysObject publicKeysObject,
-                            String idTokenString,
-                            String accessToken) {
-                        return false;
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        return IdTokenVerificationResult.failure(
+                                "invalid_signature", "Signature verification failed.");
                     }
                 };
 
@@ -654,8 +916,8 @@ public class YConnectClientTest {
                     }
 
                     @Override
-                    protected IdTokenVerification getIdTokenVerification() {
-                        return idTokenVerification;
+                    protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                        return idTokenVerifier;
                     }
                 };
 
@@ -704,31 +966,24 @@ public class YConnectClientTest {
         YHttpClient httpClient =
                 new YHttpClient() {
                     @Override
-                    public void requestPost(
+                    public <T> YHttpResponse<T> requestPost(
                             String endpointUrl,
                             HttpParameters parameters,
-                            HttpHeaders requestHeaders) {
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
                         assertEquals(OAuth2GrantType.REFRESH_TOKEN, parameters.get("grant_type"));
                         assertEquals(refreshToken, parameters.get("refresh_token"));
-                    }
-
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return new HttpHeaders();
-                    }
-
-                    @Override
-                    public String getResponseBody() {
-                        return "{\"access_token\":\""
-                                + accessTokenString
-                                + "\", \"expires_in\":"
-                                + expiresIn
-                                + "}";
-                    }
-
-                    @Override
-                    public int getStatusCode() {
-                        return 200;
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                new HttpHeaders(),
+                                "{\"access_token\":\""
+                                        + accessTokenString
+                                        + "\", \"expires_in\":"
+                                        + expiresIn
+                                        + "}");
                     }
                 };
 
@@ -850,6 +1105,476 @@ public class YConnectClientTest {
         explicit.requestUserInfo("accessTokenSample");
     }
 
+    @Test
+    public void testCompleteAuthorizationOverlapsIndependentRequests() throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+        BearerToken bearerToken =
+                new BearerToken("accessTokenSample", 1635638400, "refreshTokenSample");
+        UserInfoObject userInfoObject = new UserInfoObject();
+
+        // 互いに相手の開始を待つため、並行して実行されなければタイムアウトする
+        CountDownLatch tokenAndPublicKeys = new CountDownLatch(2);
+        CountDownLatch verificationAndUserInfo = new CountDownLatch(2);
+
+        TokenClient tokenClient =
+                new TokenClient(
+                        TOKEN_ENDPOINT_URL,
+                        "sample_code",
+                        redirectUri,
+                        clientId,
+                        clientSecret,
+                        plainCodeChallenge) {
+                    @Override
+                    public void fetch() {
+                        awaitOther(tokenAndPublicKeys);
+                    }
+
+                    @Override
+                    public BearerToken getAccessToken() {
+                        return bearerToken;
+                    }
+
+                    @Override
+                    public String getIdToken() {
+                        return idTokenString;
+                    }
+                };
+
+        PublicKeysClient publicKeysClient =
+                new PublicKeysClient() {
+                    @Override
+                    public void fetchResource(String endpoint) {
+                        awaitOther(tokenAndPublicKeys);
+                    }
+
+                    @Override
+                    public PublicKeysObject getPublicKeysObject() {
+                        return new PublicKeysObject();
+                    }
+                };
+
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
+                    @Override
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
+                            IdTokenObject idTokenObject,
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        assertEquals(bearerToken.getAccessToken(), accessToken);
+                        awaitOther(verificationAndUserInfo);
+                        return IdTokenVerificationResult.success();
+                    }
+                };
+
+        UserInfoClient userInfoClient =
+                new UserInfoClient(bearerToken.getAccessToken()) {
+                    @Override
+                    public void fetchResource(String endpoint, String method) {
+                        awaitOther(verificationAndUserInfo);
+                    }
+
+                    @Override
+                    public UserInfoObject getUserInfoObject() {
+                        return userInfoObject;
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        tokenClient, publicKeysClient, idTokenVerifier, userInfoClient);
+
+        AuthorizationResult result =
+                explicit.completeAuthorization(
+                        "sample_code",
+                        clientId,
+                        clientSecret,
+                        redirectUri,
+                        plainCodeChallenge,
+                        nonce,
+                        executor);
+
+        assertEquals(bearerToken, result.getBearerToken());
+        assertEquals("accessTokenSample", result.getAccessToken());
+        assertEquals(1635638400, result.getAccessTokenExpiration());
+        assertEquals("refreshTokenSample", result.getRefreshToken());
+        assertEquals(idTokenString, result.getIdToken());
+        assertTrue(result.isIdTokenVerified());
+        assertEquals("sample_ppid", result.getIdTokenObject().getSub());
+        assertEquals(userInfoObject, result.getUserInfoObject());
+
+        assertEquals("accessTokenSample", explicit.getAccessToken());
+        assertEquals(idTokenString, explicit.getIdToken());
+        assertEquals(userInfoObject, explicit.getUserInfoObject());
+    }
+
+    @Test
+    public void testCompleteAuthorizationReturnsUnverifiedResult() throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
+                    @Override
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
+                            IdTokenObject idTokenObject,
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        return IdTokenVerificationResult.failure(
+                                "invalid_signature", "Signature verification failed.");
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        newTokenClient(idTokenString),
+                        newPublicKeysClient(),
+                        idTokenVerifier,
+                        newUserInfoClient());
+
+        AuthorizationResult result =
+                explicit.completeAuthorization(
+                        "sample_code", clientId, clientSecret, redirectUri, null, nonce, executor);
+
+        assertFalse(result.isIdTokenVerified());
+        assertNull(result.getIdTokenObject());
+        assertEquals(idTokenString, result.getIdToken());
+        assertNull(result.getUserInfoObject());
+        assertNull(explicit.getUserInfoObject());
+    }
+
+    @Test
+    public void testCompleteAuthorizationCancelsUserInfoWhenUnverified() throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+        CountDownLatch userInfoStarted = new CountDownLatch(1);
+        CountDownLatch userInfoInterrupted = new CountDownLatch(1);
+
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
+                    @Override
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
+                            IdTokenObject idTokenObject,
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        try {
+                            assertTrue(userInfoStarted.await(5, TimeUnit.SECONDS));
+                        } catch (InterruptedException e) {
+                            throw new AssertionError(e);
+                        }
+                        return IdTokenVerificationResult.failure(
+                                "invalid_signature", "Signature verification failed.");
+                    }
+                };
+
+        UserInfoClient userInfoClient =
+                new UserInfoClient("accessTokenSample") {
+                    @Override
+                    public void fetchResource(String endpoint, String method) {
+                        userInfoStarted.countDown();
+                        try {
+                            Thread.sleep(10000);
+                        } catch (InterruptedException e) {
+                            userInfoInterrupted.countDown();
+                        }
+                    }
+
+                    @Override
+                    public UserInfoObject getUserInfoObject() {
+                        return new UserInfoObject();
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        newTokenClient(idTokenString),
+                        newPublicKeysClient(),
+                        idTokenVerifier,
+                        userInfoClient);
+
+        AuthorizationResult result =
+                explicit.completeAuthorization(
+                        "sample_code", clientId, clientSecret, redirectUri, null, nonce, executor);
+
+        assertFalse(result.isIdTokenVerified());
+        assertNull(result.getUserInfoObject());
+        assertTrue(userInfoInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCompleteAuthorizationThrowsTokenException() {
+        String error = "sample_error";
+
+        TokenClient tokenClient =
+                new TokenClient(
+                        TOKEN_ENDPOINT_URL,
+                        "sample_code",
+                        redirectUri,
+                        clientId,
+                        clientSecret,
+                        plainCodeChallenge) {
+                    @Override
+                    public void fetch() throws TokenException {
+                        throw new TokenException(error, "sample_error_description", 1000);
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        tokenClient,
+                        newPublicKeysClient(),
+                        new IdTokenVerifier(clientId, null),
+                        newUserInfoClient());
+
+        TokenException ex =
+                assertThrows(
+                        TokenException.class,
+                        () ->
+                                explicit.completeAuthorization(
+                                        "sample_code",
+                                        clientId,
+                                        clientSecret,
+                                        redirectUri,
+                                        plainCodeChallenge,
+                                        nonce,
+                                        executor));
+        assertEquals(error, ex.getError());
+    }
+
+    @Test
+    public void testCompleteAuthorizationThrowsApiClientExceptionFromUserInfo() throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+
+        IdTokenVerifier idTokenVerifier =
+                new IdTokenVerifier(clientId, null) {
+                    @Override
+                    public IdTokenVerificationResult verify(
+                            ParsedJWT parsedJWT,
+                            IdTokenObject idTokenObject,
+                            String nonce,
+                            String accessToken,
+                            PublicKeySource keySource) {
+                        return IdTokenVerificationResult.success();
+                    }
+                };
+
+        UserInfoClient userInfoClient =
+                new UserInfoClient("accessTokenSample") {
+                    @Override
+                    public void fetchResource(String endpoint, String method)
+                            throws ApiClientException {
+                        throw new ApiClientException("invalid_token", "sample_description");
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        newTokenClient(idTokenString),
+                        newPublicKeysClient(),
+                        idTokenVerifier,
+                        userInfoClient);
+
+        ApiClientException ex =
+                assertThrows(
+                        ApiClientException.class,
+                        () ->
+                                explicit.completeAuthorization(
+                                        "sample_code",
+                                        clientId,
+                                        clientSecret,
+                                        redirectUri,
+                                        plainCodeChallenge,
+                                        nonce,
+                                        executor));
+        assertEquals("invalid_token", ex.getError());
+    }
+
+    @Test
+    public void testRequestUserInfoPassesTimeoutsAndDeadline() throws Exception {
+        HttpTimeouts expectedTimeouts = new HttpTimeouts(100, 200, 300);
+        Deadline expectedDeadline = Deadline.after(1, TimeUnit.MINUTES);
+
+        UserInfoClient userInfoClient =
+                new UserInfoClient("accessTokenSample") {
+                    @Override
+                    protected YHttpClient newHttpClient() {
+                        return new YHttpClient() {
+                            @Override
+                            public <T> YHttpResponse<T> requestGet(
+                                    String urlString,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline,
+                                    YHttpResponseHandler<T> handler) {
+                                assertSame(expectedTimeouts, timeouts);
+                                assertSame(expectedDeadline, deadline);
+                                return StubResponse.handle(
+                                        handler,
+                                        200,
+                                        new HttpHeaders(),
+                                        "{\"sub\":\"sample_ppid\"}");
+                            }
+                        };
+                    }
+                };
+
+        YConnectClient explicit =
+                new YConnectClient() {
+                    @Override
+                    protected UserInfoClient getUserInfoClient(String accessTokenString) {
+                        return userInfoClient;
+                    }
+                };
+        explicit.setTimeouts(expectedTimeouts);
+        explicit.setDeadline(expectedDeadline);
+
+        explicit.requestUserInfo("accessTokenSample");
+    }
+
+    @Test
+    public void testCompleteAuthorizationThrowsApiClientExceptionWhenDeadlineExceeded()
+            throws Exception {
+        String idTokenString = new IdTokenGenerator(getSampleIdTokenObject()).getIdTokenString();
+        CountDownLatch released = new CountDownLatch(1);
+
+        PublicKeysClient publicKeysClient =
+                new PublicKeysClient() {
+                    @Override
+                    public void fetchResource(String endpoint) {
+                        try {
+                            released.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public PublicKeysObject getPublicKeysObject() {
+                        return new PublicKeysObject();
+                    }
+                };
+
+        YConnectClient explicit =
+                newCompleteAuthorizationClient(
+                        newTokenClient(idTokenString),
+                        publicKeysClient,
+                        new IdTokenVerifier(clientId, null),
+                        newUserInfoClient());
+        explicit.setDeadline(Deadline.after(100, TimeUnit.MILLISECONDS));
+
+        try {
+            ApiClientException ex =
+                    assertThrows(
+                            ApiClientException.class,
+                            () ->
+                                    explicit.completeAuthorization(
+                                            "sample_code",
+                                            clientId,
+                                            clientSecret,
+                                            redirectUri,
+                                            null,
+                                            nonce,
+                                            executor));
+            assertEquals("Deadline exceeded.", ex.getError());
+        } finally {
+            released.countDown();
+        }
+    }
+
+    private YConnectClient newCompleteAuthorizationClient(
+            TokenClient tokenClient,
+            PublicKeysClient publicKeysClient,
+            IdTokenVerifier idTokenVerifier,
+            UserInfoClient userInfoClient) {
+        return new YConnectClient() {
+            @Override
+            protected TokenClient getTokenClient(
+                    String code, String redirectUri, String clientId, String clientSecret) {
+                return tokenClient;
+            }
+
+            @Override
+            protected TokenClient getTokenClient(
+                    String code,
+                    String redirectUri,
+                    String clientId,
+                    String clientSecret,
+                    String codeVerifier) {
+                return tokenClient;
+            }
+
+            @Override
+            protected PublicKeysClient getPublicKeysClient() {
+                return publicKeysClient;
+            }
+
+            @Override
+            protected IdTokenVerifier getIdTokenVerifier(String clientId) {
+                return idTokenVerifier;
+            }
+
+            @Override
+            protected UserInfoClient getUserInfoClient(String accessTokenString) {
+                return userInfoClient;
+            }
+        };
+    }
+
+    private TokenClient newTokenClient(String idTokenString) {
+        return new TokenClient(
+                TOKEN_ENDPOINT_URL, "sample_code", redirectUri, clientId, clientSecret) {
+            @Override
+            public void fetch() {}
+
+            @Override
+            public BearerToken getAccessToken() {
+                return new BearerToken("accessTokenSample", 1635638400, "refreshTokenSample");
+            }
+
+            @Override
+            public String getIdToken() {
+                return idTokenString;
+            }
+        };
+    }
+
+    private PublicKeysClient newPublicKeysClient() {
+        return new PublicKeysClient() {
+            @Override
+            public void fetchResource(String endpoint) {}
+
+            @Override
+            public PublicKeysObject getPublicKeysObject() {
+                return new PublicKeysObject();
+            }
+        };
+    }
+
+    private UserInfoClient newUserInfoClient() {
+        return new UserInfoClient("accessTokenSample") {
+            @Override
+            public void fetchResource(String endpoint, String method) {}
+
+            @Override
+            public UserInfoObject getUserInfoObject() {
+                return new UserInfoObject();
+            }
+        };
+    }
+
+    private static void awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            assertTrue("not executed concurrently", latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     private IdTokenObject getSampleIdTokenObject() {
         IdTokenObject idTokenObject = new IdTokenObject();
         idTokenObject.setType("JWT");
@@ -0,0 +1,343 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import javax.json.Json;
+import jp.co.yahoo.yconnect.YConnectClient;
+import jp.co.yahoo.yconnect.YConnectStateCodec;
+import jp.co.yahoo.yconnect.core.oauth2.AuthorizationRequestClient;
+import jp.co.yahoo.yconnect.core.oauth2.BearerToken;
+import jp.co.yahoo.yconnect.core.oauth2.OAuth2ResponseType;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenDecoder;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenObject;
+import jp.co.yahoo.yconnect.core.oidc.IdTokenVerificationResult;
+import jp.co.yahoo.yconnect.core.oidc.OIDCDisplay;
+import jp.co.yahoo.yconnect.core.oidc.OIDCPrompt;
+import jp.co.yahoo.yconnect.core.oidc.OIDCScope;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoObject;
+import jp.co.yahoo.yconnect.core.oidc.UserInfoParser;
+import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import org.junit.Test;
+
+/**
+ * YConnectStateCodec Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class YConnectStateCodecTest {
+
+    private static final String USER_INFO_JSON =
+            "{\"sub\":\"sample_sub\",\"name\":\"矢風太郎\",\"locale\":\"ja-JP\","
+                    + "\"email\":\"your_email@example.com\",\"email_verified\":true,"
+                    + "\"birthdate\":\"2000\",\"level\":3,\"score\":1.5,\"roles\":[\"a\",null],"
+                    + "\"profile\":{\"team\":{\"name\":\"yconnect\"}},"
+                    + "\"address\":{\"country\":\"jp\",\"street\":\"赤坂\"}}";
+
+    @Test
+    public void testBearerToken() throws Exception {
+        BearerToken bearerToken =
+                new BearerToken("access_token", 3600, "refresh_token", "openid", 1410437540000L);
+
+        BearerToken decoded =
+                YConnectStateCodec.decodeBearerToken(YConnectStateCodec.encode(bearerToken));
+
+        assertEquals("access_token", decoded.getAccessToken());
+        assertEquals(3600, decoded.getExpiration());
+        assertEquals(1410437540000L, decoded.getIssuedAt());
+        assertEquals("refresh_token", decoded.getRefreshToken());
+        assertEquals("openid", decoded.getScope());
+    }
+
+    @Test
+    public void testBearerTokenWithoutOptionalFields() throws Exception {
+        BearerToken bearerToken = new BearerToken("access_token", 3600, null, null, 0);
+
+        BearerToken decoded =
+                YConnectStateCodec.decodeBearerToken(YConnectStateCodec.encode(bearerToken));
+
+        assertEquals("access_token", decoded.getAccessToken());
+        assertNull(decoded.getRefreshToken());
+        assertNull(decoded.getScope());
+        assertEquals(0, decoded.getIssuedAt());
+    }
+
+    @Test
+    public void testIdTokenObject() throws Exception {
+        IdTokenObject idTokenObject = new IdTokenDecoder(newIdTokenString()).decode();
+
+        IdTokenObject decoded =
+                YConnectStateCodec.decodeIdTokenObject(YConnectStateCodec.encode(idTokenObject));
+
+        assertEquals(idTokenObject.getType(), decoded.getType());
+        assertEquals(idTokenObject.getAlgorithm(), decoded.getAlgorithm());
+        assertEquals(idTokenObject.getKid(), decoded.getKid());
+        assertEquals(idTokenObject.getIss(), decoded.getIss());
+        assertEquals(idTokenObject.getSub(), decoded.getSub());
+        assertEquals(idTokenObject.getPpidSub(), decoded.getPpidSub());
+        assertEquals(idTokenObject.getAud(), decoded.getAud());
+        assertEquals(idTokenObject.getNonce(), decoded.getNonce());
+        assertEquals(idTokenObject.getAtHash(), decoded.getAtHash());
+        assertEquals(idTokenObject.getExp(), decoded.getExp());
+        assertEquals(idTokenObject.getIat(), decoded.getIat());
+        assertEquals(idTokenObject.getAuthTime(), decoded.getAuthTime());
+        assertEquals(idTokenObject.getSignature(), decoded.getSignature());
+        assertEquals(idTokenObject.getClaims().toString(), decoded.getClaims().toString());
+        assertEquals(idTokenObject.getClaims().names(), decoded.getClaims().names());
+        assertEquals(Long.valueOf(1410437540), decoded.getClaims().getLong("iat"));
+    }
+
+    @Test
+    public void testEmptyIdTokenObject() throws Exception {
+        IdTokenObject decoded =
+                YConnectStateCodec.decodeIdTokenObject(
+                        YConnectStateCodec.encode(new IdTokenObject()));
+
+        assertNull(decoded.getIss());
+        assertNull(decoded.getAud());
+        assertEquals(0, decoded.getClaims().size());
+    }
+
+    @Test
+    public void testUserInfoObject() throws Exception {
+        UserInfoObject userInfoObject = UserInfoParser.parse(new StringReader(USER_INFO_JSON));
+
+        UserInfoObject decoded =
+                YConnectStateCodec.decodeUserInfoObject(YConnectStateCodec.encode(userInfoObject));
+
+        assertEquals(userInfoObject.toString(), decoded.toString());
+        assertEquals("矢風太郎", decoded.getName());
+        assertTrue(decoded.isEmailVerified());
+        assertEquals("2000", decoded.getBirthdate());
+        assertEquals("jp", decoded.getAddressCountry());
+        assertEquals(Long.valueOf(3), decoded.getAdditionalValues().get("level"));
+        assertEquals(new BigDecimal("1.5"), decoded.getAdditionalValues().get("score"));
+        assertEquals(Arrays.asList("a", null), decoded.getAdditionalValues().get("roles"));
+        assertEquals("yconnect", decoded.getAdditionalValue("profile/team/name"));
+        assertEquals("赤坂", decoded.getAdditionalValue("address/street"));
+        assertEquals(
+                userInfoObject.getAdditionalValues().keySet(),
+                decoded.getAdditionalValues().keySet());
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        UserInfoObject userInfoObject = UserInfoParser.parse(new StringReader(USER_INFO_JSON));
+
+        byte[] encoded = YConnectStateCodec.encode(userInfoObject);
+
+        assertTrue(encoded.length < USER_INFO_JSON.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testSessionSmallerThanJavaSerializationAndJson() throws Exception {
+        BearerToken bearerToken =
+                new BearerToken("access_token", 3600, "refresh_token", "openid", 1410437540000L);
+        String idTokenString = newIdTokenString();
+        IdTokenObject idTokenObject = new IdTokenDecoder(idTokenString).decode();
+        UserInfoObject userInfoObject = UserInfoParser.parse(new StringReader(USER_INFO_JSON));
+
+        int binary =
+                YConnectStateCodec.encode(bearerToken).length
+                        + YConnectStateCodec.encode(idTokenObject).length
+                        + YConnectStateCodec.encode(userInfoObject).length;
+
+        Map<String, Object> session = new LinkedHashMap<>();
+        session.put("access_token", bearerToken.getAccessToken());
+        session.put("refresh_token", bearerToken.getRefreshToken());
+        session.put("scope", bearerToken.getScope());
+        session.put("expires_in", bearerToken.getExpiration());
+        session.put("issued_at", bearerToken.getIssuedAt());
+        session.put("id_token", idTokenString);
+        session.put("user_info", userInfoObject);
+        ByteArrayOutputStream javaSerialization = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(javaSerialization);
+        out.writeObject(session);
+        out.close();
+
+        String json =
+                Json.createObjectBuilder()
+                        .add("access_token", bearerToken.getAccessToken())
+                        .add("refresh_token", bearerToken.getRefreshToken())
+                        .add("scope", bearerToken.getScope())
+                        .add("expires_in", bearerToken.getExpiration())
+                        .add("issued_at", bearerToken.getIssuedAt())
+                        .add("id_token", idTokenString)
+                        .add("user_info", USER_INFO_JSON)
+                        .build()
+                        .toString();
+
+        assertTrue(
+                binary + " >= " + javaSerialization.size(), binary < javaSerialization.size());
+        int jsonLength = json.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(binary + " >= " + jsonLength, binary < jsonLength);
+    }
+
+    @Test
+    public void testClient() throws Exception {
+        YConnectClient client = new YConnectClient();
+        client.init(
+                "client_id",
+                "https://example.co.jp/callback",
+                "state",
+                OAuth2ResponseType.CODE,
+                OIDCDisplay.DEFAULT,
+                new String[] {OIDCPrompt.DEFAULT},
+                new String[] {OIDCScope.OPENID, OIDCScope.PROFILE},
+                "nonce",
+                3600L,
+                "plain_code_challenge");
+        BearerToken bearerToken =
+                new BearerToken("access_token", 3600, "refresh_token", null, 1410437540000L);
+        UserInfoObject userInfoObject = UserInfoParser.parse(new StringReader(USER_INFO_JSON));
+        setField(client, "accessToken", bearerToken);
+        setField(client, "idToken", "id_token");
+        setField(client, "userInfoObject", userInfoObject);
+        setField(
+                client,
+                "idTokenVerificationResult",
+                IdTokenVerificationResult.failure("invalid_nonce", "Not match nonce."));
+
+        YConnectClient decoded = YConnectStateCodec.decodeClient(YConnectStateCodec.encode(client));
+
+        assertEquals(
+                client.generateAuthorizationUri().toString(),
+                decoded.generateAuthorizationUri().toString());
+        assertEquals("access_token", decoded.getAccessToken());
+        assertEquals("refresh_token", decoded.getRefreshToken());
+        assertEquals(bearerToken.getExpiresAt(), decoded.getAccessTokenExpiresAt());
+        assertEquals("id_token", decoded.getIdToken());
+        assertEquals(userInfoObject.toString(), decoded.getUserInfoObject().toString());
+        assertEquals("invalid_nonce", decoded.getIdTokenErrorMessage());
+        assertEquals("Not match nonce.", decoded.getIdTokenErrorDescriptionMessage());
+    }
+
+    @Test
+    public void testClientSubclass() throws Exception {
+        YConnectClient client = new YConnectClient();
+        client.init("client_id", "https://example.co.jp/callback", "state");
+        setField(client, "idTokenVerificationResult", IdTokenVerificationResult.success());
+        final String[] requestedClientId = new String[1];
+        YConnectClient decoded =
+                new YConnectClient() {
+                    @Override
+                    protected AuthorizationRequestClient getAuthorizationRequestClient(
+                            String clientId) {
+                        requestedClientId[0] = clientId;
+                        return super.getAuthorizationRequestClient(clientId);
+                    }
+                };
+
+        YConnectStateCodec.decodeClient(YConnectStateCodec.encode(client), decoded);
+
+        assertEquals("client_id", requestedClientId[0]);
+        assertNull(decoded.getBearerToken());
+        assertNull(decoded.getUserInfoObject());
+        assertEquals("", decoded.getIdTokenErrorMessage());
+        assertEquals(
+                client.generateAuthorizationUri().toString(),
+                decoded.generateAuthorizationUri().toString());
+    }
+
+    @Test
+    public void testEmptyClient() throws Exception {
+        byte[] encoded = YConnectStateCodec.encode(new YConnectClient());
+
+        YConnectClient decoded = YConnectStateCodec.decodeClient(encoded);
+
+        assertNull(decoded.getBearerToken());
+        assertNull(decoded.getIdToken());
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testUnsupportedVersion() throws Exception {
+        byte[] encoded = YConnectStateCodec.encode(new BearerToken("access_token", 3600));
+        encoded[0] = (byte) (YConnectStateCodec.VERSION + 1);
+        YConnectStateCodec.decodeBearerToken(encoded);
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testUnexpectedType() throws Exception {
+        byte[] encoded = YConnectStateCodec.encode(new BearerToken("access_token", 3600));
+        YConnectStateCodec.decodeUserInfoObject(encoded);
+    }
+
+    @Test
+    public void testTruncated() {
+        byte[] encoded =
+                YConnectStateCodec.encode(UserInfoParser.parse(new StringReader(USER_INFO_JSON)));
+        for (int length = 0; length < encoded.length; length++) {
+            try {
+                YConnectStateCodec.decodeUserInfoObject(Arrays.copyOf(encoded, length));
+                throw new AssertionError("Decoded truncated data: " + length);
+            } catch (DataFormatException e) {
+                // 途中で終わっているバイト列は復元しない
+            }
+        }
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testTrailingBytes() throws Exception {
+        byte[] encoded = YConnectStateCodec.encode(new BearerToken("access_token", 3600));
+        YConnectStateCodec.decodeBearerToken(Arrays.copyOf(encoded, encoded.length + 1));
+    }
+
+    private static String newIdTokenString() throws Exception {
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.setType("JWT");
+        idTokenObject.setAlgorithm("RS256");
+        idTokenObject.setKid("sample_kid");
+        idTokenObject.setIss("https://auth.login.yahoo.co.jp/yconnect/v2");
+        idTokenObject.setSub("USER_PPID");
+        idTokenObject.setAud(new ArrayList<>(Collections.singletonList("APPLICATION_ID")));
+        idTokenObject.setNonce("abcdefg");
+        idTokenObject.setAtHash("at_abcde");
+        idTokenObject.setExp(1411647139);
+        idTokenObject.setIat(1410437540);
+        idTokenObject.setAuthTime(1410437541);
+        return new IdTokenGenerator(idTokenObject).getIdTokenString();
+    }
+
+    private static void setField(YConnectClient client, String name, Object value)
+            throws Exception {
+        Field field = YConnectClient.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(client, value);
+    }
+}
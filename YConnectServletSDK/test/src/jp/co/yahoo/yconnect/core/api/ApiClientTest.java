@@ -30,9 +30,12 @@ import static org.junit.Assert.assertThrows;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
 import org.junit.Test;
 
 public class ApiClientTest {
@@ -87,31 +90,25 @@ public class ApiClientTest {
                     protected YHttpClient newHttpClient() {
                         return new YHttpClient() {
                             @Override
-                            public void requestGet(
-                                    String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                            @Override
-                            public void requestPost(
-                                    String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                            @Override
-                            public int getStatusCode() {
-                                return responseCode;
+                            public YHttpResponse<String> requestGet(
+                                    String url,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline) {
+                                return new YHttpResponse<String>(
+                                        responseCode, responseMessage, headers, response);
                             }
 
                             @Override
-                            public String getStatusMessage() {
-                                return responseMessage;
-                            }
-
-                            @Override
-                            public HttpHeaders getResponseHeaders() {
-                                return headers;
-                            }
-
-                            @Override
-                            public String getResponseBody() {
-                                return response;
+                            public YHttpResponse<String> requestPost(
+                                    String url,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline) {
+                                return new YHttpResponse<String>(
+                                        responseCode, responseMessage, headers, response);
                             }
                         };
                     }
@@ -137,45 +134,39 @@ public class ApiClientTest {
     public void testErrorFetchResourceByWwwAuthHeader() {
         String error = "Page not found.";
         String errorDescription = "/info is not found.";
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.put(
+                "WWW-Authenticate",
+                "\"error\"=\""
+                        + error
+                        + "\",\"error_description\"=\""
+                        + errorDescription
+                        + "\"");
         ApiClient client =
                 new ApiClient() {
                     @Override
                     protected YHttpClient newHttpClient() {
                         return new YHttpClient() {
                             @Override
-                            public void requestGet(
-                                    String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                            @Override
-                            public void requestPost(
-                                    String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                            @Override
-                            public int getStatusCode() {
-                                return 404;
-                            }
-
-                            @Override
-                            public String getStatusMessage() {
-                                return "Not Found.";
-                            }
-
-                            @Override
-                            public HttpHeaders getResponseHeaders() {
-                                headers = new HttpHeaders();
-                                headers.put(
-                                        "WWW-Authenticate",
-                                        "\"error\"=\""
-                                                + error
-                                                + "\",\"error_description\"=\""
-                                                + errorDescription
-                                                + "\"");
-                                return headers;
+                            public YHttpResponse<String> requestGet(
+                                    String url,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline) {
+                                return new YHttpResponse<String>(
+                                        404, "Not Found.", responseHeaders, response);
                             }
 
                             @Override
-                            public String getResponseBody() {
-                                return response;
+                            public YHttpResponse<String> requestPost(
+                                    String url,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline) {
+                                return new YHttpResponse<String>(
+                                        404, "Not Found.", responseHeaders, response);
                             }
                         };
                     }
@@ -245,31 +236,25 @@ public class ApiClientTest {
             protected YHttpClient newHttpClient() {
                 return new YHttpClient() {
                     @Override
-                    public void requestGet(
-                            String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                    @Override
-                    public void requestPost(
-                            String url, HttpParameters parameters, HttpHeaders headers) {}
-
-                    @Override
-                    public int getStatusCode() {
-                        return statusCode;
-                    }
-
-                    @Override
-                    public String getStatusMessage() {
-                        return statusMessage;
-                    }
-
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return headers;
+                    public YHttpResponse<String> requestGet(
+                            String url,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline) {
+                        return new YHttpResponse<String>(
+                                statusCode, statusMessage, headers, response);
                     }
 
                     @Override
-                    public String getResponseBody() {
-                        return response;
+                    public YHttpResponse<String> requestPost(
+                            String url,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline) {
+                        return new YHttpResponse<String>(
+                                statusCode, statusMessage, headers, response);
                     }
                 };
             }
@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.junit.Test;
+
+public class HttpTimeoutsTest {
+
+    @Test
+    public void testDefault() {
+        assertEquals(
+                HttpTimeouts.DEFAULT_CONNECT_TIMEOUT, HttpTimeouts.DEFAULT.getConnectTimeout());
+        assertEquals(HttpTimeouts.DEFAULT_SOCKET_TIMEOUT, HttpTimeouts.DEFAULT.getSocketTimeout());
+        assertEquals(
+                HttpTimeouts.DEFAULT_CONNECTION_REQUEST_TIMEOUT,
+                HttpTimeouts.DEFAULT.getConnectionRequestTimeout());
+    }
+
+    @Test
+    public void testConstructorThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new HttpTimeouts(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HttpTimeouts(0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HttpTimeouts(0, 0, -1));
+    }
+
+    @Test
+    public void testToRequestConfig() {
+        RequestConfig config = new HttpTimeouts(100, 200, 300).toRequestConfig();
+
+        assertEquals(100, config.getConnectTimeout());
+        assertEquals(200, config.getSocketTimeout());
+        assertEquals(300, config.getConnectionRequestTimeout());
+    }
+
+    @Test
+    public void testLimitToNullReturnsSameInstance() {
+        HttpTimeouts timeouts = new HttpTimeouts(100, 200, 300);
+
+        assertSame(timeouts, timeouts.limitTo(null));
+    }
+
+    @Test
+    public void testLimitToDeadline() {
+        HttpTimeouts timeouts = new HttpTimeouts(100, 60000, 0);
+
+        HttpTimeouts limited = timeouts.limitTo(Deadline.after(1, TimeUnit.SECONDS));
+
+        assertEquals(100, limited.getConnectTimeout());
+        assertTrue(limited.getSocketTimeout() <= 1000);
+        assertTrue(limited.getSocketTimeout() > 0);
+        assertTrue(limited.getConnectionRequestTimeout() <= 1000);
+        assertTrue(limited.getConnectionRequestTimeout() > 0);
+    }
+
+    @Test
+    public void testLimitToExpiredDeadline() {
+        HttpTimeouts limited =
+                new HttpTimeouts(0, 0, 0).limitTo(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+        assertEquals(new HttpTimeouts(1, 1, 1), limited);
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(new HttpTimeouts(100, 200, 300), new HttpTimeouts(100, 200, 300));
+        assertEquals(
+                new HttpTimeouts(100, 200, 300).hashCode(),
+                new HttpTimeouts(100, 200, 300).hashCode());
+        assertNotEquals(new HttpTimeouts(100, 200, 300), new HttpTimeouts(100, 200, 301));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParsingException;
+import org.junit.Test;
+
+public class JsonResponseHandlerTest {
+
+    @Test
+    public void testHandleResponse() {
+        JsonResponseHandler handler = new JsonResponseHandler();
+        JsonObject jsonObject =
+                handler.handleResponse(
+                        200,
+                        new HttpHeaders(),
+                        stream("{\"name\":\"矢風太郎\"}", StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8);
+
+        assertEquals("矢風太郎", jsonObject.getString("name"));
+    }
+
+    @Test
+    public void testHandleResponseWithCharset() {
+        Charset sjis = Charset.forName("Shift_JIS");
+        JsonResponseHandler handler = new JsonResponseHandler();
+        JsonObject jsonObject =
+                handler.handleResponse(
+                        200, new HttpHeaders(), stream("{\"name\":\"矢風太郎\"}", sjis), sjis);
+
+        assertEquals("矢風太郎", jsonObject.getString("name"));
+    }
+
+    @Test
+    public void testHandleErrorResponse() {
+        JsonResponseHandler handler = new JsonResponseHandler();
+        JsonObject jsonObject =
+                handler.handleResponse(
+                        400,
+                        new HttpHeaders(),
+                        stream("{\"error\":\"invalid_request\"}", StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8);
+
+        assertEquals("invalid_request", jsonObject.getString("error"));
+    }
+
+    @Test
+    public void testHandleErrorResponseWithSuccessOnly() {
+        JsonResponseHandler handler = new JsonResponseHandler(true);
+        JsonObject jsonObject =
+                handler.handleResponse(
+                        401,
+                        new HttpHeaders(),
+                        stream("<html>", StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8);
+
+        assertNull(jsonObject);
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testHandleInvalidResponse() {
+        JsonResponseHandler handler = new JsonResponseHandler();
+        handler.handleResponse(
+                200,
+                new HttpHeaders(),
+                stream("{\"name\":", StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8);
+    }
+
+    private static InputStream stream(String body, Charset charset) {
+        return new ByteArrayInputStream(body.getBytes(charset));
+    }
+}
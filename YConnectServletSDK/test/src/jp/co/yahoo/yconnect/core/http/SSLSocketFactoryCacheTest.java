@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsExchange;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.junit.After;
+import org.junit.Test;
+
+public class SSLSocketFactoryCacheTest {
+
+    private static final String[] PROTOCOLS = {"TLSv1.2"};
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @After
+    public void afterEach() {
+        YHttpTransport.configureSessionCache(
+                YHttpTransport.DEFAULT_SESSION_CACHE_SIZE, YHttpTransport.DEFAULT_SESSION_TIMEOUT);
+    }
+
+    @Test
+    public void testGetReturnsCachedFactory() {
+        SSLConnectionSocketFactory factory = SSLSocketFactoryCache.get(true, PROTOCOLS);
+
+        assertSame(factory, SSLSocketFactoryCache.get(true, PROTOCOLS));
+        assertSame(factory, SSLSocketFactoryCache.get(true, new String[] {"TLSv1.2"}));
+    }
+
+    @Test
+    public void testGetReturnsFactoryPerConfiguration() {
+        SSLConnectionSocketFactory checked = SSLSocketFactoryCache.get(true, PROTOCOLS);
+        SSLConnectionSocketFactory unchecked = SSLSocketFactoryCache.get(false, PROTOCOLS);
+
+        assertNotSame(checked, unchecked);
+        assertSame(unchecked, SSLSocketFactoryCache.get(false, PROTOCOLS));
+    }
+
+    @Test
+    public void testConfigureSessionCache() {
+        SSLContext sslContext = SSLSocketFactoryCache.getSSLContext(true, PROTOCOLS);
+
+        YHttpTransport.configureSessionCache(10, 60);
+
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        assertEquals(10, sessionContext.getSessionCacheSize());
+        assertEquals(60, sessionContext.getSessionTimeout());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureSessionCacheRejectsNegativeSize() {
+        YHttpTransport.configureSessionCache(-1, 60);
+    }
+
+    @Test
+    public void testSessionIsResumedOnReconnect() throws Exception {
+        List<Integer> remotePorts = new ArrayList<>();
+        List<String> sessionIds = new ArrayList<>();
+
+        HttpsServer server = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(createServerContext()));
+        server.createContext(
+                "/",
+                exchange -> {
+                    synchronized (sessionIds) {
+                        remotePorts.add(exchange.getRemoteAddress().getPort());
+                        byte[] id = ((HttpsExchange) exchange).getSSLSession().getId();
+                        sessionIds.add(new BigInteger(1, id).toString(16));
+                    }
+                    byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(body);
+                    out.close();
+                });
+        server.start();
+
+        // 自己署名証明書のため、SSL証明書チェックを行わないトランスポートを使う
+        YHttpTransport transport = new YHttpTransport(false, 2, 2, 5000L);
+        try {
+            String url = "https://127.0.0.1:" + server.getAddress().getPort() + "/";
+            YHttpClient client = new YHttpClient(transport);
+
+            assertEquals(200, client.requestGet(url, null, null).getStatusCode());
+            // アイドル状態の接続を閉じ、次のリクエストで再接続させる
+            transport.getConnectionManager().closeIdleConnections(0, TimeUnit.MILLISECONDS);
+            assertEquals(200, client.requestGet(url, null, null).getStatusCode());
+        } finally {
+            transport.close();
+            server.stop(0);
+        }
+
+        assertEquals(2, sessionIds.size());
+        assertNotEquals(remotePorts.get(0), remotePorts.get(1));
+        assertEquals(sessionIds.get(0), sessionIds.get(1));
+    }
+
+    private static SSLContext createServerContext() throws Exception {
+        File keyStoreFile = File.createTempFile("server", ".p12");
+        try {
+            keyStoreFile.delete();
+            File keytool = new File(System.getProperty("java.home"), "bin/keytool");
+            Process process =
+                    new ProcessBuilder(
+                                    keytool.getPath(),
+                                    "-genkeypair",
+                                    "-alias",
+                                    "server",
+                                    "-keyalg",
+                                    "RSA",
+                                    "-keysize",
+                                    "2048",
+                                    "-dname",
+                                    "CN=127.0.0.1",
+                                    "-validity",
+                                    "1",
+                                    "-storetype",
+                                    "PKCS12",
+                                    "-keystore",
+                                    keyStoreFile.getPath(),
+                                    "-storepass",
+                                    new String(PASSWORD),
+                                    "-keypass",
+                                    new String(PASSWORD))
+                            .redirectErrorStream(true)
+                            .start();
+            assertEquals(0, process.waitFor());
+
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = new FileInputStream(keyStoreFile)) {
+                keyStore.load(in, PASSWORD);
+            }
+            KeyManagerFactory keyManagerFactory =
+                    KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagerFactory.init(keyStore, PASSWORD);
+
+            SSLContext sslContext = SSLContext.getInstance("TLSv1.2");
+            sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+            return sslContext;
+        } finally {
+            keyStoreFile.delete();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class YHttpClientTest {
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private YHttpTransport transport;
+
+    private String url;
+
+    @Before
+    public void beforeEach() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    requestCount.incrementAndGet();
+                    // "/trickle"へのリクエストはソケットタイムアウト未満の間隔で1バイトずつ返す
+                    if (exchange.getRequestURI().getPath().equals("/trickle")) {
+                        exchange.sendResponseHeaders(200, 0);
+                        OutputStream out = exchange.getResponseBody();
+                        try {
+                            for (int i = 0; i < 40; i++) {
+                                out.write('a');
+                                out.flush();
+                                Thread.sleep(50);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            out.close();
+                        }
+                        return;
+                    }
+                    try {
+                        // "/slow"へのリクエストはレスポンスを遅延させる
+                        if (exchange.getRequestURI().getPath().equals("/slow")) {
+                            Thread.sleep(2000);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    String path = exchange.getRequestURI().getPath();
+                    byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                    long length = body.length;
+                    if (path.equals("/sjis")) {
+                        body = "{\"name\":\"矢風太郎\"}".getBytes("Shift_JIS");
+                        length = body.length;
+                        exchange.getResponseHeaders()
+                                .add("Content-Type", "application/json; charset=Shift_JIS");
+                    } else if (path.equals("/large")) {
+                        body = new byte[2048];
+                        Arrays.fill(body, (byte) 'a');
+                        length = body.length;
+                    } else if (path.startsWith("/echo/")) {
+                        body = path.substring(6).getBytes(StandardCharsets.UTF_8);
+                        length = body.length;
+                    } else if (path.equals("/chunked")) {
+                        body = new byte[2048];
+                        Arrays.fill(body, (byte) 'a');
+                        length = 0;
+                    }
+                    exchange.sendResponseHeaders(200, length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(body);
+                    out.close();
+                });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+        transport = new YHttpTransport(true, 4, 4, 5000L, new HttpTimeouts(1000, 200, 1000));
+    }
+
+    @After
+    public void afterEach() {
+        transport.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRequestGet() {
+        YHttpClient client = new YHttpClient(transport);
+        YHttpResponse<String> response = client.requestGet(url + "/", null, null);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{}", response.getBody());
+    }
+
+    @Test
+    public void testSharedClientReturnsResponsePerCall() throws Exception {
+        YHttpClient client = new YHttpClient(transport);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<YHttpResponse<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String path = url + "/echo/" + i;
+                futures.add(executor.submit(() -> client.requestGet(path, null, null)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                YHttpResponse<String> response = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(200, response.getStatusCode());
+                assertEquals(String.valueOf(i), response.getBody());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRequestUsesTransportTimeouts() {
+        YHttpClient client = new YHttpClient(transport);
+        YHttpResponse<String> response = client.requestGet(url + "/slow", null, null);
+
+        assertEquals(0, response.getStatusCode());
+        assertTrue(response.getStatusMessage().startsWith("SocketTimeoutException"));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void testRequestUsesClientTimeouts() {
+        YHttpClient client =
+                new YHttpClient(
+                        transport,
+                        new HttpTimeouts(1000, 5000, 1000),
+                        YHttpClient.DEFAULT_MAX_BODY_SIZE);
+        YHttpResponse<String> response = client.requestGet(url + "/slow", null, null);
+
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    public void testRequestUsesPerCallTimeouts() {
+        YHttpClient client =
+                new YHttpClient(
+                        transport,
+                        new HttpTimeouts(1000, 100, 1000),
+                        YHttpClient.DEFAULT_MAX_BODY_SIZE);
+        YHttpResponse<String> response =
+                client.requestPost(
+                        url + "/slow",
+                        new HttpParameters(),
+                        null,
+                        new HttpTimeouts(1000, 5000, 1000),
+                        null);
+
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    public void testRequestIsLimitedByDeadline() {
+        YHttpClient client =
+                new YHttpClient(
+                        transport,
+                        new HttpTimeouts(1000, 5000, 1000),
+                        YHttpClient.DEFAULT_MAX_BODY_SIZE);
+        Deadline deadline = Deadline.after(200, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        YHttpResponse<String> response =
+                client.requestGet(url + "/slow", null, null, null, deadline);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(0, response.getStatusCode());
+        assertTrue("elapsed: " + elapsed, elapsed < 1500);
+    }
+
+    @Test
+    public void testTricklingBodyIsLimitedByDeadline() {
+        YHttpClient client =
+                new YHttpClient(
+                        transport,
+                        new HttpTimeouts(1000, 1000, 1000),
+                        YHttpClient.DEFAULT_MAX_BODY_SIZE);
+        Deadline deadline = Deadline.after(300, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        YHttpResponse<String> response =
+                client.requestGet(url + "/trickle", null, null, null, deadline);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(0, response.getStatusCode());
+        assertTrue(response.getStatusMessage().contains("Deadline exceeded."));
+        assertTrue("elapsed: " + elapsed, elapsed < 1000);
+    }
+
+    @Test
+    public void testHandlerFailureDoesNotDrainBody() {
+        YHttpClient client = new YHttpClient(transport);
+
+        long start = System.nanoTime();
+        try {
+            client.requestGet(
+                    url + "/trickle",
+                    null,
+                    null,
+                    (statusCode, headers, body, charset) -> {
+                        throw new IllegalStateException("handler failed");
+                    });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("handler failed", e.getMessage());
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 残りのボディ(約2秒)を読み切らずに接続を破棄する
+        assertTrue("elapsed: " + elapsed, elapsed < 1000);
+    }
+
+    @Test
+    public void testRequestIsNotSentAfterDeadline() {
+        YHttpClient client = new YHttpClient(transport);
+        Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+        YHttpResponse<String> response = client.requestGet(url + "/", null, null, null, deadline);
+
+        assertEquals(0, response.getStatusCode());
+        assertEquals("Deadline exceeded.", response.getStatusMessage());
+        assertEquals(0, requestCount.get());
+    }
+
+    @Test
+    public void testRequestGetWithHandler() {
+        YHttpClient client = new YHttpClient(transport);
+        YHttpResponse<JsonObject> response =
+                client.requestGet(url + "/", null, null, new JsonResponseHandler());
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(0, response.getBody().size());
+    }
+
+    @Test
+    public void testRequestHonorsResponseCharset() {
+        YHttpClient client = new YHttpClient(transport);
+        YHttpResponse<JsonObject> response =
+                client.requestGet(url + "/sjis", null, null, new JsonResponseHandler());
+
+        assertEquals("矢風太郎", response.getBody().getString("name"));
+        assertEquals("application/json; charset=Shift_JIS", response.getHeader("Content-type"));
+    }
+
+    @Test
+    public void testRequestFailsWhenContentLengthExceedsMaxBodySize() {
+        YHttpClient client = new YHttpClient(transport, null, 1024);
+        YHttpResponse<String> response = client.requestGet(url + "/large", null, null);
+
+        assertEquals(0, response.getStatusCode());
+        assertTrue(response.getStatusMessage().contains("exceeds"));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void testRequestFailsWhenChunkedBodyExceedsMaxBodySize() {
+        YHttpClient client = new YHttpClient(transport, null, 1024);
+        YHttpResponse<String> response = client.requestGet(url + "/chunked", null, null);
+
+        assertEquals(0, response.getStatusCode());
+        assertTrue(response.getStatusMessage().contains("exceeds"));
+    }
+
+    @Test
+    public void testRequestReadsBodyWithinMaxBodySize() {
+        YHttpClient client = new YHttpClient(transport, null, 2048);
+        YHttpResponse<String> response = client.requestGet(url + "/chunked", null, null);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(2048, response.getBody().length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsNonPositiveMaxBodySize() {
+        new YHttpClient(transport, null, 0);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class YHttpResponseTest {
+
+    @Test
+    public void testGetters() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("Cache-Control", "max-age=3600");
+
+        YHttpResponse<String> response = new YHttpResponse<>(200, "OK", headers, "{}");
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("OK", response.getStatusMessage());
+        assertEquals("max-age=3600", response.getHeader("Cache-Control"));
+        assertEquals("{}", response.getBody());
+    }
+
+    @Test
+    public void testHeadersAreCopied() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("Cache-Control", "max-age=3600");
+        YHttpResponse<String> response = new YHttpResponse<>(200, "OK", headers, "{}");
+
+        headers.put("Cache-Control", "no-store");
+        response.getHeaders().put("Cache-Control", "no-cache");
+
+        assertEquals("max-age=3600", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void testFailure() {
+        YHttpResponse<String> response = YHttpResponse.failure("Deadline exceeded.");
+
+        assertEquals(0, response.getStatusCode());
+        assertEquals("Deadline exceeded.", response.getStatusMessage());
+        assertEquals(0, response.getHeaders().size());
+        assertNull(response.getBody());
+    }
+}
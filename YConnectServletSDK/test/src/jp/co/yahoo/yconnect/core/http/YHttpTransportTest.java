@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Test;
+
+public class YHttpTransportTest {
+
+    @After
+    public void afterEach() {
+        YHttpClient.enableSSLCheck();
+        YHttpTransport.shutdownDefault();
+    }
+
+    @Test
+    public void testGetDefaultReturnsSharedInstance() {
+        YHttpTransport transport = YHttpTransport.getDefault();
+
+        assertSame(transport, YHttpTransport.getDefault());
+        assertTrue(transport.isSSLCheckEnabled());
+    }
+
+    @Test
+    public void testGetDefaultFollowsSSLCheckSetting() {
+        YHttpTransport checked = YHttpTransport.getDefault();
+
+        YHttpClient.disableSSLCheck();
+        YHttpTransport unchecked = YHttpTransport.getDefault();
+
+        assertNotSame(checked, unchecked);
+        assertFalse(unchecked.isSSLCheckEnabled());
+    }
+
+    @Test
+    public void testGetDefaultKeepsTransportPerSSLCheckSetting() {
+        YHttpTransport checked = YHttpTransport.getDefault();
+
+        YHttpClient.disableSSLCheck();
+        YHttpTransport unchecked = YHttpTransport.getDefault();
+        YHttpClient.enableSSLCheck();
+
+        // 切り替え前のトランスポートは閉じられず、再び使われる
+        assertSame(checked, YHttpTransport.getDefault());
+        YHttpClient.disableSSLCheck();
+        assertSame(unchecked, YHttpTransport.getDefault());
+    }
+
+    @Test
+    public void testConfigureDefault() {
+        YHttpTransport before = YHttpTransport.getDefault();
+
+        YHttpTransport.configureDefault(10, 5, 1000L);
+        YHttpTransport after = YHttpTransport.getDefault();
+
+        assertNotSame(before, after);
+        assertEquals(10, after.getConnectionManager().getMaxTotal());
+        assertEquals(5, after.getConnectionManager().getDefaultMaxPerRoute());
+
+        YHttpTransport.configureDefault(
+                YHttpTransport.DEFAULT_MAX_TOTAL,
+                YHttpTransport.DEFAULT_MAX_PER_ROUTE,
+                YHttpTransport.DEFAULT_KEEP_ALIVE);
+    }
+
+    @Test
+    public void testConfigureDefaultWithTimeouts() {
+        HttpTimeouts timeouts = new HttpTimeouts(100, 200, 300);
+
+        YHttpTransport.configureDefault(10, 5, 1000L, timeouts);
+        YHttpTransport transport = YHttpTransport.getDefault();
+
+        assertEquals(timeouts, transport.getTimeouts());
+        assertEquals(10, transport.getConnectionManager().getMaxTotal());
+
+        YHttpTransport.configureDefault(
+                YHttpTransport.DEFAULT_MAX_TOTAL,
+                YHttpTransport.DEFAULT_MAX_PER_ROUTE,
+                YHttpTransport.DEFAULT_KEEP_ALIVE,
+                HttpTimeouts.DEFAULT);
+    }
+
+    @Test
+    public void testConfigureDefaultKeepsReplacedTransportOpenUntilShutdown() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(body);
+                    out.close();
+                });
+        server.start();
+
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            YHttpClient client = new YHttpClient(YHttpTransport.getDefault());
+
+            // 置き換え前のトランスポートを使用しているリクエストは引き続き実行できる
+            YHttpTransport.configureDefault(10, 5, 1000L);
+            assertEquals(200, client.requestGet(url, null, null).getStatusCode());
+
+            YHttpTransport.shutdownDefault();
+            try {
+                client.requestGet(url, null, null);
+                fail();
+            } catch (IllegalStateException e) {
+                // 置き換えられたトランスポートもshutdownDefaultで閉じられる
+            }
+        } finally {
+            server.stop(0);
+            YHttpTransport.configureDefault(
+                    YHttpTransport.DEFAULT_MAX_TOTAL,
+                    YHttpTransport.DEFAULT_MAX_PER_ROUTE,
+                    YHttpTransport.DEFAULT_KEEP_ALIVE);
+        }
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        Set<Integer> remotePorts = new HashSet<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/",
+                exchange -> {
+                    synchronized (remotePorts) {
+                        remotePorts.add(exchange.getRemoteAddress().getPort());
+                    }
+                    byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(body);
+                    out.close();
+                });
+        server.start();
+
+        YHttpTransport transport = new YHttpTransport(true, 2, 2, 5000L);
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            YHttpClient client = new YHttpClient(transport);
+            for (int i = 0; i < 3; i++) {
+                YHttpResponse<String> response = client.requestGet(url, null, null);
+                assertEquals(200, response.getStatusCode());
+                assertEquals("{}", response.getBody());
+            }
+        } finally {
+            transport.close();
+            server.stop(0);
+        }
+
+        assertEquals(1, remotePorts.size());
+    }
+}
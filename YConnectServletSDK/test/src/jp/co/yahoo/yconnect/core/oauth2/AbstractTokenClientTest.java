@@ -26,15 +26,22 @@ package jp.co.yahoo.yconnect.core.oauth2;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 
 import java.io.StringReader;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import java.util.concurrent.TimeUnit;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
+import jp.co.yahoo.yconnect.util.StubResponse;
 import org.apache.commons.codec.binary.Base64;
 import org.junit.Test;
 
@@ -62,10 +69,13 @@ public class AbstractTokenClientTest {
                     protected YHttpClient getYHttpClient() {
                         return new YHttpClient() {
                             @Override
-                            public void requestPost(
+                            public <T> YHttpResponse<T> requestPost(
                                     String endpointUrl,
                                     HttpParameters parameters,
-                                    HttpHeaders requestHeaders) {
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline,
+                                    YHttpResponseHandler<T> handler) {
                                 assertEquals(
                                         "application/x-www-form-urlencoded;charset=UTF-8",
                                         requestHeaders.get("Content-Type"));
@@ -73,34 +83,90 @@ public class AbstractTokenClientTest {
                                 String basic =
                                         new String(Base64.encodeBase64(credential.getBytes()));
                                 assertEquals("Basic " + basic, requestHeaders.get("Authorization"));
+                                return StubResponse.handle(
+                                        handler,
+                                        200,
+                                        new HttpHeaders(),
+                                        "{\"access_token\":\""
+                                                + accessTokenSample
+                                                + "\", \"expires_in\":"
+                                                + expiresIn
+                                                + "}");
                             }
+                        };
+                    }
+                };
 
-                            @Override
-                            public HttpHeaders getResponseHeaders() {
-                                return new HttpHeaders();
-                            }
+        JsonObject result = client.request(new HttpParameters());
+
+        assertEquals(accessTokenSample, result.getString("access_token"));
+        assertEquals(expiresIn, result.getJsonNumber("expires_in").longValue());
+    }
 
+    @Test
+    public void testRequestPassesTimeoutsAndDeadline() throws Exception {
+        HttpTimeouts expectedTimeouts = new HttpTimeouts(100, 200, 300);
+        Deadline expectedDeadline = Deadline.after(1, TimeUnit.SECONDS);
+
+        AbstractTokenClient client =
+                new AbstractTokenClient(null, null, null) {
+                    @Override
+                    void fetch() throws TokenException {}
+
+                    @Override
+                    protected YHttpClient getYHttpClient() {
+                        return new YHttpClient() {
                             @Override
-                            public String getResponseBody() {
-                                return "{\"access_token\":\""
-                                        + accessTokenSample
-                                        + "\", \"expires_in\":"
-                                        + expiresIn
-                                        + "}";
+                            public <T> YHttpResponse<T> requestPost(
+                                    String endpointUrl,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline,
+                                    YHttpResponseHandler<T> handler) {
+                                assertSame(expectedTimeouts, timeouts);
+                                assertSame(expectedDeadline, deadline);
+                                return StubResponse.handle(handler, 200, new HttpHeaders(), "{}");
                             }
+                        };
+                    }
+                };
+        client.setTimeouts(expectedTimeouts);
+        client.setDeadline(expectedDeadline);
+
+        client.request(new HttpParameters());
+    }
 
+    @Test
+    public void testRequestThrowsTokenExceptionWhenNoResponse() {
+        AbstractTokenClient client =
+                new AbstractTokenClient(null, null, null) {
+                    @Override
+                    void fetch() throws TokenException {}
+
+                    @Override
+                    protected YHttpClient getYHttpClient() {
+                        return new YHttpClient() {
                             @Override
-                            public int getStatusCode() {
-                                return 200;
+                            public <T> YHttpResponse<T> requestPost(
+                                    String endpointUrl,
+                                    HttpParameters parameters,
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline,
+                                    YHttpResponseHandler<T> handler) {
+                                return YHttpResponse.failure(
+                                        "SocketTimeoutException: Read timed out");
                             }
                         };
                     }
                 };
 
-        JsonObject result = client.request(new HttpParameters());
-
-        assertEquals(accessTokenSample, result.getString("access_token"));
-        assertEquals(expiresIn, result.getJsonNumber("expires_in").longValue());
+        TokenException ex =
+                assertThrows(TokenException.class, () -> client.request(new HttpParameters()));
+        assertEquals("Failed Request.", ex.getError());
+        assertEquals("SocketTimeoutException: Read timed out", ex.getErrorDescription());
+        assertNull(ex.getErrorCode());
     }
 
     @Test
@@ -118,24 +184,18 @@ public class AbstractTokenClientTest {
                     protected YHttpClient getYHttpClient() {
                         return new YHttpClient() {
                             @Override
-                            public void requestPost(
+                            public <T> YHttpResponse<T> requestPost(
                                     String endpointUrl,
                                     HttpParameters parameters,
-                                    HttpHeaders requestHeaders) {}
-
-                            @Override
-                            public HttpHeaders getResponseHeaders() {
-                                return new HttpHeaders();
-                            }
-
-                            @Override
-                            public String getResponseBody() {
-                                return "{\"error\":\"sample_error\", \"error_description\":\"sample_error_description\"}";
-                            }
-
-                            @Override
-                            public int getStatusCode() {
-                                return 400;
+                                    HttpHeaders requestHeaders,
+                                    HttpTimeouts timeouts,
+                                    Deadline deadline,
+                                    YHttpResponseHandler<T> handler) {
+                                return StubResponse.handle(
+                                        handler,
+                                        400,
+                                        new HttpHeaders(),
+                                        "{\"error\":\"sample_error\", \"error_description\":\"sample_error_description\"}");
                             }
                         };
                     }
@@ -25,6 +25,8 @@
 package jp.co.yahoo.yconnect.core.oauth2;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -45,4 +47,31 @@ public class BearerTokenTest {
 
         assertEquals("access_token=" + accessToken, bearerToken.toQueryString());
     }
+
+    @Test
+    public void testExpiresAt() {
+        BearerToken bearerToken = new BearerToken(accessToken, 3600, null, null, 1000L);
+
+        assertEquals(1000L, bearerToken.getIssuedAt());
+        assertEquals(1000L + 3600000L, bearerToken.getExpiresAt());
+        assertFalse(bearerToken.isExpired(3600999L));
+        assertTrue(bearerToken.isExpired(3601000L));
+    }
+
+    @Test
+    public void testExpiresWithin() {
+        BearerToken bearerToken = new BearerToken(accessToken, 3600, null, null, 0L);
+
+        assertFalse(bearerToken.expiresWithin(300000L, 3299999L));
+        assertTrue(bearerToken.expiresWithin(300000L, 3300000L));
+    }
+
+    @Test
+    public void testIssuedAtDefaultsToNow() {
+        long before = System.currentTimeMillis();
+        BearerToken bearerToken = new BearerToken(accessToken, 3600);
+        long after = System.currentTimeMillis();
+
+        assertTrue(before <= bearerToken.getIssuedAt() && bearerToken.getIssuedAt() <= after);
+    }
 }
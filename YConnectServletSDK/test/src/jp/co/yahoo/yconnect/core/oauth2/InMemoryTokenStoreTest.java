@@ -0,0 +1,200 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class InMemoryTokenStoreTest {
+
+    private static class TestStore extends InMemoryTokenStore {
+
+        long now = 0L;
+
+        TestStore(int maxEntries, long ttl) {
+            super(maxEntries, ttl);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    private static StoredToken token(String accessToken) {
+        return new StoredToken(new BearerToken(accessToken, 3600L, "REFRESH_TOKEN", null, 0L));
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        StoredToken token = token("ACCESS_TOKEN");
+
+        store.save("session", token);
+
+        assertSame(token, store.load("session"));
+        assertNull(store.load("other"));
+    }
+
+    @Test
+    public void testSaveReplaces() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        store.save("session", token("OLD"));
+        store.save("session", token("NEW"));
+
+        assertEquals("NEW", store.load("session").getAccessToken());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testRemove() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        store.save("session", token("ACCESS_TOKEN"));
+
+        store.remove("session");
+
+        assertNull(store.load("session"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testExpiredAccessTokenIsStillLoaded() {
+        TestStore store = new TestStore(10, 10000000L);
+        store.save("session", token("ACCESS_TOKEN"));
+
+        store.now = 4000000L;
+
+        // Refresh Tokenを使うため、Access Tokenが有効期限切れでも保存期間内であれば返す
+        StoredToken loaded = store.load("session");
+        assertNotNull(loaded);
+        assertTrue(loaded.isExpired(store.now));
+        assertEquals("REFRESH_TOKEN", loaded.getRefreshToken());
+    }
+
+    @Test
+    public void testTtlEviction() {
+        TestStore store = new TestStore(10, 1000L);
+        store.save("session", token("ACCESS_TOKEN"));
+
+        store.now = 999L;
+        assertNotNull(store.load("session"));
+
+        store.now = 1000L;
+        assertNull(store.load("session"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testPurge() {
+        TestStore store = new TestStore(10, 1000L);
+        store.save("a", token("A"));
+        store.now = 500L;
+        store.save("b", token("B"));
+
+        store.now = 1200L;
+
+        assertEquals(1, store.purge());
+        assertEquals(1, store.size());
+        assertNotNull(store.load("b"));
+    }
+
+    @Test
+    public void testLruEviction() {
+        // 最大件数が1セグメントに収まる場合は厳密なLRUになる
+        InMemoryTokenStore store = new InMemoryTokenStore(1, 10000L);
+        store.save("a", token("A"));
+        store.save("b", token("B"));
+
+        assertNull(store.load("a"));
+        assertNotNull(store.load("b"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        InMemoryTokenStore store = new InMemoryTokenStore(100, 10000L);
+        for (int i = 0; i < 1000; i++) {
+            store.save("session" + i, token("ACCESS_TOKEN"));
+        }
+
+        assertTrue(store.size() <= 100);
+        assertNotNull(store.load("session999"));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final InMemoryTokenStore store = new InMemoryTokenStore(10000, 10000L);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final String prefix = "thread" + t + "-";
+                futures.add(
+                        executor.submit(
+                                new Callable<Boolean>() {
+                                    public Boolean call() {
+                                        for (int i = 0; i < 100; i++) {
+                                            String key = prefix + i;
+                                            store.save(key, token(key));
+                                            StoredToken loaded = store.load(key);
+                                            if (loaded == null
+                                                    || !key.equals(loaded.getAccessToken())) {
+                                                return false;
+                                            }
+                                        }
+                                        return true;
+                                    }
+                                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(800, store.size());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryTokenStore(0, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryTokenStore(10, 0L));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new InMemoryTokenStore().save(null, token("A")));
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.Test;
+
+public class JdbcTokenStoreTest {
+
+    /** token_keyをキーに、access_token, refresh_token, scope, expires_in, expires_at, evict_atを保持する */
+    private static class FakeDatabase {
+
+        final Map<String, Object[]> rows = new HashMap<>();
+
+        final List<String> executed = new ArrayList<>();
+
+        int openConnections = 0;
+
+        boolean failInsert = false;
+
+        DataSource dataSource() {
+            return proxy(
+                    DataSource.class,
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getConnection")) {
+                            openConnections++;
+                            return connection();
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private Connection connection() {
+            return proxy(
+                    Connection.class,
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "prepareStatement":
+                                return statement((String) args[0]);
+                            case "close":
+                                openConnections--;
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private PreparedStatement statement(String sql) {
+            Map<Integer, Object> params = new HashMap<>();
+            return proxy(
+                    PreparedStatement.class,
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "setString":
+                            case "setLong":
+                                params.put((Integer) args[0], args[1]);
+                                return null;
+                            case "executeUpdate":
+                                executed.add(sql);
+                                return executeUpdate(sql, params);
+                            case "executeQuery":
+                                executed.add(sql);
+                                return executeQuery(params);
+                            case "close":
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private int executeUpdate(String sql, Map<Integer, Object> params) throws SQLException {
+            if (sql.startsWith("UPDATE")) {
+                String key = (String) params.get(7);
+                if (!rows.containsKey(key)) {
+                    return 0;
+                }
+                rows.put(key, values(params));
+                return 1;
+            } else if (sql.startsWith("INSERT")) {
+                String key = (String) params.get(7);
+                if (failInsert || rows.containsKey(key)) {
+                    throw new SQLException("Duplicate key: " + key);
+                }
+                rows.put(key, values(params));
+                return 1;
+            } else if (sql.contains("WHERE token_key")) {
+                return rows.remove(params.get(1)) != null ? 1 : 0;
+            } else {
+                long now = (Long) params.get(1);
+                int count = 0;
+                for (Iterator<Object[]> it = rows.values().iterator(); it.hasNext(); ) {
+                    if ((Long) it.next()[5] <= now) {
+                        it.remove();
+                        count++;
+                    }
+                }
+                return count;
+            }
+        }
+
+        private ResultSet executeQuery(Map<Integer, Object> params) {
+            Object[] row = rows.get(params.get(1));
+            boolean[] found = {row != null && (Long) row[5] > (Long) params.get(2)};
+            return proxy(
+                    ResultSet.class,
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next":
+                                boolean next = found[0];
+                                found[0] = false;
+                                return next;
+                            case "getString":
+                            case "getLong":
+                                return row[(Integer) args[0] - 1];
+                            case "close":
+                                return null;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private static Object[] values(Map<Integer, Object> params) {
+            Object[] values = new Object[6];
+            for (int i = 0; i < 6; i++) {
+                values[i] = params.get(i + 1);
+            }
+            return values;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T)
+                    Proxy.newProxyInstance(
+                            JdbcTokenStoreTest.class.getClassLoader(),
+                            new Class<?>[] {type},
+                            handler);
+        }
+    }
+
+    private static class TestStore extends JdbcTokenStore {
+
+        long now = 0L;
+
+        TestStore(DataSource dataSource, long ttl) {
+            super(dataSource, "yconnect_token", ttl);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        FakeDatabase database = new FakeDatabase();
+        JdbcTokenStore store = new JdbcTokenStore(database.dataSource());
+        BearerToken bearerToken =
+                new BearerToken("ACCESS_TOKEN", 3600L, "REFRESH_TOKEN", "openid", 123456L);
+
+        store.save("session", new StoredToken(bearerToken));
+        StoredToken loaded = store.load("session");
+
+        assertEquals("ACCESS_TOKEN", loaded.getAccessToken());
+        assertEquals("REFRESH_TOKEN", loaded.getRefreshToken());
+        assertEquals("openid", loaded.getBearerToken().getScope());
+        assertEquals(3600L, loaded.getBearerToken().getExpiration());
+        assertEquals(123456L, loaded.getBearerToken().getIssuedAt());
+        assertEquals(123456L + 3600000L, loaded.getExpiresAt());
+        assertNull(store.load("other"));
+        assertEquals(0, database.openConnections);
+    }
+
+    @Test
+    public void testSaveUpdatesExistingRow() {
+        FakeDatabase database = new FakeDatabase();
+        JdbcTokenStore store = new JdbcTokenStore(database.dataSource());
+
+        store.save("session", new StoredToken(new BearerToken("OLD", 3600L)));
+        store.save("session", new StoredToken(new BearerToken("NEW", 3600L)));
+
+        assertEquals("NEW", store.load("session").getAccessToken());
+        assertEquals(1, database.rows.size());
+        assertTrue(database.executed.get(0).startsWith("UPDATE"));
+        assertTrue(database.executed.get(1).startsWith("INSERT"));
+        assertTrue(database.executed.get(2).startsWith("UPDATE"));
+        assertEquals(0, database.openConnections);
+    }
+
+    @Test
+    public void testTtl() {
+        FakeDatabase database = new FakeDatabase();
+        TestStore store = new TestStore(database.dataSource(), 1000L);
+        store.save("a", new StoredToken(new BearerToken("A", 3600L)));
+        store.now = 500L;
+        store.save("b", new StoredToken(new BearerToken("B", 3600L)));
+
+        store.now = 1000L;
+
+        assertNull(store.load("a"));
+        assertEquals("B", store.load("b").getAccessToken());
+        assertEquals(1, store.purge());
+        assertEquals(1, database.rows.size());
+    }
+
+    @Test
+    public void testRemove() {
+        FakeDatabase database = new FakeDatabase();
+        JdbcTokenStore store = new JdbcTokenStore(database.dataSource());
+        store.save("session", new StoredToken(new BearerToken("ACCESS_TOKEN", 3600L)));
+
+        store.remove("session");
+
+        assertNull(store.load("session"));
+        assertEquals(0, database.openConnections);
+    }
+
+    @Test
+    public void testSaveFailure() {
+        FakeDatabase database = new FakeDatabase();
+        database.failInsert = true;
+        JdbcTokenStore store = new JdbcTokenStore(database.dataSource());
+
+        TokenStoreException e =
+                assertThrows(
+                        TokenStoreException.class,
+                        () ->
+                                store.save(
+                                        "session",
+                                        new StoredToken(new BearerToken("A", 3600L))));
+
+        assertTrue(e.getCause() instanceof SQLException);
+        assertEquals(0, database.openConnections);
+    }
+
+    @Test
+    public void testInvalidTableName() {
+        DataSource dataSource = new FakeDatabase().dataSource();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new JdbcTokenStore(dataSource, "token; DROP TABLE users", 1000L));
+    }
+}
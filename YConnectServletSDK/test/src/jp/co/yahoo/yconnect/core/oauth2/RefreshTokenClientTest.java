@@ -25,10 +25,14 @@
 package jp.co.yahoo.yconnect.core.oauth2;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import java.io.StringReader;
 import javax.json.Json;
 import javax.json.JsonObject;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.json.JsonReader;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
 import org.junit.Test;
@@ -66,11 +70,16 @@ public class RefreshTokenClientTest {
                     }
                 };
 
+        long before = System.currentTimeMillis();
         client.fetch();
+        long after = System.currentTimeMillis();
 
         BearerToken token = client.getAccessToken();
         assertEquals(accessTokenSample, token.getAccessToken());
         assertEquals(expiresIn, token.getExpiration());
+        assertEquals(refreshToken, token.getRefreshToken());
+        assertTrue(before <= token.getIssuedAt() && token.getIssuedAt() <= after);
+        assertEquals(token.getIssuedAt() + expiresIn * 1000, token.getExpiresAt());
     }
 
     @Test(expected = TokenException.class)
@@ -89,4 +98,24 @@ public class RefreshTokenClientTest {
 
         client.fetch();
     }
+
+    @Test
+    public void testFetchAsyncThrowsTokenException() throws Exception {
+        RefreshTokenClient client =
+                new RefreshTokenClient(
+                        "https://example.co.jp",
+                        "sample_refresh_token",
+                        "sample_client_id",
+                        "sample_client_secret") {
+                    @Override
+                    protected JsonObject request(HttpParameters parameters) throws TokenException {
+                        throw new TokenException("error_sample", "error_description_sample", 1000);
+                    }
+                };
+
+        Future<BearerToken> future = client.fetchAsync();
+        ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertTrue(ex.getCause() instanceof TokenException);
+        assertEquals("error_sample", ((TokenException) ex.getCause()).getError());
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class RefreshTokenCoordinatorTest {
+
+    private static class TestCoordinator extends RefreshTokenCoordinator {
+
+        volatile long now = 0L;
+
+        TestCoordinator(long resultTtl) {
+            super(resultTtl);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    private static class CountingClient extends RefreshTokenClient {
+
+        final AtomicInteger fetchCount;
+
+        final CountDownLatch release;
+
+        volatile TokenException error = null;
+
+        private BearerToken bearerToken;
+
+        CountingClient(String refreshToken, AtomicInteger fetchCount, CountDownLatch release) {
+            super(
+                    "https://example.co.jp",
+                    refreshToken,
+                    "sample_client_id",
+                    "sample_client_secret");
+            this.fetchCount = fetchCount;
+            this.release = release;
+        }
+
+        @Override
+        public void fetch() throws TokenException {
+            int count = fetchCount.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null) {
+                throw error;
+            }
+            bearerToken = new BearerToken("ACCESS_TOKEN_" + count, 3600L, getRefreshToken());
+        }
+
+        @Override
+        public BearerToken getAccessToken() {
+            return bearerToken;
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneRequest() throws Exception {
+        RefreshTokenCoordinator coordinator = new RefreshTokenCoordinator();
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BearerToken>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                CountingClient client = new CountingClient("REFRESH_TOKEN", fetchCount, release);
+                futures.add(executor.submit(() -> coordinator.refresh(client)));
+            }
+            // 全員が実行中の更新を待つまで待機してからリクエストを完了させる
+            Thread.sleep(200);
+            release.countDown();
+
+            BearerToken first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<BearerToken> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, fetchCount.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testResultIsReusedUntilTtlExpires() throws Exception {
+        TestCoordinator coordinator = new TestCoordinator(1000L);
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(0);
+
+        BearerToken first =
+                coordinator.refresh(new CountingClient("REFRESH_TOKEN", fetchCount, release));
+        coordinator.now = 999L;
+        BearerToken second =
+                coordinator.refresh(new CountingClient("REFRESH_TOKEN", fetchCount, release));
+        coordinator.now = 1000L;
+        BearerToken third =
+                coordinator.refresh(new CountingClient("REFRESH_TOKEN", fetchCount, release));
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    public void testDifferentRefreshTokensAreNotShared() throws Exception {
+        RefreshTokenCoordinator coordinator = new RefreshTokenCoordinator();
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(0);
+
+        coordinator.refresh(new CountingClient("REFRESH_TOKEN_A", fetchCount, release));
+        coordinator.refresh(new CountingClient("REFRESH_TOKEN_B", fetchCount, release));
+
+        assertEquals(2, fetchCount.get());
+        assertEquals(2, coordinator.size());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        RefreshTokenCoordinator coordinator = new RefreshTokenCoordinator();
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(0);
+        CountingClient failing = new CountingClient("REFRESH_TOKEN", fetchCount, release);
+        failing.error = new TokenException("invalid_grant", "expired", 400);
+
+        TokenException e = assertThrows(TokenException.class, () -> coordinator.refresh(failing));
+        assertEquals("invalid_grant", e.getError());
+        assertEquals(0, coordinator.size());
+
+        BearerToken bearerToken =
+                coordinator.refresh(new CountingClient("REFRESH_TOKEN", fetchCount, release));
+        assertEquals("ACCESS_TOKEN_2", bearerToken.getAccessToken());
+    }
+
+    @Test
+    public void testErrorIsNotCachedAndWaitersFail() throws Exception {
+        RefreshTokenCoordinator coordinator = new RefreshTokenCoordinator();
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountingClient failing =
+                new CountingClient("REFRESH_TOKEN", fetchCount, release) {
+                    @Override
+                    public void fetch() throws TokenException {
+                        super.fetch();
+                        throw new AssertionError("fetch failed");
+                    }
+                };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BearerToken> leader = executor.submit(() -> coordinator.refresh(failing));
+            Thread.sleep(100);
+            Future<BearerToken> waiter =
+                    executor.submit(
+                            () ->
+                                    coordinator.refresh(
+                                            new CountingClient(
+                                                    "REFRESH_TOKEN", fetchCount, release)));
+            Thread.sleep(100);
+            release.countDown();
+
+            try {
+                leader.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+            try {
+                waiter.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertEquals("refresh_incomplete", ((TokenException) e.getCause()).getError());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, coordinator.size());
+
+        BearerToken bearerToken =
+                coordinator.refresh(new CountingClient("REFRESH_TOKEN", fetchCount, release));
+        assertEquals("ACCESS_TOKEN_2", bearerToken.getAccessToken());
+    }
+
+    @Test
+    public void testStaleResultsAreRemoved() throws Exception {
+        TestCoordinator coordinator = new TestCoordinator(1000L);
+        AtomicInteger fetchCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(0);
+        coordinator.refresh(new CountingClient("REFRESH_TOKEN_A", fetchCount, release));
+
+        coordinator.now = 2000L;
+        coordinator.refresh(new CountingClient("REFRESH_TOKEN_B", fetchCount, release));
+
+        assertEquals(1, coordinator.size());
+    }
+}
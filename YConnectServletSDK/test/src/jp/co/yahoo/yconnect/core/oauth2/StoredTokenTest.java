@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StoredTokenTest {
+
+    @Test
+    public void testGetters() {
+        BearerToken bearerToken =
+                new BearerToken("ACCESS_TOKEN", 3600L, "REFRESH_TOKEN", null, 1000000L);
+
+        StoredToken storedToken = new StoredToken(bearerToken);
+
+        assertSame(bearerToken, storedToken.getBearerToken());
+        assertEquals("ACCESS_TOKEN", storedToken.getAccessToken());
+        assertEquals("REFRESH_TOKEN", storedToken.getRefreshToken());
+        assertEquals(1000000L + 3600000L, storedToken.getExpiresAt());
+    }
+
+    @Test
+    public void testIsExpired() {
+        StoredToken storedToken =
+                new StoredToken(new BearerToken("ACCESS_TOKEN", 5L, null, null, 0L));
+
+        assertFalse(storedToken.isExpired(4999L));
+        assertTrue(storedToken.isExpired(5000L));
+    }
+
+    @Test
+    public void testNullBearerToken() {
+        assertThrows(IllegalArgumentException.class, () -> new StoredToken(null));
+    }
+}
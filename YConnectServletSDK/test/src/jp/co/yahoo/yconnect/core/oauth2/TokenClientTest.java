@@ -30,6 +30,8 @@ import java.io.StringReader;
 import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
 import org.junit.Test;
 
@@ -133,6 +135,46 @@ public class TokenClientTest {
         assertEquals(idToken, client.getIdToken());
     }
 
+    @Test
+    public void testFetchAsync() throws Exception {
+        String json =
+                "{\"access_token\":\""
+                        + accessTokenSample
+                        + "\", \"expires_in\":"
+                        + expiresIn
+                        + ", \"refresh_token\":\""
+                        + refreshToken
+                        + "\", \"id_token\":\""
+                        + idToken
+                        + "\"}";
+        JsonReader jsonReader = Json.createReader(new StringReader(json));
+        JsonObject jsonObject = jsonReader.readObject();
+        jsonReader.close();
+
+        TokenClient client =
+                new TokenClient(
+                        "https://example.co.jp",
+                        authorizationCode,
+                        redirectUri,
+                        clientId,
+                        clientSecret) {
+                    @Override
+                    protected JsonObject request(HttpParameters parameters) {
+                        return jsonObject;
+                    }
+                };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BearerToken token = client.fetchAsync(executor).get();
+            assertEquals(accessTokenSample, token.getAccessToken());
+            assertEquals(refreshToken, token.getRefreshToken());
+            assertEquals(idToken, client.getIdToken());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test(expected = TokenException.class)
     public void testFetchThrowsTokenException() throws Exception {
         RefreshTokenClient client =
@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.json.Json;
+import javax.json.JsonObject;
+import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.util.YConnectExecutors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TokenRefreshSchedulerTest {
+
+    private static final String KEY = "session";
+
+    private ScheduledExecutorService executor;
+
+    private InMemoryTokenStore store;
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    private final CountDownLatch fetched = new CountDownLatch(1);
+
+    private volatile TokenException fetchError = null;
+
+    @Before
+    public void setUp() {
+        executor = YConnectExecutors.newScheduledExecutor(1);
+        store = new InMemoryTokenStore();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private TokenRefreshScheduler newScheduler(long refreshWindow, long jitter) {
+        return new TokenRefreshScheduler(
+                store,
+                "https://example.co.jp",
+                "sample_client_id",
+                "sample_client_secret",
+                refreshWindow,
+                jitter,
+                executor) {
+            private final RefreshTokenCoordinator coordinator = new RefreshTokenCoordinator();
+
+            @Override
+            protected RefreshTokenCoordinator getRefreshTokenCoordinator() {
+                return coordinator;
+            }
+
+            @Override
+            protected RefreshTokenClient getRefreshTokenClient(String refreshToken) {
+                return new RefreshTokenClient(
+                        "https://example.co.jp",
+                        refreshToken,
+                        "sample_client_id",
+                        "sample_client_secret") {
+                    @Override
+                    protected JsonObject request(HttpParameters parameters)
+                            throws TokenException {
+                        fetchCount.incrementAndGet();
+                        fetched.countDown();
+                        if (fetchError != null) {
+                            throw fetchError;
+                        }
+                        return Json.createObjectBuilder()
+                                .add("access_token", "NEW_ACCESS_TOKEN")
+                                .add("expires_in", 3600)
+                                .build();
+                    }
+                };
+            }
+        };
+    }
+
+    private void saveToken(long expiresIn, long issuedAt) {
+        BearerToken bearerToken =
+                new BearerToken("ACCESS_TOKEN", expiresIn, "REFRESH_TOKEN", null, issuedAt);
+        store.save(KEY, new StoredToken(bearerToken));
+    }
+
+    @Test
+    public void testComputeDelay() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+
+        assertEquals(3300000L, scheduler.computeDelay(3600000L, 0L));
+        assertEquals(0L, scheduler.computeDelay(3600000L, 3400000L));
+    }
+
+    @Test
+    public void testComputeDelayWithJitter() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 1000L);
+
+        for (int i = 0; i < 100; i++) {
+            long delay = scheduler.computeDelay(3600000L, 0L);
+            assertTrue(delay > 3299000L && delay <= 3300000L);
+        }
+    }
+
+    @Test
+    public void testRefreshBeforeExpiry() throws Exception {
+        TokenRefreshScheduler scheduler = newScheduler(900L, 0L);
+        saveToken(1L, System.currentTimeMillis());
+
+        assertTrue(scheduler.schedule(KEY));
+        assertTrue(fetched.await(5, TimeUnit.SECONDS));
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!"NEW_ACCESS_TOKEN".equals(store.load(KEY).getAccessToken())) {
+            assertTrue(System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+        assertEquals("REFRESH_TOKEN", store.load(KEY).getRefreshToken());
+        // 更新したトークンの次の更新が予約される
+        assertEquals(1, scheduler.getScheduledCount());
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void testRefreshKeepsScope() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        BearerToken bearerToken =
+                new BearerToken(
+                        "ACCESS_TOKEN",
+                        1L,
+                        "REFRESH_TOKEN",
+                        "openid profile",
+                        System.currentTimeMillis());
+        store.save(KEY, new StoredToken(bearerToken));
+
+        scheduler.refresh(KEY);
+
+        StoredToken refreshed = store.load(KEY);
+        assertEquals("NEW_ACCESS_TOKEN", refreshed.getAccessToken());
+        assertEquals("REFRESH_TOKEN", refreshed.getRefreshToken());
+        assertEquals("openid profile", refreshed.getBearerToken().getScope());
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void testScheduleWithoutToken() {
+        TokenRefreshScheduler scheduler = newScheduler(900L, 0L);
+
+        assertFalse(scheduler.schedule(KEY));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testRefreshSkipsTokenAlreadyRefreshed() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        saveToken(3600L, System.currentTimeMillis());
+
+        scheduler.refresh(KEY);
+
+        assertEquals(0, fetchCount.get());
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testInvalidGrantRemovesToken() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        saveToken(60L, System.currentTimeMillis());
+        fetchError = new TokenException("invalid_grant", "expired refresh token", 400);
+
+        scheduler.refresh(KEY);
+
+        assertEquals(1, fetchCount.get());
+        assertNull(store.load(KEY));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testFailureIsRetried() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        saveToken(60L, System.currentTimeMillis());
+        fetchError = new TokenException("server_error", "temporarily unavailable", 500);
+
+        scheduler.refresh(KEY);
+
+        assertEquals(1, fetchCount.get());
+        assertNotNull(store.load(KEY));
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testCancel() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        saveToken(3600L, System.currentTimeMillis());
+        scheduler.schedule(KEY);
+
+        scheduler.cancel(KEY);
+
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testShutdownDoesNotStopSharedExecutor() {
+        TokenRefreshScheduler scheduler = newScheduler(300000L, 0L);
+        saveToken(3600L, System.currentTimeMillis());
+        scheduler.schedule(KEY);
+
+        scheduler.shutdown();
+
+        assertEquals(0, scheduler.getScheduledCount());
+        assertFalse(executor.isShutdown());
+    }
+}
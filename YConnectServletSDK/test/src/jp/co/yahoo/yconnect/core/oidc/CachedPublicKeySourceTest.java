@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * CachedPublicKeySource Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class CachedPublicKeySourceTest {
+
+    private static final String ENDPOINT = "https://auth.login.yahoo.co.jp/yconnect/v2/public-keys";
+
+    private String publicKey;
+
+    @Before
+    public void beforeEach() throws Exception {
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.setAud(new ArrayList<>(Collections.singletonList("APPLICATION_ID")));
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        publicKey =
+                Base64.getEncoder()
+                        .withoutPadding()
+                        .encodeToString(generator.getPublicKey().getEncoded());
+    }
+
+    @Test
+    public void testGetPublicKeyUsesCache() throws Exception {
+        CountingSource source = new CountingSource(new PublicKeysCache(), "sample_kid");
+
+        assertNotNull(source.getPublicKey("sample_kid"));
+        assertNotNull(source.getPublicKey("sample_kid"));
+
+        assertEquals(1, source.fetchCount);
+    }
+
+    @Test
+    public void testGetPublicKeyRefetchesWhenKidNotFound() throws Exception {
+        PublicKeysCache cache = new PublicKeysCache(0, PublicKeysCache.DEFAULT_MAX_TTL);
+        CountingSource source = new CountingSource(cache, "old_kid");
+        assertNotNull(source.getPublicKey("old_kid"));
+
+        source.kid = "new_kid";
+        assertNotNull(source.getPublicKey("new_kid"));
+
+        assertEquals(2, source.fetchCount);
+        assertEquals(1, cache.getRefreshCount());
+    }
+
+    @Test
+    public void testGetPublicKeyReturnsNullWhenKidNotFound() throws Exception {
+        CountingSource source =
+                new CountingSource(
+                        new PublicKeysCache(0, PublicKeysCache.DEFAULT_MAX_TTL), "sample_kid");
+
+        assertNull(source.getPublicKey("unknown_kid"));
+        assertEquals(2, source.fetchCount);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsNull() {
+        new CachedPublicKeySource(new PublicKeysCache(), null);
+    }
+
+    private class CountingSource extends CachedPublicKeySource {
+
+        private String kid;
+
+        private int fetchCount = 0;
+
+        CountingSource(PublicKeysCache cache, String kid) {
+            super(cache, ENDPOINT);
+            this.kid = kid;
+        }
+
+        @Override
+        protected PublicKeysClient newPublicKeysClient() {
+            return new PublicKeysClient() {
+                private PublicKeysObject publicKeysObject;
+
+                @Override
+                public void fetchResource(String url) {
+                    fetchCount++;
+                    publicKeysObject = new PublicKeysObject();
+                    publicKeysObject.register(kid, publicKey);
+                }
+
+                @Override
+                public PublicKeysObject getPublicKeysObject() {
+                    return publicKeysObject;
+                }
+
+                @Override
+                public HttpHeaders getResponseHeaders() {
+                    return new HttpHeaders();
+                }
+            };
+        }
+    }
+}
@@ -25,10 +25,16 @@
 package jp.co.yahoo.yconnect.core.oidc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.zip.DataFormatException;
+import javax.json.stream.JsonParsingException;
 import jp.co.yahoo.yconnect.util.IdTokenGenerator;
 import org.junit.Test;
 
@@ -87,6 +93,76 @@ public class IdTokenDecoderTest {
         assertEquals(signature, idTokenObject.getSignature());
     }
 
+    @Test
+    public void testDecodeWithoutOptionalClaims() throws Exception {
+        String idTokenString =
+                toIdTokenString(
+                        "{\"typ\":\"JWT\",\"alg\":\"RS256\",\"kid\":\"sample_kid\"}",
+                        "{\"iss\":\"https://auth.login.yahoo.co.jp/yconnect/v2\","
+                                + "\"sub\":\"USER_PPID\",\"aud\":\"APPLICATION_ID\","
+                                + "\"exp\":1411647139,\"iat\":1410437540,\"nonce\":\"abcdefg\"}");
+
+        IdTokenObject idTokenObject = new IdTokenDecoder(idTokenString).decode();
+
+        assertNull(idTokenObject.getPpidSub());
+        assertNull(idTokenObject.getAtHash());
+        assertEquals(0, idTokenObject.getAuthTime());
+        assertEquals(Collections.singletonList("APPLICATION_ID"), idTokenObject.getAud());
+        assertEquals(1411647139, idTokenObject.getExp());
+    }
+
+    @Test
+    public void testDecodeSkipsUnknownClaims() throws Exception {
+        String idTokenString =
+                toIdTokenString(
+                        "{\"typ\":\"JWT\",\"x5c\":[\"a\",{\"b\":[1]}],"
+                                + "\"alg\":\"RS256\",\"kid\":\"sample_kid\"}",
+                        "{\"iss\":\"https://auth.login.yahoo.co.jp/yconnect/v2\","
+                                + "\"amr\":[\"pwd\",\"otp\"],\"address\":{\"country\":\"jp\"},"
+                                + "\"sub\":\"USER_PPID\",\"ppid_sub\":\"PPID_SUB\","
+                                + "\"aud\":[\"APPLICATION_ID\",\"OTHER_ID\"],\"exp\":1411647139,"
+                                + "\"iat\":1410437540,\"auth_time\":1410437541,\"acr\":null,"
+                                + "\"nonce\":\"abcdefg\",\"at_hash\":\"at_abcde\"}");
+
+        IdTokenObject idTokenObject = new IdTokenDecoder(idTokenString).decode();
+
+        assertEquals("sample_kid", idTokenObject.getKid());
+        assertEquals("PPID_SUB", idTokenObject.getPpidSub());
+        assertEquals(Arrays.asList("APPLICATION_ID", "OTHER_ID"), idTokenObject.getAud());
+        assertEquals(1410437541, idTokenObject.getAuthTime());
+        assertEquals("abcdefg", idTokenObject.getNonce());
+        assertEquals("at_abcde", idTokenObject.getAtHash());
+
+        JsonClaims claims = idTokenObject.getClaims();
+        assertEquals(Arrays.asList("pwd", "otp"), claims.getStringList("amr"));
+        assertEquals("jp", claims.getObject("address").getString("country"));
+        assertTrue(claims.contains("acr"));
+        assertNull(claims.getString("acr"));
+        assertNull(claims.get("custom"));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testDecodeMissingRequiredClaim() throws Exception {
+        String idTokenString =
+                toIdTokenString(
+                        "{\"typ\":\"JWT\",\"alg\":\"RS256\",\"kid\":\"sample_kid\"}",
+                        "{\"iss\":\"https://auth.login.yahoo.co.jp/yconnect/v2\","
+                                + "\"sub\":\"USER_PPID\",\"aud\":[\"APPLICATION_ID\"],"
+                                + "\"iat\":1410437540,\"nonce\":\"abcdefg\"}");
+
+        new IdTokenDecoder(idTokenString).decode();
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testDecodeInvalidJson() throws Exception {
+        String idTokenString =
+                toIdTokenString(
+                        "{\"typ\":\"JWT\",\"alg\":\"RS256\",\"kid\":\"sample_kid\"}",
+                        "{\"iss\":");
+
+        new IdTokenDecoder(idTokenString).decode();
+    }
+
     @Test(expected = DataFormatException.class)
     public void testSplitArrayIndexOutOfBoundsException() throws DataFormatException {
         String idTokenString = "";
@@ -99,4 +175,12 @@ public class IdTokenDecoderTest {
         IdTokenDecoder idTokenDecoder = new IdTokenDecoder(null);
         idTokenDecoder.decode();
     }
+
+    private static String toIdTokenString(String header, String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
 }
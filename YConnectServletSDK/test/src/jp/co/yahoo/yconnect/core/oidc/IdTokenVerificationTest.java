@@ -418,6 +418,25 @@ public class IdTokenVerificationTest {
         assertEquals(idTokenVer.getErrorDescriptionMessage(), "Signature verification failed.");
     }
 
+    @Test
+    public void testCheckClaimsSkipsSignature() {
+        IdTokenVerification idTokenVer = new IdTokenVerificationCurrentTimeTest(iat);
+
+        assertTrue(idTokenVer.checkClaims(iss, nonce, clientId, idTokenObject, accessToken));
+    }
+
+    @Test
+    public void testCheckClaimsReevaluatesNonceAndTime() {
+        IdTokenVerification idTokenVer = new IdTokenVerificationCurrentTimeTest(iat);
+        assertFalse(
+                idTokenVer.checkClaims(iss, "other_nonce", clientId, idTokenObject, accessToken));
+        assertEquals("not_match_nonce", idTokenVer.getErrorMessage());
+
+        idTokenVer = new IdTokenVerificationCurrentTimeTest(1411647140);
+        assertFalse(idTokenVer.checkClaims(iss, nonce, clientId, idTokenObject, accessToken));
+        assertEquals("expired_id_token", idTokenVer.getErrorMessage());
+    }
+
     public static class IdTokenVerificationCurrentTimeTest extends IdTokenVerification {
         private final long currentTime;
 
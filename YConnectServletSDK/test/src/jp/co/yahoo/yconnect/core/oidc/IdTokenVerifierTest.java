@@ -0,0 +1,312 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jp.co.yahoo.yconnect.util.IdTokenGenerator;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * IdTokenVerifier Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class IdTokenVerifierTest {
+
+    // 正常系パラメーター値
+    private final String iss = "https://auth.login.yahoo.co.jp/yconnect/v2";
+    private final long iat = 1410437540;
+    private final String nonce = "abcdefg";
+    private final String clientId = "APPLICATION_ID";
+    private final String kid = "sample_kid";
+
+    private final String accessToken = "access_token";
+
+    private final IdTokenObject idTokenObject = new IdTokenObject();
+
+    @Before
+    public void beforeEach() {
+        idTokenObject.setType("JWT");
+        idTokenObject.setAlgorithm("RS256");
+        idTokenObject.setKid(kid);
+        idTokenObject.setSub("USER_PPID");
+        idTokenObject.setIss(iss);
+        idTokenObject.setAud(new ArrayList<>(Collections.singletonList(clientId)));
+        idTokenObject.setExp(1411647139);
+        idTokenObject.setIat(iat);
+        idTokenObject.setAuthTime(1410437541);
+        idTokenObject.setNonce(nonce);
+        idTokenObject.setAtHash(generateHash(accessToken));
+    }
+
+    @Test
+    public void testVerifyReturnsSuccess() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        ParsedJWT parsedJWT = ParsedJWT.parse(generator.getIdTokenString());
+        IdTokenVerifier verifier = newVerifier(iat, toPublicKeysObject(generator));
+
+        IdTokenVerificationResult result =
+                verifier.verify(parsedJWT, idTokenObject, nonce, accessToken);
+
+        assertTrue(result.isValid());
+        assertSame(IdTokenVerificationResult.success(), result);
+        assertEquals("", result.getError());
+    }
+
+    @Test
+    public void testVerifyReturnsInvalidSignature() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        ParsedJWT parsedJWT = ParsedJWT.parse(generator.getInvalidIdTokenString());
+        IdTokenVerifier verifier = newVerifier(iat, toPublicKeysObject(generator));
+
+        IdTokenVerificationResult result =
+                verifier.verify(parsedJWT, idTokenObject, nonce, accessToken);
+
+        assertFalse(result.isValid());
+        assertEquals("invalid_signature", result.getError());
+        assertEquals("Signature verification failed.", result.getErrorDescription());
+    }
+
+    @Test
+    public void testVerifyReturnsPublicKeyNotFound() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        ParsedJWT parsedJWT = ParsedJWT.parse(generator.getIdTokenString());
+        IdTokenVerifier verifier = newVerifier(iat, null);
+
+        IdTokenVerificationResult result =
+                verifier.verify(
+                        parsedJWT,
+                        idTokenObject,
+                        nonce,
+                        accessToken,
+                        new PublicKeysObject().asPublicKeySource());
+
+        assertEquals(IdTokenVerifier.PUBLIC_KEY_NOT_FOUND, result.getError());
+    }
+
+    @Test
+    public void testVerifyReturnsUnexpectedErrorForInvalidPublicKey() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        ParsedJWT parsedJWT = ParsedJWT.parse(generator.getIdTokenString());
+        PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register(kid, "INVALID_PUBLIC_KEY");
+        IdTokenVerifier verifier = newVerifier(iat, publicKeysObject);
+
+        IdTokenVerificationResult result =
+                verifier.verify(parsedJWT, idTokenObject, nonce, accessToken);
+
+        assertEquals("unexpected_error", result.getError());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testVerifyThrowsWithoutPublicKeySource() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        ParsedJWT parsedJWT = ParsedJWT.parse(generator.getIdTokenString());
+
+        newVerifier(iat, null).verify(parsedJWT, idTokenObject, nonce, accessToken);
+    }
+
+    @Test
+    public void testVerifyClaimsReturnsErrors() {
+        IdTokenVerifier verifier = newVerifier(iat, null);
+
+        assertTrue(verifier.verifyClaims(idTokenObject, nonce, accessToken).isValid());
+        assertEquals(
+                "not_match_nonce",
+                verifier.verifyClaims(idTokenObject, "other_nonce", accessToken).getError());
+        assertEquals(
+                "invalid_at_hash",
+                verifier.verifyClaims(idTokenObject, nonce, "INVALID_ACCESS_TOKEN").getError());
+        assertEquals(
+                "expired_id_token",
+                newVerifier(1411647140, null)
+                        .verifyClaims(idTokenObject, nonce, accessToken)
+                        .getError());
+        assertEquals(
+                "over_acceptable_range",
+                newVerifier(iat + IdTokenVerifier.ACCEPTABLE_RANGE + 1, null)
+                        .verifyClaims(idTokenObject, nonce, accessToken)
+                        .getError());
+    }
+
+    @Test
+    public void testVerifyClaimsChecksConfiguredIssuerAndAudience() {
+        IdTokenVerifier otherIssuer =
+                new TestVerifier("https://example.com", clientId, 0, iat, null);
+        assertEquals(
+                "invalid_issuer",
+                otherIssuer.verifyClaims(idTokenObject, nonce, accessToken).getError());
+
+        IdTokenVerifier otherClient = new TestVerifier(iss, "OTHER_ID", 0, iat, null);
+        assertEquals(
+                "invalid_audience",
+                otherClient.verifyClaims(idTokenObject, nonce, accessToken).getError());
+    }
+
+    @Test
+    public void testVerifyClaimsAllowsClockSkew() {
+        long expiredAt = idTokenObject.getExp() + 30;
+
+        assertEquals(
+                "expired_id_token",
+                new TestVerifier(iss, clientId, 0, expiredAt, null)
+                        .verifyClaims(idTokenObject, nonce, accessToken)
+                        .getError());
+        idTokenObject.setIat(expiredAt - IdTokenVerifier.ACCEPTABLE_RANGE);
+        assertTrue(
+                new TestVerifier(iss, clientId, 60, expiredAt, null)
+                        .verifyClaims(idTokenObject, nonce, accessToken)
+                        .isValid());
+    }
+
+    @Test
+    public void testConstructorRejectsUnsupportedAlgorithm() {
+        try {
+            new IdTokenVerifier(
+                    iss, clientId, 0, new HashSet<>(Arrays.asList("RS256", "HS256")), null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new IdTokenVerifier(iss, clientId, -1, Collections.singleton("RS256"), null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDefaults() {
+        IdTokenVerifier verifier = new IdTokenVerifier(clientId, null);
+
+        assertEquals(IdTokenVerifier.DEFAULT_ISSUER, verifier.getIssuer());
+        assertEquals(clientId, verifier.getClientId());
+        assertEquals(IdTokenVerifier.DEFAULT_CLOCK_SKEW, verifier.getClockSkew());
+        assertEquals(Collections.singleton("RS256"), verifier.getAcceptedAlgorithms());
+    }
+
+    @Test
+    public void testVerifyIsThreadSafe() throws Exception {
+        IdTokenGenerator generator = new IdTokenGenerator(idTokenObject);
+        final ParsedJWT parsedJWT = ParsedJWT.parse(generator.getIdTokenString());
+        final IdTokenVerifier verifier = newVerifier(iat, toPublicKeysObject(generator));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdTokenVerificationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final String requestNonce = i % 2 == 0 ? nonce : "other_nonce";
+                Callable<IdTokenVerificationResult> task =
+                        () -> verifier.verify(parsedJWT, idTokenObject, requestNonce, accessToken);
+                futures.add(executor.submit(task));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                IdTokenVerificationResult result = futures.get(i).get();
+                if (i % 2 == 0) {
+                    assertTrue(result.isValid());
+                } else {
+                    assertEquals("not_match_nonce", result.getError());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureResult() {
+        IdTokenVerificationResult result =
+                IdTokenVerificationResult.failure("invalid_type", "The type is not JWT.");
+
+        assertFalse(result.isValid());
+        assertEquals("invalid_type", result.getError());
+        assertEquals("The type is not JWT.", result.getErrorDescription());
+    }
+
+    private IdTokenVerifier newVerifier(long currentTime, PublicKeysObject publicKeysObject) {
+        return new TestVerifier(
+                iss,
+                clientId,
+                IdTokenVerifier.DEFAULT_CLOCK_SKEW,
+                currentTime,
+                publicKeysObject != null ? publicKeysObject.asPublicKeySource() : null);
+    }
+
+    private PublicKeysObject toPublicKeysObject(IdTokenGenerator generator) {
+        PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register(
+                kid,
+                Base64.getEncoder()
+                        .withoutPadding()
+                        .encodeToString(generator.getPublicKey().getEncoded()));
+        return publicKeysObject;
+    }
+
+    private String generateHash(String data) {
+        byte[] hash = DigestUtils.sha256(data.getBytes(StandardCharsets.UTF_8));
+        byte[] halfOfHash = Arrays.copyOfRange(hash, 0, hash.length / 2);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(halfOfHash);
+    }
+
+    private static class TestVerifier extends IdTokenVerifier {
+
+        private final long currentTime;
+
+        TestVerifier(
+                String issuer,
+                String clientId,
+                long clockSkew,
+                long currentTime,
+                PublicKeySource publicKeySource) {
+            super(issuer, clientId, clockSkew, Collections.singleton("RS256"), publicKeySource);
+            this.currentTime = currentTime;
+        }
+
+        @Override
+        protected long getCurrentTime() {
+            return currentTime;
+        }
+    }
+}
@@ -83,6 +83,14 @@ public class JWTVerificationTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testSuccessWithParsedJWT() throws Exception {
+        String idTokenString = base64Header + "." + base64Payload + "." + base64Signature;
+        JWTVerification verifier = JWTVerification.of(publicKey, ParsedJWT.parse(idTokenString));
+        boolean result = verifier.verifyJWT();
+        assertTrue(result);
+    }
+
     @Test(expected = JsonParsingException.class)
     public void testInvalidHeader() throws Exception {
         String header = "{\"typ\": \"JWT\", \"alg\": \"RS256\", \"kid\": \"sample-kid\"";
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import org.junit.Test;
+
+/**
+ * JsonClaims Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class JsonClaimsTest {
+
+    @Test
+    public void testTypedGetters() {
+        JsonClaims claims =
+                read(
+                        "{\"acr\":\"1\",\"amr\":[\"pwd\",\"otp\"],\"auth_time\":1410437541,"
+                                + "\"ratio\":1.5,\"email_verified\":true,\"note\":null,"
+                                + "\"address\":{\"country\":\"jp\"},\"mixed\":[\"a\",1]}");
+
+        assertEquals("1", claims.getString("acr"));
+        assertEquals(Arrays.asList("pwd", "otp"), claims.getStringList("amr"));
+        assertEquals(Long.valueOf(1410437541), claims.getLong("auth_time"));
+        assertEquals(new BigDecimal("1.5"), claims.get("ratio"));
+        assertEquals(Long.valueOf(1), claims.getLong("ratio"));
+        assertEquals(Boolean.TRUE, claims.getBoolean("email_verified"));
+        assertEquals("jp", claims.getObject("address").getString("country"));
+        assertEquals(Collections.singletonList("1"), claims.getStringList("acr"));
+        assertNull(claims.getStringList("mixed"));
+        assertEquals(8, claims.size());
+    }
+
+    @Test
+    public void testMissingAndMismatchedClaimsReturnNull() {
+        JsonClaims claims = read("{\"acr\":\"1\",\"note\":null}");
+
+        assertFalse(claims.contains("amr"));
+        assertNull(claims.get("amr"));
+        assertNull(claims.getString("amr"));
+        assertNull(claims.getLong("acr"));
+        assertNull(claims.getBoolean("acr"));
+        assertNull(claims.getObject("acr"));
+
+        assertTrue(claims.contains("note"));
+        assertNull(claims.get("note"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testListsAreReadOnly() {
+        List<String> amr = read("{\"amr\":[\"pwd\"]}").getStringList("amr");
+        amr.add("otp");
+    }
+
+    @Test
+    public void testDuplicateNamePrefersLast() {
+        assertEquals("2", read("{\"acr\":\"1\",\"acr\":\"2\"}").getString("acr"));
+    }
+
+    @Test
+    public void testNamesKeepOrder() {
+        JsonClaims claims = read("{\"b\":1,\"a\":2,\"c\":3}");
+
+        assertEquals(Arrays.asList("b", "a", "c"), Arrays.asList(claims.names().toArray()));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(JsonClaims.EMPTY, read("{}"));
+        assertEquals(0, JsonClaims.EMPTY.size());
+        assertEquals("{}", JsonClaims.EMPTY.toString());
+    }
+
+    private static JsonClaims read(String json) {
+        JsonParser parser = Json.createParser(new StringReader(json));
+        try {
+            parser.next();
+            return JsonStreams.readObject(parser);
+        } finally {
+            parser.close();
+        }
+    }
+}
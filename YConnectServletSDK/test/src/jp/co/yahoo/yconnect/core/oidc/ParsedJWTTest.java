@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import org.junit.Test;
+
+/**
+ * ParsedJWT Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class ParsedJWTTest {
+
+    private static final String HEADER = "{\"typ\":\"JWT\",\"alg\":\"RS256\",\"kid\":\"kid\"}";
+    private static final String PAYLOAD = "{\"iss\":\"iss\",\"sub\":\"ユーザー\"}";
+    private static final byte[] SIGNATURE = {0x01, 0x02, (byte) 0xfe, (byte) 0xff};
+
+    @Test
+    public void testParse() throws Exception {
+        String encodedHeader = encode(HEADER.getBytes(StandardCharsets.UTF_8));
+        String encodedPayload = encode(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        String encodedSignature = encode(SIGNATURE);
+        String jwt = encodedHeader + "." + encodedPayload + "." + encodedSignature;
+
+        ParsedJWT parsedJWT = ParsedJWT.parse(jwt);
+
+        assertEquals(jwt, parsedJWT.getJwtString());
+        assertEquals(encodedHeader, parsedJWT.getEncodedHeader());
+        assertEquals(encodedPayload, parsedJWT.getEncodedPayload());
+        assertEquals(encodedSignature, parsedJWT.getEncodedSignature());
+        assertEquals(HEADER, parsedJWT.getHeaderJson());
+        assertEquals(PAYLOAD, parsedJWT.getPayloadJson());
+        assertArrayEquals(SIGNATURE, parsedJWT.getSignature());
+        assertArrayEquals(
+                (encodedHeader + "." + encodedPayload).getBytes(StandardCharsets.UTF_8),
+                parsedJWT.getSigningInput());
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testParseEmpty() throws Exception {
+        ParsedJWT.parse("");
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testParseTwoSegments() throws Exception {
+        ParsedJWT.parse("header.payload");
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testParseEmptySignature() throws Exception {
+        ParsedJWT.parse("header.payload.");
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testParseFourSegments() throws Exception {
+        ParsedJWT.parse("header.payload.signature.extra");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testParseNull() throws Exception {
+        ParsedJWT.parse(null);
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
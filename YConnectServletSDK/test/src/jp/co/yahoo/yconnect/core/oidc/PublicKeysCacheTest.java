@@ -0,0 +1,267 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import org.junit.Test;
+
+public class PublicKeysCacheTest {
+
+    private static final String ENDPOINT = "https://auth.login.yahoo.co.jp/yconnect/v2/public-keys";
+
+    private static final long MIN_TTL = 60 * 1000L;
+
+    private static final long MAX_TTL = 24 * 60 * 60 * 1000L;
+
+    @Test
+    public void testGetReturnsCachedKeys() throws Exception {
+        TestCache cache = new TestCache();
+        CountingClient client = new CountingClient(new HttpHeaders());
+
+        PublicKeysObject first = cache.get(ENDPOINT, client);
+        PublicKeysObject second = cache.get(ENDPOINT, client);
+
+        assertSame(first, second);
+        assertEquals(1, client.fetchCount);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testGetRefetchesAfterMaxAge() throws Exception {
+        TestCache cache = new TestCache();
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("Cache-Control", "public, max-age=3600");
+        CountingClient client = new CountingClient(headers);
+
+        PublicKeysObject first = cache.get(ENDPOINT, client);
+        cache.now += 3599 * 1000L;
+        assertSame(first, cache.get(ENDPOINT, client));
+
+        cache.now += 1000L;
+        assertNotSame(first, cache.get(ENDPOINT, client));
+        assertEquals(2, client.fetchCount);
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testComputeTtlFromCacheControl() {
+        TestCache cache = new TestCache();
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("cache-control", "max-age=7200");
+        headers.put("Age", "200");
+
+        assertEquals(7000 * 1000L, cache.computeTtl(headers, cache.now));
+    }
+
+    @Test
+    public void testComputeTtlFromExpires() {
+        TestCache cache = new TestCache();
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("Date", "Sun, 06 Nov 1994 08:49:37 GMT");
+        headers.put("Expires", "Sun, 06 Nov 1994 10:49:37 GMT");
+
+        assertEquals(2 * 60 * 60 * 1000L, cache.computeTtl(headers, cache.now));
+    }
+
+    @Test
+    public void testComputeTtlIsClamped() {
+        TestCache cache = new TestCache();
+
+        HttpHeaders noCache = new HttpHeaders();
+        noCache.put("Cache-Control", "no-cache");
+        assertEquals(MIN_TTL, cache.computeTtl(noCache, cache.now));
+
+        HttpHeaders longMaxAge = new HttpHeaders();
+        longMaxAge.put("Cache-Control", "max-age=31536000");
+        assertEquals(MAX_TTL, cache.computeTtl(longMaxAge, cache.now));
+
+        assertEquals(PublicKeysCache.DEFAULT_TTL, cache.computeTtl(new HttpHeaders(), cache.now));
+    }
+
+    @Test
+    public void testRefreshIsRateLimited() throws Exception {
+        TestCache cache = new TestCache();
+        CountingClient client = new CountingClient(new HttpHeaders());
+
+        PublicKeysObject first = cache.get(ENDPOINT, client);
+        assertSame(first, cache.refresh(ENDPOINT, client));
+        assertEquals(1, client.fetchCount);
+
+        cache.now += MIN_TTL;
+        assertNotSame(first, cache.refresh(ENDPOINT, client));
+        assertEquals(2, client.fetchCount);
+        assertEquals(1, cache.getRefreshCount());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        TestCache cache = new TestCache();
+        CountingClient client = new CountingClient(new HttpHeaders());
+
+        cache.get(ENDPOINT, client);
+        cache.clear();
+        cache.get(ENDPOINT, client);
+
+        assertEquals(2, client.fetchCount);
+    }
+
+    @Test
+    public void testConcurrentGetSharesOneFetch() throws Exception {
+        final TestCache cache = new TestCache();
+        final BlockingClient client = new BlockingClient();
+
+        final PublicKeysObject[] results = new PublicKeysObject[2];
+        Thread first = new Thread(() -> results[0] = getQuietly(cache, client));
+        first.start();
+        client.started.await();
+
+        Thread second = new Thread(() -> results[1] = getQuietly(cache, client));
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        client.release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, client.fetchCount.get());
+        assertSame(results[0], results[1]);
+    }
+
+    @Test
+    public void testGetReturnsExpiredKeysWhileFetching() throws Exception {
+        final TestCache cache = new TestCache();
+        HttpHeaders headers = new HttpHeaders();
+        headers.put("Cache-Control", "max-age=300");
+        PublicKeysObject expired = cache.get(ENDPOINT, new CountingClient(headers));
+        cache.now += 301 * 1000L;
+
+        final BlockingClient client = new BlockingClient();
+        final PublicKeysObject[] refreshed = new PublicKeysObject[1];
+        Thread fetching = new Thread(() -> refreshed[0] = getQuietly(cache, client));
+        fetching.start();
+        client.started.await();
+
+        assertSame(expired, cache.get(ENDPOINT, client));
+
+        client.release.countDown();
+        fetching.join();
+        assertNotSame(expired, refreshed[0]);
+        assertSame(refreshed[0], cache.get(ENDPOINT, client));
+        assertEquals(1, client.fetchCount.get());
+    }
+
+    private static PublicKeysObject getQuietly(PublicKeysCache cache, PublicKeysClient client) {
+        try {
+            return cache.get(ENDPOINT, client);
+        } catch (ApiClientException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TestCache extends PublicKeysCache {
+
+        private long now = 1000000000000L;
+
+        TestCache() {
+            super(MIN_TTL, MAX_TTL);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    private static class CountingClient extends PublicKeysClient {
+
+        private final HttpHeaders headers;
+
+        private PublicKeysObject publicKeysObject;
+
+        private int fetchCount = 0;
+
+        CountingClient(HttpHeaders headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public void fetchResource(String url) {
+            fetchCount++;
+            publicKeysObject = new PublicKeysObject();
+        }
+
+        @Override
+        public PublicKeysObject getPublicKeysObject() {
+            return publicKeysObject;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+
+    private static class BlockingClient extends PublicKeysClient {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger fetchCount = new AtomicInteger();
+
+        private volatile PublicKeysObject publicKeysObject;
+
+        @Override
+        public void fetchResource(String url) {
+            fetchCount.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            publicKeysObject = new PublicKeysObject();
+        }
+
+        @Override
+        public PublicKeysObject getPublicKeysObject() {
+            return publicKeysObject;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return new HttpHeaders();
+        }
+    }
+}
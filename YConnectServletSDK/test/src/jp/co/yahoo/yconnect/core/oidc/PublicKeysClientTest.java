@@ -26,16 +26,23 @@ package jp.co.yahoo.yconnect.core.oidc;
 
 import static org.junit.Assert.*;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.util.Base64;
+import javax.json.Json;
+import javax.json.JsonObject;
 import javax.json.stream.JsonParsingException;
 import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
 import jp.co.yahoo.yconnect.core.http.HttpHeaders;
 import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
 import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
+import jp.co.yahoo.yconnect.util.StubResponse;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -58,29 +65,53 @@ public class PublicKeysClientTest {
         YHttpClient httpClient =
                 new YHttpClient() {
                     @Override
-                    public void requestGet(
+                    public <T> YHttpResponse<T> requestGet(
                             String urlString,
                             HttpParameters parameters,
-                            HttpHeaders requestHeaders) {}
-
-                    @Override
-                    public int getStatusCode() {
-                        return 200;
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                "200 - OK",
+                                new HttpHeaders(),
+                                "{\"kid\":\"sample_public_key\"}");
                     }
+                };
 
+        PublicKeysClient client =
+                new PublicKeysClient() {
                     @Override
-                    public String getStatusMessage() {
-                        return "200 - OK";
+                    protected YHttpClient getYHttpClient() {
+                        return httpClient;
                     }
+                };
 
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return new HttpHeaders();
-                    }
+        client.fetchResource(endpoint);
+
+        assertNotNull(client.getPublicKeysObject());
+    }
 
+    @Test
+    public void testFetchResourceAsync() throws Exception {
+        YHttpClient httpClient =
+                new YHttpClient() {
                     @Override
-                    public String getResponseBody() {
-                        return "{\"kid\":\"sample_public_key\"}";
+                    public <T> YHttpResponse<T> requestGet(
+                            String urlString,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                "200 - OK",
+                                new HttpHeaders(),
+                                "{\"kid\":\"sample_public_key\"}");
                     }
                 };
 
@@ -92,9 +123,10 @@ public class PublicKeysClientTest {
                     }
                 };
 
-        client.fetchResource(endpoint);
+        PublicKeysObject publicKeysObject = client.fetchResourceAsync(endpoint).get();
 
-        assertNotNull(client.getPublicKeysObject());
+        assertNotNull(publicKeysObject);
+        assertEquals("sample_public_key", publicKeysObject.getPublicKeyString("kid"));
     }
 
     @Test
@@ -107,29 +139,15 @@ public class PublicKeysClientTest {
         YHttpClient httpClient =
                 new YHttpClient() {
                     @Override
-                    public void requestGet(
+                    public <T> YHttpResponse<T> requestGet(
                             String urlString,
                             HttpParameters parameters,
-                            HttpHeaders requestHeaders) {}
-
-                    @Override
-                    public int getStatusCode() {
-                        return responseCode;
-                    }
-
-                    @Override
-                    public String getStatusMessage() {
-                        return statusMessage;
-                    }
-
-                    @Override
-                    public HttpHeaders getResponseHeaders() {
-                        return headers;
-                    }
-
-                    @Override
-                    public String getResponseBody() {
-                        return responseBody;
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        return StubResponse.handle(
+                                handler, responseCode, statusMessage, headers, responseBody);
                     }
                 };
 
@@ -160,9 +178,9 @@ public class PublicKeysClientTest {
         PublicKeysClient client = new PublicKeysClient();
 
         Class<PublicKeysClient> c = PublicKeysClient.class;
-        Method parser = c.getDeclaredMethod("publicKeysParser", String.class);
+        Method parser = c.getDeclaredMethod("publicKeysParser", JsonObject.class);
         parser.setAccessible(true);
-        parser.invoke(client, json);
+        parser.invoke(client, Json.createReader(new StringReader(json)).readObject());
 
         PublicKeysObject publicKeys = client.getPublicKeysObject();
         assertNotNull(publicKeys.getPublicKey("kid1"));
@@ -174,15 +192,28 @@ public class PublicKeysClientTest {
     public void testInvalidPublicKeysParser() throws Exception {
         String json = "{" + "\"kid1\":\"" + publicKey + "\"," + "\"kid2\":\"" + publicKey + "\"";
 
-        PublicKeysClient client = new PublicKeysClient();
+        YHttpClient httpClient =
+                new YHttpClient() {
+                    @Override
+                    public <T> YHttpResponse<T> requestGet(
+                            String urlString,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        return StubResponse.handle(handler, 200, new HttpHeaders(), json);
+                    }
+                };
 
-        Class<PublicKeysClient> c = PublicKeysClient.class;
-        Method parser = c.getDeclaredMethod("publicKeysParser", String.class);
-        parser.setAccessible(true);
-        try {
-            parser.invoke(client, json);
-        } catch (InvocationTargetException ex) {
-            throw (Exception) ex.getCause();
-        }
+        PublicKeysClient client =
+                new PublicKeysClient() {
+                    @Override
+                    protected YHttpClient getYHttpClient() {
+                        return httpClient;
+                    }
+                };
+
+        client.fetchResource(endpoint);
     }
 }
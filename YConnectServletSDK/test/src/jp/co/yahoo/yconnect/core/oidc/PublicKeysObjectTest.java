@@ -24,8 +24,11 @@
 
 package jp.co.yahoo.yconnect.core.oidc;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
@@ -33,6 +36,8 @@ import java.security.KeyPairGenerator;
 import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -40,6 +45,7 @@ public class PublicKeysObjectTest {
 
     private static String publicKey;
     private static String packs8PublicKey;
+    private static String otherPublicKey;
 
     @BeforeClass
     public static void beforeAll() throws Exception {
@@ -48,6 +54,9 @@ public class PublicKeysObjectTest {
 
         KeyPair pair = keyPairGen.generateKeyPair();
         publicKey = Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+        otherPublicKey =
+                Base64.getEncoder()
+                        .encodeToString(keyPairGen.generateKeyPair().getPublic().getEncoded());
 
         packs8PublicKey = "-----BEGIN PUBLIC KEY-----\n";
         packs8PublicKey += publicKey.replaceAll("(?<=\\G.{75})(?!$)", "\n") + "\n";
@@ -72,6 +81,56 @@ public class PublicKeysObjectTest {
         assertNotNull(publicKey);
     }
 
+    @Test
+    public void testGetPublicKeyIsMemoized() throws Exception {
+        PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register("kid", packs8PublicKey);
+
+        PublicKey first = publicKeysObject.getPublicKey("kid");
+        assertSame(first, publicKeysObject.getPublicKey("kid"));
+        assertEquals(packs8PublicKey, publicKeysObject.getPublicKeyString("kid"));
+
+        publicKeysObject.register("kid", publicKey);
+        assertNotSame(first, publicKeysObject.getPublicKey("kid"));
+        assertEquals(publicKey, publicKeysObject.getPublicKeyString("kid"));
+    }
+
+    @Test
+    public void testRegisterDuringGetPublicKeyDoesNotKeepStaleKey() throws Exception {
+        final PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register("kid", publicKey);
+        PublicKey expected = parse(otherPublicKey);
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] =
+                    new Thread(
+                            () -> {
+                                try {
+                                    while (!done.get()) {
+                                        publicKeysObject.getPublicKey("kid");
+                                    }
+                                } catch (Throwable t) {
+                                    failure.set(t);
+                                }
+                            });
+            readers[i].start();
+        }
+        for (int i = 0; i < 200; i++) {
+            publicKeysObject.register("kid", i % 2 == 0 ? otherPublicKey : publicKey);
+        }
+        publicKeysObject.register("kid", otherPublicKey);
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(expected, publicKeysObject.getPublicKey("kid"));
+    }
+
     @Test
     public void testGetPublicKeyReturnsNull() throws Exception {
         PublicKeysObject publicKeysObject = new PublicKeysObject();
@@ -90,4 +149,10 @@ public class PublicKeysObjectTest {
 
         publicKeysObject.getPublicKey("kid");
     }
+
+    private static PublicKey parse(String publicKeyString) throws Exception {
+        PublicKeysObject publicKeysObject = new PublicKeysObject();
+        publicKeysObject.register("kid", publicKeyString);
+        return publicKeysObject.getPublicKey("kid");
+    }
 }
@@ -26,16 +26,88 @@ package jp.co.yahoo.yconnect.core.oidc;
 
 import static org.junit.Assert.*;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.StringReader;
+import jp.co.yahoo.yconnect.core.api.ApiClient;
+import jp.co.yahoo.yconnect.core.api.ApiClientException;
+import jp.co.yahoo.yconnect.core.http.Deadline;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.http.HttpParameters;
+import jp.co.yahoo.yconnect.core.http.HttpTimeouts;
+import jp.co.yahoo.yconnect.core.http.YHttpClient;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
+import jp.co.yahoo.yconnect.util.StubResponse;
 import org.junit.Test;
 
 public class UserInfoClientTest {
 
     @Test
-    public void testUserInfoParser()
-            throws SecurityException, NoSuchMethodException, IllegalArgumentException,
-                    IllegalAccessException, InvocationTargetException {
+    public void testFetchResource() throws ApiClientException {
+        YHttpClient httpClient =
+                new YHttpClient() {
+                    @Override
+                    public <T> YHttpResponse<T> requestGet(
+                            String urlString,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        assertEquals(OIDCScope.OPENID, parameters.get("schema"));
+                        return StubResponse.handle(
+                                handler,
+                                200,
+                                new HttpHeaders(),
+                                "{\"sub\":\"sample_sub\",\"name\":\"矢風太郎\"}");
+                    }
+                };
+
+        UserInfoClient client =
+                new UserInfoClient("accessTokenSample") {
+                    @Override
+                    protected YHttpClient newHttpClient() {
+                        return httpClient;
+                    }
+                };
+        client.fetchResource("https://example.com/userinfo", ApiClient.GET_METHOD);
+
+        assertEquals("sample_sub", client.getUserInfoObject().getSub());
+        assertEquals("矢風太郎", client.getUserInfoObject().getName());
+        assertNull(client.getResponse());
+    }
+
+    @Test
+    public void testFetchResourceThrowsApiClientException() {
+        YHttpClient httpClient =
+                new YHttpClient() {
+                    @Override
+                    public <T> YHttpResponse<T> requestGet(
+                            String urlString,
+                            HttpParameters parameters,
+                            HttpHeaders requestHeaders,
+                            HttpTimeouts timeouts,
+                            Deadline deadline,
+                            YHttpResponseHandler<T> handler) {
+                        // エラーレスポンスのボディはJSONとして解析しない
+                        return StubResponse.handle(handler, 401, new HttpHeaders(), "<html>");
+                    }
+                };
+
+        UserInfoClient client =
+                new UserInfoClient("accessTokenSample") {
+                    @Override
+                    protected YHttpClient newHttpClient() {
+                        return httpClient;
+                    }
+                };
+
+        assertThrows(
+                ApiClientException.class,
+                () -> client.fetchResource("https://example.com/userinfo", ApiClient.GET_METHOD));
+    }
+
+    @Test
+    public void testUserInfoParser() {
         String sub = "43M63NAGMHBAYMXRMY3WODOWS4";
         String name = "矢風太郎";
         String givenName = "太郎";
@@ -112,13 +184,7 @@ public class UserInfoClientTest {
                         + addressFormatted
                         + "\"}}";
 
-        UserInfoClient uic = new UserInfoClient("");
-
-        Class<UserInfoClient> c = UserInfoClient.class;
-        Method uip = c.getDeclaredMethod("userInfoParser", String.class);
-        uip.setAccessible(true);
-        uip.invoke(uic, json);
-        UserInfoObject uio = uic.getUserInfoObject();
+        UserInfoObject uio = UserInfoParser.parse(new StringReader(json));
 
         assertEquals(uio.getSub(), sub);
         assertEquals(uio.getName(), name);
@@ -141,9 +207,7 @@ public class UserInfoClientTest {
     }
 
     @Test
-    public void testUserInfoParserInvalid()
-            throws SecurityException, NoSuchMethodException, IllegalArgumentException,
-                    IllegalAccessException, InvocationTargetException {
+    public void testUserInfoParserInvalid() {
         final String json =
                 "{\"sub\":\"43M63NAGMHBAYMXRMY3WODOWS4\","
                         + "\"name\":\"矢風太郎\","
@@ -165,13 +229,7 @@ public class UserInfoClientTest {
                         + "\"country\":\"jp\","
                         + "\"formatted\":\"東京都港区\"}}";
 
-        UserInfoClient uic = new UserInfoClient("");
-
-        Class<UserInfoClient> c = UserInfoClient.class;
-        Method uip = c.getDeclaredMethod("userInfoParser", String.class);
-        uip.setAccessible(true);
-        uip.invoke(uic, json);
-        UserInfoObject uio = uic.getUserInfoObject();
+        UserInfoObject uio = UserInfoParser.parse(new StringReader(json));
 
         assertEquals(uio.getAdditionalValue("additional_attribute2"), "");
     }
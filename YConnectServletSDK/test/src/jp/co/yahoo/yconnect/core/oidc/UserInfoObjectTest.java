@@ -25,7 +25,20 @@
 package jp.co.yahoo.yconnect.core.oidc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.json.Json;
 import javax.json.JsonObject;
 import org.junit.Test;
@@ -140,4 +153,207 @@ public class UserInfoObjectTest {
         UserInfoObject uio = new UserInfoObject();
         assertEquals(uio.getAdditionalValue("invalid"), "");
     }
+
+    @Test
+    public void testTypedValues() {
+        UserInfoObject uio =
+                UserInfoParser.parse(
+                        new StringReader(
+                                "{\"sub\":\"sample_sub\",\"email_verified\":true,"
+                                        + "\"birthdate\":\"1990-04-01\"}"));
+
+        assertTrue(uio.isEmailVerified());
+        assertEquals("true", uio.getEmailVerified());
+        assertEquals("1990-04-01", uio.getBirthdate());
+        assertEquals("1990-04-01", uio.getAdditionalValue("birthdate"));
+        assertEquals(1990, uio.getBirthYear());
+        assertEquals(4, uio.getBirthMonth());
+        assertEquals(1, uio.getBirthDay());
+    }
+
+    @Test
+    public void testBirthdate() {
+        assertBirthdate("2000", 2000, 0, 0);
+        assertBirthdate("0000-12-31", 0, 12, 31);
+        // 数値で保持できない値はそのまま返却する
+        assertBirthdate("0000", 0, 0, 0);
+        assertBirthdate("2000-13-01", 0, 0, 0);
+        assertBirthdate("2000/01/01", 0, 0, 0);
+        assertBirthdate("２０００", 0, 0, 0);
+        assertBirthdate("", 0, 0, 0);
+    }
+
+    @Test
+    public void testSharedValues() {
+        String json = "{\"locale\":\"ja-JP\",\"zoneinfo\":\"Asia/Tokyo\",\"name\":\"矢風太郎\"}";
+        UserInfoObject uio1 = UserInfoParser.parse(new StringReader(json));
+        UserInfoObject uio2 = UserInfoParser.parse(new StringReader(json));
+
+        assertSame(uio1.getLocale(), uio2.getLocale());
+        assertSame(uio1.getZoneinfo(), uio2.getZoneinfo());
+        assertEquals(uio1.getName(), uio2.getName());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testSetters() {
+        UserInfoObject uio = new UserInfoObject("sample_sub");
+        uio.setPicture("https://dummy.img.yahoo.co.jp/example.png");
+        uio.setAddressCountry("jp");
+        uio.setName("矢風太郎");
+        uio.setBirthdate("2000");
+        uio.setEmailVerified("true");
+
+        assertEquals("sample_sub", uio.getSub());
+        assertEquals("https://dummy.img.yahoo.co.jp/example.png", uio.getPicture());
+        assertEquals("jp", uio.getAddressCountry());
+        assertEquals("矢風太郎", uio.getName());
+        assertEquals("2000", uio.getBirthdate());
+        assertTrue(uio.isEmailVerified());
+
+        uio.setName("矢風次郎");
+        uio.setPicture(null);
+        uio.setBirthdate("unknown");
+        uio.setEmailVerified("yes");
+
+        assertEquals("矢風次郎", uio.getName());
+        assertNull(uio.getPicture());
+        assertEquals("jp", uio.getAddressCountry());
+        assertEquals("unknown", uio.getBirthdate());
+        assertEquals(0, uio.getBirthYear());
+        assertEquals("yes", uio.getEmailVerified());
+        assertFalse(uio.isEmailVerified());
+
+        uio.setBirthdate(null);
+        uio.setEmailVerified(null);
+        uio.setPicture("https://dummy.img.yahoo.co.jp/example.png");
+
+        assertNull(uio.getBirthdate());
+        assertNull(uio.getEmailVerified());
+        assertFalse(uio.isEmailVerified());
+        assertEquals("https://dummy.img.yahoo.co.jp/example.png", uio.getPicture());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testConstructorWithNullSub() {
+        UserInfoObject uio = new UserInfoObject(null);
+
+        assertNull(uio.getSub());
+        assertEquals("", uio.getName());
+        assertEquals("false", uio.getEmailVerified());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testSettersDoNotChangeValuesSeenByReaders() throws Exception {
+        final UserInfoObject uio =
+                UserInfoParser.parse(
+                        new StringReader(
+                                "{\"sub\":\"sample_sub\",\"locale\":\"ja-JP\","
+                                        + "\"name\":\"矢風太郎\",\"picture\":\"sample_picture\"}"));
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Thread reader =
+                new Thread(
+                        () -> {
+                            try {
+                                while (!done.get()) {
+                                    assertEquals("sample_sub", uio.getSub());
+                                    assertEquals("矢風太郎", uio.getName());
+                                    assertEquals("sample_picture", uio.getPicture());
+                                }
+                            } catch (Throwable t) {
+                                failure.set(t);
+                            }
+                        });
+        reader.start();
+        // 前方のスロットを追加、削除して後方の値の位置をずらす
+        for (int i = 0; i < 100000 && failure.get() == null; i++) {
+            uio.setPpidSub(i % 2 == 0 ? "sample_ppid_sub" : null);
+            uio.setLocale(i % 3 == 0 ? null : "ja-JP");
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        UserInfoObject uio =
+                UserInfoParser.parse(
+                        new StringReader(
+                                "{\"sub\":\"sample_sub\",\"locale\":\"ja-JP\",\"name\":\"矢風太郎\","
+                                        + "\"email_verified\":true,\"birthdate\":\"2000\","
+                                        + "\"roles\":[\"a\",\"b\"],"
+                                        + "\"profile\":{\"team\":{\"name\":\"yconnect\"}},"
+                                        + "\"address\":{\"region\":\"東京都\",\"street\":\"赤坂\"}}"));
+
+        UserInfoObject deserialized = deserialize(serialize(uio));
+
+        assertEquals(uio.toString(), deserialized.toString());
+        assertEquals("sample_sub", deserialized.getSub());
+        assertEquals("矢風太郎", deserialized.getName());
+        assertEquals("東京都", deserialized.getAddressRegion());
+        assertEquals("", deserialized.getEmail());
+        assertTrue(deserialized.isEmailVerified());
+        assertEquals(2000, deserialized.getBirthYear());
+        assertSame(uio.getLocale(), deserialized.getLocale());
+        assertEquals(Arrays.asList("a", "b"), deserialized.getAdditionalValues().get("roles"));
+        assertEquals("yconnect", deserialized.getAdditionalValue("profile/team/name"));
+        assertEquals("赤坂", deserialized.getAdditionalValue("address/street"));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testSerializeNullValues() throws Exception {
+        UserInfoObject uio = new UserInfoObject("sample_sub");
+        uio.setName(null);
+        uio.setBirthdate(null);
+        uio.setEmailVerified("yes");
+
+        UserInfoObject deserialized = deserialize(serialize(uio));
+
+        assertEquals("sample_sub", deserialized.getSub());
+        assertNull(deserialized.getName());
+        assertNull(deserialized.getBirthdate());
+        assertEquals("", deserialized.getEmail());
+        assertEquals("yes", deserialized.getEmailVerified());
+
+        uio.setEmailVerified(null);
+        assertNull(deserialize(serialize(uio)).getEmailVerified());
+    }
+
+    @Test
+    public void testSerializeEmpty() throws Exception {
+        UserInfoObject deserialized = deserialize(serialize(new UserInfoObject()));
+
+        assertEquals("", deserialized.getSub());
+        assertFalse(deserialized.isEmailVerified());
+        assertTrue(deserialized.getAdditionalValues().isEmpty());
+    }
+
+    private static void assertBirthdate(String birthdate, int year, int month, int day) {
+        UserInfoObject uio =
+                UserInfoParser.parse(new StringReader("{\"birthdate\":\"" + birthdate + "\"}"));
+        assertEquals(birthdate, uio.getBirthdate());
+        assertEquals(year, uio.getBirthYear());
+        assertEquals(month, uio.getBirthMonth());
+        assertEquals(day, uio.getBirthDay());
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static UserInfoObject deserialize(byte[] bytes) throws Exception {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        return (UserInfoObject) in.readObject();
+    }
 }
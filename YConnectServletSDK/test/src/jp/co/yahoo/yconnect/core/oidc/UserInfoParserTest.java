@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.json.stream.JsonParsingException;
+import org.junit.Test;
+
+/**
+ * UserInfoParser Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class UserInfoParserTest {
+
+    @Test
+    public void testParseWithoutSub() {
+        UserInfoObject userInfo =
+                UserInfoParser.parse(new StringReader("{\"name\":\"矢風太郎\",\"locale\":\"ja-JP\"}"));
+
+        assertEquals("", userInfo.getSub());
+        assertEquals("矢風太郎", userInfo.getName());
+        assertEquals("ja-JP", userInfo.getLocale());
+    }
+
+    @Test
+    public void testParseStream() {
+        String json = "{\"sub\":\"sample_sub\",\"zoneinfo\":\"Asia/Tokyo\"}";
+
+        UserInfoObject userInfo =
+                UserInfoParser.parse(
+                        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                        StandardCharsets.UTF_8);
+
+        assertEquals("sample_sub", userInfo.getSub());
+        assertEquals("Asia/Tokyo", userInfo.getZoneinfo());
+        assertTrue(userInfo.getAdditionalValues().isEmpty());
+    }
+
+    @Test
+    public void testUnknownClaimsGoToAdditionalValues() {
+        UserInfoObject userInfo =
+                UserInfoParser.parse(
+                        new StringReader(
+                                "{\"sub\":\"sample_sub\",\"custom\":\"value\",\"level\":3,"
+                                        + "\"roles\":[\"a\",\"b\"],"
+                                        + "\"profile\":{\"team\":{\"name\":\"yconnect\"}},"
+                                        + "\"address\":{\"country\":\"jp\",\"street\":\"赤坂\"}}"));
+
+        assertEquals("value", userInfo.getAdditionalValue("custom"));
+        assertEquals(Long.valueOf(3), userInfo.getAdditionalValues().get("level"));
+        assertEquals(Arrays.asList("a", "b"), userInfo.getAdditionalValues().get("roles"));
+        assertEquals("yconnect", userInfo.getAdditionalValue("profile/team/name"));
+        assertEquals("", userInfo.getAdditionalValue("profile/team/unknown"));
+        assertEquals("jp", userInfo.getAddressCountry());
+        assertEquals("jp", userInfo.getAdditionalValue("address/country"));
+        assertEquals("赤坂", userInfo.getAdditionalValue("address/street"));
+        assertEquals("sample_sub", userInfo.getAdditionalValue("sub"));
+        assertEquals(5, userInfo.getAdditionalValues().size());
+    }
+
+    @Test
+    public void testMismatchedTypes() {
+        UserInfoObject userInfo =
+                UserInfoParser.parse(
+                        new StringReader(
+                                "{\"sub\":\"sample_sub\",\"email_verified\":\"true\","
+                                        + "\"nickname\":null,\"address\":null}"));
+
+        assertEquals("false", userInfo.getEmailVerified());
+        assertEquals("true", userInfo.getAdditionalValues().get("email_verified"));
+        assertEquals("", userInfo.getNickname());
+        assertTrue(userInfo.getAdditionalValues().containsKey("nickname"));
+        assertNull(userInfo.getAdditionalValues().get("address"));
+        assertEquals("", userInfo.getAdditionalValue("nickname"));
+    }
+
+    @Test
+    public void testEmailVerified() {
+        assertEquals(
+                "true",
+                UserInfoParser.parse(new StringReader("{\"email_verified\":true}"))
+                        .getEmailVerified());
+        assertEquals(
+                Collections.emptyMap(),
+                UserInfoParser.parse(new StringReader("{\"email_verified\":false}"))
+                        .getAdditionalValues());
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testInvalidJson() {
+        UserInfoParser.parse(new StringReader("{\"sub\":"));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.oidc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.Test;
+
+public class VerifiedIdTokenCacheTest {
+
+    private static class TestCache extends VerifiedIdTokenCache {
+
+        long now = 0L;
+
+        TestCache(int maxEntries) {
+            super(maxEntries);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    private static IdTokenObject idTokenObject(long exp) {
+        IdTokenObject idTokenObject = new IdTokenObject();
+        idTokenObject.setSub("USER_PPID");
+        idTokenObject.setAud(new ArrayList<>(Collections.singletonList("APPLICATION_ID")));
+        idTokenObject.setExp(exp);
+        return idTokenObject;
+    }
+
+    @Test
+    public void testPutAndGet() {
+        TestCache cache = new TestCache(10);
+        IdTokenObject idTokenObject = idTokenObject(100L);
+
+        cache.put("header.payload.signature", idTokenObject);
+
+        IdTokenObject cached = cache.get("header.payload.signature");
+        assertNotSame(idTokenObject, cached);
+        assertEquals("USER_PPID", cached.getSub());
+        assertEquals(100L, cached.getExp());
+        assertNull(cache.get("header.payload.other"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testCallersDoNotShareInstances() {
+        TestCache cache = new TestCache(10);
+        IdTokenObject idTokenObject = idTokenObject(100L);
+        cache.put("header.payload.signature", idTokenObject);
+
+        // 登録後の変更はキャッシュに影響しない
+        idTokenObject.setSub("CHANGED");
+        idTokenObject.getAud().add("OTHER");
+        IdTokenObject first = cache.get("header.payload.signature");
+        assertEquals("USER_PPID", first.getSub());
+
+        // 取得した複製の変更は他の呼び出し元に影響しない
+        first.setSub("CHANGED");
+        first.getAud().clear();
+        IdTokenObject second = cache.get("header.payload.signature");
+        assertNotSame(first, second);
+        assertEquals("USER_PPID", second.getSub());
+        assertEquals(Collections.singletonList("APPLICATION_ID"), second.getAud());
+    }
+
+    @Test
+    public void testExpiresAtExp() {
+        TestCache cache = new TestCache(10);
+        cache.put("header.payload.signature", idTokenObject(100L));
+
+        cache.now = 99999L;
+        assertNotNull(cache.get("header.payload.signature"));
+
+        cache.now = 100000L;
+        assertNull(cache.get("header.payload.signature"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiresAtAcceptableRangeFromIat() {
+        TestCache cache = new TestCache(10);
+        IdTokenObject idTokenObject = idTokenObject(3600L);
+        idTokenObject.setIat(0L);
+        cache.put("header.payload.signature", idTokenObject, 30L);
+
+        cache.now = 629999L;
+        assertNotNull(cache.get("header.payload.signature"));
+
+        // expより前でも、iatからの許容範囲を過ぎたものは破棄する
+        cache.now = 630000L;
+        assertNull(cache.get("header.payload.signature"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotCached() {
+        TestCache cache = new TestCache(10);
+        cache.now = 100000L;
+
+        cache.put("header.payload.signature", idTokenObject(100L));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        TestCache cache = new TestCache(2);
+        cache.put("a", idTokenObject(100L));
+        cache.put("b", idTokenObject(100L));
+        cache.get("a");
+
+        cache.put("c", idTokenObject(100L));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testClear() {
+        TestCache cache = new TestCache(10);
+        cache.put("a", idTokenObject(100L));
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> new VerifiedIdTokenCache(0));
+    }
+}
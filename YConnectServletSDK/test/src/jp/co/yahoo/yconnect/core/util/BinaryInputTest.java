@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.zip.DataFormatException;
+import org.junit.Test;
+
+/**
+ * BinaryInput Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class BinaryInputTest {
+
+    @Test
+    public void testRange() throws Exception {
+        BinaryInput in = new BinaryInput(new byte[] {9, 1, 2, 9}, 1, 2);
+
+        assertEquals(2, in.remaining());
+        assertEquals(1, in.readByte());
+        assertEquals(2, in.readByte());
+        assertEquals(0, in.remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        new BinaryInput(new byte[2], 1, 2);
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testEndOfData() throws Exception {
+        new BinaryInput(new byte[0]).readByte();
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testTruncatedVarInt() throws Exception {
+        new BinaryInput(new byte[] {(byte) 0x80}).readVarInt();
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testVarIntOverflow() throws Exception {
+        new BinaryInput(new byte[] {-1, -1, -1, -1, 0x0F}).readVarInt();
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testVarLongOverflow() throws Exception {
+        new BinaryInput(new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, -1, 0x03}).readVarLong();
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testInvalidBoolean() throws Exception {
+        new BinaryInput(new byte[] {2}).readBoolean();
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testStringLengthExceedsData() throws Exception {
+        new BinaryInput(new byte[] {5, 'a', 'b'}).readString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jp.co.yahoo.yconnect.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+/**
+ * BinaryOutput Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class BinaryOutputTest {
+
+    @Test
+    public void testVarInt() throws Exception {
+        int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE};
+        BinaryOutput out = new BinaryOutput(16);
+        for (int value : values) {
+            out.writeVarInt(value);
+        }
+
+        BinaryInput in = new BinaryInput(out.toByteArray());
+        for (int value : values) {
+            assertEquals(value, in.readVarInt());
+        }
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    public void testVarIntLength() {
+        BinaryOutput out = new BinaryOutput();
+        out.writeVarInt(127);
+        assertEquals(1, out.size());
+        out.writeVarInt(128);
+        assertEquals(3, out.size());
+    }
+
+    @Test
+    public void testVarLong() throws Exception {
+        long[] values = {
+            0, 1, -1, 63, -64, 64, 1410437540L, 1410437540000L, Long.MAX_VALUE, Long.MIN_VALUE
+        };
+        BinaryOutput out = new BinaryOutput(16);
+        for (long value : values) {
+            out.writeVarLong(value);
+        }
+
+        BinaryInput in = new BinaryInput(out.toByteArray());
+        for (long value : values) {
+            assertEquals(value, in.readVarLong());
+        }
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    public void testVarLongLength() {
+        BinaryOutput out = new BinaryOutput();
+        out.writeVarLong(-64);
+        assertEquals(1, out.size());
+        // エポック秒は5バイト
+        out.writeVarLong(1410437540L);
+        assertEquals(6, out.size());
+    }
+
+    @Test
+    public void testString() throws Exception {
+        String[] values = {"", "access_token", "矢風太郎", "😀", "ja-JP/東京都"};
+        BinaryOutput out = new BinaryOutput(16);
+        for (String value : values) {
+            out.writeString(value);
+        }
+
+        BinaryInput in = new BinaryInput(out.toByteArray());
+        for (String value : values) {
+            assertEquals(value, in.readString());
+        }
+        assertEquals(0, in.remaining());
+    }
+
+    @Test
+    public void testStringIsUtf8() {
+        BinaryOutput out = new BinaryOutput();
+        out.writeString("太郎");
+
+        byte[] utf8 = "太郎".getBytes(StandardCharsets.UTF_8);
+        byte[] expected = new byte[utf8.length + 1];
+        expected[0] = (byte) utf8.length;
+        System.arraycopy(utf8, 0, expected, 1, utf8.length);
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testByteAndBoolean() throws Exception {
+        BinaryOutput out = new BinaryOutput();
+        out.writeByte(0xFF);
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+
+        BinaryInput in = new BinaryInput(out.toByteArray());
+        assertEquals(0xFF, in.readByte());
+        assertTrue(in.readBoolean());
+        assertFalse(in.readBoolean());
+    }
+
+    @Test
+    public void testGrow() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("あa");
+        }
+        BinaryOutput out = new BinaryOutput(16);
+        out.writeString(sb.toString());
+        out.writeVarLong(Long.MIN_VALUE);
+
+        BinaryInput in = new BinaryInput(out.toByteArray());
+        assertEquals(sb.toString(), in.readString());
+        assertEquals(Long.MIN_VALUE, in.readVarLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeVarInt() {
+        new BinaryOutput().writeVarInt(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullString() {
+        new BinaryOutput().writeString(null);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+
+/**
+ * CryptoPrimitives Test Case
+ *
+ * @author Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ */
+public class CryptoPrimitivesTest {
+
+    @Test
+    public void testSha256() {
+        byte[] data = "access_token".getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(DigestUtils.sha256(data), CryptoPrimitives.sha256(data));
+        assertArrayEquals(DigestUtils.sha256(data), CryptoPrimitives.sha256(data));
+    }
+
+    @Test
+    public void testSha256String() {
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            longValue.append((char) ('a' + i % 26));
+        }
+        String[] values = {"", "access_token", longValue.toString(), "ascii_日本語_😀", "日本語"};
+
+        for (String value : values) {
+            assertArrayEquals(
+                    DigestUtils.sha256(value.getBytes(StandardCharsets.UTF_8)),
+                    CryptoPrimitives.sha256(value));
+        }
+    }
+
+    @Test
+    public void testVerifySha256WithRsa() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        KeyPair otherKeyPair = generator.generateKeyPair();
+        byte[] data = "header.payload".getBytes(StandardCharsets.US_ASCII);
+
+        Signature signer = Signature.getInstance("SHA256withRSA");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(data);
+        byte[] signature = signer.sign();
+
+        assertTrue(CryptoPrimitives.verifySha256WithRsa(keyPair.getPublic(), data, signature));
+        assertFalse(
+                CryptoPrimitives.verifySha256WithRsa(otherKeyPair.getPublic(), data, signature));
+        assertFalse(
+                CryptoPrimitives.verifySha256WithRsa(
+                        keyPair.getPublic(),
+                        "header.other".getBytes(StandardCharsets.US_ASCII),
+                        signature));
+        // 失敗した検証の状態が次の検証に残らないこと
+        assertTrue(CryptoPrimitives.verifySha256WithRsa(keyPair.getPublic(), data, signature));
+    }
+
+    @Test
+    public void testSha256IsThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String value = "code_verifier_" + i;
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    byte[] expected =
+                                            DigestUtils.sha256(
+                                                    value.getBytes(StandardCharsets.UTF_8));
+                                    for (int j = 0; j < 100; j++) {
+                                        if (!Arrays.equals(
+                                                expected, CryptoPrimitives.sha256(value))) {
+                                            return false;
+                                        }
+                                    }
+                                    return true;
+                                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
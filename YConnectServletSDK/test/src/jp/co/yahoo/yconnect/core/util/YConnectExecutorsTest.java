@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class YConnectExecutorsTest {
+
+    @After
+    public void afterEach() {
+        YConnectExecutors.configureDefault(YConnectExecutors.DEFAULT_POOL_SIZE);
+    }
+
+    @Test
+    public void testGetDefaultReturnsSameInstance() {
+        assertSame(YConnectExecutors.getDefault(), YConnectExecutors.getDefault());
+    }
+
+    @Test
+    public void testThreadsAreDaemon() throws Exception {
+        Callable<Boolean> isDaemon = () -> Thread.currentThread().isDaemon();
+        assertTrue(YConnectExecutors.getDefault().submit(isDaemon).get());
+    }
+
+    @Test
+    public void testScheduledExecutorThreadsAreDaemon() throws Exception {
+        ScheduledExecutorService executor = YConnectExecutors.newScheduledExecutor(1);
+        try {
+            Callable<Boolean> isDaemon = () -> Thread.currentThread().isDaemon();
+            assertTrue(executor.schedule(isDaemon, 1, TimeUnit.MILLISECONDS).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConfigureDefaultRecreatesExecutor() {
+        ExecutorService before = YConnectExecutors.getDefault();
+        YConnectExecutors.configureDefault(2);
+        ExecutorService after = YConnectExecutors.getDefault();
+
+        assertNotSame(before, after);
+        assertTrue(before.isShutdown());
+        assertFalse(after.isShutdown());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureDefaultRejectsNonPositivePoolSize() {
+        YConnectExecutors.configureDefault(0);
+    }
+}
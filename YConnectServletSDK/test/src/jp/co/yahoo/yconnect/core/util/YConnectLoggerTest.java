@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Test;
+
+public class YConnectLoggerTest {
+
+    private static final String TAG = "YConnectLoggerTest";
+
+    @Test
+    public void testFormat() {
+        assertEquals(
+                "responseCode: 200 (java.lang.String)",
+                YConnectLogger.format(TAG, "responseCode: {}", 1, 200L, null, null));
+    }
+
+    @Test
+    public void testFormatMultipleArguments() {
+        assertEquals(
+                "error=invalid, error_description=desc, error_code=1000 (java.lang.String)",
+                YConnectLogger.format(
+                        TAG,
+                        "error={}, error_description={}, error_code={}",
+                        3,
+                        "invalid",
+                        "desc",
+                        1000));
+    }
+
+    @Test
+    public void testFormatNullArgument() {
+        assertEquals(
+                "Response Uri: null (java.lang.String)",
+                YConnectLogger.format(TAG, "Response Uri: {}", 1, null, null, null));
+    }
+
+    @Test
+    public void testFormatMorePlaceholdersThanArguments() {
+        assertEquals(
+                "a=1, b={} (java.lang.String)",
+                YConnectLogger.format(TAG, "a={}, b={}", 1, 1, null, null));
+    }
+
+    @Test
+    public void testFormatFewerPlaceholdersThanArguments() {
+        assertEquals("a=1 (java.lang.String)", YConnectLogger.format(TAG, "a={}", 2, 1, 2, null));
+    }
+
+    @Test
+    public void testFormatCallerClassName() {
+        assertEquals(
+                "message (" + YConnectLoggerTest.class.getName() + ")",
+                YConnectLogger.format(this, "message", 0, null, null, null));
+    }
+
+    @Test
+    public void testStopWatching() throws Exception {
+        File conf = File.createTempFile("yconnect_log_conf", ".xml");
+        Files.write(
+                conf.toPath(),
+                "<log4j:configuration xmlns:log4j=\"http://jakarta.apache.org/log4j/\"/>"
+                        .getBytes(StandardCharsets.UTF_8));
+        try {
+            YConnectLogger.configureAndWatch(conf.getPath(), 60000L);
+            assertTrue(YConnectLogger.isWatching());
+
+            YConnectLogger.stopWatching();
+            assertFalse(YConnectLogger.isWatching());
+        } finally {
+            YConnectLogger.stopWatching();
+            conf.delete();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (C) 2021 Yahoo Japan Corporation. All Rights Reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package jp.co.yahoo.yconnect.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import jp.co.yahoo.yconnect.core.http.HttpHeaders;
+import jp.co.yahoo.yconnect.core.http.YHttpResponse;
+import jp.co.yahoo.yconnect.core.http.YHttpResponseHandler;
+
+public class StubResponse {
+
+    private StubResponse() {}
+
+    public static <T> YHttpResponse<T> handle(
+            YHttpResponseHandler<T> handler, int statusCode, HttpHeaders headers, String body) {
+        return handle(handler, statusCode, "", headers, body);
+    }
+
+    public static <T> YHttpResponse<T> handle(
+            YHttpResponseHandler<T> handler,
+            int statusCode,
+            String statusMessage,
+            HttpHeaders headers,
+            String body) {
+        try {
+            T result =
+                    handler.handleResponse(
+                            statusCode,
+                            headers,
+                            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                            StandardCharsets.UTF_8);
+            return new YHttpResponse<>(statusCode, statusMessage, headers, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}